@@ -12,8 +12,12 @@
 package org.eclipse.scanning.api.annotation.scan;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -22,8 +26,8 @@ import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.scanning.api.IServiceResolver;
 import org.eclipse.scanning.api.event.EventException;
@@ -42,8 +46,10 @@ import org.slf4j.LoggerFactory;
  * to be injected into the method.
  *
  * If attemps to parse all the reflection stuff up-front so that a call
- * to invoke(...) during the scan can be as efficiently despatched using
- * method.invoke(...) as possible.
+ * to invoke(...) during the scan can be as efficiently despatched as possible.
+ * Each method is bound to a MethodHandle when the device is added and the
+ * argument position of each type of context is worked out the first time
+ * that type is seen, so dispatching a point does not allocate.
  *
  * This class could be made into a general purpose annotation parsing
  * and method calling class once tested.
@@ -231,83 +237,110 @@ public class AnnotationManager {
 
 	private class MethodWrapper {
 
-		private Object          instance;
-		private Method          method;
-		private List<Class<?>>  argClasses;
-		private Object[]        arguments; // Must be object[] for speed and is not variable
+		private final Object                 instance;
+		private final Method                 method;
+		private final MethodHandle           handle;    // Takes the arguments as one Object[], null if reflection must be used
+		private final List<Class<?>>         argClasses;
+		private final Map<Class<?>, Integer> slots;     // Argument index of each context class, -1 if it is not injected
+		private final Object[]               arguments; // Must be object[] for speed and is not variable
 
 		MethodWrapper(final Class<? extends Annotation> aclass, Object instance, Method method) throws IllegalArgumentException {
 			this.instance = instance;
 			this.method   = method;
 
 			final Class<?>[] args = method.getParameterTypes();
-			this.argClasses = args!=null?Arrays.asList(args):null;
+			this.argClasses = Arrays.asList(args);
+			this.slots      = new ConcurrentHashMap<>(7);
 
-			if (argClasses!=null) {
-				final Set<?> unique = new HashSet<>(argClasses);
+			final Set<?> unique = new HashSet<>(argClasses);
 
-				/**
-				 * We do not allow duplications in the classes list because a given service or
-				 * information object should be required once. Type is used to determine argument
-				 * position as well, therefore duplicates do not work with the current alg.
-				 */
-			    if (unique.size()!=argClasses.size()) throw new IllegalArgumentException("Duplicated types are not allowed in injected methods!\n"
+			/**
+			 * We do not allow duplications in the classes list because a given service or
+			 * information object should be required once. Type is used to determine argument
+			 * position as well, therefore duplicates do not work with the current alg.
+			 */
+			if (unique.size()!=argClasses.size()) throw new IllegalArgumentException("Duplicated types are not allowed in injected methods!\n"
 					+ "Your annotation of @"+aclass.getSimpleName()+" sits over a method '"+method.getName()+"' on class '"+instance.getClass().getSimpleName()+"' with duplicated types!\n"
-				    + "More than one of any given type is not allowed. Have you seen '"+ScanInformation.class.getSimpleName()+"' class, which can be used to provide various metrics about the scan?");
-			}
+					+ "More than one of any given type is not allowed. Have you seen '"+ScanInformation.class.getSimpleName()+"' class, which can be used to provide various metrics about the scan?");
 
-			if (args!=null) {
-				this.arguments= new Object[args.length];
-				for (int i = 0; i < args.length; i++) {
-					if (args[i] == IPosition.class) continue;
-				    // Find OSGi service for it, if any.
-					try {
-						arguments[i] = getService(args[i]);
-					} catch (Exception ne) {
-						continue;
-					}
+			this.arguments= new Object[args.length];
+			for (int i = 0; i < args.length; i++) {
+				if (args[i] == IPosition.class) continue;
+				// Find OSGi service for it, if any.
+				try {
+					arguments[i] = getService(args[i]);
+				} catch (Exception ne) {
+					continue;
 				}
 			}
+			this.handle = createHandle();
 		}
 
-		public void invoke(Object... objects) throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+		/**
+		 * The handle is bound to the instance and spreads the arguments array so
+		 * that each call is as fast as a direct call and does not box or copy.
+		 * @return handle or null if the method cannot be made accessible.
+		 */
+		private MethodHandle createHandle() {
+			try {
+				method.setAccessible(true); // Devices are not always public classes.
+				MethodHandle mh = MethodHandles.lookup().unreflect(method);
+				if (!Modifier.isStatic(method.getModifiers())) mh = mh.bindTo(instance);
+				return mh.asSpreader(Object[].class, arguments.length).asType(MethodType.methodType(void.class, Object[].class));
+			} catch (IllegalAccessException | SecurityException ne) {
+				logger.debug("Cannot make a method handle for {}, reflection will be used.", method, ne);
+				return null;
+			}
+		}
 
-			if (arguments!=null) { // Put the context into the args (if there are any)
+		public void invoke(Object... objects) throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
 
-				List<Object> context = getContext(objects);
-				for (int i = 0; i < context.size(); i++) {
+			if (arguments.length>0) { // Put the context into the args (if there are any)
+				if (extraContext!=null) for (Object object : extraContext) inject(object);
+				if (objects!=null) for (Object object : objects) {
+					if (object != null) inject(object);
+				}
+			}
+			if (handle==null) {
+				method.invoke(instance, arguments);
+				return;
+			}
+			try {
+				handle.invokeExact(arguments);
+			} catch (Throwable ne) {
+				// Same as Method.invoke(...) for the callers.
+				throw new InvocationTargetException(ne);
+			}
+		}
 
-				    final Collection<Class<?>> classes = getCachedClasses(context.get(i));
+		private void inject(Object object) {
+			final int index = getSlot(object.getClass());
+			if (index > -1) arguments[index] = object;
+		}
 
-				    // Find the first class in classes which is in argClasses
-				    // NOTE this is why duplicates are not supported, type of argument used to map to injected class.
-			Optional<Class<?>> contained = classes.stream().filter(x -> argClasses.contains(x)).findFirst();
-			if (contained.isPresent()) {
-			    final int index = argClasses.indexOf(contained.get());
-			    arguments[index] = context.get(i);
-                    }
-				}
-				boolean accessible = method.isAccessible();
-				try {
-					method.setAccessible(true);
-					method.invoke(instance, arguments);
-				} finally {
-					method.setAccessible(accessible);
+		/**
+		 * The argument index is worked out once for each class of context.
+		 */
+		private int getSlot(Class<?> clazz) {
+			Integer index = slots.get(clazz);
+			if (index == null) {
+				index = -1;
+				// Find the first class in classes which is in argClasses
+				// NOTE this is why duplicates are not supported, type of argument used to map to injected class.
+				for (Class<?> c : getCachedClasses(clazz)) {
+					if (argClasses.contains(c)) {
+						index = argClasses.indexOf(c);
+						break;
+					}
 				}
-			} else {
-				method.invoke(instance);
+				slots.put(clazz, index);
 			}
+			return index;
 		}
 	}
 
-	/**
-	 * TODO Cache for speed?
-	 * @param object
-	 * @return
-	 */
-	private Collection<Class<?>> getCachedClasses(Object object) {
+	private Collection<Class<?>> getCachedClasses(Class<?> clazz) {
 
-		final Class<?> clazz = object.getClass();
 		if (cachedClasses.containsKey(clazz)) return cachedClasses.get(clazz);
 
 		final Collection<Class<?>> classes = new HashSet<>();
@@ -36,7 +36,9 @@ import org.eclipse.scanning.api.event.scan.DeviceInformation;
 import org.eclipse.scanning.api.event.scan.DeviceState;
 import org.eclipse.scanning.api.event.scan.ScanBean;
 import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.MapPosition;
 import org.eclipse.scanning.api.scan.PositionEvent;
+import org.eclipse.scanning.api.scan.ScanMetrics;
 import org.eclipse.scanning.api.scan.ScanningException;
 import org.eclipse.scanning.api.scan.event.IPositionListenable;
 import org.eclipse.scanning.api.scan.event.IPositionListener;
@@ -260,7 +262,7 @@ public abstract class AbstractRunnableDevice<T> implements IRunnableEventDevice<
 			long currentTime = System.currentTimeMillis();
 			if (lastPositionTime>-1) {
 				long time = currentTime-lastPositionTime;
-				System.out.println("Point "+count+" timed at "+time+" ms");
+				logger.debug("Point {} timed at {} ms", count, time);
 				total+=time;
 			}
 			lastPositionTime = currentTime;
@@ -269,7 +271,7 @@ public abstract class AbstractRunnableDevice<T> implements IRunnableEventDevice<
 
 		final ScanBean bean = getBean();
 		bean.setPoint(count);
-		bean.setPosition(pos);
+		bean.setPosition(MapPosition.copyOf(pos));
 		bean.setPreviousDeviceState(bean.getDeviceState());
 		if (size>-1) bean.setPercentComplete(((double)(count)/size)*100);
 		if (bean.getDeviceState()==DeviceState.RUNNING) { // Only set this message if we are still running.
@@ -377,9 +379,9 @@ public abstract class AbstractRunnableDevice<T> implements IRunnableEventDevice<
 
 		if (isRequireMetrics()) {
 			long time = System.currentTimeMillis()-startTime;
-			System.out.println("Ran "+(position.getStepIndex()+1)+" points in *total* time of "+time+" ms.");
+			logger.info("Ran {} points in *total* time of {} ms.", position.getStepIndex()+1, time);
 			if (position.getStepIndex()>0) {
-				System.out.println("Average point time of "+(total/position.getStepIndex())+" ms/pnt");
+				logger.info("Average point time of {} ms/pnt", total/position.getStepIndex());
 			}
 		}
 
@@ -682,6 +684,13 @@ public abstract class AbstractRunnableDevice<T> implements IRunnableEventDevice<
 		this.configureTime = configureTime;
 	}
 
+	/**
+	 * @return the time taken by the phases of the points run, or null if the device does not record them.
+	 */
+	public ScanMetrics getScanMetrics() {
+		return null;
+	}
+
 	@Override
 	public String toString() {
 		return getClass().getName() + '@' + Integer.toHexString(hashCode()) +" [name=" + name + "]";
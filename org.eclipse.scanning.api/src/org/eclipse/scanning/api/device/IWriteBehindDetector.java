@@ -0,0 +1,60 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.device;
+
+import java.util.List;
+
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.scan.ScanningException;
+
+/**
+ * A writable detector which can be run again before the data of
+ * the last point has been written.
+ *
+ * The scan calls {@link #readout(IPosition)} straight after each run and
+ * the data returned is written later, by another thread, in the order that
+ * the points were run. Several points may be given to one call of
+ * {@link #write(List, List)} if the writer has fallen behind, which allows
+ * the detector to write them as one slice.
+ *
+ * Write behind is only used if the system property
+ * <code>org.eclipse.scanning.sequencer.write.depth</code> is more than one,
+ * otherwise {@link #write(IPosition)} is called after each point as normal.
+ *
+ * @author Matthew Gerring
+ *
+ * @param <T> Class of model required by detector to configure it.
+ */
+public interface IWriteBehindDetector<T> extends IWritableDetector<T> {
+
+	/**
+	 * Called after the detector has run at the position. The data returned
+	 * must not be changed by later runs of the detector.
+	 *
+	 * @param position
+	 * @return the data of the point, passed back to {@link #write(List, List)}
+	 * @throws ScanningException
+	 */
+	Object readout(IPosition position) throws ScanningException;
+
+	/**
+	 * Writes the data of one or more points, in the order they were run.
+	 *
+	 * @param positions
+	 * @param data from {@link #readout(IPosition)} for each position
+	 * @return true for a successful write. If false the write performed events will not be fired.
+	 * @throws ScanningException
+	 * @throws InterruptedException
+	 */
+	boolean write(List<IPosition> positions, List<Object> data) throws ScanningException, InterruptedException;
+
+}
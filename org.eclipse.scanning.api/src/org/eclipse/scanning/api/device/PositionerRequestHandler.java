@@ -13,8 +13,8 @@ package org.eclipse.scanning.api.device;
 
 import java.lang.ref.Reference;
 import java.lang.ref.SoftReference;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.scanning.api.event.EventException;
 import org.eclipse.scanning.api.event.core.IPublisher;
@@ -26,7 +26,8 @@ import org.eclipse.scanning.api.scan.event.IPositioner;
 
 public class PositionerRequestHandler implements IRequestHandler<PositionerRequest>{
 
-	private static Map<String, Reference<IPositioner>> positioners;
+	// The requests of different positioners may be processed at the same time.
+	private static final Map<String, Reference<IPositioner>> positioners = new ConcurrentHashMap<>();
 
 	private IRunnableDeviceService        dservice;
 	private PositionerRequest             bean;
@@ -39,7 +40,6 @@ public class PositionerRequestHandler implements IRequestHandler<PositionerReque
 		this.dservice    = dservice;
 		this.bean        = bean;
 		this.publisher   = statusNotifier;
-		if (positioners==null) positioners = new HashMap<>();
 	}
 
 	@Override
@@ -67,6 +67,7 @@ public class PositionerRequestHandler implements IRequestHandler<PositionerReque
 			}
 			// Return the current position.
 			request.setPosition(positioner.getPosition());
+			request.setErrorMessage(null); // The request may be the error response to the last one.
 			return request;
 
 		} catch(ScanningException | InterruptedException ne) {
@@ -76,11 +77,13 @@ public class PositionerRequestHandler implements IRequestHandler<PositionerReque
 
 	private IPositioner getPositioner(PositionerRequest request) throws ScanningException {
 		final String id = request.getUniqueId();
-		if (positioners.containsKey(id) && positioners.get(id).get()!=null) {
-			return positioners.get(id).get();
+		final Reference<IPositioner> ref = positioners.get(id);
+		IPositioner positioner = ref!=null ? ref.get() : null;
+		if (positioner!=null) {
+			return positioner;
 		}
 
-		IPositioner positioner = dservice.createPositioner();
+		positioner = dservice.createPositioner();
 		positioners.put(request.getUniqueId(), new SoftReference<IPositioner>(positioner));
 		return positioner;
 	}
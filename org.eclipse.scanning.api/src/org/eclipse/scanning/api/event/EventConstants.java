@@ -30,6 +30,19 @@ public interface EventConstants {
      */
 	public static final String STATUS_TOPIC      = "org.eclipse.scanning.status.topic";
 
+	/**
+	 * The default topic used for the lightweight progress of a running scan,
+	 * see ScanProgressBean. Only used if the sequencer is asked to send progress
+	 * this way rather than sending the whole scan bean at each point.
+	 */
+	public static final String SCAN_PROGRESS_TOPIC = "org.eclipse.scanning.scan.progress.topic";
+
+	/**
+	 * The default topic used for the time taken by the phases of the points
+	 * of a running scan, see ScanMetricsBean.
+	 */
+	public static final String SCAN_METRICS_TOPIC = "org.eclipse.scanning.scan.metrics.topic";
+
 	/**
 	 * The default topic used for heartbeat events.
      * It is usually better to use your own topic rather than the default.
@@ -59,6 +72,23 @@ public interface EventConstants {
 	 */
 	public static final String STATUS_SET = "org.eclipse.scanning.status.set";
 
+	/**
+	 * The queue in which a consumer which has taken the beans of a submission queue
+	 * into its own journaled queue leaves a message, so that clients send their
+	 * SubmissionRequests to it rather than reading the broker. This queue is generally used internally.
+	 */
+	public static final String SUBMISSION_OWNER_SET = "org.eclipse.scanning.submission.owner.set";
+
+	/**
+	 * The topic used for SubmissionRequests, the name of the submission queue is appended.
+	 */
+	public static final String SUBMISSION_REQUEST_TOPIC = "org.eclipse.scanning.request.submission.topic";
+
+	/**
+	 * The topic used for responses to SubmissionRequests, the name of the submission queue is appended.
+	 */
+	public static final String SUBMISSION_RESPONSE_TOPIC = "org.eclipse.scanning.response.submission.topic";
+
 	/**
 	 * Topic used to tell UI users that a give consumer will be going down.
      * It is usually better to use your own topic rather than the default.
@@ -12,6 +12,7 @@
 package org.eclipse.scanning.api.event;
 
 import java.net.URI;
+import java.util.Collection;
 
 /**
  * Clients do not need to consume this service, it is provided by a bundle in the
@@ -41,6 +42,73 @@ public interface IEventConnectorService {
 	 */
 	<U> U unmarshal(String anyObject, Class<U> beanClass) throws Exception;
 
+	/**
+	 * Unmarshals the json leaving out the properties with the given names, in
+	 * any object of the json. For instance a subscriber which only needs the
+	 * status of a ScanBean may leave out 'scanRequest', so that the classes of
+	 * the models it holds do not need to be on the classpath. Connectors which
+	 * cannot leave properties out unmarshal all of them.
+	 *
+	 * @param json
+	 * @param beanClass
+	 * @param excludedProperties may be null
+	 * @return
+	 */
+	default <U> U unmarshal(String json, Class<U> beanClass, Collection<String> excludedProperties) throws Exception {
+		return unmarshal(json, beanClass);
+	}
+
+	/**
+	 * The name of the binary encoding made by {@link #marshalBinary(Object)},
+	 * for instance to tag a BytesMessage with so that receivers know how to
+	 * read it. Connectors which only marshal to json return null, the default.
+	 * The binary encoding may be smaller than json but need not be quicker to
+	 * make or read, a connector may make it from the json.
+	 *
+	 * @return the encoding or null
+	 */
+	default String getBinaryEncoding() {
+		return null;
+	}
+
+	/**
+	 * Marshals the object to the binary encoding of this service. Only called
+	 * if {@link #getBinaryEncoding()} is not null.
+	 *
+	 * @param anyObject
+	 * @return
+	 */
+	default byte[] marshalBinary(Object anyObject) throws Exception {
+		throw new UnsupportedOperationException(getClass().getSimpleName()+" only marshals to json");
+	}
+
+	/**
+	 * Unmarshals bytes made by {@link #marshalBinary(Object)} leaving out the
+	 * properties with the given names, in the same way as {@link #unmarshal(String, Class, Collection)}
+	 *
+	 * @param bytes
+	 * @param beanClass
+	 * @param excludedProperties may be null
+	 * @return
+	 */
+	default <U> U unmarshalBinary(byte[] bytes, Class<U> beanClass, Collection<String> excludedProperties) throws Exception {
+		throw new UnsupportedOperationException(getClass().getSimpleName()+" only unmarshals json");
+	}
+
+	/**
+	 * The number of consumers of the topic on the broker, if the broker can
+	 * tell without making the topic. For instance a publisher in the same JVM
+	 * as the broker need not send an event which no other process will read.
+	 * Connectors which cannot tell return -1, the default.
+	 *
+	 * @param uri
+	 * @param topicName
+	 * @return the number of consumers or -1 if it is not known
+	 */
+	default int getConsumerCount(URI uri, String topicName) {
+		return -1;
+	}
+
 	/**
 	 * Create a connection factory for sending events. This method
 	 * may return null or a class implementing javax.jms.ConnectionFactory
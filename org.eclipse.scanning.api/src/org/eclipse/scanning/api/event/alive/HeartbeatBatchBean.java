@@ -0,0 +1,90 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.event.alive;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The heartbeats of the consumers of one JVM sent together as one message.
+ * The host, beamline and publish time are those of the batch and are sent
+ * once for all of them. It is a heartbeat itself so that listeners to
+ * heartbeats can read it.
+ *
+ * Subscribers pass each heartbeat to their listeners as if it had been
+ * sent alone, see {@link #toHeartbeats()}.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class HeartbeatBatchBean extends HeartbeatBean {
+
+	private List<HeartbeatBean> beats;
+
+	public HeartbeatBatchBean() {
+		beats = new ArrayList<>();
+	}
+
+	public List<HeartbeatBean> getBeats() {
+		return beats;
+	}
+
+	public void setBeats(List<HeartbeatBean> beats) {
+		this.beats = beats;
+	}
+
+	public void addBeat(HeartbeatBean beat) {
+		beats.add(beat);
+	}
+
+	/**
+	 * @return the heartbeats, each with the host, beamline and publish time of the batch.
+	 */
+	public List<HeartbeatBean> toHeartbeats() {
+		for (HeartbeatBean beat : beats) {
+			if (beat.getHostName()==null) beat.setHostName(getHostName());
+			if (beat.getBeamline()==null) beat.setBeamline(getBeamline());
+			if (beat.getPublishTime()==0) beat.setPublishTime(getPublishTime());
+		}
+		return beats;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = super.hashCode();
+		result = prime * result + ((beats == null) ? 0 : beats.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!super.equals(obj))
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		HeartbeatBatchBean other = (HeartbeatBatchBean) obj;
+		if (beats == null) {
+			if (other.beats != null)
+				return false;
+		} else if (!beats.equals(other.beats))
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "HeartbeatBatchBean [hostName=" + getHostName() + ", publishTime=" + getPublishTime() + ", beats=" + (beats==null ? 0 : beats.size()) + "]";
+	}
+}
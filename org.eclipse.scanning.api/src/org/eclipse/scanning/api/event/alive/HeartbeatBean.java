@@ -45,6 +45,11 @@ public class HeartbeatBean extends ConsumerCommandBean {
 
 	private String hostName;
 
+	/**
+	 * The number of processes the consumer is running.
+	 */
+	private int runningCount;
+
 	public long getConceptionTime() {
 		return conceptionTime;
 	}
@@ -80,6 +85,7 @@ public class HeartbeatBean extends ConsumerCommandBean {
 		result = prime * result + ((hostName == null) ? 0 : hostName.hashCode());
 		result = prime * result + (int) (lastAlive ^ (lastAlive >>> 32));
 		result = prime * result + (int) (publishTime ^ (publishTime >>> 32));
+		result = prime * result + runningCount;
 		return result;
 	}
 
@@ -115,6 +121,8 @@ public class HeartbeatBean extends ConsumerCommandBean {
 			return false;
 		if (publishTime != other.publishTime)
 			return false;
+		if (runningCount != other.runningCount)
+			return false;
 		return true;
 	}
 
@@ -157,6 +165,14 @@ public class HeartbeatBean extends ConsumerCommandBean {
 		this.hostName = hostName;
 	}
 
+	public int getRunningCount() {
+		return runningCount;
+	}
+
+	public void setRunningCount(int runningCount) {
+		this.runningCount = runningCount;
+	}
+
 	public boolean equalsIgnoreLastAlive(HeartbeatBean obj) {
 
 		if (!super.equals(obj)) return false;
@@ -187,6 +203,8 @@ public class HeartbeatBean extends ConsumerCommandBean {
 				return false;
 		} else if (!hostName.equals(other.hostName))
 			return false;
+		if (runningCount != other.runningCount)
+			return false;
 		return true;
 	}
 
@@ -134,6 +134,14 @@ public interface IConsumer<T> extends IQueueConnection<T> {
 		return ConsumerStatus.ALIVE;
 	}
 
+	/**
+	 *
+	 * @return the number of processes which the consumer has started and which have not finished.
+	 */
+	default int getRunningCount() {
+		return 0;
+	}
+
 	public String getName();
 	public void setName(String name);
 
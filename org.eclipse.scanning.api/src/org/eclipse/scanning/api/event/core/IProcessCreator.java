@@ -11,6 +11,8 @@
  *******************************************************************************/
 package org.eclipse.scanning.api.event.core;
 
+import java.util.Collection;
+
 import org.eclipse.scanning.api.event.EventException;
 
 /**
@@ -24,4 +26,17 @@ import org.eclipse.scanning.api.event.EventException;
 public interface IProcessCreator<T> {
 
 	IConsumerProcess<T> createProcess(T bean, IPublisher<T> statusNotifier) throws EventException;
+
+	/**
+	 * The names of the devices, for instance detectors, scannables and malcolm devices,
+	 * which the process for the bean uses. A consumer which runs more than one
+	 * process at a time does not start a process while another is using any of
+	 * the same devices. Called after {@link #createProcess(Object, IPublisher)}.
+	 *
+	 * @param bean
+	 * @return the names, or null if the process may use anything, in which case it runs on its own.
+	 */
+	default Collection<String> getResources(T bean) {
+		return null;
+	}
 }
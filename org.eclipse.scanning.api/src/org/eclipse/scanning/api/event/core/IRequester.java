@@ -11,6 +11,8 @@
  *******************************************************************************/
 package org.eclipse.scanning.api.event.core;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.scanning.api.event.EventException;
@@ -98,4 +100,26 @@ public interface IRequester<T extends IdBean> extends IRequestResponseConnection
 	 */
 	T post(T request, ResponseConfiguration.ResponseWaiter waiter) throws EventException, InterruptedException;
 
+	/**
+	 * Sends the request and returns without waiting for the response. The future
+	 * completes with the request, merged with the response(s), or exceptionally
+	 * with an {@link EventException} if the timeout of the response configuration
+	 * is reached without a response. Many requests may be in flight at once.
+	 *
+	 * The default implementation calls {@link #post(IdBean)} on another thread.
+	 *
+	 * @param request
+	 * @return
+	 * @throws EventException if the request cannot be sent
+	 */
+	default CompletableFuture<T> postAsync(T request) throws EventException {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return post(request);
+			} catch (Exception ne) {
+				throw new CompletionException(ne);
+			}
+		});
+	}
+
 }
@@ -38,4 +38,26 @@ public interface IResponder<T extends IdBean> extends IRequestResponseConnection
 	 */
 	void setResponseCreator(IResponseCreator<T> responder) throws EventException;
 
+	/**
+	 * @return the number of requests received and not yet processed, always
+	 * 0 if the response creator is synchronous.
+	 */
+	default int getQueueDepth() {
+		return 0;
+	}
+
+	/**
+	 * @return the largest number of requests waiting to be processed since the responder was connected.
+	 */
+	default int getPeakQueueDepth() {
+		return 0;
+	}
+
+	/**
+	 * @return the number of requests dropped because they waited too long to be processed.
+	 */
+	default long getTimedOutCount() {
+		return 0;
+	}
+
 }
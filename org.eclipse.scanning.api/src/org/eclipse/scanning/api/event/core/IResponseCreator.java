@@ -34,4 +34,32 @@ public interface IResponseCreator<T extends IdBean> {
 	default boolean isSynchronous() {
 		return true;
 	}
+
+	/**
+	 * Used if the responder is not synchronous. Requests with the same key,
+	 * for instance the name of the device they are for, are processed one at
+	 * a time in the order they arrive. Requests with different keys may be
+	 * processed at the same time.
+	 *
+	 * @param bean
+	 * @return the key or null if the request may be processed at the same time as any other.
+	 */
+	default Object getKey(T bean) {
+		return null;
+	}
+
+	/**
+	 * The response sent if the request could not be processed, for instance
+	 * because processing it failed or took longer than the responder allows.
+	 * It must have the unique id of the request so that the requester reads
+	 * it rather than waiting until it times out. Only sent if the responder
+	 * is not synchronous.
+	 *
+	 * @param bean the request
+	 * @param message why it was not processed
+	 * @return the response or null to send nothing, the default.
+	 */
+	default T createErrorResponse(T bean, String message) {
+		return null;
+	}
 }
@@ -11,6 +11,9 @@
  *******************************************************************************/
 package org.eclipse.scanning.api.event.dry;
 
+import java.util.Collection;
+import java.util.Collections;
+
 import org.eclipse.scanning.api.event.core.IConsumerProcess;
 import org.eclipse.scanning.api.event.core.IProcessCreator;
 import org.eclipse.scanning.api.event.core.IPublisher;
@@ -34,6 +37,14 @@ public class DryRunCreator<T extends StatusBean> implements IProcessCreator<T> {
 		return new DryRunProcess<T>(bean, statusNotifier, blocking);
 	}
 
+	/**
+	 * A dry run does not use any devices so may run alongside anything.
+	 */
+	@Override
+	public Collection<String> getResources(T bean) {
+		return Collections.emptyList();
+	}
+
 	public boolean isBlocking() {
 		return blocking;
 	}
@@ -0,0 +1,178 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.event.scan;
+
+import java.io.Serializable;
+
+import org.eclipse.scanning.api.scan.LatencyHistogram;
+
+/**
+ * The statistics of the time taken by one phase of the points
+ * of a scan so far. All times are in milliseconds.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class PhaseStatistics implements Serializable {
+
+	private static final long serialVersionUID = 6305164327196386420L;
+
+	private static final double NANOS_PER_MS = 1e6;
+
+	private String name;
+	private long   count;
+	private double total;
+	private double mean;
+	private double min;
+	private double p50;
+	private double p90;
+	private double p99;
+	private double max;
+
+	public PhaseStatistics() {
+
+	}
+
+	/**
+	 * @param name of the phase
+	 * @param histogram of the times of the phase in nanoseconds
+	 */
+	public PhaseStatistics(String name, LatencyHistogram histogram) {
+		this.name  = name;
+		this.count = histogram.getCount();
+		this.total = histogram.getTotal()/NANOS_PER_MS;
+		this.mean  = histogram.getMean()/NANOS_PER_MS;
+		this.min   = histogram.getMin()/NANOS_PER_MS;
+		this.p50   = histogram.getValueAtPercentile(50)/NANOS_PER_MS;
+		this.p90   = histogram.getValueAtPercentile(90)/NANOS_PER_MS;
+		this.p99   = histogram.getValueAtPercentile(99)/NANOS_PER_MS;
+		this.max   = histogram.getMax()/NANOS_PER_MS;
+	}
+
+	public String getName() {
+		return name;
+	}
+	public void setName(String name) {
+		this.name = name;
+	}
+	public long getCount() {
+		return count;
+	}
+	public void setCount(long count) {
+		this.count = count;
+	}
+	public double getTotal() {
+		return total;
+	}
+	public void setTotal(double total) {
+		this.total = total;
+	}
+	public double getMean() {
+		return mean;
+	}
+	public void setMean(double mean) {
+		this.mean = mean;
+	}
+	public double getMin() {
+		return min;
+	}
+	public void setMin(double min) {
+		this.min = min;
+	}
+	public double getP50() {
+		return p50;
+	}
+	public void setP50(double p50) {
+		this.p50 = p50;
+	}
+	public double getP90() {
+		return p90;
+	}
+	public void setP90(double p90) {
+		this.p90 = p90;
+	}
+	public double getP99() {
+		return p99;
+	}
+	public void setP99(double p99) {
+		this.p99 = p99;
+	}
+	public double getMax() {
+		return max;
+	}
+	public void setMax(double max) {
+		this.max = max;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + (int) (count ^ (count >>> 32));
+		long temp;
+		temp = Double.doubleToLongBits(max);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		temp = Double.doubleToLongBits(mean);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		temp = Double.doubleToLongBits(min);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		result = prime * result + ((name == null) ? 0 : name.hashCode());
+		temp = Double.doubleToLongBits(p50);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		temp = Double.doubleToLongBits(p90);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		temp = Double.doubleToLongBits(p99);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		temp = Double.doubleToLongBits(total);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		PhaseStatistics other = (PhaseStatistics) obj;
+		if (count != other.count)
+			return false;
+		if (Double.doubleToLongBits(max) != Double.doubleToLongBits(other.max))
+			return false;
+		if (Double.doubleToLongBits(mean) != Double.doubleToLongBits(other.mean))
+			return false;
+		if (Double.doubleToLongBits(min) != Double.doubleToLongBits(other.min))
+			return false;
+		if (name == null) {
+			if (other.name != null)
+				return false;
+		} else if (!name.equals(other.name))
+			return false;
+		if (Double.doubleToLongBits(p50) != Double.doubleToLongBits(other.p50))
+			return false;
+		if (Double.doubleToLongBits(p90) != Double.doubleToLongBits(other.p90))
+			return false;
+		if (Double.doubleToLongBits(p99) != Double.doubleToLongBits(other.p99))
+			return false;
+		if (Double.doubleToLongBits(total) != Double.doubleToLongBits(other.total))
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "PhaseStatistics [name=" + name + ", count=" + count + ", total=" + total + ", mean=" + mean
+				+ ", min=" + min + ", p50=" + p50 + ", p90=" + p90 + ", p99=" + p99 + ", max=" + max + "]";
+	}
+}
@@ -11,6 +11,7 @@
  *******************************************************************************/
 package org.eclipse.scanning.api.event.scan;
 
+import org.eclipse.scanning.api.event.EventException;
 import org.eclipse.scanning.api.event.IdBean;
 import org.eclipse.scanning.api.points.IPosition;
 
@@ -26,6 +27,8 @@ public class PositionerRequest extends IdBean {
 
 	private IPosition position;
 
+	private String errorMessage;
+
 	public IPosition getPosition() {
 		return position;
 	}
@@ -44,4 +47,23 @@ public class PositionerRequest extends IdBean {
 	public void setPositionType(PositionRequestType positionType) {
 		this.positionType = positionType;
 	}
+
+
+	public String getErrorMessage() {
+		return errorMessage;
+	}
+
+
+	public void setErrorMessage(String errorMessage) {
+		this.errorMessage = errorMessage;
+	}
+
+	/**
+	 * Checks if this request contains an error message and throws an exception if it does,
+	 * does nothing otherwise
+	 * @throws EventException if the request failed
+	 */
+	public void checkException() throws EventException {
+		if (errorMessage != null) throw new EventException(errorMessage);
+	}
 }
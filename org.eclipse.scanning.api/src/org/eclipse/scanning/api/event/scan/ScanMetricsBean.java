@@ -0,0 +1,109 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.event.scan;
+
+import java.util.List;
+
+import org.eclipse.scanning.api.event.IdBean;
+import org.eclipse.scanning.api.scan.ScanMetrics;
+
+/**
+ * The time taken by the phases of the points of a running scan so far, sent
+ * from time to time while the scan runs and once when it ends.
+ * <p>
+ * The unique id is that of the {@link ScanBean} of the scan.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class ScanMetricsBean extends IdBean {
+
+	private static final long serialVersionUID = 4391618377023725218L;
+
+	private String                deviceName;
+	private int                   point;
+	private List<PhaseStatistics> phases;
+
+	public ScanMetricsBean() {
+		super();
+	}
+
+	/**
+	 * @param bean of the scan
+	 * @param metrics of the scan
+	 */
+	public ScanMetricsBean(ScanBean bean, ScanMetrics metrics) {
+		setUniqueId(bean.getUniqueId());
+		this.deviceName = bean.getDeviceName();
+		this.point      = bean.getPoint();
+		this.phases     = metrics.getStatistics();
+	}
+
+	public String getDeviceName() {
+		return deviceName;
+	}
+	public void setDeviceName(String deviceName) {
+		this.deviceName = deviceName;
+	}
+	public int getPoint() {
+		return point;
+	}
+	public void setPoint(int point) {
+		this.point = point;
+	}
+	public List<PhaseStatistics> getPhases() {
+		return phases;
+	}
+	public void setPhases(List<PhaseStatistics> phases) {
+		this.phases = phases;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = super.hashCode();
+		result = prime * result + ((deviceName == null) ? 0 : deviceName.hashCode());
+		result = prime * result + ((phases == null) ? 0 : phases.hashCode());
+		result = prime * result + point;
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!super.equals(obj))
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ScanMetricsBean other = (ScanMetricsBean) obj;
+		if (deviceName == null) {
+			if (other.deviceName != null)
+				return false;
+		} else if (!deviceName.equals(other.deviceName))
+			return false;
+		if (phases == null) {
+			if (other.phases != null)
+				return false;
+		} else if (!phases.equals(other.phases))
+			return false;
+		if (point != other.point)
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "ScanMetricsBean [deviceName=" + deviceName + ", point=" + point + ", phases=" + phases
+				+ ", uniqueId=" + getUniqueId() + "]";
+	}
+}
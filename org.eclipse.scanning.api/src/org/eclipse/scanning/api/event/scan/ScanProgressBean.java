@@ -0,0 +1,172 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.event.scan;
+
+import org.eclipse.scanning.api.event.IdBean;
+import org.eclipse.scanning.api.event.status.Status;
+import org.eclipse.scanning.api.points.IPosition;
+
+/**
+ * A small message giving the progress of a running scan. It carries
+ * only the parts of a {@link ScanBean} which change from point to
+ * point, not the scan request, so it is cheap to send at high rates.
+ * <p>
+ * The unique id is that of the {@link ScanBean} of the scan. Clients
+ * which need the rest of the scan information should read the full
+ * bean when the state of the scan changes.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class ScanProgressBean extends IdBean {
+
+	private static final long serialVersionUID = -2271489311452063917L;
+
+	private String      deviceName;
+	private int         point;
+	private int         size;
+	private double      percentComplete;
+	private IPosition   position;
+	private DeviceState deviceState;
+	private Status      status;
+	private String      message;
+
+	public ScanProgressBean() {
+		super();
+	}
+
+	/**
+	 * Creates the progress of a scan from its bean.
+	 * @param bean
+	 */
+	public ScanProgressBean(ScanBean bean) {
+		setUniqueId(bean.getUniqueId());
+		this.deviceName      = bean.getDeviceName();
+		this.point           = bean.getPoint();
+		this.size            = bean.getSize();
+		this.percentComplete = bean.getPercentComplete();
+		this.position        = bean.getPosition();
+		this.deviceState     = bean.getDeviceState();
+		this.status          = bean.getStatus();
+		this.message         = bean.getMessage();
+	}
+
+	public String getDeviceName() {
+		return deviceName;
+	}
+	public void setDeviceName(String deviceName) {
+		this.deviceName = deviceName;
+	}
+	public int getPoint() {
+		return point;
+	}
+	public void setPoint(int point) {
+		this.point = point;
+	}
+	public int getSize() {
+		return size;
+	}
+	public void setSize(int size) {
+		this.size = size;
+	}
+	public double getPercentComplete() {
+		return percentComplete;
+	}
+	public void setPercentComplete(double percentComplete) {
+		this.percentComplete = percentComplete;
+	}
+	public IPosition getPosition() {
+		return position;
+	}
+	public void setPosition(IPosition position) {
+		this.position = position;
+	}
+	public DeviceState getDeviceState() {
+		return deviceState;
+	}
+	public void setDeviceState(DeviceState deviceState) {
+		this.deviceState = deviceState;
+	}
+	public Status getStatus() {
+		return status;
+	}
+	public void setStatus(Status status) {
+		this.status = status;
+	}
+	public String getMessage() {
+		return message;
+	}
+	public void setMessage(String message) {
+		this.message = message;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = super.hashCode();
+		result = prime * result + ((deviceName == null) ? 0 : deviceName.hashCode());
+		result = prime * result + ((deviceState == null) ? 0 : deviceState.hashCode());
+		result = prime * result + ((message == null) ? 0 : message.hashCode());
+		long temp;
+		temp = Double.doubleToLongBits(percentComplete);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		result = prime * result + point;
+		result = prime * result + ((position == null) ? 0 : position.hashCode());
+		result = prime * result + size;
+		result = prime * result + ((status == null) ? 0 : status.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!super.equals(obj))
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ScanProgressBean other = (ScanProgressBean) obj;
+		if (deviceName == null) {
+			if (other.deviceName != null)
+				return false;
+		} else if (!deviceName.equals(other.deviceName))
+			return false;
+		if (deviceState != other.deviceState)
+			return false;
+		if (message == null) {
+			if (other.message != null)
+				return false;
+		} else if (!message.equals(other.message))
+			return false;
+		if (Double.doubleToLongBits(percentComplete) != Double.doubleToLongBits(other.percentComplete))
+			return false;
+		if (point != other.point)
+			return false;
+		if (position == null) {
+			if (other.position != null)
+				return false;
+		} else if (!position.equals(other.position))
+			return false;
+		if (size != other.size)
+			return false;
+		if (status != other.status)
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "ScanProgressBean [deviceName=" + deviceName + ", point=" + point + ", size=" + size
+				+ ", percentComplete=" + percentComplete + ", position=" + position + ", deviceState=" + deviceState
+				+ ", status=" + status + ", message=" + message + ", uniqueId=" + getUniqueId() + "]";
+	}
+}
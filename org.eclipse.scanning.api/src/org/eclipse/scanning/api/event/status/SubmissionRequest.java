@@ -0,0 +1,108 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.event.status;
+
+import java.util.List;
+
+import org.eclipse.scanning.api.event.IdBean;
+
+/**
+ * A request to read or change the submission queue of a consumer which
+ * has taken the submitted beans from the broker into its own queue. The
+ * consumer fills in the queue or the result and sends the request back.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class SubmissionRequest extends IdBean {
+
+	/**
+	 *
+	 */
+	private static final long serialVersionUID = 2017041201L;
+
+	private SubmissionRequestType requestType = SubmissionRequestType.QUEUE;
+	private String                queueName;
+	private String                fieldName;
+	private StatusBean            bean;
+	private int                   amount;
+
+	// Values filled in by the response
+	private List<StatusBean>      queue;
+	private boolean               result;
+	private String                errorMessage;
+
+	public SubmissionRequest() {
+		super();
+	}
+
+	public SubmissionRequest(SubmissionRequestType requestType, String queueName) {
+		this();
+		this.requestType = requestType;
+		this.queueName   = queueName;
+	}
+
+	public SubmissionRequestType getRequestType() {
+		return requestType;
+	}
+	public void setRequestType(SubmissionRequestType requestType) {
+		this.requestType = requestType;
+	}
+	public String getQueueName() {
+		return queueName;
+	}
+	public void setQueueName(String queueName) {
+		this.queueName = queueName;
+	}
+	public String getFieldName() {
+		return fieldName;
+	}
+	public void setFieldName(String fieldName) {
+		this.fieldName = fieldName;
+	}
+	public StatusBean getBean() {
+		return bean;
+	}
+	public void setBean(StatusBean bean) {
+		this.bean = bean;
+	}
+	public int getAmount() {
+		return amount;
+	}
+	public void setAmount(int amount) {
+		this.amount = amount;
+	}
+	public List<StatusBean> getQueue() {
+		return queue;
+	}
+	public void setQueue(List<StatusBean> queue) {
+		this.queue = queue;
+	}
+	public boolean isResult() {
+		return result;
+	}
+	public void setResult(boolean result) {
+		this.result = result;
+	}
+	public String getErrorMessage() {
+		return errorMessage;
+	}
+	public void setErrorMessage(String errorMessage) {
+		this.errorMessage = errorMessage;
+	}
+
+	@Override
+	public String toString() {
+		return "SubmissionRequest [requestType=" + requestType + ", queueName=" + queueName + ", fieldName=" + fieldName
+				+ ", bean=" + bean + ", amount=" + amount + ", result=" + result + ", errorMessage=" + errorMessage + "]";
+	}
+}
@@ -175,28 +175,15 @@ public abstract class AbstractGenerator<T> implements IPointGenerator<T>, Iterab
 
 		// we fall back on iterating through all the points in the
 		// scan to get the dimensions of the last one
-		int pointNum = 1;
+		long start = System.currentTimeMillis();
 		IPosition last = first;
-		int lastInnerIndex = last.getIndex(scanRank - 1);
-		int maxInnerIndex = -1;
-		long lastTime = System.currentTimeMillis();
+		int maxInnerIndex = last.getIndex(scanRank - 1);
 		while (iterator.hasNext()) {
 			last = iterator.next(); // Could be large...
-			pointNum++;
-			if (maxInnerIndex == -1) {
-				// check for the max index of the inner most dimension - we assume that when it
-				// first decreases the previous value was the max. This special treatment
-				int innerIndex = last.getIndex(scanRank - 1);
-				if (innerIndex <= lastInnerIndex) {
-					maxInnerIndex = lastInnerIndex;
-				}
-			}
-
-			if (pointNum % 10000 == 0) {
-				long newTime = System.currentTimeMillis();
-				logger.debug("Point number {}, took {} ms", pointNum++, (newTime - lastTime));
-			}
+			// the inner most dimension may go backwards, as in a snake scan
+			maxInnerIndex = Math.max(maxInnerIndex, last.getIndex(scanRank - 1));
 		}
+		logger.debug("Iterated over the points of {} for its shape in {} ms", getClass().getSimpleName(), System.currentTimeMillis()-start);
 
 		// special case for scans of rank 0 - i.e. acquire scans
 		if (scanRank == 0) return new int[0];
@@ -208,7 +195,7 @@ public abstract class AbstractGenerator<T> implements IPointGenerator<T>, Iterab
 		}
 		// except for the last index, which is the maximum last index found
 		// this is due to the special case of snake scans
-		shape[shape.length - 1 ] = maxInnerIndex;
+		shape[shape.length - 1 ] = maxInnerIndex + 1;
 
 		return shape;
 	}
@@ -32,25 +32,29 @@ public abstract class AbstractPosition implements IPosition, Serializable {
 	private double exposureTime;
 	protected List<Collection<String>> dimensionNames; // Dimension->Names@dimension
 
+	/**
+	 * The compound is a view of this position and the parent rather than a copy
+	 * of their values, see {@link CompoundPosition}.
+	 */
 	@Override
 	public final IPosition compound(IPosition parent) {
 		if (parent==null) return this; // this+null = this
-		final MapPosition ret = new MapPosition();
-		ret.putAll(parent);
-		ret.putAll(this);
-		ret.putAllIndices(parent);
-		ret.putAllIndices(this);
+		final CompoundPosition ret = new CompoundPosition(this, parent);
 		ret.setStepIndex(getStepIndex());
 		ret.setExposureTime(getExposureTime());
-
-		List<Collection<String>> dimensionNames = new ArrayList<>();
-		dimensionNames.addAll(((AbstractPosition) parent).getDimensionNames());
-		dimensionNames.addAll(getDimensionNames());
-		ret.setDimensionNames(dimensionNames);
-
 		return ret;
 	}
 
+	/**
+	 * Override to find a name without making the list of names.
+	 *
+	 * @param name
+	 * @return true if the position has a value for the name.
+	 */
+	boolean contains(String name) {
+		return getNames().contains(name);
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -0,0 +1,120 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.points;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Multiple values to the position, backed by arrays. The names are shared
+ * by the positions of a generator, see {@link AxisNames}, so that a point
+ * of the scan costs little more than its values and indices.
+ *
+ * The arrays passed in belong to the position and must not be changed.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public final class ArrayPosition extends AbstractPosition {
+
+	private static final long serialVersionUID = 2350741524592470736L;
+
+	private final AxisNames names;
+	private final double[]  values;
+	private final int[]     indices; // May be null
+
+	// Made if asked for
+	private transient Map<String, Object>  valueMap;
+	private transient Map<String, Integer> indexMap;
+
+	/**
+	 * @param names
+	 * @param values of each name
+	 */
+	public ArrayPosition(AxisNames names, double[] values) {
+		this(names, values, null);
+	}
+
+	/**
+	 * @param names
+	 * @param values of each name
+	 * @param indices of each name or null if the position has no indices.
+	 */
+	public ArrayPosition(AxisNames names, double[] values, int[] indices) {
+		if (values.length!=names.size()) throw new IllegalArgumentException("There are "+values.length+" values for "+names.size()+" names");
+		if (indices!=null && indices.length!=names.size()) throw new IllegalArgumentException("There are "+indices.length+" indices for "+names.size()+" names");
+		this.names   = names;
+		this.values  = values;
+		this.indices = indices;
+	}
+
+	public AxisNames getAxisNames() {
+		return names;
+	}
+
+	@Override
+	public int size() {
+		return names.size();
+	}
+
+	@Override
+	public List<String> getNames() {
+		return names.asList();
+	}
+
+	@Override
+	boolean contains(String name) {
+		return names.indexOf(name)>-1;
+	}
+
+	@Override
+	public Object get(String name) {
+		final int i = names.indexOf(name);
+		return i<0 ? null : values[i];
+	}
+
+	@Override
+	public double getValue(String name) {
+		final int i = names.indexOf(name);
+		return i<0 ? super.getValue(name) : values[i];
+	}
+
+	@Override
+	public int getIndex(String name) {
+		if (indices==null) return -1;
+		final int i = names.indexOf(name);
+		return i<0 ? -1 : indices[i];
+	}
+
+	@Override
+	public Map<String, Object> getValues() {
+		if (valueMap==null) {
+			final Map<String, Object> map = new LinkedHashMap<>(names.size()+1, 1f);
+			for (int i = 0; i < values.length; i++) map.put(names.get(i), values[i]);
+			valueMap = Collections.unmodifiableMap(map);
+		}
+		return valueMap;
+	}
+
+	@Override
+	public Map<String, Integer> getIndices() {
+		if (indexMap==null) {
+			final Map<String, Integer> map = new LinkedHashMap<>(names.size()+1, 1f);
+			// Like a MapPosition filled from another position, names without an index are -1
+			for (int i = 0; i < values.length; i++) map.put(names.get(i), indices!=null ? indices[i] : -1);
+			indexMap = Collections.unmodifiableMap(map);
+		}
+		return indexMap;
+	}
+}
@@ -0,0 +1,142 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.points;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The names of the axes of a position in order. One is made for each
+ * generator and shared by all of its positions, so that each {@link ArrayPosition}
+ * only holds arrays of values and indices.
+ *
+ * This class is immutable.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public final class AxisNames implements Serializable {
+
+	private static final long serialVersionUID = -4417437911207290521L;
+
+	private final String[]     names;
+	private final List<String> list;
+
+	// The last compound made. The positions of a scan compound the
+	// same parent names at each point so it is usually the one needed.
+	private transient volatile Compound last;
+
+	public AxisNames(String... names) {
+		this.names = names.clone();
+		for (int i = 0; i < this.names.length; i++) {
+			for (int j = 0; j < i; j++) {
+				if (this.names[i].equals(this.names[j])) throw new IllegalArgumentException("Axis names cannot be duplicated "+Arrays.toString(names));
+			}
+		}
+		this.list = Collections.unmodifiableList(Arrays.asList(this.names));
+	}
+
+	public AxisNames(Collection<String> names) {
+		this(names.toArray(new String[names.size()]));
+	}
+
+	public int size() {
+		return names.length;
+	}
+
+	public String get(int i) {
+		return names[i];
+	}
+
+	/**
+	 * @param name
+	 * @return the index of the name or -1 if it is not one of these names.
+	 */
+	public int indexOf(String name) {
+		for (int i = 0; i < names.length; i++) {
+			if (names[i].equals(name)) return i;
+		}
+		return -1;
+	}
+
+	private boolean containsAll(AxisNames other) {
+		if (other==this) return true;
+		for (String name : other.names) {
+			if (indexOf(name)<0) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @return the names, the list may not be modified.
+	 */
+	public List<String> asList() {
+		return list;
+	}
+
+	/**
+	 * The names of a position compounded from a position with these names
+	 * and its parent, as {@link IPosition#compound(IPosition)}.
+	 *
+	 * @param parent
+	 * @return the names of the parent followed by those of these which are not in the parent.
+	 */
+	public AxisNames compound(AxisNames parent) {
+		final Compound compound = last;
+		if (compound!=null && compound.parent==parent) return compound.names;
+		if (parent.containsAll(this)) return parent; // For instance a point compounded with the last one
+
+		final List<String> ret = new ArrayList<>(parent.size()+size());
+		ret.addAll(parent.list);
+		for (String name : names) {
+			if (parent.indexOf(name)<0) ret.add(name);
+		}
+		final AxisNames names = new AxisNames(ret);
+		last = new Compound(parent, names);
+		return names;
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(names);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		return Arrays.equals(names, ((AxisNames) obj).names);
+	}
+
+	@Override
+	public String toString() {
+		return list.toString();
+	}
+
+	private static final class Compound {
+		private final AxisNames parent;
+		private final AxisNames names;
+
+		Compound(AxisNames parent, AxisNames names) {
+			this.parent = parent;
+			this.names  = names;
+		}
+	}
+}
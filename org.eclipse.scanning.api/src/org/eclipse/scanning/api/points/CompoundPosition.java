@@ -0,0 +1,165 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.points;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The position made by {@link AbstractPosition#compound(IPosition)}. It is a view
+ * of the positions it was made from rather than a copy of their values.
+ *
+ * A compound of a compound does not keep the compound, only the positions
+ * in it which still have a value which is used. So when each point of a scan
+ * is compounded with the last one, as {@link IPosition} iterators of nested
+ * generators do, the positions kept do not grow with the scan.
+ *
+ * @author Matthew Gerring
+ *
+ */
+final class CompoundPosition extends AbstractPosition {
+
+	private static final long serialVersionUID = -8090592700216706262L;
+
+	private final IPosition[] parts; // Innermost first, the value of a name is that of the first part with it.
+	private final AxisNames   names;
+
+	// Made if asked for
+	private transient Map<String, Object>  valueMap;
+	private transient Map<String, Integer> indexMap;
+
+	CompoundPosition(IPosition child, IPosition parent) {
+
+		final IPosition[] pparts = parent instanceof CompoundPosition
+				                 ? ((CompoundPosition)parent).parts
+				                 : new IPosition[]{parent};
+
+		final IPosition[] parts = new IPosition[pparts.length+1];
+		int size = 0;
+		if (child.size()>0) parts[size++] = child;
+		for (IPosition part : pparts) {
+			if (part.size()<1 || hides(child, part)) continue;
+			parts[size++] = part;
+		}
+		this.parts = size==parts.length ? parts : Arrays.copyOf(parts, size);
+		this.names = getAxisNames(child).compound(getAxisNames(parent));
+	}
+
+	/**
+	 * @return true if every value of the part is also one of the child.
+	 */
+	private static boolean hides(IPosition child, IPosition part) {
+		if (child instanceof ArrayPosition && part instanceof ArrayPosition) {
+			if (((ArrayPosition)child).getAxisNames()==((ArrayPosition)part).getAxisNames()) return true;
+		}
+		for (String name : part.getNames()) {
+			if (!contains(child, name)) return false;
+		}
+		return true;
+	}
+
+	private static AxisNames getAxisNames(IPosition pos) {
+		if (pos instanceof ArrayPosition)    return ((ArrayPosition)pos).getAxisNames();
+		if (pos instanceof CompoundPosition) return ((CompoundPosition)pos).names;
+		final List<String> names = pos.getNames();
+		return new AxisNames(names!=null ? names : Collections.<String>emptyList());
+	}
+
+	private static boolean contains(IPosition pos, String name) {
+		if (pos instanceof AbstractPosition) return ((AbstractPosition)pos).contains(name);
+		return pos.getNames().contains(name);
+	}
+
+	/**
+	 * @return the part with the value of the name or null
+	 */
+	private IPosition find(String name) {
+		for (IPosition part : parts) {
+			if (contains(part, name)) return part;
+		}
+		return null;
+	}
+
+	@Override
+	public int size() {
+		return names.size();
+	}
+
+	@Override
+	public List<String> getNames() {
+		return names.asList();
+	}
+
+	@Override
+	boolean contains(String name) {
+		return names.indexOf(name)>-1;
+	}
+
+	@Override
+	public Object get(String name) {
+		final IPosition part = find(name);
+		return part!=null ? part.get(name) : null;
+	}
+
+	@Override
+	public double getValue(String name) {
+		final IPosition part = find(name);
+		return part!=null ? part.getValue(name) : super.getValue(name);
+	}
+
+	@Override
+	public int getIndex(String name) {
+		final IPosition part = find(name);
+		return part!=null ? part.getIndex(name) : -1;
+	}
+
+	@Override
+	public Map<String, Object> getValues() {
+		if (valueMap==null) {
+			final Map<String, Object> map = new LinkedHashMap<>(names.size()+1, 1f);
+			for (String name : names.asList()) map.put(name, get(name));
+			valueMap = Collections.unmodifiableMap(map);
+		}
+		return valueMap;
+	}
+
+	@Override
+	public Map<String, Integer> getIndices() {
+		if (indexMap==null) {
+			final Map<String, Integer> map = new LinkedHashMap<>(names.size()+1, 1f);
+			for (String name : names.asList()) map.put(name, getIndex(name));
+			indexMap = Collections.unmodifiableMap(map);
+		}
+		return indexMap;
+	}
+
+	/**
+	 * Unless they are set, the dimension names are those of the
+	 * positions in the compound, outermost first.
+	 */
+	@Override
+	public synchronized List<Collection<String>> getDimensionNames() {
+		if (dimensionNames==null||dimensionNames.isEmpty()) {
+			final List<Collection<String>> dnames = new ArrayList<>(parts.length+1);
+			for (int i = parts.length-1; i > -1; i--) {
+				if (parts[i] instanceof AbstractPosition) dnames.addAll(((AbstractPosition)parts[i]).getDimensionNames());
+			}
+			dimensionNames = dnames;
+		}
+		return dimensionNames;
+	}
+}
@@ -0,0 +1,39 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.points;
+
+/**
+ * Checks the points of a scan path before anything is moved to them, for
+ * instance that a set of motors will not collide. A checker added as a scan
+ * participant, either to the scan service or to the annotation participants
+ * of the scan model, checks every scan it takes part in.
+ * <p>
+ * The points are given in chunks which may be checked at the same time
+ * by different threads.
+ *
+ * @see IPointGenerator#check(IPathChecker, String...)
+ *
+ * @author Matthew Gerring
+ *
+ */
+@FunctionalInterface
+public interface IPathChecker {
+
+	/**
+	 * Checks a chunk of consecutive points of a path.
+	 *
+	 * @param axes the names of the axes, one per column
+	 * @param columns the values of the axes at the points, [axis][point]
+	 * @return the index in the columns of the first point which is not allowed or -1 if they all are
+	 */
+	int check(String[] axes, double[][] columns);
+}
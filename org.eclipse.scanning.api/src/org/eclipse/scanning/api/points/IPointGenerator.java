@@ -14,6 +14,7 @@ package org.eclipse.scanning.api.points;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.BooleanSupplier;
 
 import org.eclipse.scanning.api.IModelProvider;
 import org.eclipse.scanning.api.IValidator;
@@ -177,4 +178,98 @@ public interface IPointGenerator<T> extends Iterable<IPosition>, IValidator<T>,
 	default IPosition getFirstPoint() {
 		return iterator().next();
 	}
+
+	/**
+	 * An iterator over the points which starts at the given index, so that
+	 * the first call to next() returns the point with that step index.
+	 * If the iterator is a {@link ScanPointIterator} which is random access
+	 * this does not iterate over the points before the index, otherwise it does.
+	 *
+	 * @param start index of the first point
+	 * @return
+	 */
+	default Iterator<IPosition> iterator(int start) {
+		final Iterator<IPosition> it = iterator();
+		if (it instanceof ScanPointIterator && ((ScanPointIterator)it).isRandomAccess()) {
+			((ScanPointIterator)it).setIndex(start);
+		} else {
+			for (int i = 0; i < start && it.hasNext(); i++) it.next();
+		}
+		return it;
+	}
+
+	/**
+	 * The point at the given index, the index being the step index of the point.
+	 * For generators with a random access iterator this is calculated directly
+	 * from the index, otherwise it iterates to the point.
+	 *
+	 * @param index
+	 * @return
+	 * @throws GeneratorException if there is no point at the index
+	 */
+	default IPosition getPoint(int index) throws GeneratorException {
+		if (index < 0) throw new GeneratorException("There is no point at index "+index);
+		try {
+			final Iterator<IPosition> it = iterator(index);
+			if (!it.hasNext()) throw new GeneratorException("There is no point at index "+index);
+			return it.next();
+		} catch (IndexOutOfBoundsException ne) {
+			throw new GeneratorException("There is no point at index "+index, ne);
+		}
+	}
+
+	/**
+	 * The values of the given axes at the points of the scan in columns of
+	 * primitive doubles, and the extent and smallest steps of the whole path.
+	 * Use this rather than iterating over the points to draw or check a path.
+	 * By default the points are iterated over, generators which can calculate
+	 * the values directly override this.
+	 *
+	 * @param maxPoints the most points to put in the columns, if the scan has more
+	 *        evenly spaced points are used. 0 or less for all of them.
+	 * @param axes the names of the axes
+	 * @return
+	 * @throws GeneratorException
+	 */
+	default PathColumns getColumns(int maxPoints, String... axes) throws GeneratorException {
+		return getColumns(maxPoints, (BooleanSupplier)null, axes);
+	}
+
+	/**
+	 * As {@link #getColumns(int, String...)} but stops if cancelled, for instance
+	 * when the job drawing the path is cancelled. Cancelled is asked between each
+	 * chunk of points.
+	 *
+	 * @param maxPoints the most points to put in the columns, 0 or less for all of them.
+	 * @param cancelled true to stop, may be null
+	 * @param axes the names of the axes
+	 * @return the columns or null if cancelled
+	 * @throws GeneratorException
+	 */
+	default PathColumns getColumns(int maxPoints, BooleanSupplier cancelled, String... axes) throws GeneratorException {
+		return PathColumns.create(this, size(), maxPoints, cancelled, axes);
+	}
+
+	/**
+	 * Gives the values of the given axes at every point of the scan to the checker,
+	 * in chunks of {@link PathColumns#CHUNK} points. By default the points are iterated
+	 * over, generators which can calculate the values directly override this and may
+	 * check the chunks in parallel.
+	 *
+	 * @param checker
+	 * @param axes the names of the axes
+	 * @return the step index of the first point which the checker does not allow or -1 if it allows them all
+	 * @throws GeneratorException
+	 */
+	default int check(IPathChecker checker, String... axes) throws GeneratorException {
+		return PathColumns.check(this, checker, axes);
+	}
+
+	/**
+	 * @return true if {@link #getColumns(int, String...)} and {@link #check(IPathChecker, String...)}
+	 *         calculate the values of the path, false if they iterate over its points, the default.
+	 */
+	default boolean isPathCalculated() {
+		return false;
+	}
 }
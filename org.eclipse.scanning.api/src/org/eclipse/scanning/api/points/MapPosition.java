@@ -79,6 +79,24 @@ public final class MapPosition extends AbstractPosition {
 		}
 	}
 
+	/**
+	 * A copy of the position if it is backed by arrays or is a compound
+	 * of other positions. The events of a scan hold a copy, so that the
+	 * positions sent are the same classes as those which clients read.
+	 *
+	 * @param pos
+	 * @return the position or a copy of it.
+	 */
+	public static IPosition copyOf(IPosition pos) {
+		if (!(pos instanceof ArrayPosition) && !(pos instanceof CompoundPosition)) return pos;
+		final MapPosition copy = new MapPosition();
+		copy.putAll(pos);
+		copy.setStepIndex(pos.getStepIndex());
+		copy.setExposureTime(pos.getExposureTime());
+		copy.setDimensionNames(((AbstractPosition)pos).getDimensionNames());
+		return copy;
+	}
+
 	@Override
 	public int size() {
 		return values.size();
@@ -89,6 +107,11 @@ public final class MapPosition extends AbstractPosition {
 		return new ArrayList<>(values.keySet());
 	}
 
+	@Override
+	boolean contains(String name) {
+		return values.containsKey(name);
+	}
+
 	@Override
 	public Object get(String name) {
 		return values.get(name);
@@ -0,0 +1,208 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.points;
+
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+
+/**
+ * The values of some of the axes of a scan path in columns of primitive
+ * doubles, one column per axis, for drawing or checking the path without
+ * making an {@link IPosition} for each point. The columns may hold evenly
+ * spaced points of the path rather than all of them, the {@link PathStatistics}
+ * are always those of the whole path.
+ *
+ * @see IPointGenerator#getColumns(int, String...)
+ *
+ * @author Matthew Gerring
+ *
+ */
+public final class PathColumns {
+
+	/**
+	 * The number of points given to an {@link IPathChecker} at a time.
+	 */
+	public static final int CHUNK = 1 << 14;
+
+	private final String[]       axes;
+	private final int            size;
+	private final int[]          indices;
+	private final double[][]     columns;
+	private final PathStatistics statistics;
+
+	/**
+	 * @param axes the names of the axes
+	 * @param size the number of points in the path
+	 * @param indices the step index of each point in the columns
+	 * @param columns the values of each axis at those points
+	 * @param statistics of the whole path
+	 */
+	public PathColumns(String[] axes, int size, int[] indices, double[][] columns, PathStatistics statistics) {
+		this.axes       = axes;
+		this.size       = size;
+		this.indices    = indices;
+		this.columns    = columns;
+		this.statistics = statistics;
+	}
+
+	/**
+	 * The step indices of evenly spaced points of a path, including the
+	 * first and the last.
+	 *
+	 * @param size the number of points in the path
+	 * @param maxPoints the most points to return, 0 or less for all of them
+	 * @return
+	 */
+	public static int[] decimate(int size, int maxPoints) {
+		if (maxPoints<1 || size<=maxPoints) {
+			final int[] indices = new int[size];
+			for (int i = 0; i < size; i++) indices[i] = i;
+			return indices;
+		}
+		if (maxPoints==1) return new int[]{0};
+		final int[] indices = new int[maxPoints];
+		for (int r = 0; r < maxPoints; r++) indices[r] = (int)((long)r*(size-1)/(maxPoints-1));
+		return indices;
+	}
+
+	/**
+	 * Makes the columns by iterating over the points of a path.
+	 *
+	 * @param points of the path
+	 * @param size the number of points in the path
+	 * @param maxPoints the most points to put in the columns, 0 or less for all of them
+	 * @param axes the names of the axes
+	 * @return
+	 */
+	public static PathColumns create(Iterable<IPosition> points, int size, int maxPoints, String... axes) {
+		return create(points, size, maxPoints, null, axes);
+	}
+
+	/**
+	 * Makes the columns by iterating over the points of a path, stopping
+	 * if cancelled, which is asked every {@link #CHUNK} points.
+	 *
+	 * @param points of the path
+	 * @param size the number of points in the path
+	 * @param maxPoints the most points to put in the columns, 0 or less for all of them
+	 * @param cancelled true to stop, may be null
+	 * @param axes the names of the axes
+	 * @return the columns or null if cancelled
+	 */
+	public static PathColumns create(Iterable<IPosition> points, int size, int maxPoints, BooleanSupplier cancelled, String... axes) {
+
+		final int[]          indices = decimate(size, maxPoints);
+		final double[][]     columns = new double[axes.length][indices.length];
+		final PathStatistics stats   = new PathStatistics(axes.length);
+
+		double[] previous = new double[axes.length];
+		double[] current  = new double[axes.length];
+		int n = 0, row = 0;
+		for (IPosition point : points) {
+			if (cancelled!=null && n%CHUNK==0 && cancelled.getAsBoolean()) return null;
+			for (int a = 0; a < axes.length; a++) current[a] = point.getValue(axes[a]);
+			stats.add(current);
+			if (n>0) stats.step(previous, current);
+			if (row<indices.length && indices[row]==n) {
+				for (int a = 0; a < axes.length; a++) columns[a][row] = current[a];
+				row++;
+			}
+			final double[] tmp = previous;
+			previous = current;
+			current  = tmp;
+			n++;
+		}
+		if (n!=size) throw new IllegalArgumentException("The path has "+n+" points not "+size);
+		return new PathColumns(axes, size, indices, columns, stats);
+	}
+
+	/**
+	 * Checks a path by iterating over its points, giving them to the checker in chunks.
+	 *
+	 * @param points of the path
+	 * @param checker
+	 * @param axes the names of the axes
+	 * @return the step index of the first point which is not allowed or -1 if they all are
+	 */
+	public static int check(Iterable<IPosition> points, IPathChecker checker, String... axes) {
+
+		final double[][] columns = new double[axes.length][CHUNK];
+		int n = 0, row = 0;
+		for (IPosition point : points) {
+			for (int a = 0; a < axes.length; a++) columns[a][row] = point.getValue(axes[a]);
+			n++;
+			if (++row==CHUNK) {
+				final int index = checker.check(axes, columns);
+				if (index>-1) return n-row+index;
+				row = 0;
+			}
+		}
+		if (row==0) return -1;
+		for (int a = 0; a < axes.length; a++) columns[a] = Arrays.copyOf(columns[a], row);
+		final int index = checker.check(axes, columns);
+		return index>-1 ? n-row+index : -1;
+	}
+
+	public String[] getAxes() {
+		return axes;
+	}
+
+	/**
+	 * @return the number of points in the whole path
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * @return the number of points in the columns
+	 */
+	public int getLength() {
+		return indices.length;
+	}
+
+	/**
+	 * @return the step index in the path of each point in the columns
+	 */
+	public int[] getIndices() {
+		return indices;
+	}
+
+	/**
+	 * @param axis the index of the axis
+	 * @return the values of the axis
+	 */
+	public double[] getColumn(int axis) {
+		return columns[axis];
+	}
+
+	/**
+	 * @param axis the name of the axis
+	 * @return the values of the axis
+	 * @throws IllegalArgumentException if the axis is not one of the columns
+	 */
+	public double[] getColumn(String axis) {
+		final int index = Arrays.asList(axes).indexOf(axis);
+		if (index<0) throw new IllegalArgumentException("There is no column for "+axis);
+		return columns[index];
+	}
+
+	public PathStatistics getStatistics() {
+		return statistics;
+	}
+
+	@Override
+	public String toString() {
+		return "PathColumns [axes=" + Arrays.toString(axes) + ", size=" + size + ", length=" + indices.length
+				+ ", statistics=" + statistics + "]";
+	}
+}
@@ -0,0 +1,132 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.points;
+
+import java.util.Arrays;
+
+/**
+ * The extent of some of the axes of a scan path and the smallest steps
+ * between its consecutive points. The statistics of parts of the path
+ * may be calculated separately and combined.
+ * <p>
+ * A step which there is none of, for instance in a path of one point,
+ * is {@link Double#MAX_VALUE}.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public final class PathStatistics {
+
+	private final double[] lower;
+	private final double[] upper;
+	private final double[] smallestSteps;
+	private double         smallestAbsoluteStep;
+
+	/**
+	 * Statistics of no points to which points and steps are added.
+	 * @param axes the number of axes
+	 */
+	public PathStatistics(int axes) {
+		this.lower         = new double[axes];
+		this.upper         = new double[axes];
+		this.smallestSteps = new double[axes];
+		Arrays.fill(lower, Double.POSITIVE_INFINITY);
+		Arrays.fill(upper, Double.NEGATIVE_INFINITY);
+		Arrays.fill(smallestSteps, Double.MAX_VALUE);
+		this.smallestAbsoluteStep = Double.MAX_VALUE;
+	}
+
+	/**
+	 * Statistics already calculated, for instance from the model of the path.
+	 * @param lower of each axis
+	 * @param upper of each axis
+	 * @param smallestSteps the smallest non-zero step of each axis
+	 * @param smallestAbsoluteStep the smallest distance between consecutive points
+	 */
+	public PathStatistics(double[] lower, double[] upper, double[] smallestSteps, double smallestAbsoluteStep) {
+		this.lower                = lower;
+		this.upper                = upper;
+		this.smallestSteps        = smallestSteps;
+		this.smallestAbsoluteStep = smallestAbsoluteStep;
+	}
+
+	/**
+	 * Extends the extent to include a point.
+	 * @param point the value of each axis
+	 */
+	public void add(double[] point) {
+		for (int a = 0; a < lower.length; a++) {
+			if (point[a]<lower[a]) lower[a] = point[a];
+			if (point[a]>upper[a]) upper[a] = point[a];
+		}
+	}
+
+	/**
+	 * Includes the step between two consecutive points.
+	 * @param from the value of each axis
+	 * @param to the value of each axis
+	 */
+	public void step(double[] from, double[] to) {
+		double sum = 0;
+		for (int a = 0; a < smallestSteps.length; a++) {
+			final double step = Math.abs(to[a]-from[a]);
+			if (step>0 && step<smallestSteps[a]) smallestSteps[a] = step;
+			sum += step*step;
+		}
+		final double absolute = Math.sqrt(sum);
+		if (absolute<smallestAbsoluteStep) smallestAbsoluteStep = absolute;
+	}
+
+	/**
+	 * Includes the points and steps of other statistics in these.
+	 * @param other
+	 * @return this
+	 */
+	public PathStatistics combine(PathStatistics other) {
+		for (int a = 0; a < lower.length; a++) {
+			lower[a]         = Math.min(lower[a], other.lower[a]);
+			upper[a]         = Math.max(upper[a], other.upper[a]);
+			smallestSteps[a] = Math.min(smallestSteps[a], other.smallestSteps[a]);
+		}
+		smallestAbsoluteStep = Math.min(smallestAbsoluteStep, other.smallestAbsoluteStep);
+		return this;
+	}
+
+	public double getLower(int axis) {
+		return lower[axis];
+	}
+
+	public double getUpper(int axis) {
+		return upper[axis];
+	}
+
+	/**
+	 * @param axis
+	 * @return the smallest step of the axis between consecutive points, which is not zero
+	 */
+	public double getSmallestStep(int axis) {
+		return smallestSteps[axis];
+	}
+
+	/**
+	 * @return the smallest distance between consecutive points, which may be zero
+	 */
+	public double getSmallestAbsoluteStep() {
+		return smallestAbsoluteStep;
+	}
+
+	@Override
+	public String toString() {
+		return "PathStatistics [lower=" + Arrays.toString(lower) + ", upper=" + Arrays.toString(upper)
+				+ ", smallestSteps=" + Arrays.toString(smallestSteps) + ", smallestAbsoluteStep=" + smallestAbsoluteStep + "]";
+	}
+}
@@ -103,6 +103,11 @@ public final class Point extends AbstractPosition {
 		return names;
 	}
 
+	@Override
+	boolean contains(String name) {
+		return xName.equalsIgnoreCase(name) || yName.equalsIgnoreCase(name);
+	}
+
 	@Override
 	public Double get(String name) {
 		if (xName.equalsIgnoreCase(name)) return getX();
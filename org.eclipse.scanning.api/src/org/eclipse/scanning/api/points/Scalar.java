@@ -50,6 +50,11 @@ public class Scalar<T> extends AbstractPosition {
 	    return Arrays.asList(new String[]{name});
 	}
 
+	@Override
+	boolean contains(String name) {
+		return this.name.equals(name);
+	}
+
 	@Override
 	public Object get(String name) {
 		return name.equals(this.name) ? value : null;
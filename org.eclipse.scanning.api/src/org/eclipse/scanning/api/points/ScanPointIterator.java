@@ -43,4 +43,26 @@ public interface ScanPointIterator extends Iterator<IPosition> {
 	 */
 	public int getIndex();
 
+	/**
+	 * Returns true if this iterator can move straight to any position
+	 * with {@link #setIndex(int)}, rather than having to iterate over all
+	 * the positions before it.
+	 * @return true if {@link #setIndex(int)} is supported
+	 */
+	default boolean isRandomAccess() {
+		return false;
+	}
+
+	/**
+	 * Moves this iterator so that the next call to {@link #next()} returns
+	 * the position at the given index, with that step index.
+	 *
+	 * @param index from 0 to {@link #size()}, the latter leaving no more positions.
+	 * @throws UnsupportedOperationException if this iterator is not random access
+	 * @throws IndexOutOfBoundsException if the index is outside the scan
+	 */
+	default void setIndex(int index) {
+		throw new UnsupportedOperationException(getClass().getSimpleName()+" is not random access!");
+	}
+
 }
@@ -0,0 +1,134 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.scan;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of times in nanoseconds with a fixed number of buckets, in the
+ * manner of HdrHistogram. Each power of two is divided into {@value #HALF}
+ * buckets so the value at a percentile is within about 3% of the time recorded,
+ * from nanoseconds to more than an hour. Longer times share the last bucket.
+ * Recording a time does not allocate or lock and the percentiles may be read
+ * while times are being recorded.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public final class LatencyHistogram {
+
+	private static final int SUB_BITS    = 6;
+	private static final int SUB_BUCKETS = 1 << SUB_BITS;
+	private static final int HALF        = SUB_BUCKETS >> 1;
+	private static final int MAX_SHIFT   = 36; // 2^42ns is more than an hour
+	private static final int BUCKETS     = MAX_SHIFT*HALF + SUB_BUCKETS; // The last holds all longer times
+
+	private final AtomicLongArray counts;
+	private final AtomicLong      count;
+	private final AtomicLong      total;
+	private final AtomicLong      min;
+	private final AtomicLong      max;
+
+	public LatencyHistogram() {
+		this.counts = new AtomicLongArray(BUCKETS);
+		this.count  = new AtomicLong();
+		this.total  = new AtomicLong();
+		this.min    = new AtomicLong(Long.MAX_VALUE);
+		this.max    = new AtomicLong();
+	}
+
+	/**
+	 * Records a time, negative times are recorded as zero.
+	 *
+	 * @param nanos
+	 */
+	public void record(long nanos) {
+		if (nanos<0) nanos = 0;
+		counts.incrementAndGet(index(nanos));
+		count.incrementAndGet();
+		total.addAndGet(nanos);
+		if (nanos<min.get()) min.accumulateAndGet(nanos, Math::min);
+		if (nanos>max.get()) max.accumulateAndGet(nanos, Math::max);
+	}
+
+	private static int index(long value) {
+		final int shift = Math.min(MAX_SHIFT, Math.max(0, 64-Long.numberOfLeadingZeros(value)-SUB_BITS));
+		final long sub  = Math.min(SUB_BUCKETS-1, value >>> shift);
+		return shift*HALF + (int)sub;
+	}
+
+	/**
+	 * @return the largest value in the bucket
+	 */
+	private static long highest(int index) {
+		if (index<SUB_BUCKETS) return index;
+		if (index==BUCKETS-1)  return Long.MAX_VALUE;
+		final int  shift = index/HALF - 1;
+		final long sub   = index - shift*HALF;
+		return ((sub+1) << shift) - 1;
+	}
+
+	public long getCount() {
+		return count.get();
+	}
+
+	/**
+	 * @return the sum of the times recorded in nanoseconds
+	 */
+	public long getTotal() {
+		return total.get();
+	}
+
+	public long getMin() {
+		return count.get()>0 ? min.get() : 0;
+	}
+
+	public long getMax() {
+		return max.get();
+	}
+
+	public double getMean() {
+		final long n = count.get();
+		return n>0 ? (double)total.get()/n : 0;
+	}
+
+	/**
+	 * @param percentile from 0 to 100
+	 * @return the time at or below which the percentile of the times recorded are, or 0 if none are.
+	 */
+	public long getValueAtPercentile(double percentile) {
+		final long n = count.get();
+		if (n<1) return 0;
+		final long rank = Math.max(1, (long)Math.ceil(Math.min(100, percentile)/100d*n));
+		long seen = 0;
+		for (int i = 0; i < counts.length(); i++) {
+			seen += counts.get(i);
+			if (seen>=rank) return Math.min(highest(i), getMax());
+		}
+		return getMax(); // Recorded while we read
+	}
+
+	public void reset() {
+		for (int i = 0; i < counts.length(); i++) counts.set(i, 0);
+		count.set(0);
+		total.set(0);
+		min.set(Long.MAX_VALUE);
+		max.set(0);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("[count=%d, mean=%.3fms, p50=%.3fms, p99=%.3fms, max=%.3fms]", getCount(),
+				getMean()/1e6, getValueAtPercentile(50)/1e6, getValueAtPercentile(99)/1e6, getMax()/1e6);
+	}
+}
@@ -0,0 +1,75 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.scan;
+
+/**
+ * The phases of a point of a scan, in the order the scan runs them.
+ * The time of each is recorded in the {@link ScanMetrics} of the scan.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public enum PointPhase {
+
+	/**
+	 * Checking if the scan is paused, includes the time paused.
+	 */
+	PAUSE_CHECK("pause_check"),
+
+	/**
+	 * Calling the @PointStart methods of the scan participants.
+	 */
+	POINT_START("point_start"),
+
+	/**
+	 * Moving the scannables to the position, all levels.
+	 */
+	MOVE("move"),
+
+	/**
+	 * Setting the exposure time of the detectors.
+	 */
+	EXPOSURE("exposure"),
+
+	/**
+	 * Waiting for the detectors to write the last point.
+	 */
+	WRITE_AWAIT("write_await"),
+
+	/**
+	 * Running the detectors.
+	 */
+	RUN("run"),
+
+	/**
+	 * Calling the @PointEnd methods of the scan participants.
+	 */
+	POINT_END("point_end"),
+
+	/**
+	 * Notifying listeners and publishing the point.
+	 */
+	PUBLISH("publish");
+
+	private final String label;
+
+	private PointPhase(String label) {
+		this.label = label;
+	}
+
+	/**
+	 * @return the name used in the NeXus file and the statistics published.
+	 */
+	public String getLabel() {
+		return label;
+	}
+}
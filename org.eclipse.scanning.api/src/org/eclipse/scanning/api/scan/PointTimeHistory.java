@@ -0,0 +1,78 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.scan;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The time the points of the scans run in this VM took beyond the exposure
+ * time of their detectors, for moving, writing and notifying, by the names of
+ * the detectors. A scan records its times when it finishes and the
+ * {@link ScanEstimator} of the next scan with the same detectors adds them
+ * to the exposure time to estimate how long that scan will take.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public final class PointTimeHistory {
+
+	/**
+	 * The time per point in ms beyond the exposure, by detector names.
+	 */
+	private static final Map<Set<String>, Double> overheads = new ConcurrentHashMap<>();
+
+	private PointTimeHistory() {
+		// Static methods only
+	}
+
+	/**
+	 * Records the time of the points of a scan. Time paused is not included.
+	 * Each scan recorded counts as much as all those before it with the same
+	 * detectors, so the estimates follow changes in the hardware.
+	 *
+	 * @param detectors the names of the detectors of the scan, nothing is recorded if there are none
+	 * @param exposure the longest exposure time of the detectors in ms
+	 * @param metrics recorded by the scan
+	 */
+	public static void record(Collection<String> detectors, long exposure, ScanMetrics metrics) {
+		if (detectors==null || detectors.isEmpty() || metrics==null) return;
+		if (metrics.getHistogram(PointPhase.RUN).getCount()<1) return;
+
+		double point = 0; // ns
+		for (PointPhase phase : PointPhase.values()) {
+			if (phase!=PointPhase.PAUSE_CHECK) point += metrics.getHistogram(phase).getMean();
+		}
+		final double overhead = Math.max(0, point/1e6 - exposure);
+		overheads.merge(new TreeSet<>(detectors), overhead, (before, now) -> (before+now)/2);
+	}
+
+	/**
+	 * @param detectors the names of the detectors of a scan
+	 * @return the time per point in ms beyond the exposure of scans with the same detectors, or 0 if there have been none.
+	 */
+	public static double getOverhead(Collection<String> detectors) {
+		if (detectors==null || detectors.isEmpty()) return 0;
+		final Double overhead = overheads.get(new TreeSet<>(detectors));
+		return overhead!=null ? overhead : 0;
+	}
+
+	/**
+	 * Forgets the times of all the scans recorded.
+	 */
+	public static void clear() {
+		overheads.clear();
+	}
+}
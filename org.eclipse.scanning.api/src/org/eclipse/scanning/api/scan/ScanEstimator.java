@@ -119,17 +119,32 @@ public class ScanEstimator {
 		// TODO FIXME If some detectors are malcolm, they may have a wait time.
 		// If some are malcolm we may wish to ignore the input point time from the user
 		// in favour of the malcolm time per point or maybe the device tells us how long it will take?
+		double overhead = 0;
 		if (detectorModels != null && !detectorModels.isEmpty()) {
 			timePerPoint = detectorModels.stream().filter(IDetectorModel.class::isInstance)
 					.map(m -> Math.round(((IDetectorModel) m).getExposureTime() * 1000))
 					.reduce(0l, Math::max);
+			// Moving, writing and notifying take time too, as long as they took in the last scans with these detectors.
+			overhead = PointTimeHistory.getOverhead(detectorModels.stream().filter(IDetectorModel.class::isInstance)
+					.map(m -> ((IDetectorModel) m).getName()).collect(Collectors.toList()));
 		}
 
 		this.generator = positionIterable;
 		this.size = getEstimatedSize(positionIterable);
-		this.rank = positionIterable.iterator().next().getScanRank();
+		this.rank = getEstimatedRank(positionIterable);
 		this.timePerPoint = timePerPoint;
-		this.estimatedScanTime = size * timePerPoint;
+		this.estimatedScanTime = size * timePerPoint + Math.round(size * overhead);
+	}
+
+	/**
+	 * The generators of scanpointgenerator know their shape without making a point,
+	 * for other positions the rank is that of the first position.
+	 */
+	private int getEstimatedRank(Iterable<IPosition> gen) throws GeneratorException {
+		if (gen instanceof IPointGenerator && ((IPointGenerator<?>)gen).isScanPointGeneratorFactory()) {
+			return getShape().length;
+		}
+		return gen.iterator().next().getScanRank();
 	}
 
 	private int getEstimatedSize(Iterable<IPosition> gen) throws GeneratorException {
@@ -0,0 +1,104 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.scan;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.eclipse.scanning.api.event.scan.PhaseStatistics;
+
+/**
+ * The time taken by each {@link PointPhase} of the points of a scan, and by
+ * each level of the move to a point. The times are recorded by the scan as
+ * it runs and may be read by other threads at any time.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public final class ScanMetrics {
+
+	/**
+	 * The prefix of the name of the statistics of the move of a level.
+	 */
+	public static final String MOVE_LEVEL_PREFIX = "move_level_";
+
+	private final Map<PointPhase, LatencyHistogram>               phases;
+	private final ConcurrentNavigableMap<Integer, LatencyHistogram> moveLevels;
+
+	public ScanMetrics() {
+		this.phases = new EnumMap<>(PointPhase.class);
+		for (PointPhase phase : PointPhase.values()) phases.put(phase, new LatencyHistogram());
+		this.moveLevels = new ConcurrentSkipListMap<>();
+	}
+
+	/**
+	 * @param phase
+	 * @param nanos the time taken by the phase of a point
+	 */
+	public void record(PointPhase phase, long nanos) {
+		phases.get(phase).record(nanos);
+	}
+
+	/**
+	 * @param level
+	 * @param nanos the time taken to move the scannables of the level to a point
+	 */
+	public void recordMove(int level, long nanos) {
+		moveLevels.computeIfAbsent(level, l -> new LatencyHistogram()).record(nanos);
+	}
+
+	public LatencyHistogram getHistogram(PointPhase phase) {
+		return phases.get(phase);
+	}
+
+	/**
+	 * @return the histograms of the levels moved, lowest level first.
+	 */
+	public Map<Integer, LatencyHistogram> getMoveLevels() {
+		return Collections.unmodifiableMap(moveLevels);
+	}
+
+	/**
+	 * @return the statistics of the phases in the order they are run, then those of the levels moved.
+	 */
+	public List<PhaseStatistics> getStatistics() {
+		final List<PhaseStatistics> stats = new ArrayList<>(phases.size()+moveLevels.size());
+		for (PointPhase phase : PointPhase.values()) stats.add(new PhaseStatistics(phase.getLabel(), phases.get(phase)));
+		for (Map.Entry<Integer, LatencyHistogram> entry : moveLevels.entrySet()) {
+			stats.add(new PhaseStatistics(MOVE_LEVEL_PREFIX+entry.getKey(), entry.getValue()));
+		}
+		return stats;
+	}
+
+	public void reset() {
+		for (LatencyHistogram histogram : phases.values()) histogram.reset();
+		moveLevels.clear();
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder buf = new StringBuilder("ScanMetrics [");
+		for (PointPhase phase : PointPhase.values()) {
+			buf.append(phase.getLabel()).append('=').append(phases.get(phase)).append(", ");
+		}
+		for (Map.Entry<Integer, LatencyHistogram> entry : moveLevels.entrySet()) {
+			buf.append(MOVE_LEVEL_PREFIX).append(entry.getKey()).append('=').append(entry.getValue()).append(", ");
+		}
+		buf.setLength(buf.length()-2);
+		return buf.append(']').toString();
+	}
+}
@@ -0,0 +1,103 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.scanning.api.annotation.scan.AnnotationManager;
+import org.eclipse.scanning.api.annotation.scan.PointEnd;
+import org.eclipse.scanning.api.annotation.scan.PointStart;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.MapPosition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * The time the {@link AnnotationManager} takes to call the &#64;PointStart
+ * and &#64;PointEnd methods of the devices of a scan, which it does at each point.
+ * Half of the devices have no annotated methods, as many scannables do not.
+ *
+ * @author Matthew Gerring
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AnnotationManagerBenchmark {
+
+	@Param({"2", "20", "200"})
+	private int devices;
+
+	private AnnotationManager manager;
+	private IPosition         position;
+
+	@Setup
+	public void setUp() {
+		manager = new AnnotationManager();
+		for (int i = 0; i < devices; i++) {
+			manager.addDevices(i%2==0 ? new Participant() : new Object());
+		}
+		position = new MapPosition("x:1, y:2");
+	}
+
+	@TearDown
+	public void tearDown() {
+		manager.dispose();
+	}
+
+	/**
+	 * Injects the position into each method.
+	 */
+	@Benchmark
+	public void pointStart() throws Exception {
+		manager.invoke(PointStart.class, position);
+	}
+
+	/**
+	 * Calls each method with no arguments.
+	 */
+	@Benchmark
+	public void pointEnd() throws Exception {
+		manager.invoke(PointEnd.class);
+	}
+
+	public static class Participant {
+
+		private IPosition last;
+		private int       count;
+
+		@PointStart
+		public void pointStart(IPosition pos) {
+			last = pos;
+		}
+
+		@PointEnd
+		public void pointEnd() {
+			count++;
+		}
+
+		public IPosition getLast() {
+			return last;
+		}
+
+		public int getCount() {
+			return count;
+		}
+	}
+}
@@ -0,0 +1,104 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.benchmark;
+
+import java.util.Arrays;
+
+import org.eclipse.dawnsci.analysis.api.persistence.IMarshallerService;
+import org.eclipse.dawnsci.hdf5.nexus.NexusFileFactoryHDF5;
+import org.eclipse.dawnsci.json.MarshallerService;
+import org.eclipse.dawnsci.nexus.builder.impl.DefaultNexusBuilderFactory;
+import org.eclipse.scanning.api.device.IRunnableDeviceService;
+import org.eclipse.scanning.api.device.IScannableDeviceService;
+import org.eclipse.scanning.api.event.IEventService;
+import org.eclipse.scanning.api.points.IPointGeneratorService;
+import org.eclipse.scanning.connector.activemq.ActivemqConnectorService;
+import org.eclipse.scanning.event.EventServiceImpl;
+import org.eclipse.scanning.example.classregistry.ScanningExampleClassRegistry;
+import org.eclipse.scanning.example.detector.MandelbrotDetector;
+import org.eclipse.scanning.example.detector.MandelbrotModel;
+import org.eclipse.scanning.example.scannable.MockScannableConnector;
+import org.eclipse.scanning.points.PointGeneratorService;
+import org.eclipse.scanning.points.classregistry.ScanningAPIClassRegistry;
+import org.eclipse.scanning.points.serialization.PointsModelMarshaller;
+import org.eclipse.scanning.sequencer.RunnableDeviceServiceImpl;
+import org.eclipse.scanning.sequencer.ServiceHolder;
+
+/**
+ * The benchmarks run without OSGi so the services are wired
+ * together here in the same way as the tests do it.
+ *
+ * DO NOT COPY THIS IN NON-TEST CODE!
+ *
+ * @author Matthew Gerring
+ *
+ */
+final class BenchmarkServices {
+
+	private static IMarshallerService      marshaller;
+	private static IEventService           eservice;
+	private static IScannableDeviceService connector;
+	private static IRunnableDeviceService  dservice;
+	private static IPointGeneratorService  gservice;
+
+	private BenchmarkServices() {
+
+	}
+
+	/**
+	 * Creates the services, once per JVM.
+	 */
+	static synchronized void setUp() {
+
+		if (marshaller!=null) return;
+
+		marshaller = new MarshallerService(
+				Arrays.asList(new ScanningAPIClassRegistry(), new ScanningExampleClassRegistry()),
+				Arrays.asList(new PointsModelMarshaller()));
+		ActivemqConnectorService.setJsonMarshaller(marshaller);
+
+		eservice  = new EventServiceImpl(new ActivemqConnectorService());
+		connector = new MockScannableConnector(null);
+		gservice  = new PointGeneratorService();
+
+		RunnableDeviceServiceImpl impl = new RunnableDeviceServiceImpl(connector);
+		impl._register(MandelbrotModel.class, MandelbrotDetector.class);
+		dservice = impl;
+
+		org.eclipse.scanning.example.Services.setEventService(eservice);
+		org.eclipse.scanning.example.Services.setPointGeneratorService(gservice);
+		org.eclipse.scanning.example.Services.setRunnableDeviceService(dservice);
+		org.eclipse.scanning.example.Services.setScannableDeviceService(connector);
+		org.eclipse.dawnsci.nexus.ServiceHolder.setNexusFileFactory(new NexusFileFactoryHDF5());
+		ServiceHolder.setTestServices(null, new DefaultNexusBuilderFactory(), null, null, gservice);
+	}
+
+	static IMarshallerService getMarshaller() {
+		return marshaller;
+	}
+
+	static IEventService getEventService() {
+		return eservice;
+	}
+
+	static IScannableDeviceService getConnector() {
+		return connector;
+	}
+
+	static IRunnableDeviceService getRunnableDeviceService() {
+		return dservice;
+	}
+
+	static IPointGeneratorService getPointGeneratorService() {
+		return gservice;
+	}
+}
@@ -0,0 +1,155 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.benchmark;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.dawnsci.analysis.api.persistence.IMarshallerService;
+import org.eclipse.dawnsci.analysis.api.roi.IROI;
+import org.eclipse.dawnsci.analysis.dataset.roi.CircularROI;
+import org.eclipse.scanning.api.event.scan.DeviceRequest;
+import org.eclipse.scanning.api.event.scan.DeviceState;
+import org.eclipse.scanning.api.event.scan.ScanBean;
+import org.eclipse.scanning.api.event.scan.ScanRequest;
+import org.eclipse.scanning.api.event.status.Status;
+import org.eclipse.scanning.api.points.MapPosition;
+import org.eclipse.scanning.api.points.models.BoundingBox;
+import org.eclipse.scanning.api.points.models.CompoundModel;
+import org.eclipse.scanning.api.points.models.GridModel;
+import org.eclipse.scanning.api.points.models.ScanRegion;
+import org.eclipse.scanning.api.points.models.StepModel;
+import org.eclipse.scanning.connector.activemq.ActivemqConnectorService;
+import org.eclipse.scanning.example.detector.MandelbrotModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The time to marshal the beans sent most often to and from the server to
+ * json, or to the binary encoding of the connector, and back. A {@link ScanBean}
+ * is sent at each point of a scan. The binary encoding is made from the json
+ * so it is expected to be slower, the benchmark shows how much it costs for
+ * the smaller messages.
+ *
+ * @author Matthew Gerring
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MarshallerBenchmark {
+
+	@Param({"ScanBean", "ScanRequest", "DeviceRequest"})
+	private String bean;
+
+	private IMarshallerService       marshaller;
+	private Object                   object;
+	private Class<?>                 clazz;
+	private String                   json;
+	private ActivemqConnectorService connector;
+	private byte[]                   bytes;
+
+	@Setup
+	public void setUp() throws Exception {
+		BenchmarkServices.setUp();
+		marshaller = BenchmarkServices.getMarshaller();
+		object     = createBean();
+		clazz      = object.getClass();
+		json       = marshaller.marshal(object);
+		connector  = new ActivemqConnectorService();
+		bytes      = connector.marshalBinary(object);
+	}
+
+	private Object createBean() throws Exception {
+		switch (bean) {
+		case "ScanBean":
+			ScanBean sbean = new ScanBean(createScanRequest());
+			sbean.setUniqueId(UUID.randomUUID().toString());
+			sbean.setStatus(Status.RUNNING);
+			sbean.setDeviceState(DeviceState.RUNNING);
+			sbean.setSize(250);
+			sbean.setPoint(125);
+			sbean.setPercentComplete(50);
+			sbean.setPosition(new MapPosition("energy:3, x:1.5, y:2.25"));
+			return sbean;
+		case "ScanRequest":
+			return createScanRequest();
+		case "DeviceRequest":
+			return new DeviceRequest("mandelbrot", createMandelbrotModel());
+		default:
+			throw new IllegalArgumentException("There is no bean called "+bean);
+		}
+	}
+
+	private static ScanRequest<IROI> createScanRequest() {
+		GridModel grid = new GridModel("x", "y", 10, 10);
+		grid.setBoundingBox(new BoundingBox(0, 0, 3, 3));
+		CompoundModel<IROI> cmodel = new CompoundModel<>();
+		cmodel.setModelsVarArgs(new StepModel("energy", 1, 5, 1), grid);
+		cmodel.setRegionsVarArgs(new ScanRegion<IROI>(new CircularROI(1.5, 1.5, 1.5), "x", "y"));
+
+		ScanRequest<IROI> req = new ScanRequest<>();
+		req.setCompoundModel(cmodel);
+		req.putDetector("mandelbrot", createMandelbrotModel());
+		req.setMonitorNamesPerPoint(Arrays.asList("T", "beamcurrent"));
+		req.setMonitorNamesPerScan(Arrays.asList("monochromator"));
+		return req;
+	}
+
+	private static MandelbrotModel createMandelbrotModel() {
+		MandelbrotModel model = new MandelbrotModel();
+		model.setName("mandelbrot");
+		model.setRealAxisName("x");
+		model.setImaginaryAxisName("y");
+		model.setColumns(64);
+		model.setRows(64);
+		model.setExposureTime(0.001);
+		return model;
+	}
+
+	@Benchmark
+	public String marshal() throws Exception {
+		return marshaller.marshal(object);
+	}
+
+	@Benchmark
+	public Object unmarshal() throws Exception {
+		return marshaller.unmarshal(json, clazz);
+	}
+
+	@Benchmark
+	public Object roundTrip() throws Exception {
+		return marshaller.unmarshal(marshaller.marshal(object), clazz);
+	}
+
+	@Benchmark
+	public byte[] marshalBinary() throws Exception {
+		return connector.marshalBinary(object);
+	}
+
+	@Benchmark
+	public Object unmarshalBinary() throws Exception {
+		return connector.unmarshalBinary(bytes, clazz, null);
+	}
+
+	@Benchmark
+	public Object roundTripBinary() throws Exception {
+		return connector.unmarshalBinary(connector.marshalBinary(object), clazz, null);
+	}
+}
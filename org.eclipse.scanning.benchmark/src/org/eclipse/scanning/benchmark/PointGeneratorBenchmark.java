@@ -0,0 +1,123 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.dawnsci.analysis.dataset.roi.CircularROI;
+import org.eclipse.scanning.api.points.GeneratorException;
+import org.eclipse.scanning.api.points.IPointGenerator;
+import org.eclipse.scanning.api.points.IPointGeneratorService;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.models.BoundingBox;
+import org.eclipse.scanning.api.points.models.GridModel;
+import org.eclipse.scanning.api.points.models.SpiralModel;
+import org.eclipse.scanning.api.points.models.StepModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The time to make the points of the paths users scan most often, with the
+ * generators written in Java and with those of scanpointgenerator in Jython.
+ * The compound path is an energy step around a grid in a circle, so some of
+ * the points are excluded.
+ *
+ * @author Matthew Gerring
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PointGeneratorBenchmark {
+
+	private static final String JYTHON_PROPERTY = "org.eclipse.scanning.points.jython";
+
+	@Param({"grid", "spiral", "compound"})
+	private String path;
+
+	@Param({"false", "true"})
+	private boolean jython;
+
+	/**
+	 * The number of points along each axis of the grid.
+	 */
+	@Param({"50"})
+	private int side;
+
+	private IPointGeneratorService service;
+	private IPointGenerator<?>     generator;
+
+	@Setup
+	public void setUp() throws GeneratorException {
+		BenchmarkServices.setUp();
+		System.setProperty(JYTHON_PROPERTY, String.valueOf(jython));
+		service   = BenchmarkServices.getPointGeneratorService();
+		generator = createGenerator();
+	}
+
+	@TearDown
+	public void tearDown() {
+		System.clearProperty(JYTHON_PROPERTY);
+	}
+
+	private IPointGenerator<?> createGenerator() throws GeneratorException {
+		final BoundingBox box = new BoundingBox(0, 0, 3, 3);
+		switch (path) {
+		case "grid":
+			return service.createGenerator(createGridModel(box));
+		case "spiral":
+			return service.createGenerator(new SpiralModel("x", "y", 3d/side, box));
+		case "compound":
+			IPointGenerator<?> energy = service.createGenerator(new StepModel("energy", 1, 5, 1));
+			IPointGenerator<?> grid   = service.createGenerator(createGridModel(box), new CircularROI(1.5, 1.5, 1.5));
+			return service.createCompoundGenerator(energy, grid);
+		default:
+			throw new IllegalArgumentException("There is no path called "+path);
+		}
+	}
+
+	private GridModel createGridModel(BoundingBox box) {
+		GridModel model = new GridModel("x", "y");
+		model.setFastAxisPoints(side);
+		model.setSlowAxisPoints(side);
+		model.setBoundingBox(box);
+		model.setSnake(true);
+		return model;
+	}
+
+	/**
+	 * Iterates over all the points of the path.
+	 */
+	@Benchmark
+	public void iterate(Blackhole hole) {
+		for (IPosition pos : generator) hole.consume(pos);
+	}
+
+	/**
+	 * Creates the generator and works out the size and shape
+	 * of the scan, as is done before a scan is run.
+	 */
+	@Benchmark
+	public void sizeAndShape(Blackhole hole) throws GeneratorException {
+		IPointGenerator<?> gen = createGenerator();
+		hole.consume(gen.size());
+		hole.consume(gen.getShape());
+	}
+}
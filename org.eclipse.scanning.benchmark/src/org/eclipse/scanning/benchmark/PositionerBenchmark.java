@@ -0,0 +1,111 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.scanning.api.AbstractScannable;
+import org.eclipse.scanning.api.IScannable;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.MapPosition;
+import org.eclipse.scanning.api.scan.event.IPositioner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * The time the positioner takes to move scannables which do not take any
+ * time to move, level by level. This is the cost of the LevelRunner that
+ * is paid at each point of a scan on top of the time taken by the devices.
+ *
+ * @author Matthew Gerring
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PositionerBenchmark {
+
+	@Param({"1", "4", "16"})
+	private int levels;
+
+	@Param({"1", "4"})
+	private int scannablesPerLevel;
+
+	private IPositioner positioner;
+	private IPosition[] positions;
+	private int         index;
+
+	@Setup
+	public void setUp() throws Exception {
+		BenchmarkServices.setUp();
+
+		final List<IScannable<?>> scannables = new ArrayList<>(levels*scannablesPerLevel);
+		final MapPosition start = new MapPosition();
+		final MapPosition end   = new MapPosition();
+		for (int level = 1; level <= levels; level++) {
+			for (int i = 0; i < scannablesPerLevel; i++) {
+				String name = "level"+level+"_"+i;
+				scannables.add(new InstantScannable(name, level));
+				start.put(name, 0d);
+				end.put(name, 1d);
+			}
+		}
+		positioner = BenchmarkServices.getRunnableDeviceService().createPositioner();
+		positioner.setScannables(scannables);
+		positions = new IPosition[] { start, end };
+	}
+
+	@TearDown
+	public void tearDown() {
+		positioner.close();
+	}
+
+	@Benchmark
+	public boolean setPosition() throws Exception {
+		index = 1-index;
+		return positioner.setPosition(positions[index]);
+	}
+
+	/**
+	 * Moves as soon as it is told to, unlike MockScannable
+	 * which also keeps each value it is moved to.
+	 */
+	private static final class InstantScannable extends AbstractScannable<Double> {
+
+		private volatile Double position = 0d;
+
+		InstantScannable(String name, int level) {
+			setName(name);
+			setLevel(level);
+		}
+
+		@Override
+		public Double getPosition() throws Exception {
+			return position;
+		}
+
+		@Override
+		public Double setPosition(Double value, IPosition loc) throws Exception {
+			position = value;
+			return value;
+		}
+	}
+}
@@ -0,0 +1,125 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.benchmark;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.scanning.api.device.IRunnableDevice;
+import org.eclipse.scanning.api.device.IRunnableDeviceService;
+import org.eclipse.scanning.api.points.IPointGenerator;
+import org.eclipse.scanning.api.points.models.BoundingBox;
+import org.eclipse.scanning.api.points.models.GridModel;
+import org.eclipse.scanning.api.scan.models.ScanModel;
+import org.eclipse.scanning.example.detector.MandelbrotModel;
+import org.eclipse.scanning.example.scannable.MockNeXusScannable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * The time to run a grid scan of two mock motors and a Mandelbrot detector
+ * from start to end, with and without writing a NeXus file. The motors move
+ * and the detector exposes without waiting so the time is that of the scan
+ * loop, the detector's calculation and the file writing.
+ * <p>
+ * Writing NeXus needs the HDF5 native libraries on the java.library.path,
+ * as the NeXus tests do.
+ *
+ * @author Matthew Gerring
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ScanBenchmark {
+
+	/**
+	 * The number of points along each axis of the grid.
+	 */
+	@Param({"5", "20"})
+	private int side;
+
+	@Param({"false", "true"})
+	private boolean nexus;
+
+	private IRunnableDeviceService      dservice;
+	private IRunnableDevice<?>          detector;
+	private File                        dir;
+	private File                        file;
+	private IRunnableDevice<ScanModel>  scanner;
+	private int                         count;
+
+	@Setup
+	public void setUp() throws Exception {
+		BenchmarkServices.setUp();
+		dservice = BenchmarkServices.getRunnableDeviceService();
+
+		// New motors for each trial, as mock scannables keep the positions they are moved to.
+		BenchmarkServices.getConnector().register(new MockNeXusScannable("xBench", 0d, 3, "mm"));
+		BenchmarkServices.getConnector().register(new MockNeXusScannable("yBench", 0d, 3, "mm"));
+
+		MandelbrotModel model = new MandelbrotModel();
+		model.setName("mandelbrot");
+		model.setRealAxisName("xBench");
+		model.setImaginaryAxisName("yBench");
+		model.setColumns(64);
+		model.setRows(64);
+		model.setPoints(100);
+		model.setExposureTime(0);
+		detector = dservice.createRunnableDevice(model);
+
+		dir = Files.createTempDirectory("scanBenchmark").toFile();
+	}
+
+	@Setup(Level.Invocation)
+	public void createScan() throws Exception {
+
+		GridModel gmodel = new GridModel("xBench", "yBench", side, side);
+		gmodel.setBoundingBox(new BoundingBox(0, 0, 3, 3));
+		gmodel.setSnake(true);
+		IPointGenerator<?> gen = BenchmarkServices.getPointGeneratorService().createGenerator(gmodel);
+
+		file = nexus ? new File(dir, "scan"+(++count)+".nxs") : null;
+
+		final ScanModel smodel = new ScanModel();
+		smodel.setPositionIterable(gen);
+		smodel.setDetectors(detector);
+		smodel.setFilePath(file!=null ? file.getAbsolutePath() : null);
+
+		// Create a scan and run it without publishing events
+		scanner = dservice.createRunnableDevice(smodel, null);
+	}
+
+	@TearDown(Level.Invocation)
+	public void deleteFile() {
+		if (file!=null) file.delete();
+	}
+
+	@TearDown
+	public void tearDown() {
+		dir.delete();
+	}
+
+	@Benchmark
+	public void run() throws Exception {
+		scanner.run(null);
+	}
+}
@@ -0,0 +1,116 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.benchmark;
+
+import java.net.URI;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.scanning.api.event.IEventService;
+import org.eclipse.scanning.api.event.bean.BeanEvent;
+import org.eclipse.scanning.api.event.bean.IBeanListener;
+import org.eclipse.scanning.api.event.core.IPublisher;
+import org.eclipse.scanning.api.event.core.ISubscriber;
+import org.eclipse.scanning.api.event.scan.DeviceState;
+import org.eclipse.scanning.api.event.scan.ScanBean;
+import org.eclipse.scanning.api.event.status.Status;
+import org.eclipse.scanning.api.points.MapPosition;
+import org.eclipse.scanning.connector.activemq.ActivemqConnectorService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * The time from publishing a {@link ScanBean} to it being given to the
+ * listener of a subscriber in the same JVM, as the scan does at each point.
+ * A broker which only this JVM can connect to is started, so the events
+ * pass directly between the publisher and the subscriber.
+ *
+ * @author Matthew Gerring
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SubscriberBenchmark {
+
+	private static final int EVENTS = 100;
+
+	private ActivemqConnectorService             broker;
+	private IPublisher<ScanBean>                 publisher;
+	private ISubscriber<IBeanListener<ScanBean>> subscriber;
+	private ScanBean                             bean;
+
+	private volatile CountDownLatch              latch;
+
+	@Setup
+	public void setUp() throws Exception {
+		BenchmarkServices.setUp();
+
+		broker = new ActivemqConnectorService();
+		broker.start("vm://benchmark");
+		final URI uri = new URI("vm://benchmark?create=false");
+
+		final IEventService eservice = BenchmarkServices.getEventService();
+		final String        topic    = "org.eclipse.scanning.benchmark."+UUID.randomUUID();
+		subscriber = eservice.createSubscriber(uri, topic);
+		subscriber.addListener(new IBeanListener<ScanBean>() {
+			@Override
+			public void beanChangePerformed(BeanEvent<ScanBean> evt) {
+				latch.countDown();
+			}
+			@Override
+			public Class<ScanBean> getBeanClass() {
+				return ScanBean.class;
+			}
+		});
+		publisher = eservice.createPublisher(uri, topic);
+
+		bean = new ScanBean();
+		bean.setName("Benchmark Scan");
+		bean.setUniqueId(UUID.randomUUID().toString());
+		bean.setStatus(Status.RUNNING);
+		bean.setDeviceState(DeviceState.RUNNING);
+		bean.setSize(EVENTS);
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		publisher.disconnect();
+		subscriber.disconnect();
+		broker.stop();
+	}
+
+	/**
+	 * Publishes a scan of events and waits for the subscriber to be given them all.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(EVENTS)
+	public void publishAndReceive() throws Exception {
+		latch = new CountDownLatch(EVENTS);
+		for (int i = 0; i < EVENTS; i++) {
+			bean.setPoint(i); // The same bean changes as it is sent, as in a scan.
+			bean.setPosition(new MapPosition("x", i, i*0.1));
+			publisher.broadcast(bean);
+		}
+		if (!latch.await(10, TimeUnit.SECONDS)) {
+			throw new IllegalStateException("Only "+(EVENTS-latch.getCount())+" of "+EVENTS+" events were received!");
+		}
+	}
+}
@@ -15,15 +15,21 @@ import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 import org.apache.commons.lang.StringEscapeUtils;
 import org.eclipse.dawnsci.analysis.api.roi.IROI;
 import org.eclipse.dawnsci.analysis.dataset.roi.RectangularROI;
 import org.eclipse.dawnsci.json.MarshallerService;
+import org.eclipse.scanning.api.event.scan.DeviceState;
+import org.eclipse.scanning.api.event.scan.ScanBean;
+import org.eclipse.scanning.api.event.status.Status;
 import org.eclipse.scanning.api.event.status.StatusBean;
+import org.eclipse.scanning.api.points.MapPosition;
 import org.eclipse.scanning.connector.activemq.ActivemqConnectorService;
 import org.eclipse.scanning.points.classregistry.ScanningAPIClassRegistry;
 import org.eclipse.scanning.points.serialization.PointsModelMarshaller;
@@ -109,6 +115,77 @@ public class ActivemqConnectorServiceJsonMarshallingTest {
 		json = marshaller.marshal(bean);
 	}
 
+	@Test
+	public void testProjectBeanBinaryRoundTrip() throws Exception {
+		ProjectBean bean = marshaller.unmarshal(JSON_FOR_PROJECT_BEAN, ProjectBean.class);
+		byte[] bytes = marshaller.marshalBinary(bean);
+		assertTrue(bytes.length < JSON_FOR_PROJECT_BEAN.length());
+		assertEquals(bean, marshaller.unmarshalBinary(bytes, ProjectBean.class, null));
+	}
+
+	@Test
+	public void testProjectBeanBinaryWithoutSweeps() throws Exception {
+		ProjectBean bean = marshaller.unmarshal(JSON_FOR_PROJECT_BEAN, ProjectBean.class);
+		bean = marshaller.unmarshalBinary(marshaller.marshalBinary(bean), ProjectBean.class, Arrays.asList("sweeps"));
+		assertEquals(null, bean.getSweeps());
+		assertEquals("MultiCrystalRerun", bean.getProjectName());
+		assertTrue(bean.isAnomalous());
+	}
+
+	@Test
+	public void testStatusBeanBinaryRoundTrip() throws Exception {
+		StatusBean bean = new StatusBean();
+		bean.setName("Binary");
+		bean.setUniqueId(UUID.randomUUID().toString());
+		bean.setStatus(Status.RUNNING);
+		bean.setMessage("Running the \"binary\" bean");
+		bean.setPercentComplete(12.5);
+		bean.setSubmissionTime(System.currentTimeMillis());
+		checkBinaryRoundTrip(bean, StatusBean.class);
+	}
+
+	@Test
+	public void testScanBeanBinaryRoundTrip() throws Exception {
+		ScanBean bean = new ScanBean();
+		bean.setName("Binary scan");
+		bean.setUniqueId(UUID.randomUUID().toString());
+		bean.setStatus(Status.RUNNING);
+		bean.setDeviceState(DeviceState.RUNNING);
+		bean.setSize(250);
+		bean.setPoint(125);
+		bean.setPercentComplete(50);
+		bean.setPosition(new MapPosition("energy:3, x:1.5, y:2.25"));
+		checkBinaryRoundTrip(bean, ScanBean.class);
+	}
+
+	private <T> void checkBinaryRoundTrip(T bean, Class<T> clazz) throws Exception {
+		byte[] bytes = marshaller.marshalBinary(bean);
+		assertTrue(bytes.length < marshaller.marshal(bean).getBytes(StandardCharsets.UTF_8).length);
+		assertEquals(bean, marshaller.unmarshalBinary(bytes, clazz, null));
+		assertEquals(bean, marshaller.unmarshal(marshaller.marshal(bean), clazz)); // The same as json
+	}
+
+	@Test
+	public void testProjectBeanDeserializationWithoutSweeps() throws Exception {
+		ProjectBean bean = marshaller.unmarshal(JSON_FOR_PROJECT_BEAN, ProjectBean.class, Arrays.asList("sweeps", "properties"));
+		assertEquals(null, bean.getSweeps());
+		assertEquals("MultiCrystalRerun", bean.getProjectName());
+		assertEquals("X1_weak_M1S1_1 - X1_weak_M1S1_1", bean.getName());
+		assertTrue(bean.isAnomalous());
+	}
+
+	@Test
+	public void testExcludedNameInStringIsKept() throws Exception {
+		StatusBean sent = new StatusBean();
+		sent.setName("\"message\":{");
+		sent.setMessage("Not for this subscriber");
+		json = marshaller.marshal(sent);
+
+		StatusBean bean = marshaller.unmarshal(json, StatusBean.class, Arrays.asList("message"));
+		assertEquals(sent.getName(), bean.getName());
+		assertEquals(null, bean.getMessage());
+	}
+
 	@Test
 	public void testROISerialization() throws Exception {
 		IROI roi = new RectangularROI(-3.5, 4.0, 8.0, 6.1, 0.0);
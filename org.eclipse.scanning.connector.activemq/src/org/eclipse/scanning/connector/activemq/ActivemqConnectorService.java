@@ -11,21 +11,37 @@
  *******************************************************************************/
 package org.eclipse.scanning.connector.activemq;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.StringWriter;
 import java.net.DatagramSocket;
 import java.net.ServerSocket;
 import java.net.URI;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.broker.BrokerRegistry;
 import org.apache.activemq.broker.BrokerService;
+import org.apache.activemq.broker.region.Destination;
+import org.apache.activemq.command.ActiveMQTopic;
 import org.apache.activemq.usage.SystemUsage;
 import org.eclipse.dawnsci.analysis.api.persistence.IMarshallerService;
 import org.eclipse.scanning.api.event.EventException;
 import org.eclipse.scanning.api.event.IEventConnectorService;
 import org.eclipse.scanning.api.event.IMessagingService;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+
 /**
  * This class is temporarily in this plugin and needs to be moved out of it once:
  * 1. We move the ActiveMQ dependency to bundle imports rather than jar file.
@@ -34,6 +50,11 @@ import org.eclipse.scanning.api.event.IMessagingService;
  * <p>
  * JSON marshalling is done by delegating to the new JsonMarshaller service which encapsulates all JSON interactions
  * behind one cohesive interface.
+ * <p>
+ * The binary encoding is Smile, the binary form of json from Jackson. The json of the marshaller is
+ * transcoded token by token to Smile and back, because the marshaller, which holds the configuration of
+ * the ObjectMapper, only reads and writes strings. The messages are smaller but each direction costs an
+ * extra pass over the tokens, so the binary encoding saves bandwidth rather than time marshalling.
  *
  * @author Matthew Gerring
  * @author Colin Palmer
@@ -42,6 +63,13 @@ import org.eclipse.scanning.api.event.IMessagingService;
 public class ActivemqConnectorService implements IEventConnectorService, IMessagingService {
 
 	private static IMarshallerService jsonMarshaller;
+	private static final JsonFactory  jsonFactory  = new JsonFactory();
+	private static final SmileFactory smileFactory = createSmileFactory();
+
+	/**
+	 * The content type of the binary encoding.
+	 */
+	static final String BINARY_ENCODING = "application/x-jackson-smile";
 
 	public static void setJsonMarshaller(IMarshallerService jsonMarshaller) {
 		ActivemqConnectorService.jsonMarshaller = jsonMarshaller;
@@ -59,7 +87,41 @@ public class ActivemqConnectorService implements IEventConnectorService, IMessag
 
 	@Override
 	public Object createConnectionFactory(URI uri) {
-		return new ActiveMQConnectionFactory(uri);
+		final ActiveMQConnectionFactory factory = new ActiveMQConnectionFactory(uri);
+		if (isVM(uri)) {
+			// The messages are made for each send and not changed after it, so
+			// the broker in this JVM does not need to copy them.
+			factory.setCopyMessageOnSend(false);
+		}
+		return factory;
+	}
+
+	@Override
+	public int getConsumerCount(URI uri, String topicName) {
+		if (!isVM(uri)) return -1;
+		final BrokerService broker = BrokerRegistry.getInstance().lookup(uri.getAuthority());
+		if (broker==null) return -1; // Named by a brokerName option, not by the uri.
+		try {
+			int count = 0;
+			// The destinations matching the topic, the topic is not made if it does not exist.
+			for (Destination destination : broker.getRegionBroker().getDestinations(new ActiveMQTopic(topicName))) {
+				count += destination.getConsumers().size();
+			}
+			return count;
+		} catch (Exception ne) {
+			return -1;
+		}
+	}
+
+	private static SmileFactory createSmileFactory() {
+		final SmileFactory factory = new SmileFactory();
+		// Short strings repeated in a bean, like the names of the scannables, are written once.
+		factory.enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES);
+		return factory;
+	}
+
+	private static boolean isVM(URI uri) {
+		return "vm".equalsIgnoreCase(uri.getScheme());
 	}
 
 	@Override
@@ -74,6 +136,71 @@ public class ActivemqConnectorService implements IEventConnectorService, IMessag
 		return jsonMarshaller.unmarshal(json, beanClass);
 	}
 
+	@Override
+	public <U> U unmarshal(String json, Class<U> beanClass, Collection<String> excludedProperties) throws Exception {
+		if (excludedProperties==null || excludedProperties.isEmpty()) return unmarshal(json, beanClass);
+		return unmarshal(filter(json, excludedProperties), beanClass);
+	}
+
+	@Override
+	public String getBinaryEncoding() {
+		return BINARY_ENCODING;
+	}
+
+	@Override
+	public byte[] marshalBinary(Object anyObject) throws Exception {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+		try (JsonParser parser = jsonFactory.createParser(marshal(anyObject));
+			 JsonGenerator generator = smileFactory.createGenerator(out)) {
+			copy(parser, generator, Collections.<String>emptySet());
+		}
+		return out.toByteArray();
+	}
+
+	@Override
+	public <U> U unmarshalBinary(byte[] bytes, Class<U> beanClass, Collection<String> excludedProperties) throws Exception {
+		final StringWriter writer = new StringWriter(2*bytes.length);
+		try (JsonParser parser = smileFactory.createParser(bytes);
+			 JsonGenerator generator = jsonFactory.createGenerator(writer)) {
+			copy(parser, generator, excludedProperties!=null ? excludedProperties : Collections.<String>emptySet());
+		}
+		return unmarshal(writer.toString(), beanClass);
+	}
+
+	/**
+	 * Copies the json token by token, skipping the value of any field with an excluded name
+	 * without reading it into objects. Unlike editing the string this is not confused by
+	 * names which appear in string values or by values which are arrays.
+	 *
+	 * @param json
+	 * @param excludedProperties
+	 * @return the json without the excluded properties
+	 * @throws IOException
+	 */
+	static String filter(String json, Collection<String> excludedProperties) throws IOException {
+
+		final StringWriter writer = new StringWriter();
+		try (JsonParser parser = jsonFactory.createParser(json);
+			 JsonGenerator generator = jsonFactory.createGenerator(writer)) {
+			copy(parser, generator, excludedProperties);
+		}
+		return writer.toString();
+	}
+
+	private static void copy(JsonParser parser, JsonGenerator generator, Collection<String> excludedProperties) throws IOException {
+
+		final Set<String> excluded = excludedProperties instanceof Set ? (Set<String>)excludedProperties : new HashSet<String>(excludedProperties);
+		JsonToken token;
+		while((token = parser.nextToken())!=null) {
+			if (token==JsonToken.FIELD_NAME && excluded.contains(parser.getCurrentName())) {
+				parser.nextToken();
+				parser.skipChildren(); // Does nothing if the value is not an object or array.
+				continue;
+			}
+			generator.copyCurrentEvent(parser);
+		}
+	}
+
 	private void checkJsonMarshaller() {
 		if (jsonMarshaller == null) {
 			// OSGi should always provide the JSON marshaller. If it's not present, probably someone is calling this
@@ -89,11 +216,15 @@ public class ActivemqConnectorService implements IEventConnectorService, IMessag
 	/**
 	 * @param The activemq connector uri, for instance: "failover:(tcp://localhost:61616)?startupMaxReconnectAttempts=3"
 	 *        The failover:() is stipped out so that a tcp:// uri is created for the server.
+	 *        A vm:// uri, for instance "vm://localhost", starts a broker which only
+	 *        clients in this JVM can connect to, without tcp or stomp connectors.
 	 */
 	@Override
 	public URI start(String suggestedURI) throws EventException {
 
 		try {
+			if (suggestedURI.startsWith("vm://")) return startVM(new URI(suggestedURI));
+
 			Pattern pattern = Pattern.compile(".*(tcp://[a-zA-Z\\.]+:\\d+).*");
 			Matcher matcher = pattern.matcher(suggestedURI);
 			if (matcher.matches()) suggestedURI = matcher.group(1);
@@ -115,6 +246,16 @@ public class ActivemqConnectorService implements IEventConnectorService, IMessag
 		}
 	}
 
+	private URI startVM(URI uri) throws Exception {
+		service = new BrokerService();
+		service.setBrokerName(uri.getHost()!=null ? uri.getHost() : uri.getAuthority());
+		service.setPersistent(false);
+		service.setUseJmx(false);
+		service.start();
+		service.waitUntilStarted();
+		return uri;
+	}
+
 	@Override
 	public void stop() throws EventException {
 		if (service==null) return;
@@ -18,6 +18,7 @@ import java.util.Collection;
 import java.util.Hashtable;
 import java.util.Map;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.scanning.api.malcolm.IMalcolmDevice;
 import org.eclipse.scanning.api.malcolm.MalcolmDeviceException;
@@ -52,6 +53,11 @@ import org.slf4j.LoggerFactory;
  * This class uses EpicsV4 class to connect to an Epics V4 endpoint.
  * It provides the ability to get a pv, set a pv, call a method, and subsribe and unsubscribe to a pv.
  *
+ * The channel to each device is kept open between messages, as are the gets and puts
+ * made on it for each request string, so that polling a device does not connect to it
+ * each time. If the channel disconnects it is discarded and the next message to the
+ * device connects again.
+ *
  * @author Matt Taylor
  *
  */
@@ -69,9 +75,12 @@ public class EpicsV4ConnectorService implements IMalcolmConnectorService<Malcolm
 
     private Map<Long, Collection<EpicsV4MonitorListener>> listeners;
 
+    private Map<String, CachedChannel> channels;
+
     public EpicsV4ConnectorService() {
 		mapper = new EpicsV4MessageMapper();
 		this.listeners = new Hashtable<Long, Collection<EpicsV4MonitorListener>>(7);
+		this.channels = new ConcurrentHashMap<String, CachedChannel>(7);
 		pvaClient = PvaClient.get("pva"); // Should this be "pva" or the no-argument one?
 	}
 
@@ -83,6 +92,7 @@ public class EpicsV4ConnectorService implements IMalcolmConnectorService<Malcolm
 	@Override
 	public void disconnect() throws MalcolmDeviceException {
         //pvaClient.destroy();
+		for (CachedChannel channel : channels.values()) discard(channel);
 	}
 
 	public PVStructure pvMarshal(Object anyObject) throws Exception {
@@ -229,42 +239,31 @@ public class EpicsV4ConnectorService implements IMalcolmConnectorService<Malcolm
 	protected MalcolmMessage sendGetMessage(IMalcolmDevice<?> device, MalcolmMessage message) throws Exception {
 
 		MalcolmMessage returnMessage = new MalcolmMessage();
-		PvaClientChannel pvaChannel = null;
 		try {
 			PVStructure pvResult = null;
-			pvaChannel = pvaClient.createChannel(device.getName(), "pva");
-			pvaChannel.issueConnect();
-			Status status = pvaChannel.waitConnect(REQUEST_TIMEOUT);
-			if (!status.isOK()) {
-				String errMEssage = "Failed to connect to device '" + device.getName() + "' (" + status.getType() + ": "
-						+ status.getMessage() + ")";
-				throw new Exception(errMEssage);
-			}
+			CachedChannel channel = getChannel(device);
 
 			String requestString = message.getEndpoint();
 			logger.debug("Get '{}'", requestString);
-			PvaClientGet pvaGet = pvaChannel.createGet(requestString);
-			pvaGet.issueConnect();
-			status = pvaGet.waitConnect();
-			if (!status.isOK()) {
-				String errMEssage = "CreateGet failed for '" + requestString + "' (" + status.getType() + ": "
-						+ status.getMessage() + ")";
-				throw new Exception(errMEssage);
+			PvaClientGet pvaGet = channel.getGet(requestString);
+			try {
+				synchronized (pvaGet) { // The data is reused by the next get
+					pvaGet.get(); // Otherwise the data of the first get is returned again
+					PvaClientGetData pvaData = pvaGet.getData();
+					pvResult = pvaData.getPVStructure();
+					logger.debug("Get response = \n{}\nEND", pvResult);
+					returnMessage = mapper.convertGetPVStructureToMalcolmMessage(pvResult, message);
+				}
+			} catch (Exception ex) {
+				channel.removeGet(requestString, pvaGet);
+				throw checkConnected(channel, ex);
 			}
-			PvaClientGetData pvaData = pvaGet.getData();
-			pvResult = pvaData.getPVStructure();
-			logger.debug("Get response = \n{}\nEND", pvResult);
-			returnMessage = mapper.convertGetPVStructureToMalcolmMessage(pvResult, message);
 		} catch (Exception ex) {
 			logger.error(ex.getMessage());
 			returnMessage.setType(Type.ERROR);
 			returnMessage.setMessage(ex.getMessage());
 		}
 
-		if (pvaChannel != null) {
-			pvaChannel.destroy();
-		}
-
         return returnMessage;
 	}
 
@@ -279,31 +278,24 @@ public class EpicsV4ConnectorService implements IMalcolmConnectorService<Malcolm
 			returnMessage.setMessage("Unable to set field value to null: " + message.getEndpoint());
         }
 
-		PvaClientChannel pvaChannel = null;
-
 		try {
 			String requestString = message.getEndpoint();
 
-			pvaChannel = pvaClient.createChannel(device.getName(),"pva");
-			pvaChannel.issueConnect();
-	        Status status = pvaChannel.waitConnect(REQUEST_TIMEOUT);
-	        if(!status.isOK()) {
-			String errMEssage = "Failed to connect to device '" + device.getName() + "' (" + status.getType() + ": " + status.getMessage() + ")";
-			throw new Exception(errMEssage);
-	        }
-	        PvaClientPut pvaPut = pvaChannel.createPut(requestString);
-	        pvaPut.issueConnect();
-	        status = pvaPut.waitConnect();
-	        if(!status.isOK()) {
-			String errMEssage = "CreatePut failed for '" + requestString + "' (" + status.getType() + ": " + status.getMessage() + ")";
-			throw new Exception(errMEssage);
-		}
-	        PvaClientPutData putData = pvaPut.getData();
-	        PVStructure pvStructure = putData.getPVStructure();
+			CachedChannel channel = getChannel(device);
+			PvaClientPut pvaPut = channel.getPut(requestString);
+			try {
+				synchronized (pvaPut) {
+					PvaClientPutData putData = pvaPut.getData();
+					PVStructure pvStructure = putData.getPVStructure();
 
-	        mapper.populatePutPVStructure(pvStructure, message);
+					mapper.populatePutPVStructure(pvStructure, message);
 
-	        pvaPut.put();
+					pvaPut.put();
+				}
+			} catch (Exception ex) {
+				channel.removePut(requestString, pvaPut);
+				throw checkConnected(channel, ex);
+			}
 
 		} catch (Exception ex) {
 			logger.error(ex.getMessage());
@@ -312,17 +304,12 @@ public class EpicsV4ConnectorService implements IMalcolmConnectorService<Malcolm
 			returnMessage.setMessage("Error putting value into field " + message.getEndpoint() + ": " + ex.getMessage());
 		}
 
-		if (pvaChannel != null) {
-			pvaChannel.destroy();
-		}
-
         return returnMessage;
 	}
 
 	private MalcolmMessage sendCallMessage(IMalcolmDevice<?> device, MalcolmMessage message) {
 
 		MalcolmMessage returnMessage = new MalcolmMessage();
-		PvaClientChannel pvaChannel = null;
 
 		try {
 			PVStructure pvResult = null;
@@ -332,24 +319,24 @@ public class EpicsV4ConnectorService implements IMalcolmConnectorService<Malcolm
 			PVStructure methodStructure = pvRequest.getStructureField("method");
 			PVStructure parametersStructure = pvRequest.getStructureField("parameters");
 
-			pvaChannel = pvaClient.createChannel(device.getName(),"pva");
-			pvaChannel.issueConnect();
-	        Status status = pvaChannel.waitConnect(REQUEST_TIMEOUT);
-	        if(!status.isOK()) {
-			String errMEssage = "Failed to connect to device '" + device.getName() + "' (" + status.getType() + ": " + status.getMessage() + ")";
-			throw new Exception(errMEssage);
-	        }
+			CachedChannel channel = getChannel(device);
 
 			logger.debug("Call method = \n{}\nEND", methodStructure);
-	        PvaClientRPC rpc = pvaChannel.createRPC(methodStructure);
-	        rpc.issueConnect();
-	        status = rpc.waitConnect();
-	        if(!status.isOK()) {
-			String errMEssage = "CreateRPC failed for '" + message.getMethod() + "' (" + status.getType() + ": " + status.getMessage() + ")";
-			throw new Exception(errMEssage);
-		}
-			logger.debug("Call param = \n{}\nEND", parametersStructure);
-	        pvResult = rpc.request(parametersStructure);
+			PvaClientRPC rpc = channel.getChannel().createRPC(methodStructure);
+			try {
+				rpc.issueConnect();
+				Status status = rpc.waitConnect();
+				if(!status.isOK()) {
+					String errMEssage = "CreateRPC failed for '" + message.getMethod() + "' (" + status.getType() + ": " + status.getMessage() + ")";
+					throw new Exception(errMEssage);
+				}
+				logger.debug("Call param = \n{}\nEND", parametersStructure);
+				pvResult = rpc.request(parametersStructure);
+			} catch (Exception ex) {
+				throw checkConnected(channel, ex);
+			} finally {
+				rpc.destroy();
+			}
 			logger.debug("Call response = \n{}\nEND", pvResult);
 			returnMessage = mapper.convertCallPVStructureToMalcolmMessage(pvResult, message);
 		} catch (Exception ex) {
@@ -359,11 +346,60 @@ public class EpicsV4ConnectorService implements IMalcolmConnectorService<Malcolm
 			returnMessage.setMessage(ex.getMessage());
 		}
 
-		if (pvaChannel != null) {
-			pvaChannel.destroy();
+        return returnMessage;
+	}
+
+	/**
+	 * Gets the open channel to the device, connecting to it if there is no channel
+	 * or the last one has disconnected.
+	 *
+	 * @param device
+	 * @return
+	 * @throws Exception if the device cannot be connected to
+	 */
+	private CachedChannel getChannel(IMalcolmDevice<?> device) throws Exception {
+
+		final String name = device.getName();
+		CachedChannel channel = channels.get(name);
+		if (channel!=null && channel.isConnected()) return channel;
+
+		synchronized (channels) {
+			channel = channels.get(name);
+			if (channel!=null && channel.isConnected()) return channel;
+			if (channel!=null) discard(channel);
+
+			PvaClientChannel pvaChannel = pvaClient.createChannel(name, "pva");
+			pvaChannel.issueConnect();
+			Status status = pvaChannel.waitConnect(REQUEST_TIMEOUT);
+			if (!status.isOK()) {
+				pvaChannel.destroy();
+				String errMEssage = "Failed to connect to device '" + name + "' (" + status.getType() + ": "
+						+ status.getMessage() + ")";
+				throw new Exception(errMEssage);
+			}
+			channel = new CachedChannel(name, pvaChannel);
+			pvaChannel.setStateChangeRequester(channel);
+			channels.put(name, channel);
+			return channel;
 		}
+	}
 
-        return returnMessage;
+	/**
+	 * If a message failed because the channel has disconnected, discards the
+	 * channel and returns an exception saying that the device is not connected.
+	 * @param channel
+	 * @param ex
+	 * @return the exception to throw
+	 */
+	private Exception checkConnected(CachedChannel channel, Exception ex) {
+		if (channel.isConnected()) return ex;
+		discard(channel);
+		return new Exception("Failed to connect to device '" + channel.getName() + "' (" + ex.getMessage() + ")", ex);
+	}
+
+	private void discard(CachedChannel channel) {
+		channels.remove(channel.getName(), channel);
+		channel.destroy();
 	}
 
 	@Override
@@ -409,6 +445,103 @@ public class EpicsV4ConnectorService implements IMalcolmConnectorService<Malcolm
 		}
 	}
 
+	/**
+	 * A channel to a device which is kept open between messages, with the gets
+	 * and puts made on it for each request string. When the channel disconnects
+	 * it is marked so that the next message discards it and connects again.
+	 */
+	class CachedChannel implements PvaClientChannelStateChangeRequester {
+
+		private final String                    name;
+		private final PvaClientChannel          channel;
+		private final Map<String, PvaClientGet> gets;
+		private final Map<String, PvaClientPut> puts;
+		private volatile boolean                connected;
+
+		CachedChannel(String name, PvaClientChannel channel) {
+			this.name      = name;
+			this.channel   = channel;
+			this.gets      = new ConcurrentHashMap<String, PvaClientGet>(7);
+			this.puts      = new ConcurrentHashMap<String, PvaClientPut>(7);
+			this.connected = true;
+		}
+
+		@Override
+		public void channelStateChange(PvaClientChannel channel, boolean isConnected) {
+			if (!isConnected) connected = false; // Reconnected by the next message
+		}
+
+		String getName() {
+			return name;
+		}
+
+		PvaClientChannel getChannel() {
+			return channel;
+		}
+
+		boolean isConnected() {
+			return connected && channel.getChannel().isConnected();
+		}
+
+		PvaClientGet getGet(String requestString) throws Exception {
+			PvaClientGet pvaGet = gets.get(requestString);
+			if (pvaGet!=null) return pvaGet;
+
+			pvaGet = channel.createGet(requestString);
+			pvaGet.issueConnect();
+			Status status = pvaGet.waitConnect();
+			if (!status.isOK()) {
+				pvaGet.destroy();
+				String errMEssage = "CreateGet failed for '" + requestString + "' (" + status.getType() + ": "
+						+ status.getMessage() + ")";
+				throw new Exception(errMEssage);
+			}
+			PvaClientGet existing = gets.putIfAbsent(requestString, pvaGet);
+			if (existing!=null) {
+				pvaGet.destroy();
+				return existing;
+			}
+			return pvaGet;
+		}
+
+		void removeGet(String requestString, PvaClientGet pvaGet) {
+			if (gets.remove(requestString, pvaGet)) pvaGet.destroy();
+		}
+
+		PvaClientPut getPut(String requestString) throws Exception {
+			PvaClientPut pvaPut = puts.get(requestString);
+			if (pvaPut!=null) return pvaPut;
+
+			pvaPut = channel.createPut(requestString);
+			pvaPut.issueConnect();
+			Status status = pvaPut.waitConnect();
+			if (!status.isOK()) {
+				pvaPut.destroy();
+				String errMEssage = "CreatePut failed for '" + requestString + "' (" + status.getType() + ": " + status.getMessage() + ")";
+				throw new Exception(errMEssage);
+			}
+			PvaClientPut existing = puts.putIfAbsent(requestString, pvaPut);
+			if (existing!=null) {
+				pvaPut.destroy();
+				return existing;
+			}
+			return pvaPut;
+		}
+
+		void removePut(String requestString, PvaClientPut pvaPut) {
+			if (puts.remove(requestString, pvaPut)) pvaPut.destroy();
+		}
+
+		void destroy() {
+			connected = false;
+			for (PvaClientGet pvaGet : gets.values()) pvaGet.destroy();
+			for (PvaClientPut pvaPut : puts.values()) pvaPut.destroy();
+			gets.clear();
+			puts.clear();
+			channel.destroy();
+		}
+	}
+
 	class StateChangeRequester implements PvaClientChannelStateChangeRequester {
 		private IMalcolmListener<Boolean> listener;
 
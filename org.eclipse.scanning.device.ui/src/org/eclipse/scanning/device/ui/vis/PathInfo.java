@@ -12,9 +12,7 @@
 
 package org.eclipse.scanning.device.ui.vis;
 
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 import org.eclipse.january.dataset.DatasetFactory;
@@ -35,8 +33,8 @@ class PathInfo {
 	protected double smallestAbsStep = Double.MAX_VALUE;
 
 	// These fields have been encapsulated.
-	private List<Double> xCoordinates = new ArrayList<>();
-	private List<Double> yCoordinates = new ArrayList<>();
+	private double[] xCoordinates = new double[0];
+	private double[] yCoordinates = new double[0];
 
 	private String pointCountFormat = "%,d";
 	private String doubleFormat = "%.4g";
@@ -53,26 +51,11 @@ class PathInfo {
 	public String getFormattedSmallestAbsStep() {
 		return formatDouble(smallestAbsStep);
 	}
-	private double[] getXCoordinates() {
-		double[] xCoords = new double[xCoordinates.size()];
-		for (int index = 0; index < xCoordinates.size(); index++) {
-			xCoords[index] = xCoordinates.get(index).doubleValue();
-		}
-		return xCoords;
-	}
-	private double[] getYCoordinates() {
-		double[] yCoords = new double[yCoordinates.size()];
-		for (int index = 0; index < yCoordinates.size(); index++) {
-			yCoords[index] = yCoordinates.get(index).doubleValue();
-		}
-		return yCoords;
-	}
-
 	public IDataset getX() {
-		return DatasetFactory.createFromObject(getXCoordinates());
+		return DatasetFactory.createFromObject(xCoordinates);
 	}
 	public IDataset getY() {
-		return DatasetFactory.createFromObject(getYCoordinates());
+		return DatasetFactory.createFromObject(yCoordinates);
 	}
 
 	private String formatDouble(double value) {
@@ -93,11 +76,11 @@ class PathInfo {
 	}
 
 	public int size() {
-		return xCoordinates.size();
+		return xCoordinates.length;
 	}
-	public void add(Double x, Double y) {
-		xCoordinates.add(x);
-		yCoordinates.add(y);
+	public void setCoordinates(double[] x, double[] y) {
+		xCoordinates = x;
+		yCoordinates = y;
 	}
 
 }
\ No newline at end of file
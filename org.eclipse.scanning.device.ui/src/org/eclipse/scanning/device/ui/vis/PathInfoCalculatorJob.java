@@ -25,7 +25,8 @@ import org.eclipse.dawnsci.plotting.api.trace.IImageTrace;
 import org.eclipse.scanning.api.IValidatorService;
 import org.eclipse.scanning.api.ModelValidationException;
 import org.eclipse.scanning.api.points.IPointGeneratorService;
-import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.PathColumns;
+import org.eclipse.scanning.api.points.PathStatistics;
 import org.eclipse.scanning.api.points.models.IBoundingBoxModel;
 import org.eclipse.scanning.api.points.models.ScanRegion;
 import org.eclipse.scanning.device.ui.Activator;
@@ -34,7 +35,7 @@ import org.eclipse.swt.widgets.Display;
 
 class PathInfoCalculatorJob extends Job {
 
-	static final int MAX_POINTS_IN_ROI = 100000; // 100,000
+	static final int MAX_POINTS_IN_ROI = 100000; // 100,000, evenly spaced along the path if there are more
 
 	// Services
 	private IPointGeneratorService pointGeneratorFactory;
@@ -99,38 +100,18 @@ class PathInfoCalculatorJob extends Job {
 				return Status.CANCEL_STATUS;// No path to draw.
 			}
 
-			final Iterable<IPosition> pointIterable = pointGeneratorFactory.createGenerator(scanPathModel, rois);
-			double lastX = Double.NaN;
-			double lastY = Double.NaN;
-			for (IPosition point : pointIterable) {
-
-				if (monitor.isCanceled()) {
-					return Status.CANCEL_STATUS;
-				}
-				pathInfo.pointCount++;
-
-				double[] pnt = new double[]{point.getValue(xAxisName), point.getValue(yAxisName)};
-				//pnt = controller.getPointInImageCoordinates(pnt);
-
-				if (pathInfo.pointCount > 1) {
-					double thisXStep = Math.abs(pnt[0] - lastX);
-					double thisYStep = Math.abs(pnt[1] - lastY);
-					double thisAbsStep = Math.sqrt(Math.pow(thisXStep, 2) + Math.pow(thisYStep, 2));
-					if (thisXStep > 0) {
-						pathInfo.smallestXStep = Math.min(pathInfo.smallestXStep, thisXStep);
-					}
-					if (thisYStep > 0) {
-						pathInfo.smallestYStep = Math.min(pathInfo.smallestYStep, thisYStep);
-					}
-					pathInfo.smallestAbsStep = Math.min(pathInfo.smallestAbsStep, thisAbsStep);
-				}
-
-				lastX = pnt[0];
-				lastY = pnt[1];
-				if (pathInfo.size() <= MAX_POINTS_IN_ROI) {
-					pathInfo.add(Double.valueOf(lastX), Double.valueOf(lastY));
-				}
+			// The steps are of the whole path, the points drawn may be some of them.
+			// The calculation stops between chunks of points if the job is cancelled.
+			final PathColumns columns = pointGeneratorFactory.createGenerator(scanPathModel, rois).getColumns(MAX_POINTS_IN_ROI, monitor::isCanceled, xAxisName, yAxisName);
+			if (columns==null || monitor.isCanceled()) {
+				return Status.CANCEL_STATUS;
 			}
+			final PathStatistics stats = columns.getStatistics();
+			pathInfo.pointCount      = columns.getSize();
+			pathInfo.smallestXStep   = stats.getSmallestStep(0);
+			pathInfo.smallestYStep   = stats.getSmallestStep(1);
+			pathInfo.smallestAbsStep = stats.getSmallestAbsoluteStep();
+			pathInfo.setCoordinates(columns.getColumn(0), columns.getColumn(1));
 			monitor.done();
 
 			// Update the plot, waiting until it has suceeded before
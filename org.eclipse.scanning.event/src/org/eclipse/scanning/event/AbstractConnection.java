@@ -33,6 +33,12 @@ abstract class AbstractConnection {
 
 	private static final Logger logger = LoggerFactory.getLogger(AbstractConnection.class);
 
+	/**
+	 * The message property which a BytesMessage carries with the name of the
+	 * binary encoding of its body, see {@link IEventConnectorService#getBinaryEncoding()}
+	 */
+	static final String ENCODING_PROPERTY = "encoding";
+
 	protected final URI              uri;
 	protected String                 topicName;
 
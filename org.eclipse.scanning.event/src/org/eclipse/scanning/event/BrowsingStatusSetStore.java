@@ -0,0 +1,179 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.event;
+
+import java.net.URI;
+import java.util.Enumeration;
+
+import javax.jms.DeliveryMode;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageProducer;
+import javax.jms.Queue;
+import javax.jms.QueueBrowser;
+import javax.jms.QueueConnection;
+import javax.jms.QueueConnectionFactory;
+import javax.jms.QueueSession;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.IEventConnectorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The original status set update. The set is browsed and every message
+ * deserialized until the matching bean is found, that message is then
+ * consumed and the new version sent in its place.
+ *
+ * This is O(n) in the size of the set per update but works for any bean
+ * which the owning connection knows how to compare.
+ *
+ * @author Matthew Gerring
+ *
+ * @param <T>
+ */
+class BrowsingStatusSetStore<T> implements StatusSetStore<T> {
+
+	private static final Logger logger = LoggerFactory.getLogger(BrowsingStatusSetStore.class);
+
+	private final URI                    uri;
+	private final String                 setName;
+	private final IEventConnectorService service;
+	private final AbstractConnection     owner;
+
+	private QueueConnection connection;
+	private QueueSession    qSession;
+
+	BrowsingStatusSetStore(URI uri, String setName, IEventConnectorService service, AbstractConnection owner) {
+		this.uri     = uri;
+		this.setName = setName;
+		this.service = service;
+		this.owner   = owner;
+	}
+
+	@Override
+	public synchronized boolean update(T bean, String json, boolean addRequired) throws Exception {
+
+		Queue     queue = createQueue();
+		QueueBrowser qb = qSession.createBrowser(queue);
+
+		@SuppressWarnings("rawtypes")
+		Enumeration  e  = qb.getEnumeration();
+
+		String jMSMessageID = null;
+		while(e.hasMoreElements()) {
+			Message m = (Message)e.nextElement();
+			if (m==null) continue;
+			if (m instanceof TextMessage) {
+				TextMessage t = (TextMessage)m;
+
+				final T qbean;
+				try {
+					@SuppressWarnings("unchecked")
+					Class<T> beanClass = (Class<T>) bean.getClass();
+					qbean = service.unmarshal(t.getText(), beanClass);
+					if (qbean==null) continue;
+				} catch (Exception ne) {
+					// If we cannot deserialize to the type passed in, it certainly is
+					// not going to be the bean which we are looking for.
+					continue;
+				}
+				if (owner.isSame(qbean, bean)) {
+					jMSMessageID = t.getJMSMessageID();
+					break;
+				}
+			}
+		}
+
+		qb.close();
+
+		if (jMSMessageID!=null) {
+			MessageConsumer consumer = qSession.createConsumer(queue, "JMSMessageID = '"+jMSMessageID+"'");
+			Message m = consumer.receive(Constants.getReceiveFrequency());
+			consumer.close();
+			if (m!=null && m instanceof TextMessage) {
+				MessageProducer producer = qSession.createProducer(queue);
+				try {
+					TextMessage t = qSession.createTextMessage(json);
+					t.setJMSMessageID(m.getJMSMessageID());
+					t.setJMSExpiration(m.getJMSExpiration());
+					t.setJMSTimestamp(m.getJMSTimestamp());
+					t.setJMSPriority(m.getJMSPriority());
+					t.setJMSCorrelationID(m.getJMSCorrelationID());
+
+					producer.send(t);
+				} finally {
+				    producer.close();
+				}
+
+				return true;
+			}
+		}
+
+		if (addRequired) { // It wasn't found so we will add it.
+			MessageProducer producer = qSession.createProducer(queue);
+			try {
+				producer.setDeliveryMode(DeliveryMode.PERSISTENT);
+				TextMessage message = qSession.createTextMessage(json);
+				producer.send(message);
+
+			} finally {
+				producer.close();
+			}
+
+            return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Deals with reconnecting or if broker gone down, fails
+	 */
+	private Queue createQueue() throws JMSException {
+		try {
+			if (connection==null) createConnection();
+			return qSession.createQueue(setName);
+		} catch (Exception ne) {
+			createConnection();
+			return qSession.createQueue(setName);
+		}
+	}
+
+	private void createConnection() throws JMSException {
+		QueueConnectionFactory connectionFactory = (QueueConnectionFactory)service.createConnectionFactory(uri);
+		this.connection = connectionFactory.createQueueConnection();
+		this.qSession   = connection.createQueueSession(false, Session.AUTO_ACKNOWLEDGE);
+		connection.start();
+	}
+
+	@Override
+	public void flush() throws EventException {
+		// Nothing is held back, every update is written straight away.
+	}
+
+	@Override
+	public synchronized void close() throws EventException {
+		try {
+			if (connection!=null) connection.close();
+		} catch (JMSException ne) {
+			logger.error("Internal error - unable to close connection to "+setName, ne);
+		} finally {
+			connection = null;
+			qSession   = null;
+		}
+	}
+
+}
@@ -11,6 +11,10 @@
  *******************************************************************************/
 package org.eclipse.scanning.event;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 public class Constants {
@@ -58,4 +62,131 @@ public class Constants {
 	public static long getPublishLiveTime() {
 	return Long.getLong("org.eclipse.scanning.event.publish.livetime", 2000);
 	}
+
+	/**
+	 * Whether publishers keep an index of the status set so that an update
+	 * does not browse the whole queue. Default true, set org.eclipse.scanning.event.statusSet.indexed
+	 * to false to go back to browsing the set on every update.
+	 *
+	 * @return
+	 */
+	public static boolean isStatusSetIndexed() {
+		return Boolean.parseBoolean(System.getProperty("org.eclipse.scanning.event.statusSet.indexed", "true"));
+	}
+
+	/**
+	 * The time in ms between writes of progress updates to the status set, default 250.
+	 * Changes of status are always written straight away.
+	 *
+	 * @return
+	 */
+	public static long getStatusSetFlushPeriod() {
+		return Long.getLong("org.eclipse.scanning.event.statusSet.flush", 250);
+	}
+
+	/**
+	 * The directory in which consumers journal the beans they have taken from the
+	 * submission queue but not yet run. If it is set the consumer keeps these beans
+	 * in memory so that they may be reordered, removed or replaced without going
+	 * back to the broker. Set org.eclipse.scanning.event.submission.journal to use it,
+	 * by default it is not set and the submission queue is left on the broker.
+	 *
+	 * @return the directory or null
+	 */
+	public static String getSubmissionJournalDirectory() {
+		return System.getProperty("org.eclipse.scanning.event.submission.journal");
+	}
+
+	/**
+	 * The number of processes a consumer may run at once, default 1. If it is more
+	 * than one the consumer starts each process in a thread of its own, as long as
+	 * no process which is running uses the same devices, see IProcessCreator.getResources(...)
+	 *
+	 * @return
+	 */
+	public static int getMaximumRunning() {
+		return Integer.getInteger("org.eclipse.scanning.event.consumer.maximumRunning", 1);
+	}
+
+	/**
+	 * The number of threads shared by subscribers which are not synchronous
+	 * to pass events to their listeners, default the number of processors.
+	 *
+	 * @return
+	 */
+	public static int getSubscriberThreads() {
+		return Integer.getInteger("org.eclipse.scanning.event.subscriber.threads", Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * The number of events a subscriber which is not synchronous holds for
+	 * each scan or scannable before the overflow policy is used, default 1000.
+	 *
+	 * @return
+	 */
+	public static int getSubscriberCapacity() {
+		return Integer.getInteger("org.eclipse.scanning.event.subscriber.capacity", 1000);
+	}
+
+	/**
+	 * What a subscriber which is not synchronous does when the listeners of
+	 * a scan or scannable are too slow, one of BLOCK, DROP_OLDEST or COALESCE.
+	 * The default, BLOCK, waits for them.
+	 *
+	 * @return
+	 */
+	public static String getSubscriberOverflow() {
+		return System.getProperty("org.eclipse.scanning.event.subscriber.overflow", "BLOCK");
+	}
+
+	/**
+	 * The number of threads a responder which is not synchronous uses to
+	 * process requests, default the number of processors. Requests with the
+	 * same key, for instance those for one device, are processed one at a time.
+	 *
+	 * @return
+	 */
+	public static int getResponderThreads() {
+		return Integer.getInteger("org.eclipse.scanning.event.responder.threads", Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * The time in ms a responder which is not synchronous has to answer a request
+	 * from when it arrives, default one minute. Requests which have waited longer
+	 * are dropped and those which take longer to process are not sent their response,
+	 * the requester is sent an error response if the response creator makes one.
+	 * Synchronous responders process each request as it arrives without a timeout.
+	 *
+	 * @return
+	 */
+	public static long getResponderTimeout() {
+		return Long.getLong("org.eclipse.scanning.event.responder.timeout", TimeUnit.MINUTES.toMillis(1));
+	}
+
+	/**
+	 * The time in ms a heartbeat may take to send, default the notification
+	 * frequency. A heartbeat which takes longer is cancelled and counts as
+	 * failed, the heartbeats to other brokers and topics are not held up.
+	 *
+	 * @return
+	 */
+	public static long getHeartbeatSendTimeout() {
+		return Long.getLong("org.eclipse.scanning.event.heartbeat.sendTimeout", getNotificationFrequency());
+	}
+
+	/**
+	 * The topics, separated by commas, on which publishers send the binary
+	 * encoding of the connector rather than json, to make the messages of topics
+	 * with large beans smaller. It is not a way to save time marshalling, the
+	 * ActiveMQ connector makes the binary encoding from json so it takes longer.
+	 * None by default, so that json only clients such as those using STOMP can
+	 * read every topic.
+	 *
+	 * @return
+	 */
+	public static Set<String> getBinaryTopics() {
+		final String topics = System.getProperty("org.eclipse.scanning.event.binary.topics");
+		if (topics==null || topics.trim().isEmpty()) return Collections.emptySet();
+		return new HashSet<>(Arrays.asList(topics.trim().split("\\s*,\\s*")));
+	}
 }
@@ -14,14 +14,18 @@ package org.eclipse.scanning.event;
 import java.lang.ref.WeakReference;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Hashtable;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
@@ -52,10 +56,13 @@ import org.eclipse.scanning.api.event.core.IConsumerProcess;
 import org.eclipse.scanning.api.event.core.IProcessCreator;
 import org.eclipse.scanning.api.event.core.IPublisher;
 import org.eclipse.scanning.api.event.core.IQueueReader;
+import org.eclipse.scanning.api.event.core.IRequestHandler;
+import org.eclipse.scanning.api.event.core.IResponder;
 import org.eclipse.scanning.api.event.core.ISubmitter;
 import org.eclipse.scanning.api.event.core.ISubscriber;
 import org.eclipse.scanning.api.event.status.Status;
 import org.eclipse.scanning.api.event.status.StatusBean;
+import org.eclipse.scanning.api.event.status.SubmissionRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -82,6 +89,12 @@ final class ConsumerImpl<U extends StatusBean> extends AbstractQueueConnection<U
 	private volatile boolean              active;
 	private volatile Map<String, WeakReference<IConsumerProcess<U>>>  processes;
 	private Map<String, U>                overrideMap;
+	private volatile SubmissionQueue<U>   submissions; // Only if the submissions are journaled.
+	private IResponder<SubmissionRequest> owner;       // Answers clients for the submissions.
+	private final int                     maximumRunning;
+	private final List<RunningProcess>    running;  // The processes started which have not finished.
+	private final List<RunningProcess>    waiting;  // The processes waiting for devices, in the order they were submitted.
+	private volatile ExecutorService      executor; // Only if more than one process may run at once.
 
 	/**
 	 * Concurrency design recommended by Keith Ralphs after investigating
@@ -110,6 +123,9 @@ final class ConsumerImpl<U extends StatusBean> extends AbstractQueueConnection<U
 		consumerId = UUID.randomUUID();
 		name       = "Consumer "+consumerId; // This will hopefully be changed to something meaningful...
 		this.processes       = Collections.synchronizedMap(new HashMap<>());
+		this.maximumRunning  = Math.max(1, Constants.getMaximumRunning());
+		this.running         = new ArrayList<>(maximumRunning);
+		this.waiting         = new ArrayList<>(maximumRunning);
 		this.heartbeatTopicName = heartbeatTName;
 		connect();
 	}
@@ -144,6 +160,15 @@ final class ConsumerImpl<U extends StatusBean> extends AbstractQueueConnection<U
 		if (alive!=null)   alive.disconnect();
 		if (command!=null) command.disconnect();
 		if (overrideMap!=null) overrideMap.clear();
+		if (owner!=null) {
+			owner.disconnect();
+			SubmissionQueueOwner.release(service, uri, getSubmitQueueName());
+		}
+		owner = null;
+		if (submissions!=null) submissions.close();
+		submissions = null;
+		if (executor!=null) executor.shutdownNow();
+		executor = null;
 		try {
 			if (connection!=null) connection.close();
 		} catch (JMSException e) {
@@ -227,6 +252,10 @@ final class ConsumerImpl<U extends StatusBean> extends AbstractQueueConnection<U
 	}
 
 	protected void updateQueue(U bean) throws EventException {
+		// If we have taken the bean from the broker already there is no need to pause.
+		final SubmissionQueue<U> submissions = this.submissions;
+		if (submissions!=null && submissions.setStatus(bean.getUniqueId(), bean.getStatus())) return;
+
 		boolean resumeAfter = !awaitPaused;
 		Session session = null;
 		try {
@@ -289,6 +318,61 @@ final class ConsumerImpl<U extends StatusBean> extends AbstractQueueConnection<U
 		}
 	}
 
+	/**
+	 * Reads or changes the submissions for a client, any failure is sent back in the request.
+	 */
+	private class SubmissionRequestHandler implements IRequestHandler<SubmissionRequest> {
+
+		private final SubmissionRequest            bean;
+		private final IPublisher<SubmissionRequest> publisher;
+
+		SubmissionRequestHandler(SubmissionRequest bean, IPublisher<SubmissionRequest> publisher) {
+			this.bean      = bean;
+			this.publisher = publisher;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public SubmissionRequest process(SubmissionRequest request) throws EventException {
+			final String qName = request.getQueueName()!=null ? request.getQueueName() : getSubmitQueueName();
+			try {
+				switch (request.getRequestType()) {
+				case QUEUE:
+					request.setQueue(new ArrayList<>(getQueue(qName, request.getFieldName())));
+					break;
+				case CLEAR:
+					clearQueue(qName);
+					request.setResult(true);
+					break;
+				case REORDER:
+					request.setResult(reorder((U)request.getBean(), qName, request.getAmount()));
+					break;
+				case REMOVE:
+					request.setResult(remove((U)request.getBean(), qName));
+					break;
+				case REPLACE:
+					request.setResult(replace((U)request.getBean(), qName));
+					break;
+				}
+			} catch (EventException ne) {
+				LOGGER.warn("Cannot process "+request, ne);
+				request.setErrorMessage(ne.getMessage());
+			}
+			request.setBean(null); // Not needed by the client
+			return request;
+		}
+
+		@Override
+		public SubmissionRequest getBean() {
+			return bean;
+		}
+
+		@Override
+		public IPublisher<SubmissionRequest> getPublisher() {
+			return publisher;
+		}
+	}
+
 	private void createOverrideMap() {
 		if (overrideMap == null) overrideMap = new Hashtable<>(7);
 	}
@@ -298,6 +382,53 @@ final class ConsumerImpl<U extends StatusBean> extends AbstractQueueConnection<U
 		return getQueue(getSubmitQueueName(), null);
 	}
 
+	@Override
+	public List<U> getQueue(String qName, String fieldName) throws EventException {
+		final List<U> queue = super.getQueue(qName, fieldName);
+		final SubmissionQueue<U> submissions = this.submissions;
+		if (submissions==null || !qName.equals(getSubmitQueueName())) return queue;
+
+		// The beans we have taken from the broker run before those still on it.
+		final List<U> ret = submissions.getBeans();
+		ret.addAll(queue);
+		return ret;
+	}
+
+	@Override
+	public void clearQueue(String qName) throws EventException {
+		final SubmissionQueue<U> submissions = this.submissions;
+		if (submissions!=null && qName.equals(getSubmitQueueName())) submissions.clear();
+		super.clearQueue(qName);
+	}
+
+	@Override
+	public boolean reorder(U bean, String queueName, int amount) throws EventException {
+		if (amount==0) return false;
+		final SubmissionQueue<U> submissions = this.submissions;
+		if (submissions!=null && queueName.equals(getSubmitQueueName()) && submissions.contains(bean.getUniqueId())) {
+			return submissions.reorder(bean.getUniqueId(), amount);
+		}
+		return super.reorder(bean, queueName, amount);
+	}
+
+	@Override
+	public boolean remove(U bean, String queueName) throws EventException {
+		final SubmissionQueue<U> submissions = this.submissions;
+		if (submissions!=null && queueName.equals(getSubmitQueueName()) && submissions.remove(bean.getUniqueId())) {
+			return true;
+		}
+		return super.remove(bean, queueName);
+	}
+
+	@Override
+	public boolean replace(U bean, String queueName) throws EventException {
+		final SubmissionQueue<U> submissions = this.submissions;
+		if (submissions!=null && queueName.equals(getSubmitQueueName()) && submissions.replace(bean)) {
+			return true;
+		}
+		return super.replace(bean, queueName);
+	}
+
 	@Override
 	public List<U> getStatusSet() throws EventException {
 		return getQueue(getStatusSetName(), "submissionTime");
@@ -431,6 +562,10 @@ final class ConsumerImpl<U extends StatusBean> extends AbstractQueueConnection<U
 			}
 		} finally {
 	        processes.clear();
+	        synchronized (running) {
+				waiting.clear();
+				running.notifyAll(); // The consume loop may be waiting to start something.
+			}
 		}
 	}
 
@@ -466,6 +601,28 @@ final class ConsumerImpl<U extends StatusBean> extends AbstractQueueConnection<U
 			throw new EventException("Cannot start a consumer without a runner to run things!");
 		}
 
+		if (maximumRunning>1 && executor==null) {
+			executor = Executors.newFixedThreadPool(maximumRunning, r -> {
+				Thread thread = new Thread(r, getName()+" Process");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+
+		// Reads back the beans taken from the broker before a restart.
+		final String journal = Constants.getSubmissionJournalDirectory();
+		if (journal!=null && submissions==null) {
+			submissions = new SubmissionQueue<>(journal, getSubmitQueueName(), getBeanClass(), service);
+		}
+		// Clients can no longer read or change the submissions on the broker, they ask us.
+		if (submissions!=null && owner==null) {
+			owner = eservice.createResponder(uri, SubmissionQueueOwner.getRequestTopic(getSubmitQueueName()),
+					                              SubmissionQueueOwner.getResponseTopic(getSubmitQueueName()));
+			owner.setBeanClass(SubmissionRequest.class);
+			owner.setResponseCreator((request, publisher) -> new SubmissionRequestHandler(request, publisher));
+			SubmissionQueueOwner.claim(service, uri, getSubmitQueueName());
+		}
+
 		// We process the paused state
 		PauseBean pbean = getPauseBean(getSubmitQueueName());
 		if (pbean!=null) processPause(pbean); // Might set the pause lock and block on checkPaused().
@@ -486,13 +643,20 @@ final class ConsumerImpl<U extends StatusBean> extends AbstractQueueConnection<U
 		checkPaused(); // blocks until not paused.
 		if (!isActive()) return; // Might have pasued for a long time.
 
+		awaitRunning(); // Leaves the beans on the broker until one of them may run.
+		if (!isActive()) return;
+
+		final SubmissionQueue<U> submissions = this.submissions;
+		if (submissions!=null) {
+			consume(submissions);
+			return;
+		}
+
 		// Consumes messages from the queue.
-		Message m = getMessage(uri, getSubmitQueueName());
+		Message m = getMessage(uri, getSubmitQueueName(), false);
 		if (m != null) {
 			waitTime = 0; // We got a message
 
-			// TODO FIXME Check if we have the max number of processes
-			// exceeded and wait until we don't...
 			TextMessage t = (TextMessage) m;
 			final String json = t.getText();
 			final U bean = service.unmarshal(json, getBeanClass());
@@ -500,6 +664,25 @@ final class ConsumerImpl<U extends StatusBean> extends AbstractQueueConnection<U
 		}
 	}
 
+	/**
+	 * Takes everything waiting on the broker into the submission queue, so
+	 * that it may be changed without pausing, then runs the bean at its head.
+	 * Only waits for a message if there is nothing in the submission queue.
+	 */
+	private void consume(SubmissionQueue<U> submissions) throws Exception {
+
+		Message m = getMessage(uri, getSubmitQueueName(), !submissions.isEmpty());
+		while (m != null) {
+			waitTime = 0; // We got a message
+			final String json = ((TextMessage)m).getText();
+			submissions.add(service.unmarshal(json, getBeanClass()));
+			m = getMessage(uri, getSubmitQueueName(), true);
+		}
+
+		final U bean = submissions.poll();
+		if (bean != null) executeBean(bean);
+	}
+
 	private boolean processException(Throwable e) throws EventException {
 		LOGGER.debug("Processing error in consumer", e);
 
@@ -679,7 +862,23 @@ final class ConsumerImpl<U extends StatusBean> extends AbstractQueueConnection<U
 			IConsumerProcess<U> process = runner.createProcess(bean, status);
 			processes.put(bean.getUniqueId(), new WeakReference<IConsumerProcess<U>>(process));
 
-			process.start(); // Depending on the process may run in a separate thread (default is not to)
+			if (executor!=null) {
+				synchronized (running) {
+					waiting.add(new RunningProcess(process, runner.getResources(bean)));
+					dispatch();
+				}
+			} else {
+				final RunningProcess rprocess = new RunningProcess(process, null);
+				synchronized (running) {
+					prune(); // Processes which are not blocking may have finished since the last returned
+					running.add(rprocess);
+				}
+				try {
+					process.start(); // Depending on the process may run in a separate thread (default is not to)
+				} finally {
+					returned(rprocess);
+				}
+			}
 		} catch (Exception e) {
 			// if an exception is thrown, set the bean status to failed. Note the exception is logged in processException()
 			bean.setStatus(Status.FAILED);
@@ -689,6 +888,138 @@ final class ConsumerImpl<U extends StatusBean> extends AbstractQueueConnection<U
 		}
 	}
 
+	/**
+	 * Waits until fewer than the maximum number of processes are running or waiting to run.
+	 * @throws InterruptedException
+	 */
+	private void awaitRunning() throws InterruptedException {
+		if (executor==null) return;
+		synchronized (running) {
+			while (isActive()) {
+				dispatch();
+				if (running.size()+waiting.size()<maximumRunning) break;
+				running.wait(Constants.getReceiveFrequency()); // Processes which are not blocking only tell us they have finished through their bean.
+			}
+		}
+	}
+
+	/**
+	 * Starts the waiting processes which do not use the devices of a running process.
+	 * A process may start before one submitted earlier only if they do not use the
+	 * same devices, so those that do run in the order they were submitted.
+	 * Must be called holding the lock on running.
+	 */
+	private void dispatch() {
+		prune();
+		final List<RunningProcess> held = new ArrayList<>(waiting.size());
+		for (Iterator<RunningProcess> it = waiting.iterator(); it.hasNext();) {
+			final RunningProcess rprocess = it.next();
+			final U bean = rprocess.process.getBean();
+			if (!processes.containsKey(bean.getUniqueId())) { // Terminated while waiting
+				it.remove();
+				terminated(bean);
+				continue;
+			}
+			if (isConflicting(rprocess, running) || isConflicting(rprocess, held)) {
+				held.add(rprocess);
+				continue;
+			}
+			final ExecutorService executor = this.executor;
+			if (executor==null) return; // Disconnected
+			it.remove();
+			running.add(rprocess);
+			executor.execute(() -> run(rprocess));
+		}
+	}
+
+	private void terminated(U bean) {
+		if (bean.getStatus().isFinal()) return;
+		bean.setStatus(Status.TERMINATED);
+		bean.setMessage("Run aborted before started");
+		try {
+			status.broadcast(bean);
+		} catch (EventException e) {
+			LOGGER.error("Cannot broadcast termination of "+bean.getName(), e);
+		}
+	}
+
+	private boolean isConflicting(RunningProcess rprocess, List<RunningProcess> others) {
+		for (RunningProcess other : others) {
+			if (other.isConflicting(rprocess.resources)) return true;
+		}
+		return false;
+	}
+
+	private void run(RunningProcess rprocess) {
+		final U bean = rprocess.process.getBean();
+		try {
+			rprocess.process.start();
+		} catch (Exception ne) {
+			LOGGER.error("Cannot run "+bean.getName(), ne);
+			bean.setStatus(Status.FAILED);
+			bean.setMessage(ne.getMessage());
+			try {
+				status.broadcast(bean);
+			} catch (EventException e) {
+				LOGGER.error("Cannot broadcast failure of "+bean.getName(), e);
+			}
+		} finally {
+			returned(rprocess);
+		}
+	}
+
+	private void returned(RunningProcess rprocess) {
+		synchronized (running) {
+			rprocess.returned = true;
+			prune(); // Nothing else may ask for the running count, so do not hold on to finished processes
+			if (executor!=null && isActive()) dispatch();
+			running.notifyAll();
+		}
+	}
+
+	private void prune() {
+		running.removeIf(RunningProcess::isFinished);
+	}
+
+	@Override
+	public int getRunningCount() {
+		synchronized (running) {
+			prune();
+			return running.size();
+		}
+	}
+
+	/**
+	 * A process which the consumer has started and the names of the devices which it uses.
+	 */
+	private final class RunningProcess {
+
+		private final IConsumerProcess<U> process;
+		private final Collection<String>  resources; // null if it may use anything
+		private boolean                   returned;  // From start(), guarded by running
+
+		RunningProcess(IConsumerProcess<U> process, Collection<String> resources) {
+			this.process   = process;
+			this.resources = resources;
+		}
+
+		boolean isFinished() {
+			if (!returned) return false;
+			if (process.isBlocking()) return true;
+			// A process which is not blocking returns from start() straight away.
+			final Status status = process.getBean().getStatus();
+			return status!=null && status.isFinal();
+		}
+
+		boolean isConflicting(Collection<String> others) {
+			if (resources==null || others==null) return true;
+			for (String name : others) {
+				if (resources.contains(name)) return true;
+			}
+			return false;
+		}
+	}
+
 	/**
 	 * Exits the whole VM(!) if wait time has exceeded one day.
 	 * @param waitTime
@@ -701,13 +1032,13 @@ final class ConsumerImpl<U extends StatusBean> extends AbstractQueueConnection<U
 		}
 	}
 
-	private Message getMessage(URI uri, String submitQName) throws InterruptedException, JMSException {
+	private Message getMessage(URI uri, String submitQName, boolean noWait) throws InterruptedException, JMSException {
 
 		try {
 			if (this.mconsumer == null) {
 				this.mconsumer = createConsumer(uri, submitQName);
 			}
-			return mconsumer.receive(Constants.getReceiveFrequency());
+			return noWait ? mconsumer.receiveNoWait() : mconsumer.receive(Constants.getReceiveFrequency());
 
 		} catch (Exception ne) {
 			if (Thread.interrupted()) return null;
@@ -42,6 +42,8 @@ public class EventServiceImpl implements IEventService {
 
 	private static IEventConnectorService eventConnectorService;
 
+	private final RequestChannelPool requestChannels = new RequestChannelPool(this);
+
 	public EventServiceImpl() {
 
 	}
@@ -114,7 +116,7 @@ public class EventServiceImpl implements IEventService {
 
 	@Override
 	public <T extends IdBean> IRequester<T> createRequestor(URI uri, String requestTopic, String responseTopic) throws EventException {
-		return new RequesterImpl<T>(uri, requestTopic, responseTopic, this);
+		return new RequesterImpl<T>(uri, requestTopic, responseTopic, this, requestChannels);
 	}
 
 	@Override
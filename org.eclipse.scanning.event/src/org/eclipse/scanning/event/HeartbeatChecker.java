@@ -21,7 +21,8 @@ import org.eclipse.scanning.api.event.alive.IHeartbeatListener;
 import org.eclipse.scanning.api.event.core.ISubscriber;
 
 /**
- * Checks for the heartbeat of a named consumer.
+ * Checks for the heartbeat of a named consumer. Heartbeats sent together
+ * in a batch are passed to the listener one at a time by the subscriber.
  *
  * @author Matthew Gerring
  *
@@ -0,0 +1,285 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.event;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.scanning.api.event.alive.HeartbeatBatchBean;
+import org.eclipse.scanning.api.event.alive.HeartbeatBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sends the heartbeats of every alive publisher in the JVM.
+ * The heartbeats of publishers with the same uri and topic, for instance
+ * the consumers of the queues of the queue service, are sent together in a
+ * {@link HeartbeatBatchBean} once each {@link Constants#getNotificationFrequency()}.
+ * A publisher alone on its topic sends a plain {@link HeartbeatBean} as before,
+ * so that clients which do not know the batch still see it.
+ *
+ * Each uri and topic has its own task and its beats are sent off the thread
+ * which schedules them. A beat which takes longer than
+ * {@link Constants#getHeartbeatSendTimeout()} is cancelled, so a broker which
+ * does not answer only holds up its own heartbeats, and publishers may be
+ * added and removed while beats are sent.
+ *
+ * The host name and beamline are found once.
+ *
+ * @author Matthew Gerring
+ *
+ */
+final class HeartbeatScheduler {
+
+	private static final Logger logger = LoggerFactory.getLogger(HeartbeatScheduler.class);
+
+	private static final HeartbeatScheduler instance = new HeartbeatScheduler();
+
+	static HeartbeatScheduler getInstance() {
+		return instance;
+	}
+
+	private final Map<String, Group>       groups;    // By uri and topic
+	private final ScheduledExecutorService executor;  // Starts the beats, never waits for them.
+	private final ExecutorService          senders;   // Sends the beats.
+	private final String                   hostName;
+	private final String                   beamline;
+
+	private HeartbeatScheduler() {
+		this.groups   = new HashMap<>();
+		this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "Heartbeat");
+			thread.setDaemon(true);
+			thread.setPriority(Thread.MIN_PRIORITY);
+			return thread;
+		});
+		final AtomicInteger count = new AtomicInteger();
+		this.senders  = Executors.newCachedThreadPool(r -> {
+			Thread thread = new Thread(r, "Heartbeat send "+count.incrementAndGet());
+			thread.setDaemon(true);
+			thread.setPriority(Thread.MIN_PRIORITY);
+			return thread;
+		});
+		this.hostName = findHostName();
+		this.beamline = System.getenv("BEAMLINE");
+	}
+
+	String getHostName() {
+		return hostName;
+	}
+
+	String getBeamline() {
+		return beamline;
+	}
+
+	/**
+	 * Starts sending the heartbeat of the publisher.
+	 * @param publisher
+	 */
+	synchronized void add(PublisherImpl<?> publisher) {
+		final String key = getKey(publisher);
+		Group group = groups.get(key);
+		if (group==null) {
+			group = new Group(key);
+			groups.put(key, group);
+			final long freq = Constants.getNotificationFrequency();
+			group.task = executor.scheduleWithFixedDelay(group, freq, freq, TimeUnit.MILLISECONDS);
+		}
+		group.add(publisher);
+	}
+
+	/**
+	 * Stops sending the heartbeat of the publisher. No heartbeat of the publisher
+	 * is sent after this returns, so that it may send its last one itself. This
+	 * waits for a beat of its group being sent, at most for the send timeout.
+	 *
+	 * @param publisher
+	 */
+	void remove(PublisherImpl<?> publisher) {
+		final Group group;
+		synchronized (this) {
+			group = groups.get(getKey(publisher));
+			if (group==null) return;
+			if (group.remove(publisher)) {
+				groups.remove(group.key);
+				group.task.cancel(false);
+			}
+		}
+		group.await();
+	}
+
+	/**
+	 * Stops the beats of a group which could not reach the broker for longer than the timeout.
+	 */
+	private void lost(Group group) {
+		synchronized (this) {
+			if (!groups.remove(group.key, group)) return; // Removed as it was lost
+			group.task.cancel(false);
+		}
+		for (PublisherImpl<?> publisher : group.getPublishers()) publisher.heartbeatLost();
+	}
+
+	private static String getKey(PublisherImpl<?> publisher) {
+		return publisher.getUri()+" "+publisher.getTopicName();
+	}
+
+	private static String findHostName() {
+		try {
+			return InetAddress.getLocalHost().getHostName();
+		} catch (Exception ne) {
+			logger.error("Cannot find the name of this host for the heartbeat", ne);
+			return null;
+		}
+	}
+
+	/**
+	 * The publishers sending heartbeats to one topic. The fields are
+	 * guarded by the lock of the group, which is never held while sending.
+	 */
+	private class Group implements Runnable {
+
+		private final String                 key;
+		private final List<PublisherImpl<?>> publishers = new ArrayList<>(1);
+		private ScheduledFuture<?>           task;    // Guarded by the scheduler
+		private Future<?>                    sending; // The beat being sent, if any.
+		private long                         sendingSince;
+		private long                         failingSince;
+
+		Group(String key) {
+			this.key = key;
+		}
+
+		synchronized void add(PublisherImpl<?> publisher) {
+			publishers.add(publisher);
+		}
+
+		/**
+		 * @return true if the group is now empty.
+		 */
+		synchronized boolean remove(PublisherImpl<?> publisher) {
+			publishers.remove(publisher);
+			return publishers.isEmpty();
+		}
+
+		synchronized List<PublisherImpl<?>> getPublishers() {
+			return new ArrayList<>(publishers);
+		}
+
+		/**
+		 * Waits for the beat being sent, if there is one.
+		 */
+		void await() {
+			final Future<?> beat;
+			synchronized (this) {
+				beat = sending;
+			}
+			if (beat==null) return;
+			try {
+				beat.get(Constants.getHeartbeatSendTimeout(), TimeUnit.MILLISECONDS);
+			} catch (InterruptedException ne) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException | TimeoutException | CancellationException ne) {
+				logger.debug("Heartbeat to "+key+" did not complete", ne);
+			}
+		}
+
+		/**
+		 * Makes the next beat and starts to send it, unless the last one is still being sent.
+		 */
+		@Override
+		public void run() {
+
+			final long now = System.currentTimeMillis();
+			final PublisherImpl<?> sender;
+			final Object           beat;
+			synchronized (this) {
+				if (publishers.isEmpty()) return;
+				sender = publishers.get(0);
+				if (sending!=null && !sending.isDone()) {
+					if (now-sendingSince <= Constants.getHeartbeatSendTimeout()) return;
+					sending.cancel(true);
+					sending = null;
+					logger.warn("Event publisher heartbeat to "+sender.getUri()+" took longer than "+Constants.getHeartbeatSendTimeout()+"ms and was cancelled.");
+				} else {
+					beat = createBeat(now);
+					sendingSince = now;
+					sending = senders.submit(() -> send(sender, beat, now));
+					return;
+				}
+			}
+			failed(sender, now); // The cancelled beat
+		}
+
+		/**
+		 * Must be called holding the lock of the group.
+		 */
+		private Object createBeat(long now) {
+			if (publishers.size()==1) {
+				HeartbeatBean beat = publishers.get(0).nextBeat(now);
+				beat.setHostName(hostName);
+				beat.setBeamline(beamline);
+				return beat;
+			}
+			HeartbeatBatchBean batch = new HeartbeatBatchBean();
+			batch.setHostName(hostName);
+			batch.setBeamline(beamline);
+			batch.setPublishTime(now);
+			for (PublisherImpl<?> publisher : publishers) {
+				HeartbeatBean beat = publisher.nextBeat(now);
+				beat.setHostName(null); // The batch has them
+				beat.setBeamline(null);
+				batch.addBeat(beat);
+			}
+			return batch;
+		}
+
+		private void send(PublisherImpl<?> sender, Object beat, long now) {
+			try {
+				sender.sendBeat(beat);
+				synchronized (this) {
+					failingSince = 0;
+				}
+			} catch (Exception ne) {
+				failed(sender, now);
+			}
+		}
+
+		private void failed(PublisherImpl<?> sender, long now) {
+			sender.beatFailed();
+			final boolean nonViable;
+			synchronized (this) {
+				if (failingSince==0) failingSince = now;
+				nonViable = now-failingSince > Constants.getTimeout();
+			}
+			if (nonViable) {
+				logger.error("Connection to URI "+sender.getUri()+" is non-viable, no hearbeats will be sent.");
+				lost(this);
+				return;
+			}
+			logger.warn("Event publisher heartbeat connection to "+sender.getUri()+" lost.");
+			logger.warn("We will check every "+Constants.getNotificationFrequency()+"ms, until it comes back.");
+		}
+	}
+}
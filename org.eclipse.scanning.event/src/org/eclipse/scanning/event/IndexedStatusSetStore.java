@@ -0,0 +1,324 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.event;
+
+import java.net.URI;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.jms.DeliveryMode;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageProducer;
+import javax.jms.Queue;
+import javax.jms.QueueBrowser;
+import javax.jms.QueueConnection;
+import javax.jms.QueueConnectionFactory;
+import javax.jms.QueueSession;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.IEventConnectorService;
+import org.eclipse.scanning.api.event.status.Status;
+import org.eclipse.scanning.api.event.status.StatusBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A status set store which keeps an index of uniqueId to JMS message id
+ * so that replacing a bean in the set is a selector receive and a send
+ * rather than a browse which deserializes every message in the set.
+ * <p>
+ * Changes of {@link Status} are written straight away so that clients reading
+ * the set see every transition. Updates which only carry progress (same status
+ * as the last write) are held back and the latest one for each bean written
+ * every {@link Constants#getStatusSetFlushPeriod()} ms.
+ * <p>
+ * The set is only browsed when the index does not know about a bean, for
+ * instance one added to the set by a different process, and then not again for
+ * a bean which was not found until its status changes. Beans which are not
+ * {@link StatusBean}s or have no uniqueId are given to the fallback store.
+ *
+ * @author Matthew Gerring
+ *
+ * @param <T>
+ */
+class IndexedStatusSetStore<T> implements StatusSetStore<T> {
+
+	private static final Logger logger = LoggerFactory.getLogger(IndexedStatusSetStore.class);
+
+	private final URI                    uri;
+	private final String                 setName;
+	private final IEventConnectorService service;
+	private final StatusSetStore<T>      fallback;
+
+	/**
+	 * uniqueId to the JMSMessageID of the message holding that bean in the set.
+	 */
+	private final Map<String, String>    index;
+
+	/**
+	 * uniqueId to the last status written to the set for that bean.
+	 */
+	private final Map<String, Status>    written;
+
+	/**
+	 * uniqueId to the latest progress update not yet written.
+	 */
+	private final Map<String, Pending>   pending;
+
+	/**
+	 * uniqueId to the status of a bean which was looked for and not in the set.
+	 */
+	private final Map<String, Status>    missed;
+
+	private Class<?>                 beanClass;
+	private QueueConnection          connection;
+	private QueueSession             qSession;
+	private Queue                    queue;
+	private MessageProducer          producer;
+	private ScheduledExecutorService flusher;
+
+	IndexedStatusSetStore(URI uri, String setName, IEventConnectorService service, StatusSetStore<T> fallback) {
+		this.uri      = uri;
+		this.setName  = setName;
+		this.service  = service;
+		this.fallback = fallback;
+		this.index    = new HashMap<>(89);
+		this.written  = new HashMap<>(7);
+		this.pending  = new LinkedHashMap<>(7);
+		this.missed   = new HashMap<>(7);
+	}
+
+	private static final class Pending {
+		private final String  json;
+		private final Status  status;
+		private final boolean addRequired;
+		Pending(String json, Status status, boolean addRequired) {
+			this.json        = json;
+			this.status      = status;
+			this.addRequired = addRequired;
+		}
+	}
+
+	@Override
+	public boolean update(T bean, String json, boolean addRequired) throws Exception {
+
+		if (!(bean instanceof StatusBean)) return fallback.update(bean, json, addRequired);
+		final StatusBean sbean = (StatusBean)bean;
+		final String     id    = sbean.getUniqueId();
+		if (id==null)           return fallback.update(bean, json, addRequired);
+
+		synchronized (this) {
+			if (beanClass==null) beanClass = bean.getClass();
+
+			final Status status = sbean.getStatus();
+			final Status last   = written.get(id);
+			if (last!=null && last==status && status!=null && !status.isFinal()) {
+				// Progress only, the latest one wins when the flusher runs.
+				pending.put(id, new Pending(json, status, addRequired));
+				startFlusher();
+				return true;
+			}
+
+			pending.remove(id);
+			return write(id, json, status, addRequired);
+		}
+	}
+
+	/**
+	 * Must be called holding the lock on this store.
+	 */
+	private boolean write(String id, String json, Status status, boolean addRequired) throws Exception {
+
+		try {
+			connect();
+
+			String jMSMessageID = index.get(id);
+			if (jMSMessageID==null && (status==null || missed.get(id)!=status)) {
+				reindex(); // Another process may have put it there.
+				jMSMessageID = index.get(id);
+			}
+
+			Message m = jMSMessageID!=null ? receive(jMSMessageID) : null;
+			if (m==null && jMSMessageID!=null) {
+				// Our index was stale, someone else rewrote or removed the message.
+				index.remove(id);
+				reindex();
+				jMSMessageID = index.get(id);
+				if (jMSMessageID!=null) m = receive(jMSMessageID);
+			}
+
+			if (m!=null) {
+				TextMessage t = qSession.createTextMessage(json);
+				t.setJMSExpiration(m.getJMSExpiration());
+				t.setJMSTimestamp(m.getJMSTimestamp());
+				t.setJMSPriority(m.getJMSPriority());
+				t.setJMSCorrelationID(m.getJMSCorrelationID());
+				producer.send(t, m.getJMSDeliveryMode(), m.getJMSPriority(), 0);
+				record(id, t.getJMSMessageID(), status);
+				return true;
+			}
+
+			if (addRequired) {
+				TextMessage t = qSession.createTextMessage(json);
+				producer.send(t, DeliveryMode.PERSISTENT, Message.DEFAULT_PRIORITY, 0);
+				record(id, t.getJMSMessageID(), status);
+				return true;
+			}
+
+			// Not in the set, we do not look again until the status changes.
+			index.remove(id);
+			record(id, null, status);
+			if (status!=null && !status.isFinal()) missed.put(id, status);
+			return false;
+
+		} catch (JMSException ne) {
+			disconnect(); // Reconnect next time, the broker may have gone.
+			throw ne;
+		}
+	}
+
+	private void record(String id, String jMSMessageID, Status status) {
+		if (jMSMessageID!=null) index.put(id, jMSMessageID);
+		missed.remove(id);
+		if (status==null || status.isFinal()) {
+			written.remove(id); // Nothing more expected for this bean.
+		} else {
+			written.put(id, status);
+		}
+	}
+
+	private Message receive(String jMSMessageID) throws JMSException {
+		MessageConsumer consumer = qSession.createConsumer(queue, "JMSMessageID = '"+jMSMessageID+"'");
+		try {
+			return consumer.receive(Constants.getReceiveFrequency());
+		} finally {
+			consumer.close();
+		}
+	}
+
+	/**
+	 * Browses the whole set and rebuilds the index. This is the O(n) operation
+	 * which we are avoiding so it is only done when the index misses.
+	 */
+	private void reindex() throws JMSException {
+
+		QueueBrowser qb = qSession.createBrowser(queue);
+		try {
+			@SuppressWarnings("rawtypes")
+			Enumeration  e  = qb.getEnumeration();
+			while(e.hasMoreElements()) {
+				Message m = (Message)e.nextElement();
+				if (!(m instanceof TextMessage)) continue;
+				TextMessage t = (TextMessage)m;
+				try {
+					Object qbean = service.unmarshal(t.getText(), beanClass);
+					if (!(qbean instanceof StatusBean)) continue;
+					String uid = ((StatusBean)qbean).getUniqueId();
+					if (uid!=null) index.put(uid, t.getJMSMessageID());
+				} catch (Exception ne) {
+					// If we cannot deserialize to the type passed in, it certainly is
+					// not going to be a bean which we are looking for.
+					continue;
+				}
+			}
+		} finally {
+			qb.close();
+		}
+	}
+
+	private void connect() throws JMSException {
+		if (connection!=null) return;
+		QueueConnectionFactory connectionFactory = (QueueConnectionFactory)service.createConnectionFactory(uri);
+		connection = connectionFactory.createQueueConnection();
+		qSession   = connection.createQueueSession(false, Session.AUTO_ACKNOWLEDGE);
+		queue      = qSession.createQueue(setName);
+		producer   = qSession.createProducer(queue);
+		connection.start();
+	}
+
+	private void disconnect() {
+		try {
+			if (connection!=null) connection.close();
+		} catch (JMSException ne) {
+			logger.error("Internal error - unable to close connection to "+setName, ne);
+		} finally {
+			connection = null;
+			qSession   = null;
+			queue      = null;
+			producer   = null;
+		}
+	}
+
+	private void startFlusher() {
+		if (flusher!=null) return;
+		flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "Status set writer "+setName);
+			thread.setDaemon(true);
+			return thread;
+		});
+		final long period = Constants.getStatusSetFlushPeriod();
+		flusher.scheduleWithFixedDelay(() -> {
+			try {
+				flush();
+			} catch (Exception ne) {
+				logger.error("Cannot write progress to the status set "+setName, ne);
+			}
+		}, period, period, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public synchronized void flush() throws EventException {
+
+		// An update is only forgotten once it is written, so those left are tried again next time.
+		for (Iterator<Map.Entry<String, Pending>> it = pending.entrySet().iterator(); it.hasNext();) {
+			final Map.Entry<String, Pending> entry = it.next();
+			final Pending p = entry.getValue();
+			try {
+				write(entry.getKey(), p.json, p.status, p.addRequired);
+			} catch (Exception ne) {
+				throw new EventException("Unable to write bean "+entry.getKey()+" to "+setName, ne);
+			}
+			it.remove();
+		}
+	}
+
+	@Override
+	public void close() throws EventException {
+		try {
+			synchronized (this) {
+				if (flusher!=null) flusher.shutdownNow();
+				flusher = null;
+				flush();
+			}
+		} finally {
+			synchronized (this) {
+				disconnect();
+				index.clear();
+				written.clear();
+				pending.clear();
+				missed.clear();
+			}
+			fallback.close();
+		}
+	}
+
+}
@@ -0,0 +1,215 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.event;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Passes events to a target on a pool of threads shared by all subscribers,
+ * in the order they were dispatched for each key. Events with different
+ * keys, for instance the beans of two scans, may be passed at the same time.
+ *
+ * Each key has a queue of at most {@link Constants#getSubscriberCapacity()} events.
+ * When it is full {@link Constants#getSubscriberOverflow()} decides what happens:
+ * <ul>
+ * <li>BLOCK, the thread dispatching waits for room, the default.</li>
+ * <li>DROP_OLDEST, the event at the head of the queue is dropped.</li>
+ * <li>COALESCE, the event at the tail of the queue is replaced, so that the newest event is always passed on.</li>
+ * </ul>
+ *
+ * @author Matthew Gerring
+ *
+ * @param <E>
+ */
+final class KeyedDispatcher<E> {
+
+	private static final Logger logger = LoggerFactory.getLogger(KeyedDispatcher.class);
+
+	enum Overflow {
+		BLOCK, DROP_OLDEST, COALESCE;
+	}
+
+	/**
+	 * The number of events a key passes before it lets another key have the thread.
+	 */
+	private static final int BATCH = 64;
+
+	private static volatile ExecutorService pool;
+
+	private final String            name;
+	private final Consumer<E>       target;
+	private final int               capacity;
+	private final Overflow          overflow;
+	private final Map<Object, Lane> lanes;
+	private final ExecutorService   executor; // Null to use the shared pool
+	private volatile boolean        closed;
+
+	KeyedDispatcher(String name, Consumer<E> target) {
+		this(name, target, null, Constants.getSubscriberCapacity(), Overflow.valueOf(Constants.getSubscriberOverflow()));
+	}
+
+	/**
+	 * A dispatcher running events on its own threads rather than those shared by subscribers.
+	 *
+	 * @param name
+	 * @param target
+	 * @param executor the threads, or null for the shared pool
+	 * @param capacity of the queue of each key
+	 * @param overflow
+	 */
+	KeyedDispatcher(String name, Consumer<E> target, ExecutorService executor, int capacity, Overflow overflow) {
+		this.name     = name;
+		this.target   = target;
+		this.executor = executor;
+		this.capacity = Math.max(1, capacity);
+		this.overflow = overflow;
+		this.lanes    = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Queues the event to be passed to the target after the other events with the same key.
+	 *
+	 * @param key
+	 * @param event
+	 * @throws InterruptedException if the overflow is BLOCK and the thread is interrupted while waiting.
+	 */
+	void dispatch(Object key, E event) throws InterruptedException {
+		while (!closed) {
+			final Lane lane = lanes.computeIfAbsent(key, Lane::new);
+			synchronized (lane) {
+				if (lane.retired) continue; // It emptied and was removed as we got it.
+				if (!lane.offer(event)) continue; // It emptied and was removed while we waited for room.
+				if (!lane.scheduled) {
+					lane.scheduled = true;
+					getExecutor().execute(lane);
+				}
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Drops the events which have not been passed on, events being passed finish.
+	 */
+	void close() {
+		closed = true;
+		for (Lane lane : lanes.values()) {
+			synchronized (lane) {
+				lane.events.clear();
+				lane.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * @return the number of keys which have events queued or being passed on.
+	 */
+	int getKeyCount() {
+		return lanes.size();
+	}
+
+	private ExecutorService getExecutor() {
+		return executor!=null ? executor : getPool();
+	}
+
+	private static ExecutorService getPool() {
+		if (pool==null) {
+			synchronized (KeyedDispatcher.class) {
+				if (pool==null) {
+					final AtomicInteger count = new AtomicInteger();
+					pool = Executors.newFixedThreadPool(Math.max(1, Constants.getSubscriberThreads()), r -> {
+						Thread thread = new Thread(r, "Subscriber dispatch "+count.incrementAndGet());
+						thread.setDaemon(true);
+						thread.setPriority(Thread.NORM_PRIORITY+1);
+						return thread;
+					});
+				}
+			}
+		}
+		return pool;
+	}
+
+	/**
+	 * The events of one key, run on the pool while it has events.
+	 */
+	private final class Lane implements Runnable {
+
+		private final Object   key;
+		private final Deque<E> events;
+		private boolean        scheduled; // On the pool or running
+		private boolean        retired;   // Removed from the lanes, a new one is made for the key.
+
+		Lane(Object key) {
+			this.key    = key;
+			this.events = new ArrayDeque<>();
+		}
+
+		/**
+		 * Must be called holding the lock on the lane.
+		 *
+		 * @return false if the lane was retired while waiting for room, the event
+		 *         must then be offered to the lane which is now in the lanes.
+		 */
+		private boolean offer(E event) throws InterruptedException {
+			if (events.size()>=capacity) {
+				switch (overflow) {
+				case BLOCK:
+					while (events.size()>=capacity && !closed && !retired) wait();
+					if (closed)  return true; // Dropped like the other events.
+					if (retired) return false;
+					break;
+				case DROP_OLDEST:
+					events.poll();
+					break;
+				case COALESCE:
+					events.pollLast();
+					break;
+				}
+			}
+			events.add(event);
+			return true;
+		}
+
+		@Override
+		public void run() {
+			for (int i = 0; i < BATCH; i++) {
+				final E event;
+				synchronized (this) {
+					event = events.poll();
+					if (event==null) {
+						scheduled = false;
+						retired   = true;
+						lanes.remove(key, this);
+						return;
+					}
+					notifyAll(); // There is room for a blocked dispatch.
+				}
+				try {
+					target.accept(event);
+				} catch (RuntimeException ne) {
+					logger.error("Cannot pass event to listeners of "+name, ne);
+				}
+			}
+			if (!closed) getExecutor().execute(this); // Still scheduled, lets other keys run first.
+		}
+	}
+}
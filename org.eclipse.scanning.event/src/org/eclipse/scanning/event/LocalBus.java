@@ -0,0 +1,156 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.event;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.scanning.event.KeyedDispatcher.Overflow;
+
+/**
+ * The subscribers in this JVM of the topics of vm:// brokers, so that
+ * publishers in the same JVM can pass events to them directly rather
+ * than through the broker.
+ *
+ * A publisher using a vm:// uri marks every message it sends with the
+ * {@link #ORIGIN_PROPERTY} of this JVM and passes the event to the
+ * subscribers here with {@link #publish(URI, String, String, Collection)}.
+ * These subscribers use {@link #getSelector()} so that the broker does not
+ * send them the same event again. Other consumers of the topic, for instance
+ * those connected to the broker by tcp, still get every message from the
+ * broker. If there are none the publisher does not send the message at all.
+ *
+ * The events are passed on by threads of their own, in the order they were
+ * published for each topic, so that the publisher does not wait while they
+ * are unmarshalled. Each subscriber unmarshals its own copy of the event so
+ * that listeners which change it do not change what the others see.
+ *
+ * @author Matthew Gerring
+ *
+ */
+final class LocalBus {
+
+	/**
+	 * The message property holding the JVM which sent the message.
+	 */
+	static final String ORIGIN_PROPERTY = "origin";
+
+	/**
+	 * This JVM
+	 */
+	static final String ORIGIN = UUID.randomUUID().toString();
+
+	// Lists which are replaced rather than changed, subscribers are equal if they have the same uri and topic.
+	private static final Map<String, List<SubscriberImpl<?>>> subscribers = new ConcurrentHashMap<>();
+
+	// Not the pool of the subscribers, these threads wait for room in their queues.
+	private static final KeyedDispatcher<Delivery> dispatcher = new KeyedDispatcher<>("Local bus", LocalBus::deliver,
+			                                                             createExecutor(), Constants.getSubscriberCapacity(), Overflow.BLOCK);
+
+	private LocalBus() {
+		// Static methods only
+	}
+
+	/**
+	 * @param uri
+	 * @return true if the uri is of a broker in this JVM
+	 */
+	static boolean isLocal(URI uri) {
+		return uri!=null && "vm".equalsIgnoreCase(uri.getScheme());
+	}
+
+	/**
+	 * @return the message selector of a subscriber which has been added here.
+	 */
+	static String getSelector() {
+		return ORIGIN_PROPERTY+" IS NULL OR "+ORIGIN_PROPERTY+" <> '"+ORIGIN+"'";
+	}
+
+	static void add(URI uri, String topicName, SubscriberImpl<?> subscriber) {
+		subscribers.compute(getKey(uri, topicName), (key, list) -> {
+			final List<SubscriberImpl<?>> ret = list!=null ? new ArrayList<>(list) : new ArrayList<>(1);
+			ret.add(subscriber);
+			return Collections.unmodifiableList(ret);
+		});
+	}
+
+	static void remove(URI uri, String topicName, SubscriberImpl<?> subscriber) {
+		subscribers.computeIfPresent(getKey(uri, topicName), (key, list) -> {
+			final List<SubscriberImpl<?>> ret = new ArrayList<>(list);
+			ret.removeIf(s -> s==subscriber);
+			return ret.isEmpty() ? null : Collections.unmodifiableList(ret);
+		});
+	}
+
+	/**
+	 * @param uri
+	 * @param topicName
+	 * @return the subscribers in this JVM, which do not change, may be empty but not null.
+	 */
+	static Collection<SubscriberImpl<?>> getSubscribers(URI uri, String topicName) {
+		final List<SubscriberImpl<?>> list = subscribers.get(getKey(uri, topicName));
+		return list!=null ? list : Collections.<SubscriberImpl<?>>emptyList();
+	}
+
+	/**
+	 * Queues the event to be passed to the subscribers after the events
+	 * published to the topic before it.
+	 *
+	 * @param uri
+	 * @param topicName
+	 * @param json the event
+	 * @param local the subscribers to pass it to, see {@link #getSubscribers(URI, String)}
+	 * @throws InterruptedException if the thread is interrupted waiting for room to queue the event.
+	 */
+	static void publish(URI uri, String topicName, String json, Collection<SubscriberImpl<?>> local) throws InterruptedException {
+		dispatcher.dispatch(getKey(uri, topicName), new Delivery(json, local));
+	}
+
+	private static void deliver(Delivery delivery) {
+		for (SubscriberImpl<?> subscriber : delivery.subscribers) subscriber.deliver(delivery.json);
+	}
+
+	private static ExecutorService createExecutor() {
+		final AtomicInteger count = new AtomicInteger();
+		return Executors.newFixedThreadPool(Math.max(1, Constants.getSubscriberThreads()), r -> {
+			Thread thread = new Thread(r, "Local bus "+count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	private static final class Delivery {
+		private final String                       json;
+		private final Collection<SubscriberImpl<?>> subscribers;
+		Delivery(String json, Collection<SubscriberImpl<?>> subscribers) {
+			this.json        = json;
+			this.subscribers = subscribers;
+		}
+	}
+
+	/**
+	 * The options of a vm:// uri, for instance broker.persistent=false, do not
+	 * change the broker connected to so only the broker name is used.
+	 */
+	private static String getKey(URI uri, String topicName) {
+		return uri.getAuthority()+" "+topicName;
+	}
+}
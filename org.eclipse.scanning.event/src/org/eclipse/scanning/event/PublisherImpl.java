@@ -12,18 +12,17 @@
 package org.eclipse.scanning.event;
 
 import java.io.PrintStream;
-import java.net.InetAddress;
 import java.net.URI;
-import java.util.Enumeration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
 
+import javax.jms.BytesMessage;
 import javax.jms.DeliveryMode;
 import javax.jms.JMSException;
 import javax.jms.Message;
-import javax.jms.MessageConsumer;
 import javax.jms.MessageProducer;
-import javax.jms.Queue;
-import javax.jms.QueueBrowser;
-import javax.jms.TextMessage;
+import javax.jms.Session;
 import javax.jms.Topic;
 
 import org.eclipse.scanning.api.event.EventException;
@@ -44,15 +43,18 @@ class PublisherImpl<T> extends AbstractConnection implements IPublisher<T> {
 	// JMS things, these are null when not running and
 	// are cleaned up at the end of a run.
 	private MessageProducer scanProducer, heartbeatProducer;
-	private boolean         alive;
+	private volatile boolean alive;
 	private String          queueName;
 
 	private IConsumer<?> consumer;
 
 	private PrintStream     out;
 
+	private final Set<String> binaryTopics;
+
 	public PublisherImpl(URI uri, String topic, IEventConnectorService service) {
 		super(uri, topic, service);
+		this.binaryTopics = Constants.getBinaryTopics();
 	}
 
 	@Override
@@ -64,16 +66,17 @@ class PublisherImpl<T> extends AbstractConnection implements IPublisher<T> {
 				scanProducer = createProducer(getTopicName());
 			}
 		    }
+		    final String json = queueName!=null || !isBinary() ? service.marshal(bean) : null;
 		    try {
 			    if (queueName!=null) {
-				updateSet(bean);
+				updateSet(bean, json);
 			    }
 		    } catch (Throwable notFatal) {
 			// Updating the set is not a fatal error
 			logger.error("Did not update the set", notFatal);
 		    }
 			if (getTopicName()!=null) {
-				send(scanProducer, bean, Constants.getPublishLiveTime());
+				send(scanProducer, bean, json, Constants.getPublishLiveTime());
 			}
 
 		} catch (JMSException ne) {
@@ -85,27 +88,85 @@ class PublisherImpl<T> extends AbstractConnection implements IPublisher<T> {
 	}
 
 	protected void send(MessageProducer producer, Object message, long messageLifetime)  throws Exception {
+		send(producer, message, null, messageLifetime);
+	}
+
+	/**
+	 * Sends the message as json in a TextMessage or, if the topic is one of
+	 * {@link Constants#getBinaryTopics()} and the connector has a binary encoding,
+	 * in a BytesMessage with the encoding as a property. If the broker is in this
+	 * JVM the subscribers in it are passed the message by the {@link LocalBus} and
+	 * it is only sent to the broker if there are other consumers of the topic.
+	 *
+	 * @param producer
+	 * @param message
+	 * @param json the message already marshalled, may be null
+	 * @param messageLifetime
+	 * @throws Exception
+	 */
+	private void send(MessageProducer producer, Object message, String json, long messageLifetime)  throws Exception {
+
+		final boolean                     isLocal = LocalBus.isLocal(uri);
+		final Collection<SubscriberImpl<?>> local = isLocal ? LocalBus.getSubscribers(uri, getTopicName()) : Collections.<SubscriberImpl<?>>emptySet();
+
+		if (!isLocal || isConsumedElsewhere(local)) {
+			int priority = message instanceof ConsumerCommandBean ? 8 : 4;
+
+			Message msg;
+			if (isBinary()) {
+				final byte[] body = service.marshalBinary(message);
+				msg = createMessage(jms -> {
+					BytesMessage bytes = jms.createBytesMessage();
+					bytes.writeBytes(body);
+					bytes.setStringProperty(ENCODING_PROPERTY, service.getBinaryEncoding());
+					return bytes;
+				});
+			} else {
+				if (json==null) json = service.marshal(message);
+				final String text = json;
+				msg = createMessage(jms -> jms.createTextMessage(text));
+			}
+			if (isLocal) msg.setStringProperty(LocalBus.ORIGIN_PROPERTY, LocalBus.ORIGIN);
+			producer.send(msg, DeliveryMode.NON_PERSISTENT, priority, messageLifetime);
+		}
+
+		if (!local.isEmpty()) {
+			if (json==null) json = service.marshal(message);
+			LocalBus.publish(uri, getTopicName(), json, local);
+		}
+		if (out!=null) out.println(json!=null ? json : service.marshal(message));
+	}
+
+	/**
+	 * @param local the subscribers of the topic in this JVM
+	 * @return true unless the broker knows that it has no consumers of the topic but these
+	 */
+	private boolean isConsumedElsewhere(Collection<SubscriberImpl<?>> local) {
+		final int count = service.getConsumerCount(uri, getTopicName());
+		return count<0 || count>local.size();
+	}
 
-		int priority = message instanceof ConsumerCommandBean ? 8 : 4;
+	private boolean isBinary() {
+		return service.getBinaryEncoding()!=null && binaryTopics.contains(getTopicName());
+	}
 
-		String json = service.marshal(message);
-		TextMessage msg = createTextMessage(json);
-		producer.send(msg, DeliveryMode.NON_PERSISTENT, priority, messageLifetime);
-		if (out!=null) out.println(json);
+	@FunctionalInterface
+	private interface MessageFactory {
+		Message create(Session jms) throws JMSException;
 	}
 
-	private TextMessage createTextMessage(String json) throws JMSException {
+	private Message createMessage(MessageFactory factory) throws JMSException {
 
 		if (connection==null) createConnection();
 		if (session == null)  createSession();
 
-		TextMessage message = null;
+		Message message = null;
 		try {
-			message = session.createTextMessage(json);
+			message = factory.create(session);
 		} catch (javax.jms.IllegalStateException ne) {
 			createConnection();
 			createSession();
-			message = session.createTextMessage(json);
+			message = factory.create(session);
 		}
         return message;
 	}
@@ -116,9 +177,12 @@ class PublisherImpl<T> extends AbstractConnection implements IPublisher<T> {
 	}
 
 	private volatile HeartbeatBean lastBeat;
+	private volatile long          aliveTime;
 
 	private boolean statusSetAddRequired = false;
 
+	private StatusSetStore<T> statusSet; // Created when first needed, guarded by this
+
 	@Override
 	public void setAlive(boolean alive) throws EventException {
 
@@ -131,72 +195,21 @@ class PublisherImpl<T> extends AbstractConnection implements IPublisher<T> {
 			} catch (JMSException ne) {
 				throw new EventException("Unable to start the heartbeat producer using uri "+uri+" and topic "+getTopicName());
 			}
-
-			Thread aliveThread = new Thread(new Runnable() {
-				@Override
-				public void run() {
-
-					long waitTime = 0;
-
-					HeartbeatBean beat = new HeartbeatBean();
-					beat.setConceptionTime(System.currentTimeMillis());
-
-					// Here we are sending the message out to the topic
-					while(isAlive()) {
-						try {
-
-							// Sleep for a bit
-							Thread.sleep(Constants.getNotificationFrequency());
-
-			                // The producer might need to be reconnected.
-							if (heartbeatProducer==null) heartbeatProducer = createProducer(getTopicName());
-							beat.setPublishTime(System.currentTimeMillis());
-							if (consumer!=null) {
-								beat.setConsumerId(consumer.getConsumerId());
-								beat.setConsumerName(consumer.getName());
-								beat.setConsumerStatus(consumer.getConsumerStatus());
-							}
-							beat.setBeamline(System.getenv("BEAMLINE"));
-							beat.setHostName(InetAddress.getLocalHost().getHostName());
-
-							send(heartbeatProducer, beat, Math.round(Constants.getNotificationFrequency()*2.5));
-							lastBeat = beat;
-
-							waitTime = 0; // We sent something
-
-						} catch (Exception ne) {
-
-							heartbeatProducer = null;
-							connection = null;
-							session    = null;
-
-							waitTime+=Constants.getNotificationFrequency();
-							if (waitTime>Constants.getTimeout()) {
-								logger.error("Connection to URI "+uri+" is non-viable, no hearbeats will be sent.");
-							    PublisherImpl.this.alive = false;
-								return;
-							}
-
-						logger.warn("Event publisher heartbeat connection to "+uri+" lost.");
-						logger.warn("We will check every 2 seconds for 24 hours, until it comes back.");
-
-							continue;
-						}
-					}
-				}
-			});
-			aliveThread.setName("Alive Notification "+getTopicName()+" ");
-			aliveThread.setDaemon(true);
-			aliveThread.setPriority(Thread.MIN_PRIORITY);
-			aliveThread.start();
+			if (!wasAlive) {
+				lastBeat  = null;
+				aliveTime = System.currentTimeMillis();
+				HeartbeatScheduler.getInstance().add(this);
+			}
 
 		} else {
 			if (wasAlive) { // Might never have been a heartbeat publisher.
+				HeartbeatScheduler.getInstance().remove(this); // No more beats are sent after this.
 				try {
-					Thread.sleep(Constants.getNotificationFrequency()+100); // Make sure dead
 					if (lastBeat!=null) {
 						lastBeat.setConsumerStatus(ConsumerStatus.STOPPED);
-					    send(heartbeatProducer, lastBeat, Math.round(Constants.getNotificationFrequency()*2.5));
+						lastBeat.setHostName(HeartbeatScheduler.getInstance().getHostName());
+						lastBeat.setBeamline(HeartbeatScheduler.getInstance().getBeamline());
+						sendBeat(lastBeat);
 					}
 
 				} catch (Exception ne) {
@@ -207,6 +220,56 @@ class PublisherImpl<T> extends AbstractConnection implements IPublisher<T> {
 
 	}
 
+	/**
+	 * Called by the {@link HeartbeatScheduler} for the heartbeat to send.
+	 * @param publishTime
+	 * @return the heartbeat of this publisher, without the host and beamline
+	 */
+	HeartbeatBean nextBeat(long publishTime) {
+		HeartbeatBean beat = lastBeat;
+		if (beat==null) {
+			beat = new HeartbeatBean();
+			beat.setConceptionTime(aliveTime);
+		}
+		beat.setPublishTime(publishTime);
+		if (consumer!=null) {
+			beat.setConsumerId(consumer.getConsumerId());
+			beat.setConsumerName(consumer.getName());
+			beat.setConsumerStatus(consumer.getConsumerStatus());
+			beat.setRunningCount(consumer.getRunningCount());
+		}
+		lastBeat = beat;
+		return beat;
+	}
+
+	/**
+	 * Sends a heartbeat, or a batch of them, to our topic.
+	 * @param beat
+	 * @throws Exception
+	 */
+	void sendBeat(Object beat) throws Exception {
+		// The producer might need to be reconnected.
+		if (heartbeatProducer==null) heartbeatProducer = createProducer(getTopicName());
+		send(heartbeatProducer, beat, Math.round(Constants.getNotificationFrequency()*2.5));
+	}
+
+	/**
+	 * Called by the {@link HeartbeatScheduler} if a heartbeat could not be sent.
+	 */
+	void beatFailed() {
+		heartbeatProducer = null;
+		connection = null;
+		session    = null;
+	}
+
+	/**
+	 * Called by the {@link HeartbeatScheduler} if the broker could not be reached
+	 * for longer than the timeout and it has stopped sending our heartbeat.
+	 */
+	void heartbeatLost() {
+		alive = false;
+	}
+
 	private MessageProducer createProducer(String topicName) throws JMSException {
 		final Topic topic = createTopic(topicName);
 		return session.createProducer(topic);
@@ -216,9 +279,12 @@ class PublisherImpl<T> extends AbstractConnection implements IPublisher<T> {
 	public void disconnect() throws EventException {
 		try {
 			alive = false;
+			HeartbeatScheduler.getInstance().remove(this);
 			if (scanProducer!=null)      scanProducer.close();
 			if (heartbeatProducer!=null) heartbeatProducer.close();
 			consumer = null;
+			final StatusSetStore<T> set = takeStatusSet();
+			if (set!=null) set.close();
 
 			super.disconnect();
 
@@ -238,7 +304,20 @@ class PublisherImpl<T> extends AbstractConnection implements IPublisher<T> {
 
 	@Override
 	public void setStatusSetName(String queueName) {
-		this.queueName = queueName;
+		final StatusSetStore<T> set;
+		final String            oldName;
+		synchronized (this) {
+			oldName = this.queueName;
+			set = queueName==null || !queueName.equals(this.queueName) ? takeStatusSet() : null;
+			this.queueName = queueName;
+		}
+		if (set!=null) {
+			try {
+				set.close();
+			} catch (EventException ne) {
+				logger.error("Unable to close status set "+oldName, ne);
+			}
+		}
 	}
 	@Override
 	public void setStatusSetAddRequired(boolean isRequired) {
@@ -246,91 +325,34 @@ class PublisherImpl<T> extends AbstractConnection implements IPublisher<T> {
 	}
 
 	/**
+	 * Echoes the bean into the status set, replacing the previous version of it.
 	 *
 	 * @param bean
+	 * @param json
 	 * @throws Exception
 	 */
-	private boolean updateSet(T bean) throws Exception {
-
-
-		Queue     queue = createQueue(getStatusSetName());
-		QueueBrowser qb = qSession.createBrowser(queue);
-
-		@SuppressWarnings("rawtypes")
-		Enumeration  e  = qb.getEnumeration();
-
-		String jMSMessageID = null;
-		while(e.hasMoreElements()) {
-			Message m = (Message)e.nextElement();
-			if (m==null) continue;
-			if (m instanceof TextMessage) {
-				TextMessage t = (TextMessage)m;
-
-				final T qbean;
-				try {
-					@SuppressWarnings("unchecked")
-					Class<T> beanClass = (Class<T>) bean.getClass();
-					qbean = service.unmarshal(t.getText(), beanClass);
-					if (qbean==null) continue;
-				} catch (Exception ne) {
-					// If we cannot deserialize to the type passed in, it certainly is
-					// not going to be the bean which we are looking for.
-					continue;
-				}
-				if (isSame(qbean, bean)) {
-					jMSMessageID = t.getJMSMessageID();
-					break;
-				}
-			}
-		}
-
-		qb.close();
-
-		if (jMSMessageID!=null) {
-			MessageConsumer consumer = qSession.createConsumer(queue, "JMSMessageID = '"+jMSMessageID+"'");
-			Message m = consumer.receive(Constants.getReceiveFrequency());
-			consumer.close();
-			if (m!=null && m instanceof TextMessage) {
-				MessageProducer producer = qSession.createProducer(queue);
-				try {
-					TextMessage t = qSession.createTextMessage(service.marshal(bean));
-					t.setJMSMessageID(m.getJMSMessageID());
-					t.setJMSExpiration(m.getJMSExpiration());
-					t.setJMSTimestamp(m.getJMSTimestamp());
-					t.setJMSPriority(m.getJMSPriority());
-					t.setJMSCorrelationID(m.getJMSCorrelationID());
-
-					producer.send(t);
-				} finally {
-				    producer.close();
-				}
-
-				return true;
-			}
-		}
-
-		if (statusSetAddRequired) { // It wasn't found so we will add it.
-			MessageProducer producer = session.createProducer(queue);
-			try {
-				producer.setDeliveryMode(DeliveryMode.PERSISTENT);
-				String json = null;
-				try {
-					json = service.marshal(bean);
-				} catch (Exception neother) {
-					throw new EventException("Unable to marshall bean "+bean, neother);
-				}
-
-				TextMessage message = session.createTextMessage(json);
-				producer.send(message);
+	private boolean updateSet(T bean, String json) throws Exception {
+		return getStatusSet().update(bean, json, statusSetAddRequired);
+	}
 
-			} finally {
-				producer.close();
-			}
+	private synchronized StatusSetStore<T> getStatusSet() {
+		if (statusSet==null) statusSet = createStatusSetStore();
+		return statusSet;
+	}
 
-            return true;
-		}
+	/**
+	 * @return the status set, which the caller should close, or null if there is not one.
+	 */
+	private synchronized StatusSetStore<T> takeStatusSet() {
+		final StatusSetStore<T> set = statusSet;
+		statusSet = null;
+		return set;
+	}
 
-		return false;
+	private StatusSetStore<T> createStatusSetStore() {
+		StatusSetStore<T> browsing = new BrowsingStatusSetStore<>(uri, getStatusSetName(), service, this);
+		if (!Constants.isStatusSetIndexed()) return browsing;
+		return new IndexedStatusSetStore<>(uri, getStatusSetName(), service, browsing);
 	}
 
 	@Override
@@ -0,0 +1,199 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.event;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.IEventService;
+import org.eclipse.scanning.api.event.IdBean;
+import org.eclipse.scanning.api.event.bean.BeanEvent;
+import org.eclipse.scanning.api.event.bean.IBeanListener;
+import org.eclipse.scanning.api.event.core.IPublisher;
+import org.eclipse.scanning.api.event.core.ISubscriber;
+import org.eclipse.scanning.api.event.core.ResponseConfiguration.ResponseType;
+
+/**
+ * A long lived subscriber to a response topic and publisher to a request topic
+ * which are shared by all the requesters with the same uri and topics.
+ * Responses are routed to the request with the same unique id, so many
+ * requests may be in flight on one channel at the same time.
+ *
+ * Channels are obtained from and returned to the {@link RequestChannelPool}.
+ *
+ * @author Matthew Gerring
+ *
+ */
+class RequestChannel implements IBeanListener<IdBean> {
+
+	/**
+	 * Times out asynchronous requests, shared by all channels.
+	 */
+	private static final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread thread = new Thread(r, "Request timeout");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final String                                key;
+	private final ISubscriber<IBeanListener<IdBean>>    receive;
+	private final IPublisher<IdBean>                    send;
+	private final Map<String, PendingResponse<?>>       pending;
+
+	private int              users;
+	private volatile boolean closed;
+
+	RequestChannel(String key, URI uri, String requestTopic, String responseTopic, IEventService eservice) throws EventException {
+		this.key     = key;
+		this.pending = new ConcurrentHashMap<>(31);
+		this.send    = eservice.createPublisher(uri, requestTopic);
+		this.receive = eservice.createSubscriber(uri, responseTopic);
+		receive.addListener(this);
+	}
+
+	/**
+	 * A request waiting for one or more responses.
+	 */
+	static final class PendingResponse<T extends IdBean> {
+
+		private final T                    request;
+		private final ResponseType         type;
+		private final CompletableFuture<T> future;
+		private boolean                    somethingFound;
+
+		private PendingResponse(T request, ResponseType type) {
+			this.request = request;
+			this.type    = type;
+			this.future  = new CompletableFuture<>();
+		}
+
+		synchronized void respond(IdBean response) {
+			if (future.isDone()) return; // Late response, ignored.
+			request.merge(response);  // The bean must implement merge, for instance DeviceRequest.
+			somethingFound = true;
+			if (type==ResponseType.ONE) future.complete(request);
+		}
+
+		synchronized boolean isSomethingFound() {
+			return somethingFound;
+		}
+
+		/**
+		 * Completes the future with whatever has been merged, or fails it if nothing has.
+		 */
+		synchronized void finish(String timeoutMessage) {
+			if (future.isDone()) return;
+			if (somethingFound) {
+				future.complete(request);
+			} else {
+				future.completeExceptionally(new EventException(timeoutMessage));
+			}
+		}
+
+		CompletableFuture<T> getFuture() {
+			return future;
+		}
+	}
+
+	@Override
+	public void beanChangePerformed(BeanEvent<IdBean> evt) {
+		final IdBean response = evt.getBean();
+		if (response==null || response.getUniqueId()==null) return;
+		final PendingResponse<?> waiting = pending.get(response.getUniqueId());
+		if (waiting!=null) waiting.respond(response);
+	}
+
+	/**
+	 * Registers the request so that its responses are routed to it then sends it.
+	 * The caller must call {@link #done(IdBean)} when it no longer wants responses.
+	 *
+	 * @param request
+	 * @param type
+	 * @return
+	 * @throws EventException
+	 */
+	<T extends IdBean> PendingResponse<T> send(T request, ResponseType type) throws EventException {
+		final PendingResponse<T> waiting = new PendingResponse<>(request, type);
+		pending.put(request.getUniqueId(), waiting);
+		try {
+			send.broadcast(request);
+		} catch (EventException | RuntimeException ne) {
+			done(request);
+			throw ne;
+		}
+		return waiting;
+	}
+
+	/**
+	 * Sends the request and arranges for the future to complete (or fail)
+	 * after the timeout, without blocking the caller.
+	 */
+	<T extends IdBean> CompletableFuture<T> sendAsync(final T request, ResponseType type, long timeout, TimeUnit unit) throws EventException {
+
+		final PendingResponse<T> waiting = send(request, type);
+		final String message = "The timeout of "+timeout+" "+unit+" was reached and no response occurred!";
+		timer.schedule(() -> {
+			done(request);
+			waiting.finish(message);
+		}, timeout, unit);
+
+		waiting.getFuture().whenComplete((r, e) -> done(request));
+		return waiting.getFuture();
+	}
+
+	void done(IdBean request) {
+		pending.remove(request.getUniqueId());
+	}
+
+	String getKey() {
+		return key;
+	}
+
+	/**
+	 * Called by the pool holding its lock.
+	 */
+	void acquire() {
+		users++;
+	}
+
+	/**
+	 * Called by the pool holding its lock.
+	 * @return true if nothing uses the channel any more.
+	 */
+	boolean release() {
+		users--;
+		return users<1;
+	}
+
+	boolean isClosed() {
+		return closed;
+	}
+
+	void close() throws EventException {
+		closed = true;
+		try {
+			receive.disconnect();
+			send.disconnect();
+		} finally {
+			for (PendingResponse<?> waiting : pending.values()) {
+				waiting.finish("The requester was disconnected before a response occurred!");
+			}
+			pending.clear();
+		}
+	}
+}
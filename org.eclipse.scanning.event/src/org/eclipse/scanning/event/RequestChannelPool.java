@@ -0,0 +1,67 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.event;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.IEventService;
+
+/**
+ * Holds one {@link RequestChannel} per uri, request topic and response topic
+ * so that requesters do not make new connections for every post.
+ * A channel is closed when the last requester using it disconnects.
+ *
+ * @author Matthew Gerring
+ *
+ */
+class RequestChannelPool {
+
+	private final IEventService               eservice;
+	private final Map<String, RequestChannel> channels;
+
+	RequestChannelPool(IEventService eservice) {
+		this.eservice = eservice;
+		this.channels = new HashMap<>(7);
+	}
+
+	synchronized RequestChannel acquire(URI uri, String requestTopic, String responseTopic) throws EventException {
+		final String key = uri+" "+requestTopic+" "+responseTopic;
+		RequestChannel channel = channels.get(key);
+		if (channel==null) {
+			channel = new RequestChannel(key, uri, requestTopic, responseTopic, eservice);
+			channels.put(key, channel);
+		}
+		channel.acquire();
+		return channel;
+	}
+
+	synchronized void release(RequestChannel channel) throws EventException {
+		if (channel.release()) {
+			if (channels.get(channel.getKey())==channel) channels.remove(channel.getKey());
+			channel.close();
+		}
+	}
+
+	/**
+	 * Stops the channel being given to new requesters, for instance because
+	 * a request on it timed out and the connection might have gone. The
+	 * channel is still closed when its last user releases it.
+	 *
+	 * @param channel
+	 */
+	synchronized void discard(RequestChannel channel) {
+		if (channels.get(channel.getKey())==channel) channels.remove(channel.getKey());
+	}
+}
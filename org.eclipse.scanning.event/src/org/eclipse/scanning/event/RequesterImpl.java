@@ -12,29 +12,40 @@
 package org.eclipse.scanning.event;
 
 import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.eclipse.scanning.api.event.EventException;
 import org.eclipse.scanning.api.event.IEventService;
 import org.eclipse.scanning.api.event.IdBean;
-import org.eclipse.scanning.api.event.bean.BeanEvent;
-import org.eclipse.scanning.api.event.bean.IBeanListener;
-import org.eclipse.scanning.api.event.core.IPublisher;
 import org.eclipse.scanning.api.event.core.IRequester;
-import org.eclipse.scanning.api.event.core.ISubscriber;
 import org.eclipse.scanning.api.event.core.ResponseConfiguration;
 import org.eclipse.scanning.api.event.core.ResponseConfiguration.ResponseType;
+import org.eclipse.scanning.event.RequestChannel.PendingResponse;
 
+/**
+ * Posts requests using a {@link RequestChannel} shared with the other requesters
+ * on the same topics. The channel is taken from the pool on the first post and
+ * given back on disconnect, after which the requester may still be used again.
+ *
+ * @author Matthew Gerring
+ *
+ * @param <T>
+ */
 class RequesterImpl<T extends IdBean> extends AbstractRequestResponseConnection implements IRequester<T> {
 
-	private ResponseConfiguration responseConfiguration;
-
+	private ResponseConfiguration    responseConfiguration;
+	private final RequestChannelPool pool;
+	private RequestChannel           channel;
 
-	RequesterImpl(URI uri, String reqTopic, String resTopic, IEventService eservice) {
+	RequesterImpl(URI uri, String reqTopic, String resTopic, IEventService eservice, RequestChannelPool pool) {
 		super(uri, reqTopic, resTopic, eservice);
 		long     time = ResponseConfiguration.DEFAULT.getTimeout();
 		TimeUnit unit = ResponseConfiguration.DEFAULT.getTimeUnit();
 		responseConfiguration = new ResponseConfiguration(ResponseType.ONE, time, unit);
+		this.pool = pool;
 	}
 
 	@Override
@@ -50,35 +61,100 @@ class RequesterImpl<T extends IdBean> extends AbstractRequestResponseConnection
 	@Override
 	public T post(final T request, ResponseConfiguration.ResponseWaiter waiter) throws EventException, InterruptedException {
 
-		// Something to listen
-        final ISubscriber<IBeanListener<T>>  receive = eservice.createSubscriber(getUri(), getResponseTopic());
+		if (waiter==null) waiter = new ResponseConfiguration.ResponseWaiter.Dont();
 
-        // Something to send
-        final IPublisher<T>  send    = eservice.createPublisher(getUri(), getRequestTopic());
+		final ResponseConfiguration conf    = responseConfiguration;
+		final long                  timeout = conf.getTimeout();
+		final TimeUnit              unit    = conf.getTimeUnit();
+		final RequestChannel        chan    = getChannel();
 
-        try {
-		// Just listen to our id changing.
-	        receive.addListener(request.getUniqueId(), new IBeanListener<T>() {
-				@Override
-				public void beanChangePerformed(BeanEvent<T> evt) {
-					T response = evt.getBean();
-					request.merge(response);  // The bean must implement merge, for instance DeviceRequest.
-					responseConfiguration.countDown();
+		PendingResponse<T> waiting = send(chan, request, conf.getResponseType());
+		try {
+			if (conf.getResponseType()==ResponseType.ONE) {
+				boolean ok = await(waiting.getFuture(), timeout, unit);
+				while (!ok && waiter.waitAgain()) {
+					ok = await(waiting.getFuture(), timeout, unit);
+				}
+				if (!ok) {
+					timedOut(chan);
+					throw new EventException("The timeout of "+timeout+" "+unit+" was reached and no response occurred!");
 				}
-			});
 
-	        // Send the request
-	        send.broadcast(request);
+			} else if (conf.getResponseType()==ResponseType.ONE_OR_MORE) {
+				Thread.sleep(unit.toMillis(timeout));
+				while (waiter.waitAgain()) {
+					Thread.sleep(unit.toMillis(timeout));
+				}
+				chan.done(request); // No more merges after this
+				if (!waiting.isSomethingFound()) {
+					timedOut(chan);
+					throw new EventException("The timeout of "+timeout+" "+unit+" was reached and no response occurred!");
+				}
+			}
+			return request;
 
-	        responseConfiguration.latch(waiter); // Wait or die trying
+		} finally {
+			chan.done(request);
+		}
+	}
 
-	        return request;
+	@Override
+	public CompletableFuture<T> postAsync(final T request) throws EventException {
+		final ResponseConfiguration conf = responseConfiguration;
+		final RequestChannel        chan = getChannel();
+		try {
+			return chan.sendAsync(request, conf.getResponseType(), conf.getTimeout(), conf.getTimeUnit());
+		} catch (EventException ne) {
+			timedOut(chan);
+			throw ne;
+		}
+	}
 
-        } finally {
+	private PendingResponse<T> send(RequestChannel chan, T request, ResponseType type) throws EventException {
+		try {
+			return chan.send(request, type);
+		} catch (EventException ne) {
+			timedOut(chan);
+			throw ne;
+		}
+	}
+
+	private static boolean await(CompletableFuture<?> future, long timeout, TimeUnit unit) throws InterruptedException, EventException {
+		try {
+			future.get(timeout, unit);
+			return true;
+		} catch (TimeoutException ne) {
+			return false;
+		} catch (ExecutionException ne) {
+			throw new EventException(ne.getCause());
+		}
+	}
+
+	private synchronized RequestChannel getChannel() throws EventException {
+		if (channel==null || channel.isClosed()) channel = pool.acquire(getUri(), getRequestTopic(), getResponseTopic());
+		return channel;
+	}
+
+	/**
+	 * The connection might have gone, for instance if the broker was restarted,
+	 * so the next post from this requester uses a new channel.
+	 */
+	private synchronized void timedOut(RequestChannel chan) throws EventException {
+		pool.discard(chan);
+		if (channel==chan) {
+			channel = null;
+			pool.release(chan);
+		}
+	}
 
-	        receive.disconnect();
-	        send.disconnect();
-        }
+	@Override
+	public synchronized void disconnect() throws EventException {
+		try {
+			if (channel!=null) pool.release(channel);
+		} finally {
+			channel = null;
+			super.disconnect();
+		}
 	}
 
 	@Override
@@ -12,6 +12,14 @@
 package org.eclipse.scanning.event;
 
 import java.net.URI;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.scanning.api.event.EventException;
 import org.eclipse.scanning.api.event.IEventService;
@@ -23,9 +31,27 @@ import org.eclipse.scanning.api.event.core.IResponder;
 import org.eclipse.scanning.api.event.core.IResponseCreator;
 import org.eclipse.scanning.api.event.core.IRequestHandler;
 import org.eclipse.scanning.api.event.core.ISubscriber;
+import org.eclipse.scanning.event.KeyedDispatcher.Overflow;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Responds to requests as they arrive if the response creator is synchronous.
+ * If it is not the requests are processed on threads of the responder,
+ * {@link Constants#getResponderThreads()}, one at a time for each key of
+ * the response creator and at the same time for different keys.
+ *
+ * If the response creator is not synchronous a request which is not answered
+ * within {@link Constants#getResponderTimeout()} of arriving, including the
+ * time it waited for the requests before it, is sent the error response of the
+ * response creator. One which is still waiting is dropped, one which is being
+ * processed carries on and its response is not sent. The next request with
+ * the same key is not processed until it has finished.
+ *
+ * @author Matthew Gerring
+ *
+ * @param <T>
+ */
 public class ResponderImpl<T extends IdBean> extends AbstractRequestResponseConnection implements IResponder<T> {
 
 	private static Logger logger = LoggerFactory.getLogger(ResponderImpl.class);
@@ -35,6 +61,16 @@ public class ResponderImpl<T extends IdBean> extends AbstractRequestResponseConn
 	private IResponseCreator<T>                creator;
 	private Class<T>                           beanClass;
 
+	// Used if the response creator is not synchronous.
+	private ExecutorService                    executor;
+	private KeyedDispatcher<Request<T>>        dispatcher;
+	private final AtomicInteger                queueDepth  = new AtomicInteger();
+	private final AtomicInteger                peakDepth   = new AtomicInteger();
+	private final AtomicLong                   timedOut    = new AtomicLong();
+
+	// Sends the error response to requests which are not answered in time.
+	private ScheduledExecutorService           timer;
+
 	ResponderImpl(URI uri, String reqTopic, String resTopic, IEventService eservice) {
 		super(uri, reqTopic, resTopic, eservice);
 	}
@@ -49,19 +85,30 @@ public class ResponderImpl<T extends IdBean> extends AbstractRequestResponseConn
 
 		this.creator = res;
 
-		subscriber.setSynchronous(res.isSynchronous());
+		if (!res.isSynchronous()) {
+			final AtomicInteger count = new AtomicInteger();
+			executor   = Executors.newFixedThreadPool(Math.max(1, Constants.getResponderThreads()), r -> {
+				Thread thread = new Thread(r, "Responder "+getRequestTopic()+" "+count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+			dispatcher = new KeyedDispatcher<>(getRequestTopic(), this::process, executor, Constants.getSubscriberCapacity(), Overflow.BLOCK);
+			timer      = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread thread = new Thread(r, "Responder "+getRequestTopic()+" timeout");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+
+		// The subscriber stays synchronous, requests are queued here if they are processed at the same time.
 		subscriber.addListener(new IBeanListener<T>() {
 			@Override
 			public void beanChangePerformed(BeanEvent<T> evt) {
 				T request = evt.getBean();
-				try {
-					IRequestHandler<T> process = creator.createResponder(request, publisher);
-					T response = process.process(request);
-					publisher.broadcast(response);
-
-				} catch (EventException ne) {
-					if (ne.getCause()!=null) System.out.println(ne.getCause().getMessage()); // Sometimes logging not working here!
-					logger.error("Request unable to be processed! "+request, ne);
+				if (dispatcher==null) {
+					respond(request);
+				} else {
+					queue(request);
 				}
 			}
 			@Override
@@ -72,10 +119,112 @@ public class ResponderImpl<T extends IdBean> extends AbstractRequestResponseConn
 
 	}
 
+	private void queue(T request) {
+		Object key = creator.getKey(request);
+		if (key==null) key = request.getUniqueId()!=null ? request.getUniqueId() : new Object();
+
+		final int depth = queueDepth.incrementAndGet();
+		peakDepth.accumulateAndGet(depth, Math::max);
+		try {
+			dispatcher.dispatch(key, new Request<>(request));
+		} catch (InterruptedException ne) {
+			queueDepth.decrementAndGet();
+			Thread.currentThread().interrupt();
+			logger.error("Interrupted queuing request "+request, ne);
+		}
+	}
+
+	private void process(Request<T> request) {
+
+		queueDepth.decrementAndGet();
+		final long timeout = Constants.getResponderTimeout();
+		final long waited  = System.currentTimeMillis()-request.received;
+		if (waited > timeout) {
+			timedOut.incrementAndGet();
+			logger.warn("Request waited "+waited+"ms to be processed and has been dropped, the requester will have stopped waiting. "+request.bean);
+			sendError(request.bean, "The request waited "+waited+"ms to be processed, longer than the timeout of "+timeout+"ms");
+			return;
+		}
+
+		// The request is processed on this thread so that the next one with the same key
+		// waits for it to finish. If it overruns only its response is given up.
+		final ScheduledFuture<?> overrun;
+		try {
+			overrun = timer.schedule(() -> overrun(request.bean, timeout), timeout-waited, TimeUnit.MILLISECONDS);
+		} catch (RejectedExecutionException ne) {
+			logger.warn("The responder was disconnected before request "+request.bean+" was processed");
+			return;
+		}
+		try {
+			final T response = creator.createResponder(request.bean, publisher).process(request.bean);
+			if (overrun.cancel(false)) {
+				publisher.broadcast(response);
+			} else {
+				logger.warn("The response to "+request.bean+" was not sent, it was made after the timeout of "+timeout+"ms");
+			}
+		} catch (EventException | RuntimeException ne) {
+			logger.error("Request unable to be processed! "+request.bean, ne);
+			if (overrun.cancel(false)) sendError(request.bean, ne.getMessage());
+		}
+	}
+
+	private void overrun(T request, long timeout) {
+		timedOut.incrementAndGet();
+		logger.warn("Request took longer than the timeout of "+timeout+"ms to process, the requester has been sent an error. "+request);
+		sendError(request, "The request was not processed within the timeout of "+timeout+"ms");
+	}
+
+	/**
+	 * Processes the request as it arrives on the thread of the subscriber.
+	 * @param request
+	 */
+	private void respond(T request) {
+		try {
+			IRequestHandler<T> process = creator.createResponder(request, publisher);
+			T response = process.process(request);
+			publisher.broadcast(response);
+
+		} catch (EventException ne) {
+			if (ne.getCause()!=null) System.out.println(ne.getCause().getMessage()); // Sometimes logging not working here!
+			logger.error("Request unable to be processed! "+request, ne);
+		}
+	}
+
+	private void sendError(T request, String message) {
+		try {
+			final T error = creator.createErrorResponse(request, message);
+			if (error!=null) publisher.broadcast(error);
+		} catch (EventException ne) {
+			logger.error("Unable to send the error response to "+request, ne);
+		}
+	}
+
+	@Override
+	public int getQueueDepth() {
+		return queueDepth.get();
+	}
+
+	@Override
+	public int getPeakQueueDepth() {
+		return peakDepth.get();
+	}
+
+	@Override
+	public long getTimedOutCount() {
+		return timedOut.get();
+	}
+
 	@Override
 	public void disconnect() throws EventException {
 		if (subscriber!=null) subscriber.disconnect();
 		subscriber = null;
+		if (dispatcher!=null) dispatcher.close();
+		dispatcher = null;
+		if (executor!=null) executor.shutdown(); // Requests being processed finish.
+		executor = null;
+		if (timer!=null) timer.shutdownNow();
+		timer = null;
+		queueDepth.set(0);
 		if (publisher!=null) publisher.disconnect();
 		publisher = null;
 	}
@@ -89,4 +238,17 @@ public class ResponderImpl<T extends IdBean> extends AbstractRequestResponseConn
 	public void setBeanClass(Class<T> beanClass) {
 		this.beanClass = beanClass;
 	}
+
+	/**
+	 * A request and when it was received.
+	 */
+	private static final class Request<T> {
+		private final T    bean;
+		private final long received;
+
+		Request(T bean) {
+			this.bean     = bean;
+			this.received = System.currentTimeMillis();
+		}
+	}
 }
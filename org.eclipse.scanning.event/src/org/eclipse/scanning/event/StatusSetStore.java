@@ -0,0 +1,53 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.event;
+
+import org.eclipse.scanning.api.event.EventException;
+
+/**
+ * A store which echoes beans broadcast by a publisher into the
+ * status set (a JMS queue) so that clients may read the latest
+ * version of each bean.
+ *
+ * Implementations are owned by a single {@link PublisherImpl}
+ * and are closed when it disconnects.
+ *
+ * @author Matthew Gerring
+ *
+ * @param <T>
+ */
+interface StatusSetStore<T> {
+
+	/**
+	 * Replace the bean in the set with the one passed in, or
+	 * add it if it is not there and addRequired is true.
+	 *
+	 * @param bean
+	 * @param json the bean already marshalled by the publisher
+	 * @param addRequired
+	 * @return true if the set was (or will be) updated.
+	 * @throws Exception
+	 */
+	boolean update(T bean, String json, boolean addRequired) throws Exception;
+
+	/**
+	 * Write any updates which are being held back to the broker.
+	 * @throws EventException
+	 */
+	void flush() throws EventException;
+
+	/**
+	 * Flush and release the resources used by this store.
+	 * @throws EventException
+	 */
+	void close() throws EventException;
+}
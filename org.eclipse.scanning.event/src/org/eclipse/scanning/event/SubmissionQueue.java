@@ -0,0 +1,336 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.event;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.IEventConnectorService;
+import org.eclipse.scanning.api.event.status.Status;
+import org.eclipse.scanning.api.event.status.StatusBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The beans which a consumer has taken from the submission queue on the
+ * broker but not yet run, in the order they will be run.
+ *
+ * The beans are held in a map sorted by a key for their place in the queue
+ * and indexed by unique id, so that a bean may be found, moved, removed or
+ * replaced without reading the rest of the queue. Each change is appended to
+ * a journal file which is read back when the queue is made again, for instance
+ * when the consumer restarts. The journal is rewritten when it becomes much
+ * longer than the queue.
+ *
+ * The queue is owned by a single {@link ConsumerImpl} and is closed when it disconnects.
+ *
+ * @author Matthew Gerring
+ *
+ * @param <U>
+ */
+final class SubmissionQueue<U extends StatusBean> {
+
+	private static final Logger logger = LoggerFactory.getLogger(SubmissionQueue.class);
+
+	private final IEventConnectorService service;
+	private final Class<U>               beanClass;
+	private final Path                   journal;
+
+	private final TreeMap<Double, U>     beans; // By place in the queue, head first.
+	private final Map<String, Double>    keys;  // By unique id.
+	private BufferedWriter               writer;
+	private int                          lines;
+
+	/**
+	 * Makes the queue, reading back the journal if there is one.
+	 *
+	 * @param directory for the journal
+	 * @param queueName the name of the submission queue, used to name the journal
+	 * @param beanClass may be null
+	 * @param service
+	 * @throws EventException
+	 */
+	SubmissionQueue(String directory, String queueName, Class<U> beanClass, IEventConnectorService service) throws EventException {
+		this.service   = service;
+		this.beanClass = beanClass;
+		this.journal   = new File(directory, queueName+".journal").toPath();
+		this.beans     = new TreeMap<>();
+		this.keys      = new HashMap<>();
+		try {
+			Files.createDirectories(journal.getParent());
+			if (Files.exists(journal)) read();
+			compact();
+		} catch (Exception ne) {
+			throw new EventException("Cannot read the submission journal "+journal, ne);
+		}
+	}
+
+	/**
+	 * Adds the bean to the tail of the queue.
+	 * @param bean
+	 * @throws EventException
+	 */
+	synchronized void add(U bean) throws EventException {
+		final double key = beans.isEmpty() ? 1 : beans.lastKey()+1;
+		put(key, bean);
+	}
+
+	/**
+	 * Removes and returns the bean at the head of the queue.
+	 * @return null if the queue is empty
+	 * @throws EventException
+	 */
+	synchronized U poll() throws EventException {
+		if (beans.isEmpty()) return null;
+		final U bean = beans.firstEntry().getValue();
+		remove(bean.getUniqueId());
+		return bean;
+	}
+
+	synchronized boolean isEmpty() {
+		return beans.isEmpty();
+	}
+
+	synchronized boolean contains(String uniqueId) {
+		return keys.containsKey(uniqueId);
+	}
+
+	/**
+	 * @return the beans, head first.
+	 */
+	synchronized List<U> getBeans() {
+		return new ArrayList<>(beans.values());
+	}
+
+	/**
+	 * Removes the bean with the unique id.
+	 * @param uniqueId
+	 * @return false if there is no such bean.
+	 * @throws EventException
+	 */
+	synchronized boolean remove(String uniqueId) throws EventException {
+		final Double key = keys.remove(uniqueId);
+		if (key==null) return false;
+		beans.remove(key);
+		write("R "+uniqueId);
+		return true;
+	}
+
+	/**
+	 * Replaces the bean with the same unique id, keeping its place in the queue.
+	 * @param bean
+	 * @return false if there is no such bean.
+	 * @throws EventException
+	 */
+	synchronized boolean replace(U bean) throws EventException {
+		final Double key = keys.get(bean.getUniqueId());
+		if (key==null) return false;
+		put(key, bean);
+		return true;
+	}
+
+	/**
+	 * Sets the status of the bean with the unique id.
+	 * @param uniqueId
+	 * @param status
+	 * @return false if there is no such bean.
+	 * @throws EventException
+	 */
+	synchronized boolean setStatus(String uniqueId, Status status) throws EventException {
+		final Double key = keys.get(uniqueId);
+		if (key==null) return false;
+		final U bean = beans.get(key);
+		bean.setStatus(status);
+		put(key, bean);
+		return true;
+	}
+
+	/**
+	 * Moves the bean towards the head of the queue if the amount is positive
+	 * or towards the tail if it is negative.
+	 *
+	 * @param uniqueId
+	 * @param amount the number of places to move
+	 * @return false if there is no such bean.
+	 * @throws EventException if the bean cannot move that far.
+	 */
+	synchronized boolean reorder(String uniqueId, int amount) throws EventException {
+		final Double key = keys.get(uniqueId);
+		if (key==null) return false;
+		final U bean = beans.get(key);
+
+		// Find the places either side of where the bean is going.
+		Double before = key, after = key;
+		for (int i = 0; i < Math.abs(amount); i++) {
+			if (amount>0) {
+				after  = beans.lowerKey(after);
+				if (after==null) throw new EventException("'"+bean.getName()+"' is already at the head of the submission queue.");
+			} else {
+				before = beans.higherKey(before);
+				if (before==null) throw new EventException("'"+bean.getName()+"' is already at the tail of the submission queue.");
+			}
+		}
+		if (amount>0) {
+			before = beans.lowerKey(after);
+			if (before==null) before = after-2;
+		} else {
+			after = beans.higherKey(before);
+			if (after==null) after = before+2;
+		}
+
+		double place = (before+after)/2;
+		if (place<=before || place>=after) { // We have run out of places in between
+			renumber();
+			return reorder(uniqueId, amount);
+		}
+		beans.remove(key);
+		put(place, bean);
+		return true;
+	}
+
+	synchronized void clear() throws EventException {
+		beans.clear();
+		keys.clear();
+		write("C");
+	}
+
+	synchronized void close() {
+		try {
+			if (writer!=null) writer.close();
+		} catch (IOException e) {
+			logger.error("Cannot close the submission journal "+journal, e);
+		} finally {
+			writer = null;
+		}
+	}
+
+	private void put(double key, U bean) throws EventException {
+		final Double existing = keys.put(bean.getUniqueId(), key);
+		if (existing!=null && existing!=key) beans.remove(existing);
+		beans.put(key, bean);
+		try {
+			write("P "+key+" "+service.marshal(bean));
+		} catch (EventException ne) {
+			throw ne;
+		} catch (Exception ne) {
+			throw new EventException("Cannot journal "+bean.getName(), ne);
+		}
+	}
+
+	private void write(String line) throws EventException {
+		try {
+			if (lines > 2*beans.size()+64) {
+				compact();
+				return; // The compacted journal has the change.
+			}
+			writer.write(line);
+			writer.newLine();
+			writer.flush();
+			lines++;
+		} catch (IOException ne) {
+			throw new EventException("Cannot write the submission journal "+journal, ne);
+		}
+	}
+
+	private void read() throws Exception {
+		try (BufferedReader reader = Files.newBufferedReader(journal, StandardCharsets.UTF_8)) {
+			String line;
+			int number = 0;
+			while((line = reader.readLine())!=null) {
+				number++;
+				try {
+					read(line);
+				} catch (Exception ne) {
+					// A line may have been half written when the process stopped, it is left out when the journal is compacted.
+					logger.warn("Line "+number+" of the submission journal "+journal+" cannot be read and has been skipped", ne);
+				}
+			}
+		} catch (IOException ne) {
+			logger.warn("The submission journal "+journal+" could not be read to the end", ne);
+		}
+	}
+
+	private void read(String line) throws Exception {
+		if (line.startsWith("P ")) {
+			int space = line.indexOf(' ', 2);
+			if (space<0) throw new IllegalArgumentException("The line has no bean");
+			double key = Double.parseDouble(line.substring(2, space));
+			U bean = service.unmarshal(line.substring(space+1), beanClass);
+			Double existing = keys.put(bean.getUniqueId(), key);
+			if (existing!=null) beans.remove(existing);
+			beans.put(key, bean);
+		} else if (line.startsWith("R ")) {
+			Double key = keys.remove(line.substring(2));
+			if (key!=null) beans.remove(key);
+		} else if (line.equals("C")) {
+			beans.clear();
+			keys.clear();
+		}
+	}
+
+	/**
+	 * Gives the beans keys one apart so that there is room between them again.
+	 * @throws EventException
+	 */
+	private void renumber() throws EventException {
+		final List<U> ordered = new ArrayList<>(beans.values());
+		beans.clear();
+		keys.clear();
+		for (int i = 0; i < ordered.size(); i++) {
+			U bean = ordered.get(i);
+			beans.put((double)i+1, bean);
+			keys.put(bean.getUniqueId(), (double)i+1);
+		}
+		try {
+			compact();
+		} catch (IOException ne) {
+			throw new EventException("Cannot write the submission journal "+journal, ne);
+		}
+	}
+
+	/**
+	 * Writes the journal again with just the beans in the queue.
+	 * @throws IOException
+	 */
+	private void compact() throws IOException {
+		if (writer!=null) writer.close();
+
+		final Path tmp = journal.resolveSibling(journal.getFileName()+".tmp");
+		try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+			for (Map.Entry<Double, U> entry : beans.entrySet()) {
+				out.write("P "+entry.getKey()+" "+service.marshal(entry.getValue()));
+				out.newLine();
+			}
+		} catch (IOException ne) {
+			throw ne;
+		} catch (Exception ne) {
+			throw new IOException("Cannot marshal the submission queue", ne);
+		}
+		Files.move(tmp, journal, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+		writer = Files.newBufferedWriter(journal, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+		lines  = beans.size();
+	}
+}
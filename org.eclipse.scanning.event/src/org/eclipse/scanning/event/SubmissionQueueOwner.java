@@ -0,0 +1,150 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.event;
+
+import java.net.URI;
+import java.util.Enumeration;
+
+import javax.jms.DeliveryMode;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageProducer;
+import javax.jms.Queue;
+import javax.jms.QueueBrowser;
+import javax.jms.QueueConnection;
+import javax.jms.QueueConnectionFactory;
+import javax.jms.QueueSession;
+import javax.jms.Session;
+
+import org.eclipse.scanning.api.event.EventConstants;
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.IEventConnectorService;
+
+/**
+ * A consumer which takes the beans of a submission queue into its own
+ * {@link SubmissionQueue} leaves a message in {@link EventConstants#SUBMISSION_OWNER_SET}
+ * while it is connected. Clients which find the message send their
+ * SubmissionRequests to the consumer because the broker no longer holds
+ * the beans waiting to run.
+ *
+ * @author Matthew Gerring
+ *
+ */
+final class SubmissionQueueOwner {
+
+	private static final String QUEUE_PROPERTY = "submissionQueue";
+
+	private SubmissionQueueOwner() {
+		// Static methods only
+	}
+
+	static String getRequestTopic(String queueName) {
+		return EventConstants.SUBMISSION_REQUEST_TOPIC+"."+queueName;
+	}
+
+	static String getResponseTopic(String queueName) {
+		return EventConstants.SUBMISSION_RESPONSE_TOPIC+"."+queueName;
+	}
+
+	/**
+	 * Leaves the message for the queue, replacing one left by a consumer which did not disconnect.
+	 */
+	static void claim(IEventConnectorService service, URI uri, String queueName) throws EventException {
+		QueueConnection connection = null;
+		try {
+			connection = createConnection(service, uri);
+			QueueSession session = connection.createQueueSession(false, Session.AUTO_ACKNOWLEDGE);
+			Queue        queue   = session.createQueue(EventConstants.SUBMISSION_OWNER_SET);
+			remove(session, queue, queueName);
+
+			MessageProducer producer = session.createProducer(queue);
+			producer.setDeliveryMode(DeliveryMode.PERSISTENT);
+			Message message = session.createTextMessage(queueName);
+			message.setStringProperty(QUEUE_PROPERTY, queueName);
+			producer.send(message);
+			producer.close();
+
+		} catch (JMSException ne) {
+			throw new EventException("Cannot claim the submission queue "+queueName, ne);
+		} finally {
+			close(connection);
+		}
+	}
+
+	/**
+	 * Takes away the message for the queue.
+	 */
+	static void release(IEventConnectorService service, URI uri, String queueName) throws EventException {
+		QueueConnection connection = null;
+		try {
+			connection = createConnection(service, uri);
+			QueueSession session = connection.createQueueSession(false, Session.AUTO_ACKNOWLEDGE);
+			remove(session, session.createQueue(EventConstants.SUBMISSION_OWNER_SET), queueName);
+
+		} catch (JMSException ne) {
+			throw new EventException("Cannot release the submission queue "+queueName, ne);
+		} finally {
+			close(connection);
+		}
+	}
+
+	/**
+	 * @return true if a consumer has taken the beans of the queue into its own queue.
+	 */
+	static boolean isOwned(IEventConnectorService service, URI uri, String queueName) throws EventException {
+		QueueConnection connection = null;
+		try {
+			connection = createConnection(service, uri);
+			QueueSession session = connection.createQueueSession(false, Session.AUTO_ACKNOWLEDGE);
+			QueueBrowser browser = session.createBrowser(session.createQueue(EventConstants.SUBMISSION_OWNER_SET), getSelector(queueName));
+			@SuppressWarnings("rawtypes")
+			Enumeration e = browser.getEnumeration();
+			boolean owned = e.hasMoreElements();
+			browser.close();
+			return owned;
+
+		} catch (JMSException ne) {
+			throw new EventException("Cannot read the owner of the submission queue "+queueName, ne);
+		} finally {
+			close(connection);
+		}
+	}
+
+	private static void remove(QueueSession session, Queue queue, String queueName) throws JMSException {
+		MessageConsumer consumer = session.createConsumer(queue, getSelector(queueName));
+		while (consumer.receive(Constants.getReceiveFrequency())!=null) {
+			// Removes each message for the queue
+		}
+		consumer.close();
+	}
+
+	private static String getSelector(String queueName) {
+		return QUEUE_PROPERTY+" = '"+queueName.replace("'", "''")+"'";
+	}
+
+	private static QueueConnection createConnection(IEventConnectorService service, URI uri) throws JMSException {
+		QueueConnectionFactory connectionFactory = (QueueConnectionFactory)service.createConnectionFactory(uri);
+		QueueConnection connection = connectionFactory.createQueueConnection();
+		connection.start();
+		return connection;
+	}
+
+	private static void close(QueueConnection connection) throws EventException {
+		if (connection==null) return;
+		try {
+			connection.close();
+		} catch (JMSException ne) {
+			throw new EventException("Cannot close connection to "+EventConstants.SUBMISSION_OWNER_SET, ne);
+		}
+	}
+}
@@ -12,8 +12,10 @@
 package org.eclipse.scanning.event;
 
 import java.net.URI;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import javax.jms.Connection;
 import javax.jms.DeliveryMode;
@@ -27,12 +29,15 @@ import javax.jms.Topic;
 import org.eclipse.scanning.api.event.EventException;
 import org.eclipse.scanning.api.event.IEventConnectorService;
 import org.eclipse.scanning.api.event.IEventService;
+import org.eclipse.scanning.api.event.core.IRequester;
 import org.eclipse.scanning.api.event.core.ISubmitter;
 import org.eclipse.scanning.api.event.core.ISubscriber;
 import org.eclipse.scanning.api.event.scan.IScanListener;
 import org.eclipse.scanning.api.event.scan.ScanBean;
 import org.eclipse.scanning.api.event.scan.ScanEvent;
 import org.eclipse.scanning.api.event.status.StatusBean;
+import org.eclipse.scanning.api.event.status.SubmissionRequest;
+import org.eclipse.scanning.api.event.status.SubmissionRequestType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -173,6 +178,85 @@ class SubmitterImpl<T extends StatusBean> extends AbstractQueueConnection<T> imp
 		latch.await();
 	}
 
+	@Override
+	public List<T> getQueue() throws EventException {
+		return getQueue(getSubmitQueueName(), null);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public List<T> getQueue(String qName, String fieldName) throws EventException {
+		SubmissionRequest request = new SubmissionRequest(SubmissionRequestType.QUEUE, qName);
+		request.setFieldName(fieldName);
+		SubmissionRequest response = post(request);
+		if (response==null) return super.getQueue(qName, fieldName);
+		return (List<T>)response.getQueue();
+	}
+
+	@Override
+	public void clearQueue(String qName) throws EventException {
+		if (post(new SubmissionRequest(SubmissionRequestType.CLEAR, qName))==null) super.clearQueue(qName);
+	}
+
+	@Override
+	public boolean reorder(T bean, String queueName, int amount) throws EventException {
+		if (amount==0) return false; // Nothing to reorder, no exception required, order unchanged.
+		SubmissionRequest request = new SubmissionRequest(SubmissionRequestType.REORDER, queueName);
+		request.setBean(bean);
+		request.setAmount(amount);
+		SubmissionRequest response = post(request);
+		return response!=null ? response.isResult() : super.reorder(bean, queueName, amount);
+	}
+
+	@Override
+	public boolean remove(T bean, String queueName) throws EventException {
+		SubmissionRequest request = new SubmissionRequest(SubmissionRequestType.REMOVE, queueName);
+		request.setBean(bean);
+		SubmissionRequest response = post(request);
+		return response!=null ? response.isResult() : super.remove(bean, queueName);
+	}
+
+	@Override
+	public boolean replace(T bean, String queueName) throws EventException {
+		SubmissionRequest request = new SubmissionRequest(SubmissionRequestType.REPLACE, queueName);
+		request.setBean(bean);
+		SubmissionRequest response = post(request);
+		return response!=null ? response.isResult() : super.replace(bean, queueName);
+	}
+
+	/**
+	 * A consumer which journals its submissions takes them from the broker, so
+	 * the queue is read and changed by asking that consumer.
+	 *
+	 * @param request
+	 * @return the response, or null if the broker holds the queue or the consumer did not answer.
+	 * @throws EventException if the consumer could not do what was requested.
+	 */
+	private SubmissionRequest post(SubmissionRequest request) throws EventException {
+
+		final String qName = request.getQueueName();
+		if (!SubmissionQueueOwner.isOwned(service, uri, qName)) return null;
+
+		IRequester<SubmissionRequest> requester = eservice.createRequestor(uri, SubmissionQueueOwner.getRequestTopic(qName),
+				                                                                SubmissionQueueOwner.getResponseTopic(qName));
+		SubmissionRequest response;
+		try {
+			// The consumer has stopped if it does not answer for several heartbeats.
+			requester.setTimeout(5*Constants.getNotificationFrequency(), TimeUnit.MILLISECONDS);
+			response = requester.post(request);
+		} catch (InterruptedException ne) {
+			Thread.currentThread().interrupt();
+			throw new EventException("Interrupted waiting for the consumer of "+qName, ne);
+		} catch (EventException ne) {
+			logger.warn("The consumer of "+qName+" did not answer, the queue on the broker is used.", ne);
+			return null;
+		} finally {
+			requester.disconnect();
+		}
+		if (response.getErrorMessage()!=null) throw new EventException(response.getErrorMessage());
+		return response;
+	}
+
 	@Override
 	public boolean reorder(T bean, int amount) throws EventException {
 		return reorder(bean, getSubmitQueueName(), amount);
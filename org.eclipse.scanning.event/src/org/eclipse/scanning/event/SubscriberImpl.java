@@ -26,6 +26,7 @@ import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
 
+import javax.jms.BytesMessage;
 import javax.jms.JMSException;
 import javax.jms.Message;
 import javax.jms.MessageConsumer;
@@ -38,6 +39,7 @@ import org.eclipse.scanning.api.INameable;
 import org.eclipse.scanning.api.event.EventException;
 import org.eclipse.scanning.api.event.IEventConnectorService;
 import org.eclipse.scanning.api.event.IdBean;
+import org.eclipse.scanning.api.event.alive.HeartbeatBatchBean;
 import org.eclipse.scanning.api.event.alive.HeartbeatBean;
 import org.eclipse.scanning.api.event.alive.HeartbeatEvent;
 import org.eclipse.scanning.api.event.alive.IHeartbeatListener;
@@ -53,7 +55,6 @@ import org.eclipse.scanning.api.event.status.Status;
 import org.eclipse.scanning.api.scan.event.ILocationListener;
 import org.eclipse.scanning.api.scan.event.Location;
 import org.eclipse.scanning.api.scan.event.LocationEvent;
-import org.eclipse.scanning.event.util.JsonUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -67,15 +68,21 @@ class SubscriberImpl<T extends EventListener> extends AbstractConnection impleme
 	private Map<String, Collection<T>>    slisteners; // Scan listeners
 	private Map<Class, DiseminateHandler> dMap;
 	private BlockingQueue<DiseminateEvent>  queue;
+	private final KeyedDispatcher<DiseminateEvent> dispatcher; // Used if not synchronous.
 
 	private MessageConsumer scanConsumer, hearbeatConsumer;
 
+	// Set if the broker is in this JVM, see LocalBus
+	private volatile Class<?> localBeanClass;
+	private volatile String   localTopicName;
+
 	private boolean synchronous = true;
 
 	public SubscriberImpl(URI uri, String topic, IEventConnectorService service) {
 		super(uri, topic, service);
 		slisteners = new ConcurrentHashMap<String, Collection<T>>(31); // Concurrent overkill?
 		dMap       = createDiseminateHandlers();
+		dispatcher = new KeyedDispatcher<>(topic, this::diseminate);
 	}
 
 	@Override
@@ -104,26 +111,28 @@ class SubscriberImpl<T extends EventListener> extends AbstractConnection impleme
 		Topic topic = super.createTopic(topicName);
 
 
-	final MessageConsumer consumer = session.createConsumer(topic);
+	final MessageConsumer consumer;
+	if (LocalBus.isLocal(uri)) {
+		// Publishers in this JVM pass the events to deliver(...) themselves.
+		consumer = session.createConsumer(topic, LocalBus.getSelector());
+		localBeanClass = beanClass;
+		localTopicName = topicName;
+		LocalBus.add(uri, topicName, this);
+	} else {
+		consumer = session.createConsumer(topic);
+	}
 	MessageListener listener = new MessageListener() {
 		@Override
 			public void onMessage(Message message) {
 
-			TextMessage txt   = (TextMessage)message;
 			try {
-				String      json  = txt.getText();
-				json = JsonUtil.removeProperties(json, properties);
-				try {
 
-					Object bean = service.unmarshal(json, beanClass);
-					schedule(new DiseminateEvent(bean));
+				Object bean = unmarshal(message, beanClass);
+				scheduleBean(bean);
 
-				} catch (Exception ne) {
-					logger.error("Error processing message {} on topic {} with beanClass {}", message, topicName, beanClass, ne);
-					ne.printStackTrace(); // Unit tests without log4j config show this one.
-				}
-			} catch (JMSException ne) {
-				logger.error("Cannot get text from message "+txt, ne);
+			} catch (Exception ne) {
+				logger.error("Error processing message {} on topic {} with beanClass {}", message, topicName, beanClass, ne);
+				ne.printStackTrace(); // Unit tests without log4j config show this one.
 			}
 		}
 	};
@@ -131,28 +140,85 @@ class SubscriberImpl<T extends EventListener> extends AbstractConnection impleme
         return consumer;
 	}
 
+	/**
+	 * Called by the {@link LocalBus} with an event sent to our topic by a publisher
+	 * in this JVM. The bean is unmarshalled from the json as listeners may keep or
+	 * change it while the publisher changes and sends the original again. Each
+	 * subscriber has its own copy, as it would from the broker.
+	 *
+	 * @param json
+	 */
+	void deliver(String json) {
+		if (localTopicName==null) return; // Disconnected since it was published.
+		try {
+			scheduleBean(service.unmarshal(json, localBeanClass, properties));
+		} catch (Exception ne) {
+			logger.error("Error processing event {} on topic {} with beanClass {}", json, localTopicName, localBeanClass, ne);
+		}
+	}
+
+	/**
+	 * Reads json from a TextMessage or, if the publisher sends the binary
+	 * encoding of the connector on this topic, from a BytesMessage.
+	 */
+	private Object unmarshal(Message message, Class<?> beanClass) throws Exception {
+		if (message instanceof BytesMessage) {
+			final String encoding = message.getStringProperty(ENCODING_PROPERTY);
+			if (encoding==null || !encoding.equals(service.getBinaryEncoding())) {
+				throw new EventException("Cannot read the encoding '"+encoding+"' on "+getTopicName());
+			}
+			final BytesMessage bytes = (BytesMessage)message;
+			final byte[]       body  = new byte[(int)bytes.getBodyLength()];
+			bytes.readBytes(body);
+			return service.unmarshalBinary(body, beanClass, properties);
+		}
+		return service.unmarshal(((TextMessage)message).getText(), beanClass, properties);
+	}
+
+	/**
+	 * Schedules the bean to be passed to the listeners, each of the
+	 * heartbeats in a batch is passed on as if it had been sent alone.
+	 * @param bean
+	 */
+	private void scheduleBean(Object bean) {
+		if (bean instanceof HeartbeatBatchBean) {
+			for (HeartbeatBean beat : ((HeartbeatBatchBean)bean).toHeartbeats()) schedule(new DiseminateEvent(beat));
+		} else {
+			schedule(new DiseminateEvent(bean));
+		}
+	}
+
 	private void schedule(DiseminateEvent event) {
 		if (isSynchronous()) {
 		    if (queue!=null) queue.add(event);
 		} else {
-			if (event==DiseminateEvent.STOP) return;
-			// TODO FIXME Might not be right...
-			final Thread thread = new Thread("Execute event "+getTopicName()) {
-				@Override
-				public void run() {
-					diseminate(event); // Use this JMS thread directly to do work.
-				}
-			};
-			thread.setDaemon(true);
-			thread.setPriority(Thread.NORM_PRIORITY+1);
-			thread.start();
+			if (event==DiseminateEvent.STOP) {
+				dispatcher.close();
+				return;
+			}
+			try {
+				dispatcher.dispatch(getKey(event.bean), event); // In order for each scan or scannable.
+			} catch (InterruptedException ne) {
+				Thread.currentThread().interrupt();
+				logger.warn("Interrupted waiting to pass event to listeners of {}", getTopicName());
+			}
+		}
+	}
+
+	private Object getKey(Object bean) {
+		Object key = null;
+		if (bean instanceof IdBean) {
+			key = ((IdBean)bean).getUniqueId();
+		} else if (bean instanceof INameable) {
+			key = ((INameable)bean).getName();
 		}
+		return key!=null ? key : DEFAULT_KEY;
 	}
 
 
 	private void createDiseminateThread() {
 
-		if (!isSynchronous()) return; // If asynch we do not run events in order and wait until they return.
+		if (!isSynchronous()) return; // If asynch the dispatcher runs events on a shared pool, in order for each scan or scannable.
 		if (queue!=null) return;
 		queue      = new LinkedBlockingQueue<>(); // Small, if they do work and things back-up, exceptions will occur.
 
@@ -257,7 +323,7 @@ class SubscriberImpl<T extends EventListener> extends AbstractConnection impleme
 		return ret;
 	}
 
-	private Map<Class<? extends EventListener>,List<Class<?>>> interfaces;
+	private final Map<Class<? extends EventListener>,List<Class<?>>> interfaces = new ConcurrentHashMap<>();
 
 	/**
 	 * Important to cache the interfaces. Getting them caused a bug where scannable
@@ -266,12 +332,9 @@ class SubscriberImpl<T extends EventListener> extends AbstractConnection impleme
 	 * @param class1
 	 * @return
 	 */
+	@SuppressWarnings("unchecked")
 	private List<Class<?>> getAllInterfaces(Class<? extends EventListener> class1) {
-		if (interfaces==null) interfaces = new HashMap<>();
-		if (!interfaces.containsKey(class1)) {
-			interfaces.put(class1, ClassUtils.getAllInterfaces(class1));
-		}
-		return interfaces.get(class1);
+		return interfaces.computeIfAbsent(class1, c -> ClassUtils.getAllInterfaces(c)); // Listeners may be called on more than one thread.
 	}
 
 	private Map<Class, DiseminateHandler> createDiseminateHandlers() {
@@ -380,6 +443,7 @@ class SubscriberImpl<T extends EventListener> extends AbstractConnection impleme
 	public void disconnect() throws EventException {
 		try {
 			clear();
+			if (localTopicName!=null)   LocalBus.remove(uri, localTopicName, this);
 			if (scanConsumer!=null)     scanConsumer.close();
 			if (hearbeatConsumer!=null) hearbeatConsumer.close();
 
@@ -391,6 +455,7 @@ class SubscriberImpl<T extends EventListener> extends AbstractConnection impleme
 		} finally {
 			scanConsumer = null;
 			hearbeatConsumer = null;
+			localTopicName = null;
 			setConnected(false);
 		}
 		super.disconnect();
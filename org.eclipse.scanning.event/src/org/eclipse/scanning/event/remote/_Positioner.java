@@ -74,6 +74,7 @@ class _Positioner extends AbstractRemoteService implements IPositioner {
 		request.setPosition(position);
 		try {
 			request = requester.post(request);
+			request.checkException();
 			return true;
 		} catch (EventException e) {
 			throw new ScanningException(e);
@@ -86,6 +87,7 @@ class _Positioner extends AbstractRemoteService implements IPositioner {
 		request.setPosition(null);
 		try {
 			request = requester.post(request);
+			request.checkException();
 		    return request.getPosition();
 		} catch (EventException | InterruptedException e) {
 			throw new ScanningException(e);
@@ -121,6 +123,7 @@ class _Positioner extends AbstractRemoteService implements IPositioner {
 		request.setPositionType(PositionRequestType.ABORT);
 		try {
 			request = requester.post(request);
+			request.checkException();
 		} catch (EventException | InterruptedException e) {
 			throw new RuntimeException(e);
 		}
@@ -131,6 +134,7 @@ class _Positioner extends AbstractRemoteService implements IPositioner {
 		request.setPositionType(PositionRequestType.CLOSE);
 		try {
 			request = requester.post(request);
+			request.checkException();
 		} catch (EventException | InterruptedException e) {
 			throw new RuntimeException(e);
 		}
@@ -28,7 +28,10 @@ public class JsonUtil {
 	 * @param json
 	 * @param all properties in all objects with these names will be removed.
 	 * @return
+	 * @deprecated use IEventConnectorService.unmarshal(String, Class, Collection) which
+	 *             skips the properties as it reads the json.
 	 */
+	@Deprecated
 	public static String removeProperties(String json, List<String> properties) {
 
 		if (properties==null) return json; // Nothing to filter!
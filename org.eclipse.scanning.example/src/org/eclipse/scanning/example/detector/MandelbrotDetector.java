@@ -13,6 +13,8 @@
 package org.eclipse.scanning.example.detector;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 
 import org.eclipse.dawnsci.nexus.INexusDevice;
@@ -24,12 +26,13 @@ import org.eclipse.dawnsci.nexus.builder.NexusObjectProvider;
 import org.eclipse.dawnsci.nexus.builder.NexusObjectWrapper;
 import org.eclipse.january.dataset.Dataset;
 import org.eclipse.january.dataset.DatasetFactory;
+import org.eclipse.january.dataset.DatasetUtils;
 import org.eclipse.january.dataset.IDataset;
 import org.eclipse.january.dataset.ILazyWriteableDataset;
 import org.eclipse.january.dataset.SliceND;
 import org.eclipse.scanning.api.annotation.scan.ScanFinally;
 import org.eclipse.scanning.api.device.AbstractRunnableDevice;
-import org.eclipse.scanning.api.device.IWritableDetector;
+import org.eclipse.scanning.api.device.IWriteBehindDetector;
 import org.eclipse.scanning.api.event.scan.DeviceState;
 import org.eclipse.scanning.api.points.IPosition;
 import org.eclipse.scanning.api.scan.ScanningException;
@@ -42,8 +45,11 @@ import org.eclipse.scanning.example.Services;
  * value of 0 if the point (x, y) is in the Mandelbrot set, and greater than zero otherwise.
  * <p>
  * Note: values will always be high if used at (x, y) positions more than 2 units away from the origin.
+ * <p>
+ * The detector may be written behind the scan, in which case points next to each
+ * other in the innermost dimension of the scan are written as one slice.
  */
-public class MandelbrotDetector extends AbstractRunnableDevice<MandelbrotModel> implements IWritableDetector<MandelbrotModel>, INexusDevice<NXdetector> {
+public class MandelbrotDetector extends AbstractRunnableDevice<MandelbrotModel> implements IWriteBehindDetector<MandelbrotModel>, INexusDevice<NXdetector> {
 
 	// Field names to be used in the NeXus file
 	private static final String FIELD_NAME_VALUE = "value";
@@ -233,6 +239,121 @@ public class MandelbrotDetector extends AbstractRunnableDevice<MandelbrotModel>
 		return true;
 	}
 
+	@Override
+	public Object readout(IPosition pos) throws ScanningException {
+		// run() makes new datasets for each point so they are not changed by the next run.
+		return new Readout(image, spectrum, value);
+	}
+
+	@Override
+	public boolean write(List<IPosition> positions, List<Object> data) throws ScanningException {
+
+		try {
+			final List<IScanSlice> slices = new ArrayList<>(positions.size());
+			for (IPosition pos : positions) slices.add(IScanRankService.getScanRankService().createScanSlice(pos));
+
+			// Write each run of points along the innermost scan dimension as one block, snaked lines run backwards.
+			int start = 0;
+			int direction = 0;
+			for (int i = 1; i <= slices.size(); i++) {
+				if (i < slices.size()) {
+					int step = getStep(slices.get(i-1), slices.get(i));
+					if (step!=0 && (direction==0 || step==direction)) {
+						direction = step;
+						continue;
+					}
+				}
+				writeBlock(slices.subList(start, i), data.subList(start, i), direction<0);
+				start = i;
+				direction = 0;
+			}
+
+		} catch (Exception e) {
+			// Change state to fault if exception is caught
+			setDeviceState(DeviceState.FAULT);
+			throw new ScanningException("Failed to write the data to the NeXus file", e);
+		}
+
+		// Finished writing set state back to armed
+		setDeviceState(DeviceState.ARMED);
+		return true;
+	}
+
+	/**
+	 * @return 1 or -1 if the second slice is the next point along the innermost scan
+	 * dimension from the first, otherwise 0.
+	 */
+	private static int getStep(IScanSlice first, IScanSlice second) {
+		final int[] fstart = first.getStart();
+		final int[] sstart = second.getStart();
+		if (fstart.length==0 || fstart.length!=sstart.length) return 0;
+		final int inner = fstart.length-1;
+		for (int dim = 0; dim < inner; dim++) {
+			if (fstart[dim]!=sstart[dim]) return 0;
+		}
+		final int step = sstart[inner]-fstart[inner];
+		return Math.abs(step)==1 ? step : 0;
+	}
+
+	private void writeBlock(List<IScanSlice> slices, List<Object> data, boolean reversed) throws Exception {
+
+		final int size = slices.size();
+		final IScanSlice first = slices.get(reversed ? size-1 : 0);
+		final int[] start = first.getStart();
+		final int[] stop  = first.getStop().clone();
+		if (stop.length>0) stop[stop.length-1] = start[start.length-1]+size;
+
+		// The data in the order of the innermost scan index.
+		final IDataset[] images  = new IDataset[size];
+		final IDataset[] spectra = new IDataset[size];
+		final double[]   values  = new double[size];
+		for (int i = 0; i < size; i++) {
+			Readout readout = (Readout)data.get(reversed ? size-1-i : i);
+			images[i]  = readout.image;
+			spectra[i] = readout.spectrum;
+			values[i]  = readout.value;
+		}
+
+		if (model.isSaveImage()) {
+			writeSlice(imageData, start, stop, size==1 ? images[0] : DatasetUtils.concatenate(images, 0), model.getRows(), model.getColumns());
+		}
+		if (model.isSaveSpectrum()) {
+			writeSlice(spectrumData, start, stop, size==1 ? spectra[0] : DatasetUtils.concatenate(spectra, 0), model.getPoints());
+		}
+		if (model.isSaveValue()) {
+			writeSlice(valueData, start, stop, size==1 ? DatasetFactory.createFromObject(values[0]) : DatasetFactory.createFromObject(values));
+		}
+	}
+
+	private static void writeSlice(ILazyWriteableDataset lazy, int[] scanStart, int[] scanStop, IDataset block, int... datashape) throws Exception {
+		final int[] start = new int[scanStart.length+datashape.length];
+		final int[] stop  = new int[scanStop.length+datashape.length];
+		System.arraycopy(scanStart, 0, start, 0, scanStart.length);
+		System.arraycopy(scanStop,  0, stop,  0, scanStop.length);
+		System.arraycopy(datashape, 0, stop, scanStop.length, datashape.length);
+
+		SliceND sliceND = new SliceND(lazy.getShape(), lazy.getMaxShape(), start, stop, null);
+		if (block.getSize()>1 && block.getRank()!=sliceND.getShape().length) {
+			block = DatasetUtils.convertToDataset(block).reshape(sliceND.getShape());
+		}
+		lazy.setSlice(null, block, sliceND);
+	}
+
+	/**
+	 * The data of a point, kept from the run until it is written.
+	 */
+	private static final class Readout {
+		private final IDataset image;
+		private final IDataset spectrum;
+		private final double   value;
+
+		Readout(IDataset image, IDataset spectrum, double value) {
+			this.image    = image;
+			this.spectrum = spectrum;
+			this.value    = value;
+		}
+	}
+
 	/**
 	 * Fill a Julia set around the origin for the value C = a + bi
 	 */
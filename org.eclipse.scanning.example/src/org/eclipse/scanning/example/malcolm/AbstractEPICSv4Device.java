@@ -2,6 +2,7 @@ package org.eclipse.scanning.example.malcolm;
 
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.epics.pvdata.pv.PVStructure;
 
@@ -10,6 +11,7 @@ public abstract class AbstractEPICSv4Device implements IEPICSv4Device {
 	protected String recordName = "mydevice";
 	protected static int traceLevel = 0;
 	protected final CountDownLatch latch = new CountDownLatch(1);
+	protected final CountDownLatch stopped = new CountDownLatch(1); // Counted down by start() once the server has gone
 	protected DummyMalcolmRecord pvRecord = null;
 
 	public AbstractEPICSv4Device(String deviceName) {
@@ -24,6 +26,12 @@ public abstract class AbstractEPICSv4Device implements IEPICSv4Device {
 	@Override
 	public void stop() {
 		latch.countDown();
+		try {
+			// Clients keep their channels open so wait for the server to go.
+			stopped.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
 	}
 
 	@Override
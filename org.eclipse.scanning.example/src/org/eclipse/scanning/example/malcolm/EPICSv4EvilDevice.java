@@ -38,8 +38,12 @@ public class EPICSv4EvilDevice extends AbstractEPICSv4Device {
 		pvRecord.setTraceLevel(traceLevel);
 		master.addRecord(pvRecord);
 		ServerContextImpl context = ServerContextImpl.startPVAServer("evil", 0, true, System.out);
-		latch.await();
-		master.removeRecord(pvRecord);
-		context.destroy();
+		try {
+			latch.await();
+			master.removeRecord(pvRecord);
+			context.destroy();
+		} finally {
+			stopped.countDown();
+		}
 	}
 }
\ No newline at end of file
@@ -40,8 +40,12 @@ public class EPICSv4ExampleDevice extends AbstractEPICSv4Device {
 		master.addRecord(pvRecord);
 		ServerContextImpl context = ServerContextImpl.startPVAServer(channelProvider.getProviderName(), 0, true,
 				System.out);
-		latch.await();
-		master.removeRecord(pvRecord);
-		context.destroy();
+		try {
+			latch.await();
+			master.removeRecord(pvRecord);
+			context.destroy();
+		} finally {
+			stopped.countDown();
+		}
 	}
 }
@@ -4,6 +4,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Iterator;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.runtime.FileLocator;
 import org.eclipse.core.runtime.Platform;
@@ -11,6 +12,7 @@ import org.eclipse.scanning.points.ScanPointGeneratorFactory;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.wiring.BundleWiring;
 import org.python.core.Py;
+import org.python.core.PyObject;
 import org.python.core.PyString;
 import org.python.core.PySystemState;
 import org.slf4j.Logger;
@@ -32,11 +34,35 @@ public class JythonInterpreterManager {
 
 	private static volatile PySystemState configuredState;
 
+	/**
+	 * The interpreters which objects may be created in at the same time. The first
+	 * is the configured state, the others are created when first used with its
+	 * class loader and path. Each has its own modules and import lock so that a
+	 * thread creating objects in one does not wait for another.
+	 */
+	private static final PySystemState[] interpreters = new PySystemState[Math.max(1,
+			Integer.getInteger("org.eclipse.scanning.jython.interpreters", Math.min(4, Runtime.getRuntime().availableProcessors())))];
+
+	/**
+	 * A thread always uses the same interpreter so that the objects it creates
+	 * are instances of the same python classes and may be used together.
+	 */
+	private static final AtomicInteger next = new AtomicInteger();
+	private static final ThreadLocal<Integer> interpreter = ThreadLocal.withInitial(() -> next.getAndIncrement() % interpreters.length);
+	private static final Object importLock = new Object();
+
 	/**
 	 * Call to ensure that an interpreter is set up and configured and
 	 * able to load the relevant bundles.
 	 */
-	public static synchronized void setupSystemState(String... bundleNames) {
+	public static void setupSystemState(String... bundleNames) {
+		// Once configured, nothing is changed so there is no need to lock.
+		final PySystemState state = configuredState;
+		if (state!=null && Py.getSystemState()==state) return;
+		configureSystemState(bundleNames);
+	}
+
+	private static synchronized void configureSystemState(String... bundleNames) {
 
 		ClassLoader loader=null;
 		if (configuredState==null) { // Relies on setupSystemState() being called early in the server startup.
@@ -61,6 +87,102 @@ public class JythonInterpreterManager {
 		configuredState = state;
 	}
 
+	/**
+	 * Sets up the interpreter if required and returns the one which objects
+	 * should be created in by the current thread. It is not set as the system
+	 * state of the thread, callers do that while they use it.
+	 *
+	 * @param bundleNames whose scripts folders should be on the path
+	 * @return the interpreter of the current thread
+	 */
+	public static PySystemState getSystemState(String... bundleNames) {
+		setupSystemState(bundleNames);
+		return getInterpreter(interpreter.get());
+	}
+
+	private static PySystemState getInterpreter(int index) {
+
+		if (index==0) return configuredState;
+
+		PySystemState state;
+		synchronized (interpreters) {
+			state = interpreters[index];
+			if (state==null) {
+				final PySystemState previous = Py.setSystemState(configuredState);
+				try {
+					state = new PySystemState();
+				} finally {
+					Py.setSystemState(previous);
+				}
+				state.setClassLoader(configuredState.getClassLoader());
+				interpreters[index] = state;
+			}
+			// Directories may have been added to the configured path since it was created.
+			for (Object directory : configuredState.path) {
+				if (!state.path.contains(directory)) state.path.add(directory);
+			}
+		}
+		return state;
+	}
+
+	/**
+	 * Imports a module into each of the interpreters in a daemon thread, so that
+	 * when it is first used, for instance by the first scan after the server starts,
+	 * the interpreters have class loaded and compiled it.
+	 *
+	 * @param moduleName to import
+	 */
+	public static void prewarm(final String moduleName) {
+
+		final Thread background = new Thread() {
+			@Override
+			public void run() {
+				setupSystemState();
+				for (int i = 0; i < interpreters.length; i++) {
+					final long start = System.currentTimeMillis();
+					try {
+						importModule(getInterpreter(i), moduleName);
+					} catch (Throwable ne) {
+						logger.debug("Problem importing "+moduleName, ne);
+						return;
+					}
+					logger.debug("Imported {} into interpreter {} in {}ms", moduleName, i, System.currentTimeMillis()-start);
+				}
+			}
+		};
+		background.setDaemon(true);
+		background.setName("Jython loader thread");    // Always name threads.
+		background.setPriority(Thread.MIN_PRIORITY+2); // Background but some urgency more than least
+		background.start();
+	}
+
+	/**
+	 * Imports a module using an interpreter as the system state of the current thread.
+	 *
+	 * @param state to import into
+	 * @param moduleName to import
+	 * @return the module
+	 */
+	static PyObject importModule(PySystemState state, String moduleName) {
+		if (state.modules.__finditem__(moduleName)!=null) return doImport(state, moduleName);
+
+		// Jython is not thread safe when it first makes the java classes a module
+		// uses available to python, so only one interpreter imports at a time.
+		synchronized (importLock) {
+			return doImport(state, moduleName);
+		}
+	}
+
+	private static PyObject doImport(PySystemState state, String moduleName) {
+		final PySystemState previous = Py.setSystemState(state);
+		try {
+			PyObject importer = state.getBuiltins().__getitem__(Py.newString("__import__"));
+			return importer.__call__(Py.newString(moduleName));
+		} finally {
+			Py.setSystemState(previous);
+		}
+	}
+
 	public static synchronized void addPath(String directory) throws IOException {
 
 		// Load one of the standard functions if the state has not been created yet.
@@ -0,0 +1,209 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.points;
+
+import java.util.Iterator;
+import java.util.function.BooleanSupplier;
+
+import org.eclipse.scanning.api.points.AbstractGenerator;
+import org.eclipse.scanning.api.points.GeneratorException;
+import org.eclipse.scanning.api.points.IPathChecker;
+import org.eclipse.scanning.api.points.IPointGenerator;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.PathColumns;
+import org.eclipse.scanning.api.points.ScanPointIterator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A generator which makes its points with the scanpointgenerator library.
+ * If the model allows it the points are made by the Java port of the library,
+ * {@link JavaCompoundGenerator}, which is much faster than calling Jython for
+ * every point. Otherwise, or if the system property
+ * {@value JavaCompoundGenerator#JYTHON_PROPERTY} is true, the points are made
+ * by the Jython library.
+ * <p>
+ * IPointGenerator is implemented again here because the AnnotationManager only
+ * injects the interfaces of a class and its immediate superclass.
+ *
+ * @author Matthew Gerring
+ *
+ * @param <T>
+ */
+abstract class AbstractScanPointGenerator<T> extends AbstractGenerator<T> implements IPointGenerator<T> {
+
+	private static final Logger logger = LoggerFactory.getLogger(AbstractScanPointGenerator.class);
+
+	protected AbstractScanPointGenerator() {
+		super();
+	}
+
+	protected AbstractScanPointGenerator(String id) {
+		super(id);
+	}
+
+	@Override
+	protected Iterator<IPosition> iteratorFromValidModel() {
+		ScanPointIterator points = null;
+		if (JavaCompoundGenerator.isEnabled()) points = createJavaIterator();
+		if (points == null) points = createPyIterator();
+		return createIterator(points);
+	}
+
+	private ScanPointIterator createJavaIterator() {
+		try {
+			final JavaCompoundGenerator gen = createJavaGenerator();
+			return gen!=null ? gen.shared().iterator(isCompoundIterator()) : null;
+		} catch (RuntimeException ne) {
+			logger.debug("Using scanpointgenerator in Jython for {}: {}", getClass().getSimpleName(), ne.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * The size is the product of the shape if the Java generator can make the scan,
+	 * otherwise it is the size of the iterator.
+	 */
+	@Override
+	protected int sizeOfValidModel() throws GeneratorException {
+		final int[] shape = getJavaShape();
+		if (shape==null) return super.sizeOfValidModel();
+		int size = 1;
+		for (int dim : shape) size *= dim; // The Java generator checks the size is an int
+		return size;
+	}
+
+	@Override
+	protected int[] calculateShape() {
+		final int[] shape = getJavaShape();
+		return shape!=null ? shape : super.calculateShape();
+	}
+
+	/**
+	 * The shape calculated from the sizes of the generators and the masks of the
+	 * regions without making an iterator or any positions.
+	 * @return the shape, or null if the scan is not made by the Java generator.
+	 */
+	private int[] getJavaShape() {
+		if (!JavaCompoundGenerator.isEnabled() || !isScanPointGeneratorFactory()) return null;
+		try {
+			final JavaCompoundGenerator gen = createJavaGenerator();
+			return gen!=null ? gen.shared().getShape().clone() : null;
+		} catch (RuntimeException ne) {
+			logger.debug("Using the iterator for the shape of {}: {}", getClass().getSimpleName(), ne.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * The columns are calculated by the Java generator if there is one,
+	 * otherwise by iterating over the points.
+	 */
+	@Override
+	public PathColumns getColumns(int maxPoints, BooleanSupplier cancelled, String... axes) throws GeneratorException {
+		validateModel();
+		if (JavaCompoundGenerator.isEnabled()) {
+			try {
+				final JavaCompoundGenerator gen = createJavaGenerator();
+				if (gen!=null) return gen.shared().getColumns(axes, maxPoints, cancelled);
+			} catch (RuntimeException ne) {
+				logger.debug("Iterating over the points of {} for columns: {}", getClass().getSimpleName(), ne.getMessage());
+			}
+		}
+		return PathColumns.create(this, size(), maxPoints, cancelled, axes);
+	}
+
+	/**
+	 * The points are checked in parallel by the Java generator if there is one,
+	 * otherwise by iterating over them.
+	 */
+	@Override
+	public int check(IPathChecker checker, String... axes) throws GeneratorException {
+		validateModel();
+		if (JavaCompoundGenerator.isEnabled()) {
+			try {
+				final JavaCompoundGenerator gen = createJavaGenerator();
+				if (gen!=null) return gen.shared().check(checker, axes);
+			} catch (RuntimeException ne) {
+				logger.debug("Iterating over the points of {} to check them: {}", getClass().getSimpleName(), ne.getMessage());
+			}
+		}
+		return PathColumns.check(this, checker, axes);
+	}
+
+	/**
+	 * The path is calculated if the Java generator can make the scan.
+	 */
+	@Override
+	public boolean isPathCalculated() {
+		if (!JavaCompoundGenerator.isEnabled()) return false;
+		try {
+			return getJavaGenerator()!=null;
+		} catch (RuntimeException ne) {
+			return false;
+		}
+	}
+
+	/**
+	 * The iterator made by scanpointgenerator in Jython, with the wrapping
+	 * of {@link #createIterator(ScanPointIterator)}. The Jython compound generator
+	 * needs this from each of the generators it compounds.
+	 * @return
+	 */
+	ScanPointIterator createSpgIterator() {
+		validateModel();
+		return createIterator(createPyIterator());
+	}
+
+	/**
+	 * The generators and excluders of this generator in Java, or null if they cannot be
+	 * made in Java. They are not prepared so they may be compounded with others.
+	 * @return
+	 */
+	JavaCompoundGenerator getJavaGenerator() {
+		validateModel();
+		return createJavaGenerator();
+	}
+
+	/**
+	 * Creates the iterator from scanpointgenerator in Jython, for instance JCompoundGenerator
+	 * @return
+	 */
+	protected abstract ScanPointIterator createPyIterator();
+
+	/**
+	 * Creates the same generators and excluders as {@link #createPyIterator()} with
+	 * the Java port of scanpointgenerator.
+	 * @return the generator or null if this model must use the Jython.
+	 * @throws RuntimeException if this model cannot be made in Java.
+	 */
+	protected abstract JavaCompoundGenerator createJavaGenerator();
+
+	/**
+	 * The positions from the Java generator are wrapped like JCompoundGenerator
+	 * does unless this returns false, when they are wrapped like the single generators
+	 * for instance JLineGenerator2D.
+	 * @return
+	 */
+	protected boolean isCompoundIterator() {
+		return true;
+	}
+
+	/**
+	 * Override to decorate the points, for instance to add exposure times.
+	 * @param points from Jython or Java
+	 * @return
+	 */
+	protected ScanPointIterator createIterator(ScanPointIterator points) {
+		return new SpgIterator(points);
+	}
+}
@@ -135,4 +135,15 @@ public abstract class AbstractScanPointIterator implements ScanPointIterator, Py
 		return index;
 	}
 
+	@Override
+	public boolean isRandomAccess() {
+		return pyIterator.isRandomAccess();
+	}
+
+	@Override
+	public void setIndex(int index) {
+		pyIterator.setIndex(index);
+		this.index = index;
+	}
+
 }
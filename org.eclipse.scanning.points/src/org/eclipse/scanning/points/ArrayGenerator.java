@@ -13,13 +13,12 @@ package org.eclipse.scanning.points;
 
 import org.eclipse.scanning.api.ModelValidationException;
 import org.eclipse.scanning.api.ValidationException;
-import org.eclipse.scanning.api.points.AbstractGenerator;
 import org.eclipse.scanning.api.points.GeneratorException;
 import org.eclipse.scanning.api.points.ScanPointIterator;
 import org.eclipse.scanning.api.points.models.ArrayModel;
 import org.eclipse.scanning.jython.JythonObjectFactory;
 
-public class ArrayGenerator extends AbstractGenerator<ArrayModel> {
+public class ArrayGenerator extends AbstractScanPointGenerator<ArrayModel> {
 
 	public ArrayGenerator() {
 		setLabel("Array Scan");
@@ -43,15 +42,19 @@ public class ArrayGenerator extends AbstractGenerator<ArrayModel> {
 	}
 
 	@Override
-	protected ScanPointIterator iteratorFromValidModel() {
+	protected ScanPointIterator createPyIterator() {
 		final ArrayModel model = getModel();
         final JythonObjectFactory<ScanPointIterator> arrayGeneratorFactory = ScanPointGeneratorFactory.JArrayGeneratorFactory();
 
         final double[] points = model.getPositions();
 
-		final ScanPointIterator pyIterator = arrayGeneratorFactory.createObject(
-				model.getName(), "mm", points);
-        return new SpgIterator(pyIterator);
+		return arrayGeneratorFactory.createObject(model.getName(), "mm", points);
+	}
+
+	@Override
+	protected JavaCompoundGenerator createJavaGenerator() {
+		final ArrayModel model = getModel();
+		return JavaCompoundGenerator.create(null, JavaGenerator.array(model.getName(), model.getPositions(), false));
 	}
 
 	@Override
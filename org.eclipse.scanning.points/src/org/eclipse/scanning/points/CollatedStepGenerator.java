@@ -33,10 +33,8 @@ public class CollatedStepGenerator extends StepGenerator {
 	}
 
 	@Override
-	public ScanPointIterator iteratorFromValidModel() {
-		final ScanPointIterator pyIterator = createPyIterator();
-		return new CollatedStepIterator(this.getModel(), pyIterator);
-
+	protected ScanPointIterator createIterator(ScanPointIterator points) {
+		return new CollatedStepIterator(this.getModel(), points);
 	}
 
 	@Override
@@ -17,7 +17,6 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 
-import org.eclipse.scanning.api.points.AbstractGenerator;
 import org.eclipse.scanning.api.points.AbstractPosition;
 import org.eclipse.scanning.api.points.GeneratorException;
 import org.eclipse.scanning.api.points.IPointGenerator;
@@ -34,7 +33,7 @@ import org.python.core.PyDictionary;
  * @author Matthew Gerring
  *
  */
-class CompoundGenerator extends AbstractGenerator<CompoundModel<Object>> implements PySerializable {
+class CompoundGenerator extends AbstractScanPointGenerator<CompoundModel<Object>> implements PySerializable {
 
 	private IPointGenerator<?>[]     generators;
 	private List<Collection<String>> dimensionNames;
@@ -83,23 +82,18 @@ class CompoundGenerator extends AbstractGenerator<CompoundModel<Object>> impleme
 
 	@Override
 	public int sizeOfValidModel() throws GeneratorException  {
-		Iterator<IPosition> it = iteratorFromValidModel();
+		if (isScanPointGeneratorFactory()) return super.sizeOfValidModel();
 		int size = 1;
-		if (it instanceof ScanPointIterator) {
-			size = ((ScanPointIterator) it).size();
-		} else {
-			for (int i = 0;i < generators.length; i++) {
-				size *= generators[i].size();
-			}
+		for (int i = 0;i < generators.length; i++) {
+			size *= generators[i].size();
 		}
 		return size;
 	}
 
     @Override
 	public PyDictionary toDict() {
-		Iterator<?> it = iteratorFromValidModel();
-		if (it instanceof PySerializable) return ((PySerializable)it).toDict();
-		return null;
+		if (!isScanPointGeneratorFactory()) return null;
+		return ((PySerializable)createPyIterator()).toDict(); // Always the Jython generator, the dictionary is made by it.
     }
 
 	/**
@@ -135,12 +129,46 @@ class CompoundGenerator extends AbstractGenerator<CompoundModel<Object>> impleme
 	@Override
 	protected Iterator<IPosition> iteratorFromValidModel() {
 		if (isScanPointGeneratorFactory()) {
-			return new CompoundSpgIteratorFactory().createCompoundSpgIterator(this);
+			return super.iteratorFromValidModel();
 		} else {
 			return new CompoundIterator(this);
 		}
 	}
 
+	@Override
+	protected ScanPointIterator createPyIterator() {
+		return new CompoundSpgIteratorFactory().createCompoundSpgIterator(this);
+	}
+
+	/**
+	 * The generators, excluders and regions of the generators compounded, flattened
+	 * like JCompoundGenerator does, and the regions of the compound model.
+	 */
+	@Override
+	protected JavaCompoundGenerator createJavaGenerator() {
+
+		if (getModel().getMutators()!=null && !getModel().getMutators().isEmpty()) return null;
+
+		final List<JavaGenerator> gens      = new ArrayList<>(generators.length+1);
+		final List<JavaExcluder>  excluders = JavaExcluder.createExcluders(getModel().getRegions());
+		for (IPointGenerator<?> gen : generators) {
+			if (!(gen instanceof AbstractScanPointGenerator)) return null;
+			final JavaCompoundGenerator jgen = ((AbstractScanPointGenerator<?>)gen).getJavaGenerator();
+			if (jgen==null) return null;
+			gens.addAll(jgen.getGenerators());
+			// It is possible for a region to be on both the compound and the generator.
+			for (JavaExcluder excluder : jgen.getExcluders()) {
+				if (!excluders.contains(excluder)) excluders.add(excluder);
+			}
+		}
+		return new JavaCompoundGenerator(gens, excluders);
+	}
+
+	@Override
+	protected ScanPointIterator createIterator(ScanPointIterator points) {
+		return points;
+	}
+
 	@Override
 	public List<IPosition> createPoints() throws GeneratorException {
 
@@ -12,7 +12,9 @@
 package org.eclipse.scanning.points;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 
 import org.eclipse.scanning.api.points.AbstractPosition;
@@ -34,12 +36,14 @@ import org.eclipse.scanning.api.points.MapPosition;
 public class CompoundIterator implements Iterator<IPosition> {
 
 	private CompoundGenerator     gen;
+	private List<Collection<String>> dimensionNames;
 	private IPosition             lastPosition;
 	private Iterator<? extends IPosition>[] iterators;
 	private int index;
 
 	public CompoundIterator(CompoundGenerator gen) {
 		this.gen = gen;
+		this.dimensionNames = gen.getDimensionNames();
 		this.iterators = initIterators();
 		this.lastPosition = createFirstPosition();
 		this.index = 0;
@@ -77,7 +81,7 @@ public class CompoundIterator implements Iterator<IPosition> {
 				// call next() once, update lastPosition with that position
 				IPosition next = iterators[i].next();
 				lastPosition = next.compound(lastPosition);
-				((AbstractPosition) lastPosition).setDimensionNames(gen.getDimensionNames());
+				((AbstractPosition) lastPosition).setDimensionNames(dimensionNames);
 
 				// update the step index and return pos
 				lastPosition.setStepIndex(index);
@@ -88,8 +92,7 @@ public class CompoundIterator implements Iterator<IPosition> {
 				iterators[i] = gen.getGenerators()[i].iterator();
 				// call next() once and update lastPosition with the first position of this inner iterator
 				IPosition first = iterators[i].next();
-				lastPosition = first.compound(lastPosition);
-				((AbstractPosition) lastPosition).setDimensionNames(gen.getDimensionNames());
+				lastPosition = first.compound(lastPosition); // The dimension names are set on the position returned
 			}
 		}
 
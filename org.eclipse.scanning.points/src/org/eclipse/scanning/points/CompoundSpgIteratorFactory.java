@@ -26,7 +26,6 @@ import java.util.stream.Collectors;
 
 import org.eclipse.scanning.api.points.IDeviceDependentIterable;
 import org.eclipse.scanning.api.points.IMutator;
-import org.eclipse.scanning.api.points.IPointGenerator;
 import org.eclipse.scanning.api.points.IPosition;
 import org.eclipse.scanning.api.points.ScanPointIterator;
 import org.eclipse.scanning.api.points.models.CompoundModel;
@@ -112,8 +111,9 @@ public class CompoundSpgIteratorFactory {
 
 	@SuppressWarnings("unchecked")
 	private static Iterator<? extends IPosition>[] initIterators(CompoundGenerator gen) {
+		// JCompoundGenerator needs the python generators, not the Java ones.
 		return Arrays.stream(gen.getGenerators()).
-				map(IPointGenerator::iterator).
+				map(g -> g instanceof AbstractScanPointGenerator ? ((AbstractScanPointGenerator<?>)g).createSpgIterator() : g.iterator()).
 				toArray(Iterator[]::new);
 	}
 
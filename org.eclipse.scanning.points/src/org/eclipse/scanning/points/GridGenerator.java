@@ -16,12 +16,11 @@ import static org.eclipse.scanning.points.AbstractScanPointIterator.EMPTY_PY_ARR
 import java.util.Iterator;
 
 import org.eclipse.scanning.api.ModelValidationException;
-import org.eclipse.scanning.api.points.AbstractGenerator;
 import org.eclipse.scanning.api.points.ScanPointIterator;
 import org.eclipse.scanning.api.points.models.GridModel;
 import org.eclipse.scanning.jython.JythonObjectFactory;
 
-class GridGenerator extends AbstractGenerator<GridModel> {
+class GridGenerator extends AbstractScanPointGenerator<GridModel> {
 
 	GridGenerator() {
 		setLabel("Grid");
@@ -39,7 +38,7 @@ class GridGenerator extends AbstractGenerator<GridModel> {
 	}
 
 	@Override
-	public ScanPointIterator iteratorFromValidModel() {
+	protected ScanPointIterator createPyIterator() {
 		final GridModel model = getModel();
 
 		final int columns = model.getFastAxisPoints();
@@ -62,10 +61,27 @@ class GridGenerator extends AbstractGenerator<GridModel> {
         final Iterator<?>[] generators = { outerLine, innerLine };
 
         final String[] axisNames = new String[] { xName, yName };
-		final ScanPointIterator pyIterator = CompoundSpgIteratorFactory.createSpgCompoundGenerator(generators,
+		return CompoundSpgIteratorFactory.createSpgCompoundGenerator(generators,
 				getRegions().toArray(),	axisNames, EMPTY_PY_ARRAY, -1, model.isContinuous());
+	}
+
+	@Override
+	protected JavaCompoundGenerator createJavaGenerator() {
+		final GridModel model = getModel();
+
+		final int columns = model.getFastAxisPoints();
+		final int rows = model.getSlowAxisPoints();
+		final String xName = model.getFastAxisName();
+		final String yName = model.getSlowAxisName();
+		final double xStep = model.getBoundingBox().getFastAxisLength() / columns;
+		final double yStep = model.getBoundingBox().getSlowAxisLength() / rows;
+		final double minX = model.getBoundingBox().getFastAxisStart() + xStep / 2;
+		final double minY = model.getBoundingBox().getSlowAxisStart() + yStep / 2;
+
+		final JavaGenerator outerLine = JavaGenerator.line(yName, minY, minY + (rows - 1) * yStep, rows, model.isSnake());
+		final JavaGenerator innerLine = JavaGenerator.line(xName, minX, minX + (columns - 1) * xStep, columns, model.isSnake());
 
-		return new SpgIterator(pyIterator);
+		return JavaCompoundGenerator.create(JavaExcluder.createExcluder(getRegions(), xName, yName), outerLine, innerLine);
 	}
 
 	@Override
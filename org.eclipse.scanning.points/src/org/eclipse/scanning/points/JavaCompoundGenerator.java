@@ -0,0 +1,815 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.points;
+
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+import org.eclipse.scanning.api.points.ArrayPosition;
+import org.eclipse.scanning.api.points.AxisNames;
+import org.eclipse.scanning.api.points.IPathChecker;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.PathColumns;
+import org.eclipse.scanning.api.points.PathStatistics;
+import org.eclipse.scanning.api.points.Point;
+import org.eclipse.scanning.api.points.Scalar;
+import org.eclipse.scanning.api.points.ScanPointIterator;
+
+/**
+ * A Java port of the scanpointgenerator CompoundGenerator and Dimension, used
+ * instead of the Jython bridge for the generators and regions which have been
+ * ported. The dimensions, masks and point indices are calculated the same way as
+ * the python, and the positions are wrapped the same way as jython_spg_interface.py,
+ * so a scan has the same points, shape and dimension names whichever is used.
+ * <p>
+ * Anything which is not ported (mutators, other regions, inconsistent models the python
+ * raises an error for) throws a {@link RuntimeException} from the constructor or
+ * {@link #prepare()}. The generators then fall back to the Jython ones, which either
+ * make the scan or raise the error users already expect.
+ * <p>
+ * Set the system property {@value #JYTHON_PROPERTY} to true to always use the Jython generators.
+ *
+ * @author Matthew Gerring
+ *
+ */
+final class JavaCompoundGenerator {
+
+	/**
+	 * Set to true to make all scans with the scanpointgenerator Jython code.
+	 */
+	static final String JYTHON_PROPERTY = "org.eclipse.scanning.points.jython";
+
+	static boolean isEnabled() {
+		return !Boolean.getBoolean(JYTHON_PROPERTY);
+	}
+
+	/**
+	 * The number of points calculated by each task when the points of a path are
+	 * calculated in parallel, the same as those given to a checker at a time.
+	 */
+	private static final int CHUNK = PathColumns.CHUNK;
+
+	/**
+	 * The number of prepared scans remembered by {@link #shared()}.
+	 */
+	private static final int SHARED_SCANS = 8;
+
+	/**
+	 * The most recently used prepared scans, by their generators and excluders.
+	 * A scan is held softly because its masks and indices may be large.
+	 */
+	private static final Map<List<Object>, SoftReference<JavaCompoundGenerator>> preparedScans = Collections.synchronizedMap(
+		new LinkedHashMap<List<Object>, SoftReference<JavaCompoundGenerator>>(SHARED_SCANS*2, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<List<Object>, SoftReference<JavaCompoundGenerator>> eldest) {
+				return size() > SHARED_SCANS;
+			}
+		});
+
+	private final List<JavaGenerator> generators;
+	private final List<JavaExcluder>  excluders;
+
+	// Valid after prepare()
+	private boolean                  prepared;
+	private List<Dimension>          dimensions;
+	private int                      size;
+	private int[]                    shape;
+	private List<Collection<String>> dimensionNames;
+	private String[]                 axesOrdering;
+	private AxisNames                axisNames; // Shared by the positions
+	private int[]                    indexLocations;
+
+	JavaCompoundGenerator(List<JavaGenerator> generators, List<JavaExcluder> excluders) {
+		final Set<String> axes = new HashSet<>();
+		for (JavaGenerator gen : generators) {
+			for (String axis : gen.getAxes()) {
+				if (!axes.add(axis)) throw new IllegalArgumentException("Axis names cannot be duplicated");
+			}
+		}
+		this.generators = generators;
+		this.excluders  = excluders;
+	}
+
+	/**
+	 * @param excluder may be null
+	 * @param generators outermost first
+	 * @return
+	 */
+	static JavaCompoundGenerator create(JavaExcluder excluder, JavaGenerator... generators) {
+		final List<JavaExcluder> excluders = new ArrayList<>(1);
+		if (excluder!=null) excluders.add(excluder);
+		return new JavaCompoundGenerator(Arrays.asList(generators), excluders);
+	}
+
+	List<JavaGenerator> getGenerators() {
+		return generators;
+	}
+
+	List<JavaExcluder> getExcluders() {
+		return excluders;
+	}
+
+	/**
+	 * A set of generators joined by excluders, which are a single dimension of the scan.
+	 */
+	private static final class Dimension {
+
+		private final List<JavaGenerator> generators = new ArrayList<>(2);
+		private final List<String>        axes       = new ArrayList<>(2);
+		private final List<Mask>          masks      = new ArrayList<>(1);
+		private boolean  alternate;
+		private long     maxLength;
+
+		// Valid after prepare()
+		private int[]    indices; // null if every point is in the dimension
+		private int      size;
+		private long[]   repeats; // Of each generator
+
+		Dimension() {
+			maxLength = 1;
+		}
+
+		Dimension(JavaGenerator gen) {
+			generators.add(gen);
+			for (String axis : gen.getAxes()) axes.add(axis);
+			alternate = gen.isAlternate();
+			maxLength = gen.getSize();
+		}
+
+		/**
+		 * Merges dimensions, outermost first. Masks of inner dimensions are tiled
+		 * by the size of the outer ones and masks of outer dimensions are repeated
+		 * by the size of the inner ones.
+		 */
+		static Dimension merge(List<Dimension> dims) {
+			final Dimension merged = new Dimension();
+			merged.alternate = dims.get(0).generators.get(0).isAlternate();
+			for (Dimension dim : dims) {
+				for (Mask m : merged.masks) m.repeat *= dim.maxLength;
+				for (Mask m : dim.masks)    merged.masks.add(new Mask(m.mask, m.repeat, m.tile * merged.maxLength));
+				merged.axes.addAll(dim.axes);
+				merged.generators.addAll(dim.generators);
+				merged.maxLength = Math.multiplyExact(merged.maxLength, dim.maxLength);
+				merged.alternate = merged.alternate || dim.alternate;
+			}
+			return merged;
+		}
+
+		void applyExcluder(JavaExcluder excluder) {
+
+			final List<String> eaxes = excluder.getAxes();
+			if (eaxes.size() != 2) throw new IllegalArgumentException("A region must have two axes "+eaxes);
+
+			int gstart = -1, gend = -1;
+			for (int i = 0; i < generators.size(); i++) {
+				if (matches(generators.get(i).getAxes(), eaxes)) {
+					if (gstart<0) gstart = i;
+					gend = i;
+				}
+			}
+			if (gstart<0) throw new IllegalArgumentException("Excluder references axes not present in dimension : "+eaxes);
+
+			// The positions of the two axes of the region, the inner generators
+			// are tiled by the size of outer ones and the outer generators
+			// have their points repeated by the size of inner ones.
+			final double[][] points  = new double[2][];
+			final long[]     tiling  = new long[]{1, 1};
+			final long[]     repeats = new long[]{1, 1};
+			final boolean[]  seen    = new boolean[2];
+			for (int a = 0; a < 2; a++) {
+				for (int i = gstart; i <= gend && points[a]==null; i++) {
+					final JavaGenerator gen = generators.get(i);
+					if (gen.indexOf(eaxes.get(a))>-1) points[a] = gen.getPositions(eaxes.get(a));
+				}
+				if (points[a]==null) throw new IllegalArgumentException("Excluder axis "+eaxes.get(a)+" not in dimension");
+			}
+			for (int i = gstart; i <= gend; i++) {
+				final JavaGenerator gen = generators.get(i);
+				final boolean[] found = new boolean[2];
+				for (int a = 0; a < 2; a++) found[a] = !seen[a] && gen.indexOf(eaxes.get(a))>-1;
+				for (int a = 0; a < 2; a++) {
+					if (!seen[a] && !found[a]) tiling[a]  = Math.multiplyExact(tiling[a], gen.getSize());
+					if (seen[a])               repeats[a] = Math.multiplyExact(repeats[a], gen.getSize());
+				}
+				for (int a = 0; a < 2; a++) seen[a] = seen[a] || found[a];
+			}
+
+			final int  factor = alternate ? 2 : 1; // The reverse is appended to the points when alternating
+			final long xlen   = Math.multiplyExact(factor*points[0].length, repeats[0]);
+			final long ylen   = Math.multiplyExact(factor*points[1].length, repeats[1]);
+			final long length = Math.multiplyExact(xlen, tiling[0]);
+			if (length != Math.multiplyExact(ylen, tiling[1])) throw new IllegalArgumentException("Points lengths must be equal");
+			if (length > Integer.MAX_VALUE) throw new IllegalArgumentException("Region mask is too large "+length);
+
+			final boolean[] mask = new boolean[(int)length];
+			IntStream.range(0, mask.length).parallel().forEach(q -> {
+				final double x = point(points[0], (int)((q % xlen) / repeats[0]));
+				final double y = point(points[1], (int)((q % ylen) / repeats[1]));
+				mask[q] = excluder.contains(x, y);
+			});
+
+			// Record the tiling and repeat information for the generators outside the axis range
+			double tile   = alternate ? 0.5 : 1;
+			long   repeat = 1;
+			for (int i = 0; i < gstart; i++)                 tile  *= generators.get(i).getSize();
+			for (int i = gend+1; i < generators.size(); i++) repeat = Math.multiplyExact(repeat, generators.get(i).getSize());
+			masks.add(new Mask(mask, repeat, tile));
+		}
+
+		/**
+		 * @return the point at i in the positions with their reverse appended.
+		 */
+		private static double point(double[] positions, int i) {
+			return i < positions.length ? positions[i] : positions[2*positions.length-i-1];
+		}
+
+		void prepare() {
+			if (maxLength > Integer.MAX_VALUE) throw new IllegalArgumentException("The scan has too many points in one dimension "+maxLength);
+			final int length = (int)maxLength;
+
+			if (masks.isEmpty()) {
+				indices = null;
+				size    = length;
+			} else {
+				for (Mask m : masks) {
+					if (m.mask.length * m.repeat * m.tile != length) throw new IllegalArgumentException("Mask lengths are not consistent");
+				}
+				int[] found = new int[Math.min(length, 1024)];
+				int   count = 0;
+				for (int k = 0; k < length; k++) {
+					if (!isIncluded(k)) continue;
+					if (count==found.length) found = Arrays.copyOf(found, (int)Math.min(length, 2L*found.length));
+					found[count++] = k;
+				}
+				indices = Arrays.copyOf(found, count);
+				size    = count;
+			}
+
+			repeats = new long[generators.size()];
+			long repeat = maxLength;
+			for (int i = 0; i < generators.size(); i++) {
+				repeat /= generators.get(i).getSize();
+				repeats[i] = repeat;
+			}
+		}
+
+		/**
+		 * A mask repeated then tiled, fractionally when alternating, is the mask at k
+		 * modulo its repeated length.
+		 */
+		private boolean isIncluded(int k) {
+			for (Mask m : masks) {
+				final long repeated = m.mask.length * m.repeat;
+				if (!m.mask[(int)((k % repeated) / m.repeat)]) return false;
+			}
+			return true;
+		}
+
+		int index(int i) {
+			return indices==null ? i : indices[i];
+		}
+	}
+
+	private static final class Mask {
+		private final boolean[] mask;
+		private long            repeat;
+		private final double    tile;
+		Mask(boolean[] mask, long repeat, double tile) {
+			this.mask   = mask;
+			this.repeat = repeat;
+			this.tile   = tile;
+		}
+	}
+
+	private static boolean matches(String[] axes, List<String> others) {
+		for (String axis : axes) if (others.contains(axis)) return true;
+		return false;
+	}
+
+	private static boolean matches(List<String> axes, List<String> others) {
+		for (String axis : axes) if (others.contains(axis)) return true;
+		return false;
+	}
+
+	/**
+	 * Calculates the dimensions and the size of the scan.
+	 * @throws RuntimeException if the scan cannot be made.
+	 */
+	void prepare() {
+		if (prepared) return;
+
+		final List<JavaExcluder>  excluders  = new ArrayList<>(this.excluders);
+		final List<JavaGenerator> generators = new ArrayList<>(this.generators);
+
+		// Special case, a rectangular region on line generators restricts
+		// the lines rather than merging the dimensions.
+		for (JavaExcluder excluder : this.excluders) {
+			final JavaExcluder.Rectangle rect = excluder.getSingleRectangle();
+			if (rect==null) continue;
+			final String axis1 = excluder.getAxes().get(0), axis2 = excluder.getAxes().get(1);
+			final JavaGenerator gen1 = find(generators, axis1), gen2 = find(generators, axis2);
+			if (gen1==gen2) continue;
+			if (!gen1.isLine() || !gen2.isLine()) continue;
+			if (gen1.getAxes().length!=1 || gen2.getAxes().length!=1) throw new IllegalArgumentException("Cannot restrict a line with more than one axis");
+
+			final double[] points1 = crop(gen1.getPositions(axis1), rect.start[0], rect.width + rect.start[0]);
+			final double[] points2 = crop(gen2.getPositions(axis2), rect.start[1], rect.height + rect.start[1]);
+			generators.set(generators.indexOf(gen1), JavaGenerator.line(axis1, points1[0], points1[points1.length-1], points1.length, gen1.isAlternate()));
+			generators.set(generators.indexOf(gen2), JavaGenerator.line(axis2, points2[0], points2[points2.length-1], points2.length, gen2.isAlternate()));
+			excluders.remove(excluder);
+		}
+
+		List<Dimension> dims = new ArrayList<>(generators.size());
+		for (JavaGenerator gen : generators) dims.add(new Dimension(gen));
+
+		for (JavaExcluder excluder : excluders) {
+			int dstart = -1, dend = -1;
+			for (int i = 0; i < dims.size(); i++) {
+				if (matches(dims.get(i).axes, excluder.getAxes())) {
+					if (dstart<0) dstart = i;
+					dend = i;
+				}
+			}
+			if (dstart<0) throw new IllegalArgumentException("Excluder references axes that have not been provided by generators: "+excluder.getAxes());
+
+			final Dimension dim;
+			if (dstart!=dend) {
+				// Merge all dimensions between dstart and dend (inclusive)
+				final boolean alternate = dims.get(dend).alternate;
+				for (int i = Math.max(1, dstart); i < dend; i++) {
+					if (alternate != dims.get(i).alternate) {
+						throw new IllegalArgumentException("Nested generators connected by regions must have the same alternate setting");
+					}
+				}
+				dim = Dimension.merge(dims.subList(dstart, dend+1));
+				final List<Dimension> merged = new ArrayList<>(dims.subList(0, dstart));
+				merged.add(dim);
+				merged.addAll(dims.subList(dend+1, dims.size()));
+				dims = merged;
+			} else {
+				dim = dims.get(dstart);
+			}
+			dim.applyExcluder(excluder);
+		}
+
+		long lsize = 1;
+		for (Dimension dim : dims) {
+			dim.prepare();
+			if (dim.size == 0) throw new IllegalArgumentException("Regions would exclude entire scan");
+			lsize = Math.multiplyExact(lsize, dim.size);
+		}
+		if (lsize > Integer.MAX_VALUE) throw new IllegalArgumentException("The scan has too many points "+lsize);
+
+		this.dimensions = dims;
+		this.size       = (int)lsize;
+		this.shape      = new int[dims.size()];
+		this.dimensionNames = new ArrayList<>(dims.size());
+		final List<String> ordering = new ArrayList<>();
+		final List<Integer> locations = new ArrayList<>();
+		for (int i = 0; i < dims.size(); i++) {
+			shape[i] = dims.get(i).size;
+			dimensionNames.add(new ArrayList<>(dims.get(i).axes));
+			for (String axis : dims.get(i).axes) {
+				ordering.add(axis);
+				locations.add(i);
+			}
+		}
+		this.axesOrdering   = ordering.toArray(new String[ordering.size()]);
+		this.indexLocations = locations.stream().mapToInt(Integer::intValue).toArray();
+		this.axisNames      = new AxisNames(axesOrdering);
+		this.prepared       = true;
+	}
+
+	/**
+	 * A scan is often made from the same models several times before it runs, to
+	 * validate it, estimate its size and shape, check its positions and then run it.
+	 * The generators and excluders are values calculated from the models, so a scan
+	 * with the same ones has the same dimensions and is prepared once.
+	 *
+	 * @return the prepared scan with the same generators and excluders if there is one,
+	 *         otherwise this prepared.
+	 * @throws RuntimeException if the scan cannot be made.
+	 */
+	JavaCompoundGenerator shared() {
+		final List<Object> key = Arrays.asList(generators, excluders);
+		final SoftReference<JavaCompoundGenerator> ref = preparedScans.get(key);
+		final JavaCompoundGenerator gen = ref!=null ? ref.get() : null;
+		if (gen!=null) return gen;
+		prepare();
+		preparedScans.put(key, new SoftReference<>(this));
+		return this;
+	}
+
+	private static JavaGenerator find(List<JavaGenerator> generators, String axis) {
+		for (JavaGenerator gen : generators) if (gen.indexOf(axis)>-1) return gen;
+		throw new IllegalArgumentException("No generator has the axis "+axis);
+	}
+
+	private static double[] crop(double[] positions, double lower, double upper) {
+		final double[] cropped = Arrays.stream(positions).filter(p -> p <= upper && p >= lower).toArray();
+		if (cropped.length==0) throw new IllegalArgumentException("The region excludes the whole line");
+		return cropped;
+	}
+
+	int getSize() {
+		return size;
+	}
+
+	int[] getShape() {
+		return shape;
+	}
+
+	/**
+	 * Calculates the position n of the scan, as CompoundGenerator.get_point(n)
+	 *
+	 * @param n
+	 * @param values of the axes in axes ordering
+	 * @param indexes of the dimensions
+	 * @return true if the innermost dimension is going backwards at this point
+	 */
+	private boolean getPoint(int n, double[] values, int[] indexes) {
+
+		if (n >= size) throw new IndexOutOfBoundsException("Requested point is out of range");
+
+		// We need to know how far along each dimension we are and, in the case of
+		// alternating indices, how many times we have run through them.
+		boolean oddRuns  = false;
+		boolean reversed = false;
+		long repeat = size;
+		int  iaxis  = 0;
+		for (int d = 0; d < dimensions.size(); d++) {
+			final Dimension dim = dimensions.get(d);
+			repeat /= dim.size;
+			int i = (int)((n / repeat) % dim.size);
+			int k = dim.index(i);
+			reversed = dim.alternate && oddRuns;
+			if (reversed) i = dim.size - i - 1;
+			oddRuns = (oddRuns && dim.size % 2 == 1) ^ (k % 2 == 1);
+			k = dim.index(i);
+			indexes[d] = i;
+
+			// Point k along each generator in the dimension, in the alternating case sometimes backwards.
+			for (int g = 0; g < dim.generators.size(); g++) {
+				final JavaGenerator gen = dim.generators.get(g);
+				long j = k / dim.repeats[g];
+				final long r = j / gen.getSize();
+				j %= gen.getSize();
+				if (dim.alternate && g > 0 && r % 2 == 1) j = gen.getSize() - j - 1;
+				for (int a = 0; a < gen.getAxes().length; a++) {
+					values[iaxis++] = gen.getPositions(a)[(int)j];
+				}
+			}
+		}
+		return reversed;
+	}
+
+	/**
+	 * Makes the position n of the scan, as jython_spg_interface.py does.
+	 *
+	 * @param n
+	 * @param asCompound true to wrap as JCompoundGenerator, false as the single generator wrappers like JLineGenerator2D
+	 * @return
+	 */
+	IPosition getPosition(int n, boolean asCompound) {
+
+		final double[] values  = new double[axesOrdering.length];
+		final int[]    indexes = new int[dimensions.size()];
+		getPoint(n, values, indexes);
+
+		if (axesOrdering.length == 1) {
+			return new Scalar<>(axesOrdering[0], indexes[0], values[0]);
+
+		} else if (axesOrdering.length == 2) {
+			if (!asCompound) {
+				return new Point(axesOrdering[0], indexes[0], values[0], axesOrdering[1], indexes[0], values[1], false);
+			}
+			final Point point = new Point(axesOrdering[1], indexes[indexLocations[1]], values[1],
+					                      axesOrdering[0], indexes[indexLocations[0]], values[0]);
+			point.setDimensionNames(dimensionNames);
+			return point;
+
+		} else {
+			final int[] axisIndexes = new int[axesOrdering.length];
+			for (int a = 0; a < axesOrdering.length; a++) axisIndexes[a] = indexes[indexLocations[a]];
+			final ArrayPosition point = new ArrayPosition(axisNames, values, axisIndexes);
+			point.setDimensionNames(dimensionNames);
+			return point;
+		}
+	}
+
+	/**
+	 * The values of some of the axes of the scan in columns, calculated directly
+	 * from the generators without making positions. If every point of the scan is
+	 * in it and each dimension is one generator the statistics are calculated from
+	 * the positions of the generators, otherwise from every point. Large scans are
+	 * calculated in chunks in parallel, stopping between chunks if cancelled.
+	 *
+	 * @param axes the names of the axes
+	 * @param maxPoints the most points in the columns, 0 or less for all of them
+	 * @param cancelled true to stop, may be null
+	 * @return the columns or null if cancelled
+	 * @throws IllegalArgumentException if the scan does not have one of the axes
+	 */
+	PathColumns getColumns(String[] axes, int maxPoints, BooleanSupplier cancelled) {
+		prepare();
+
+		final int[] slots = getSlots(axes);
+
+		final int[]      rows    = PathColumns.decimate(size, maxPoints);
+		final double[][] columns = new double[axes.length][rows.length];
+
+		try {
+			PathStatistics stats = getStatistics(slots);
+			if (stats!=null) {
+				final int chunks = (rows.length+CHUNK-1)/CHUNK;
+				IntStream.range(0, chunks).parallel()
+				         .peek(c -> checkCancelled(cancelled))
+				         .forEach(c -> fillRows(c, slots, rows, columns));
+			} else {
+				final double[][] runs   = getRuns(slots);
+				final int        chunks = (size+CHUNK-1)/CHUNK;
+				stats = IntStream.range(0, chunks).parallel()
+						         .peek(c -> checkCancelled(cancelled))
+						         .mapToObj(c -> fillAndCalculate(c, slots, runs, rows, columns))
+						         .reduce(PathStatistics::combine)
+						         .get();
+			}
+			return new PathColumns(axes, size, rows, columns, stats);
+		} catch (CancellationException ne) {
+			return null;
+		}
+	}
+
+	private static void checkCancelled(BooleanSupplier cancelled) {
+		if (cancelled!=null && cancelled.getAsBoolean()) throw new CancellationException();
+	}
+
+	/**
+	 * Checks the points of the scan in chunks in parallel, calculating the
+	 * values directly from the generators.
+	 *
+	 * @param checker
+	 * @param axes the names of the axes
+	 * @return the step index of the first point which is not allowed or -1 if they all are
+	 * @throws IllegalArgumentException if the scan does not have one of the axes
+	 */
+	int check(IPathChecker checker, String[] axes) {
+		prepare();
+		final int[]      slots  = getSlots(axes);
+		final double[][] runs   = getRuns(slots);
+		final int        chunks = (size+CHUNK-1)/CHUNK;
+		return IntStream.range(0, chunks).parallel()
+				        .map(c -> check(c, checker, axes, slots, runs))
+				        .filter(index -> index>-1)
+				        .min()
+				        .orElse(-1);
+	}
+
+	private int check(int chunk, IPathChecker checker, String[] axes, int[] slots, double[][] runs) {
+		final int start = chunk*CHUNK;
+		final int end   = (int)Math.min(size, (long)start+CHUNK);
+
+		final double[][] columns = new double[slots.length][end-start];
+		fill(start, end, slots, runs, columns);
+		final int index = checker.check(axes, columns);
+		return index>-1 ? start+index : -1;
+	}
+
+	/**
+	 * The values of the axes of the innermost dimension along its first run, the first
+	 * points of the scan. Every run of the dimension is the same values forwards or backwards.
+	 *
+	 * @param slots of the axes in axes ordering
+	 * @return the values of each axis of the innermost dimension, null for the other axes,
+	 *         or null if the dimension is too long to keep its values.
+	 */
+	private double[][] getRuns(int[] slots) {
+
+		final int       innermost = dimensions.size()-1;
+		final Dimension dim       = dimensions.get(innermost);
+		if (dim.size > CHUNK) return null;
+
+		final double[][] runs = new double[slots.length][];
+		for (int a = 0; a < slots.length; a++) {
+			if (indexLocations[slots[a]]==innermost) runs[a] = new double[dim.size];
+		}
+		final double[] values  = new double[axesOrdering.length];
+		final int[]    indexes = new int[dimensions.size()];
+		for (int i = 0; i < dim.size; i++) {
+			getPoint(i, values, indexes);
+			for (int a = 0; a < slots.length; a++) if (runs[a]!=null) runs[a][i] = values[slots[a]];
+		}
+		return runs;
+	}
+
+	/**
+	 * Fills the columns with the values of the axes at the points from start to end.
+	 * With the runs of the innermost dimension only the first point of each run is
+	 * calculated and the rest are copied.
+	 *
+	 * @param start the first point
+	 * @param end after the last point
+	 * @param slots of the axes in axes ordering
+	 * @param runs of the innermost dimension, may be null
+	 * @param columns to fill from 0
+	 */
+	private void fill(int start, int end, int[] slots, double[][] runs, double[][] columns) {
+
+		final double[] values  = new double[axesOrdering.length];
+		final int[]    indexes = new int[dimensions.size()];
+		if (runs==null) {
+			for (int n = start; n < end; n++) {
+				getPoint(n, values, indexes);
+				for (int a = 0; a < slots.length; a++) columns[a][n-start] = values[slots[a]];
+			}
+			return;
+		}
+
+		final int length = dimensions.get(dimensions.size()-1).size;
+		for (int n = start; n < end;) {
+			final boolean reversed = getPoint(n, values, indexes);
+			final int     i        = n % length; // Along the run
+			final int     count    = Math.min(end-n, length-i);
+			final int     row      = n-start;
+			for (int a = 0; a < slots.length; a++) {
+				if (runs[a]==null) {
+					Arrays.fill(columns[a], row, row+count, values[slots[a]]);
+				} else if (!reversed) {
+					System.arraycopy(runs[a], i, columns[a], row, count);
+				} else {
+					for (int r = 0; r < count; r++) columns[a][row+r] = runs[a][length-1-i-r];
+				}
+			}
+			n += count;
+		}
+	}
+
+	/**
+	 * @param axes the names of the axes
+	 * @return the position of each axis in axes ordering
+	 * @throws IllegalArgumentException if the scan does not have one of the axes
+	 */
+	private int[] getSlots(String[] axes) {
+		final int[] slots = new int[axes.length];
+		for (int a = 0; a < axes.length; a++) {
+			slots[a] = Arrays.asList(axesOrdering).indexOf(axes[a]);
+			if (slots[a]<0) throw new IllegalArgumentException("The scan does not have the axis "+axes[a]);
+		}
+		return slots;
+	}
+
+	/**
+	 * Fills a chunk of the rows of the columns.
+	 */
+	private void fillRows(int chunk, int[] slots, int[] rows, double[][] columns) {
+		final double[] values  = new double[axesOrdering.length];
+		final int[]    indexes = new int[dimensions.size()];
+		final int      end     = Math.min(rows.length, (chunk+1)*CHUNK);
+		for (int r = chunk*CHUNK; r < end; r++) {
+			getPoint(rows[r], values, indexes);
+			for (int a = 0; a < slots.length; a++) columns[a][r] = values[slots[a]];
+		}
+	}
+
+	/**
+	 * Calculates a chunk of the points of the scan, filling the rows of the columns which
+	 * are in it, and the statistics of those points and the steps to them.
+	 */
+	private PathStatistics fillAndCalculate(int chunk, int[] slots, double[][] runs, int[] rows, double[][] columns) {
+
+		final PathStatistics stats = new PathStatistics(slots.length);
+		final int start = chunk*CHUNK;
+		final int end   = (int)Math.min(size, (long)start+CHUNK);
+
+		// The point before the chunk then the chunk, for the step to its first point
+		final int        first  = Math.max(0, start-1);
+		final double[][] points = new double[slots.length][end-first];
+		fill(first, end, slots, runs, points);
+
+		double[] previous = new double[slots.length];
+		double[] current  = new double[slots.length];
+		int row = Arrays.binarySearch(rows, start);
+		if (row<0) row = -row-1;
+		for (int n = first; n < end; n++) {
+			for (int a = 0; a < slots.length; a++) current[a] = points[a][n-first];
+			if (n>=start) {
+				stats.add(current);
+				if (n>0) stats.step(previous, current);
+				if (row<rows.length && rows[row]==n) {
+					for (int a = 0; a < slots.length; a++) columns[a][row] = current[a];
+					row++;
+				}
+			}
+			final double[] tmp = previous;
+			previous = current;
+			current  = tmp;
+		}
+		return stats;
+	}
+
+	/**
+	 * The statistics of the path calculated from the positions of the generators, which
+	 * can be done if every point is in the scan and each dimension is one generator.
+	 * The steps of a dimension are between its consecutive positions, and when an outer
+	 * dimension steps the inner ones which do not alternate go back to their first position.
+	 *
+	 * @param slots of the axes in axes ordering
+	 * @return the statistics or null if they must be calculated from the points
+	 */
+	private PathStatistics getStatistics(int[] slots) {
+
+		for (Dimension dim : dimensions) {
+			if (dim.indices!=null || dim.generators.size()!=1) return null;
+		}
+
+		final double[]   lower     = new double[slots.length];
+		final double[]   upper     = new double[slots.length];
+		final double[]   steps     = new double[slots.length];
+		final double[][] positions = new double[slots.length][];
+		final int[]      dims      = new int[slots.length];
+		for (int a = 0; a < slots.length; a++) {
+			dims[a]      = indexLocations[slots[a]];
+			positions[a] = dimensions.get(dims[a]).generators.get(0).getPositions(axesOrdering[slots[a]]);
+			lower[a]     = Arrays.stream(positions[a]).min().getAsDouble();
+			upper[a]     = Arrays.stream(positions[a]).max().getAsDouble();
+			steps[a]     = Double.MAX_VALUE;
+		}
+
+		// The steps of each axis and the squared distance of going back to the start of each dimension
+		final double[] wraps = new double[dimensions.size()];
+		boolean outerSteps = false;
+		for (int d = 0; d < dimensions.size(); d++) {
+			final Dimension dim = dimensions.get(d);
+			final boolean wrapped = outerSteps && !dim.alternate;
+			for (int a = 0; a < slots.length; a++) {
+				if (dims[a]!=d) continue;
+				final double[] p = positions[a];
+				for (int j = 0; j < p.length-1; j++) {
+					final double step = Math.abs(p[j+1]-p[j]);
+					if (step>0 && step<steps[a]) steps[a] = step;
+				}
+				if (wrapped) {
+					final double wrap = Math.abs(p[p.length-1]-p[0]);
+					if (wrap>0 && wrap<steps[a]) steps[a] = wrap;
+					wraps[d] += wrap*wrap;
+				}
+			}
+			outerSteps = outerSteps || dim.size>1;
+		}
+
+		// The smallest step of each dimension with the inner dimensions going back to their start
+		double  smallest = Double.MAX_VALUE;
+		double  inner    = 0;
+		boolean stepped  = false;
+		for (int d = dimensions.size()-1; d > -1; d--) {
+			final Dimension dim = dimensions.get(d);
+			for (int j = 0; j < dim.size-1; j++) {
+				double sum = inner;
+				for (int a = 0; a < slots.length; a++) {
+					if (dims[a]!=d) continue;
+					final double step = positions[a][j+1]-positions[a][j];
+					sum += step*step;
+				}
+				smallest = Math.min(smallest, sum);
+				stepped  = true;
+			}
+			inner += wraps[d];
+		}
+		return new PathStatistics(lower, upper, steps, stepped ? Math.sqrt(smallest) : Double.MAX_VALUE);
+	}
+
+	/**
+	 * @param asCompound true to wrap positions as JCompoundGenerator, false as the single generator wrappers
+	 * @return an iterator over the prepared scan
+	 */
+	ScanPointIterator iterator(boolean asCompound) {
+		prepare();
+		return new JavaPointIterator(this, asCompound);
+	}
+
+	@Override
+	public String toString() {
+		return "JavaCompoundGenerator [generators=" + generators + ", excluders=" + excluders.size() + "]";
+	}
+}
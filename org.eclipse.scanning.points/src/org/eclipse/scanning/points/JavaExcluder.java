@@ -0,0 +1,341 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.points;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.dawnsci.analysis.dataset.roi.CircularROI;
+import org.eclipse.dawnsci.analysis.dataset.roi.EllipticalROI;
+import org.eclipse.dawnsci.analysis.dataset.roi.LinearROI;
+import org.eclipse.dawnsci.analysis.dataset.roi.PointROI;
+import org.eclipse.dawnsci.analysis.dataset.roi.PolygonalROI;
+import org.eclipse.dawnsci.analysis.dataset.roi.RectangularROI;
+import org.eclipse.scanning.api.points.models.ScanRegion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A Java port of the scanpointgenerator ROIExcluder. A point is kept if it is inside
+ * any of the regions, the regions being tested against the first two axes.
+ * <p>
+ * Rectangular, circular, elliptical and polygonal regions are supported. Any other
+ * region, such as a sector, throws an {@link IllegalArgumentException} so that the
+ * scan is made by the Jython generators instead.
+ *
+ * @see JavaCompoundGenerator
+ *
+ * @author Matthew Gerring
+ *
+ */
+final class JavaExcluder {
+
+	private static final Logger logger = LoggerFactory.getLogger(JavaExcluder.class);
+
+	/**
+	 * A region in the plane of the first two axes of the excluder.
+	 */
+	interface Roi {
+		boolean contains(double x, double y);
+	}
+
+	private final List<Roi>    rois;
+	private final List<String> axes;
+
+	JavaExcluder(List<Roi> rois, List<String> axes) {
+		this.rois = rois;
+		this.axes = axes;
+	}
+
+	/**
+	 * Makes the excluder used for the regions of a single generator, like
+	 * {@link CompoundSpgIteratorFactory#createSpgCompoundGenerator(java.util.Iterator[], Object[], String[], org.python.core.PyObject[], int, boolean)}
+	 * @param regions
+	 * @param axes
+	 * @return the excluder or null if there are no regions
+	 */
+	static JavaExcluder createExcluder(Collection<?> regions, String... axes) {
+		final List<Roi> rois = new ArrayList<>(regions.size());
+		for (Object region : regions) {
+			final Roi roi = createRoi(region);
+			if (roi!=null) rois.add(roi);
+		}
+		return rois.isEmpty() ? null : new JavaExcluder(rois, Arrays.asList(axes));
+	}
+
+	/**
+	 * Makes the excluders of a compound model, like {@link CompoundSpgIteratorFactory#getExcluders(Collection)}
+	 * Regions are grouped into excluders by scan axes covered, two regions are in the
+	 * same excluder iff they have the same axes.
+	 *
+	 * @param regions
+	 * @return
+	 */
+	static List<JavaExcluder> createExcluders(Collection<?> regions) {
+		final Map<List<String>, List<Roi>> excluders = new LinkedHashMap<>();
+		if (regions != null) {
+			for (Object region : regions) {
+				if (region instanceof ScanRegion) {
+					final ScanRegion<?> sr = (ScanRegion<?>) region;
+					List<Roi> rois = null;
+					for (Map.Entry<List<String>, List<Roi>> e : excluders.entrySet()) {
+						if (sr.getScannables().containsAll(e.getKey())) {
+							rois = e.getValue();
+							break;
+						}
+					}
+					if (rois==null) {
+						rois = new ArrayList<>();
+						excluders.put(sr.getScannables(), rois);
+					}
+					final Roi roi = createRoi(region);
+					if (roi!=null) rois.add(roi);
+				} else {
+					logger.error("Region wasn't of type ScanRegion");
+				}
+			}
+		}
+
+		final List<JavaExcluder> ret = new ArrayList<>(excluders.size());
+		for (Map.Entry<List<String>, List<Roi>> e : excluders.entrySet()) {
+			if (!e.getValue().isEmpty()) ret.add(new JavaExcluder(e.getValue(), e.getKey()));
+		}
+		return ret;
+	}
+
+	/**
+	 * Same conversion as AbstractScanPointIterator.makePyRoi(...)
+	 * @param region
+	 * @return the roi or null if the region is ignored by the scan
+	 * @throws IllegalArgumentException if the region is not supported in Java
+	 */
+	private static Roi createRoi(Object region) {
+		if (region instanceof ScanRegion<?>) region = ((ScanRegion<?>) region).getRoi();
+
+		// Check exact classes as the python does.
+		final Class<?> clazz = region!=null ? region.getClass() : null;
+		if (clazz==LinearROI.class) {
+			return null; // not supported by the python either
+		} else if (clazz==RectangularROI.class) {
+			final RectangularROI r = (RectangularROI)region;
+			return new Rectangle(r.getPoint(), r.getLength(0), r.getLength(1), r.getAngle());
+		} else if (clazz==CircularROI.class) {
+			final CircularROI c = (CircularROI)region;
+			return new Circle(c.getCentre(), c.getRadius());
+		} else if (clazz==EllipticalROI.class) {
+			final EllipticalROI e = (EllipticalROI)region;
+			return new Ellipse(e.getPoint(), e.getSemiAxes(), e.getAngle());
+		} else if (clazz==PolygonalROI.class) {
+			final PolygonalROI p = (PolygonalROI)region;
+			final double[] xPoints = new double[p.getNumberOfPoints()];
+			final double[] yPoints = new double[p.getNumberOfPoints()];
+			for (int i = 0; i < xPoints.length; i++) {
+				PointROI point = p.getPoint(i);
+				xPoints[i] = point.getPointX();
+				yPoints[i] = point.getPointY();
+			}
+			return new Polygon(xPoints, yPoints);
+		}
+		throw new IllegalArgumentException("No Java excluder for "+clazz);
+	}
+
+	List<String> getAxes() {
+		return axes;
+	}
+
+	/**
+	 * @return true if the point is in one of the regions.
+	 */
+	boolean contains(double x, double y) {
+		for (Roi roi : rois) if (roi.contains(x, y)) return true;
+		return false;
+	}
+
+	/**
+	 * @return the region if there is only one and it is an unrotated rectangle, otherwise null.
+	 */
+	Rectangle getSingleRectangle() {
+		if (rois.size()!=1 || !(rois.get(0) instanceof Rectangle)) return null;
+		final Rectangle rect = (Rectangle)rois.get(0);
+		return rect.angle==0 ? rect : null;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * axes.hashCode() + rois.hashCode();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) return true;
+		if (obj == null || getClass() != obj.getClass()) return false;
+		JavaExcluder other = (JavaExcluder) obj;
+		return axes.equals(other.axes) && rois.equals(other.rois);
+	}
+
+	static final class Rectangle implements Roi {
+
+		final double[] start;
+		final double   width, height, angle;
+
+		Rectangle(double[] start, double width, double height, double angle) {
+			if (width==0 || height==0) throw new IllegalArgumentException("Rectangle must have some size");
+			this.start  = start.clone();
+			this.width  = width;
+			this.height = height;
+			this.angle  = angle;
+		}
+
+		@Override
+		public boolean contains(double x, double y) {
+			x -= start[0];
+			y -= start[1];
+			if (angle != 0) {
+				final double phi = -angle;
+				final double rx = x * Math.cos(phi) - y * Math.sin(phi);
+				final double ry = x * Math.sin(phi) + y * Math.cos(phi);
+				x = rx;
+				y = ry;
+			}
+			return x >= 0 && x <= width && y >= 0 && y <= height;
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(new double[]{start[0], start[1], width, height, angle});
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Rectangle)) return false;
+			Rectangle other = (Rectangle)obj;
+			return Arrays.equals(start, other.start) && width==other.width && height==other.height && angle==other.angle;
+		}
+	}
+
+	static final class Circle implements Roi {
+
+		private final double[] centre;
+		private final double   radius;
+
+		Circle(double[] centre, double radius) {
+			if (radius==0) throw new IllegalArgumentException("Circle must have some size");
+			this.centre = centre.clone();
+			this.radius = radius;
+		}
+
+		@Override
+		public boolean contains(double x, double y) {
+			x -= centre[0];
+			y -= centre[1];
+			return x*x + y*y <= radius*radius;
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(new double[]{centre[0], centre[1], radius});
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Circle)) return false;
+			Circle other = (Circle)obj;
+			return Arrays.equals(centre, other.centre) && radius==other.radius;
+		}
+	}
+
+	static final class Ellipse implements Roi {
+
+		private final double[] centre, semiaxes;
+		private final double   angle;
+
+		Ellipse(double[] centre, double[] semiaxes, double angle) {
+			if (semiaxes[0]<=0 || semiaxes[1]<=0) throw new IllegalArgumentException("Ellipse semi-axes must be greater than zero");
+			this.centre   = centre.clone();
+			this.semiaxes = semiaxes.clone();
+			this.angle    = angle;
+		}
+
+		@Override
+		public boolean contains(double x, double y) {
+			x -= centre[0];
+			y -= centre[1];
+			if (angle != 0) {
+				final double phi = -angle;
+				final double tx = x * Math.cos(phi) - y * Math.sin(phi);
+				final double ty = x * Math.sin(phi) + y * Math.cos(phi);
+				x = tx;
+				y = ty;
+			}
+			return x*x / (semiaxes[0]*semiaxes[0]) + y*y / (semiaxes[1]*semiaxes[1]) <= 1;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * Arrays.hashCode(centre) + Arrays.hashCode(semiaxes) + Double.hashCode(angle);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Ellipse)) return false;
+			Ellipse other = (Ellipse)obj;
+			return Arrays.equals(centre, other.centre) && Arrays.equals(semiaxes, other.semiaxes) && angle==other.angle;
+		}
+	}
+
+	/**
+	 * Even-odd rule, horizontal edges are skipped.
+	 */
+	static final class Polygon implements Roi {
+
+		private final double[] xs, ys;
+
+		Polygon(double[] xs, double[] ys) {
+			if (xs.length < 3) throw new IllegalArgumentException("Polygon requires at least 3 vertices");
+			this.xs = xs;
+			this.ys = ys;
+		}
+
+		@Override
+		public boolean contains(double x, double y) {
+			boolean inside = false;
+			double v1x = xs[xs.length-1], v1y = ys[ys.length-1];
+			for (int i = 0; i < xs.length; i++) {
+				final double v2x = xs[i], v2y = ys[i];
+				if (v2y != v1y) {
+					final boolean between = (y < v2y && y >= v1y) || (y < v1y && y >= v2y);
+					final double  t = (y - v1y) / (v2y - v1y);
+					if (between && x < v1x + t * (v2x - v1x)) inside = !inside;
+				}
+				v1x = v2x;
+				v1y = v2y;
+			}
+			return inside;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * Arrays.hashCode(xs) + Arrays.hashCode(ys);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Polygon)) return false;
+			Polygon other = (Polygon)obj;
+			return Arrays.equals(xs, other.xs) && Arrays.equals(ys, other.ys);
+		}
+	}
+}
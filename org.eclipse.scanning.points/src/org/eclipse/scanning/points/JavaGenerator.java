@@ -0,0 +1,171 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.points;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+/**
+ * A Java port of the scanpointgenerator generators which have no state other
+ * than their positions: line, array, spiral and lissajous. The positions are
+ * calculated the same way as the python <code>prepare_arrays()</code> methods
+ * so that a scan made from them has the same points as the Jython one.
+ *
+ * @see JavaCompoundGenerator
+ *
+ * @author Matthew Gerring
+ *
+ */
+final class JavaGenerator {
+
+	private final String[]   axes;
+	private final double[][] positions; // One array per axis
+	private final boolean    alternate;
+	private final boolean    line;
+	private int              hash; // Of the positions, which may be long
+
+	private JavaGenerator(String[] axes, double[][] positions, boolean alternate, boolean line) {
+		if (new HashSet<>(Arrays.asList(axes)).size()!=axes.length) {
+			throw new IllegalArgumentException("Axis names cannot be duplicated; given "+Arrays.toString(axes));
+		}
+		this.axes      = axes;
+		this.positions = positions;
+		this.alternate = alternate;
+		this.line      = line;
+	}
+
+	/**
+	 * Same as LineGenerator(axes, units, start, stop, size, alternate)
+	 */
+	static JavaGenerator line(String[] axes, double[] start, double[] stop, int size, boolean alternate) {
+		if (axes.length!=start.length || axes.length!=stop.length) {
+			throw new IllegalArgumentException("Dimensions of axes, start and stop do not match");
+		}
+		final double[][] positions = new double[axes.length][size];
+		for (int axis = 0; axis < axes.length; axis++) {
+			double step = stop[axis] - start[axis];
+			if (size > 1) step /= size - 1; // if size == 1 then single point case
+			for (int t = 0; t < size; t++) positions[axis][t] = t * step + start[axis];
+		}
+		return new JavaGenerator(axes, positions, alternate, true);
+	}
+
+	static JavaGenerator line(String axis, double start, double stop, int size, boolean alternate) {
+		return line(new String[]{axis}, new double[]{start}, new double[]{stop}, size, alternate);
+	}
+
+	/**
+	 * Same as ArrayGenerator(axis, units, points, alternate)
+	 */
+	static JavaGenerator array(String axis, double[] points, boolean alternate) {
+		// The python extends the points linearly at each end, which needs two of them.
+		if (points.length < 2) throw new IllegalArgumentException("An array must have two or more points");
+		return new JavaGenerator(new String[]{axis}, new double[][]{points.clone()}, alternate, false);
+	}
+
+	/**
+	 * Same as SpiralGenerator(axes, units, centre, radius, scale, alternate)
+	 */
+	static JavaGenerator spiral(String[] axes, double[] centre, double radius, double scale, boolean alternate) {
+
+		// spiral equation : r = b * phi, parameterised as phi(t) = k * sqrt(t)
+		final double k = Math.sqrt(4 * Math.PI);  // Theta scale factor
+		final double b = scale / (2 * Math.PI);   // Radius scale factor
+		final double dsize = Math.floor(Math.pow(radius / (k * b), 2)) + 1;
+		if (!(dsize <= Integer.MAX_VALUE)) throw new IllegalArgumentException("The spiral has too many points "+dsize);
+		final int size = (int)dsize;
+
+		final double[] x = new double[size];
+		final double[] y = new double[size];
+		for (int t = 0; t < size; t++) {
+			final double phi = k * Math.sqrt(t + 0.5);
+			x[t] = centre[0] + b * phi * Math.sin(phi);
+			y[t] = centre[1] + b * phi * Math.cos(phi);
+		}
+		return new JavaGenerator(axes, new double[][]{x, y}, alternate, false);
+	}
+
+	/**
+	 * Same as LissajousGenerator(axes, units, centre, span, lobes, size)
+	 */
+	static JavaGenerator lissajous(String[] axes, double[] centre, double[] span, int lobes, int size) {
+
+		final int    a = lobes;
+		final int    b = lobes + 1;
+		final double xmax = span[0]/2, ymax = span[1]/2;
+		// Phase is 0 for even lobes and pi/2 for odd lobes
+		final double d = Math.PI/2 * (lobes % 2);
+
+		final double[] x = new double[size];
+		final double[] y = new double[size];
+		for (int t = 0; t < size; t++) {
+			x[t] = centre[0] + xmax * Math.sin(a * 2*Math.PI * t/size + d);
+			y[t] = centre[1] + ymax * Math.sin(b * 2*Math.PI * t/size);
+		}
+		return new JavaGenerator(axes, new double[][]{x, y}, false, false);
+	}
+
+	String[] getAxes() {
+		return axes;
+	}
+
+	int getSize() {
+		return positions[0].length;
+	}
+
+	boolean isAlternate() {
+		return alternate;
+	}
+
+	/**
+	 * @return true if this is a line, which a rectangular region may be applied to by cropping it.
+	 */
+	boolean isLine() {
+		return line;
+	}
+
+	int indexOf(String axis) {
+		for (int i = 0; i < axes.length; i++) if (axes[i].equals(axis)) return i;
+		return -1;
+	}
+
+	double[] getPositions(int axis) {
+		return positions[axis];
+	}
+
+	double[] getPositions(String axis) {
+		return positions[indexOf(axis)];
+	}
+
+	/**
+	 * Generators are equal if they have the same positions, so that a scan
+	 * made again from the same models may be recognised.
+	 */
+	@Override
+	public int hashCode() {
+		if (hash==0) hash = 31 * (31 * Arrays.hashCode(axes) + Arrays.deepHashCode(positions)) + (alternate ? 1 : 0) + (line ? 2 : 0);
+		return hash;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) return true;
+		if (obj == null || getClass() != obj.getClass()) return false;
+		JavaGenerator other = (JavaGenerator) obj;
+		return alternate==other.alternate && line==other.line && Arrays.equals(axes, other.axes) && Arrays.deepEquals(positions, other.positions);
+	}
+
+	@Override
+	public String toString() {
+		return "JavaGenerator [axes=" + Arrays.toString(axes) + ", size=" + getSize() + ", alternate=" + alternate + "]";
+	}
+}
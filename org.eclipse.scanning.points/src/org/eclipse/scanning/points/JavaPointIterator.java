@@ -0,0 +1,80 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.points;
+
+import java.util.NoSuchElementException;
+
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.ScanPointIterator;
+
+/**
+ * Iterates over the positions of a prepared {@link JavaCompoundGenerator}.
+ *
+ * @author Matthew Gerring
+ *
+ */
+class JavaPointIterator implements ScanPointIterator {
+
+	private final JavaCompoundGenerator generator;
+	private final boolean               asCompound;
+	private int index;
+
+	JavaPointIterator(JavaCompoundGenerator generator, boolean asCompound) {
+		this.generator  = generator;
+		this.asCompound = asCompound;
+	}
+
+	@Override
+	public boolean hasNext() {
+		return index < generator.getSize();
+	}
+
+	@Override
+	public IPosition next() {
+		if (!hasNext()) throw new NoSuchElementException();
+		final IPosition position = generator.getPosition(index, asCompound);
+		position.setStepIndex(index);
+		index++;
+		return position;
+	}
+
+	@Override
+	public int size() {
+		return generator.getSize();
+	}
+
+	@Override
+	public int[] getShape() {
+		return generator.getShape().clone();
+	}
+
+	@Override
+	public int getRank() {
+		return generator.getShape().length;
+	}
+
+	@Override
+	public int getIndex() {
+		return index;
+	}
+
+	@Override
+	public boolean isRandomAccess() {
+		return true;
+	}
+
+	@Override
+	public void setIndex(int index) {
+		if (index < 0 || index > generator.getSize()) throw new IndexOutOfBoundsException("Index "+index+" is not in a scan of size "+generator.getSize());
+		this.index = index;
+	}
+}
@@ -17,14 +17,13 @@ import java.util.Arrays;
 import java.util.Iterator;
 
 import org.eclipse.scanning.api.ModelValidationException;
-import org.eclipse.scanning.api.points.AbstractGenerator;
 import org.eclipse.scanning.api.points.ScanPointIterator;
 import org.eclipse.scanning.api.points.models.LissajousModel;
 import org.eclipse.scanning.jython.JythonObjectFactory;
 import org.python.core.PyDictionary;
 import org.python.core.PyList;
 
-public class LissajousGenerator extends AbstractGenerator<LissajousModel> {
+public class LissajousGenerator extends AbstractScanPointGenerator<LissajousModel> {
 
 	public LissajousGenerator() {
 		setLabel("Lissajous Curve");
@@ -33,7 +32,7 @@ public class LissajousGenerator extends AbstractGenerator<LissajousModel> {
 	}
 
 	@Override
-	public ScanPointIterator iteratorFromValidModel() {
+	protected ScanPointIterator createPyIterator() {
 		final String xName = model.getFastAxisName();
 		final String yName = model.getSlowAxisName();
 		final double width = model.getBoundingBox().getFastAxisLength();
@@ -54,9 +53,23 @@ public class LissajousGenerator extends AbstractGenerator<LissajousModel> {
 
         final ScanPointIterator lissajous = lissajousGeneratorFactory.createObject(
 				names, units, box, numLobes, numPoints);
-		final ScanPointIterator pyIterator = CompoundSpgIteratorFactory.createSpgCompoundGenerator(new Iterator[] {lissajous}, getRegions().toArray(),
+		return CompoundSpgIteratorFactory.createSpgCompoundGenerator(new Iterator[] {lissajous}, getRegions().toArray(),
 				new String[] {xName, yName}, EMPTY_PY_ARRAY, -1, model.isContinuous());
-		return new SpgIterator(pyIterator);
+	}
+
+	@Override
+	protected JavaCompoundGenerator createJavaGenerator() {
+		final String xName = model.getFastAxisName();
+		final String yName = model.getSlowAxisName();
+		final double width = model.getBoundingBox().getFastAxisLength();
+		final double height = model.getBoundingBox().getSlowAxisLength();
+		final double[] centre = new double[] {model.getBoundingBox().getFastAxisStart() + width / 2,
+				                              model.getBoundingBox().getSlowAxisStart() + height / 2};
+
+		final JavaGenerator lissajous = JavaGenerator.lissajous(new String[] { xName, yName }, centre,
+				new double[] { width, height }, (int) (model.getA() / model.getB()), model.getPoints());
+
+		return JavaCompoundGenerator.create(JavaExcluder.createExcluder(getRegions(), xName, yName), lissajous);
 	}
 
 	@Override
@@ -17,7 +17,6 @@ import java.util.Arrays;
 import java.util.List;
 
 import org.eclipse.scanning.api.ModelValidationException;
-import org.eclipse.scanning.api.points.AbstractGenerator;
 import org.eclipse.scanning.api.points.ScanPointIterator;
 import org.eclipse.scanning.api.points.models.MultiStepModel;
 import org.eclipse.scanning.api.points.models.StepModel;
@@ -28,7 +27,7 @@ import org.eclipse.scanning.jython.JythonObjectFactory;
  *
  * @author Matthew Dickie
  */
-class MultiStepGenerator extends AbstractGenerator<MultiStepModel> {
+class MultiStepGenerator extends AbstractScanPointGenerator<MultiStepModel> {
 
 	MultiStepGenerator() {
 		setLabel("Multi-step");
@@ -41,11 +40,25 @@ class MultiStepGenerator extends AbstractGenerator<MultiStepModel> {
 	}
 
 	@Override
-	protected ScanPointIterator iteratorFromValidModel() {
-		this.model = model;
-
+	protected ScanPointIterator createPyIterator() {
 		JythonObjectFactory<ScanPointIterator> arrayGeneratorFactory = ScanPointGeneratorFactory.JArrayGeneratorFactory();
+		return arrayGeneratorFactory.createObject(model.getName(), "mm", createPositions()[0]);
+	}
+
+	@Override
+	protected JavaCompoundGenerator createJavaGenerator() {
+		return JavaCompoundGenerator.create(null, JavaGenerator.array(model.getName(), createPositions()[0], false));
+	}
+
+	@Override
+	protected ScanPointIterator createIterator(ScanPointIterator points) {
+		return new MultiStepIterator(points, createPositions()[1]);
+	}
 
+	/**
+	 * @return the points and the exposure times at each of them.
+	 */
+	private double[][] createPositions() {
 		int totalSize = 0;
 		boolean finalPosWasEnd = false;
 		List<double[]> positionArrays = new ArrayList<>(model.getStepModels().size());
@@ -90,8 +103,7 @@ class MultiStepGenerator extends AbstractGenerator<MultiStepModel> {
 			sindex+=1;
 		}
 
-		final ScanPointIterator pyIterator = arrayGeneratorFactory.createObject(model.getName(), "mm", points);
-		return new MultiStepIterator(pyIterator, times);
+		return new double[][] { points, times };
 	}
 
 	@Override
@@ -14,14 +14,13 @@ package org.eclipse.scanning.points;
 import java.util.Arrays;
 
 import org.eclipse.scanning.api.ModelValidationException;
-import org.eclipse.scanning.api.points.AbstractGenerator;
 import org.eclipse.scanning.api.points.ScanPointIterator;
 import org.eclipse.scanning.api.points.models.BoundingLine;
 import org.eclipse.scanning.api.points.models.OneDEqualSpacingModel;
 import org.eclipse.scanning.jython.JythonObjectFactory;
 import org.python.core.PyList;
 
-public class OneDEqualSpacingGenerator extends AbstractGenerator<OneDEqualSpacingModel> {
+public class OneDEqualSpacingGenerator extends AbstractScanPointGenerator<OneDEqualSpacingModel> {
 
 	OneDEqualSpacingGenerator() {
 		setLabel("Line Equal Spacing");
@@ -36,7 +35,7 @@ public class OneDEqualSpacingGenerator extends AbstractGenerator<OneDEqualSpacin
 	}
 
 	@Override
-	public ScanPointIterator iteratorFromValidModel() {
+	protected ScanPointIterator createPyIterator() {
 		final OneDEqualSpacingModel model =  getModel();
 		final BoundingLine line = model.getBoundingLine();
 
@@ -52,9 +51,29 @@ public class OneDEqualSpacingGenerator extends AbstractGenerator<OneDEqualSpacin
 		final double[] start = {line.getxStart() + xStep/2, line.getyStart() + yStep/2};
 		final double[] stop = {line.getxStart() + xStep * (numPoints - 0.5), line.getyStart() + yStep * (numPoints - 0.5)};
 
-		final ScanPointIterator pyIterator = lineGeneratorFactory.createObject(
-				names, units, start, stop, numPoints);
-		return new SpgIterator(pyIterator);
+		return lineGeneratorFactory.createObject(names, units, start, stop, numPoints);
+	}
+
+	@Override
+	protected JavaCompoundGenerator createJavaGenerator() {
+		final OneDEqualSpacingModel model =  getModel();
+		final BoundingLine line = model.getBoundingLine();
+
+		final int numPoints = model.getPoints();
+		final double step = line.getLength() / numPoints;
+		final double xStep = step * Math.cos(line.getAngle());
+		final double yStep = step * Math.sin(line.getAngle());
+
+		final String[] names = {model.getFastAxisName(), model.getSlowAxisName()};
+		final double[] start = {line.getxStart() + xStep/2, line.getyStart() + yStep/2};
+		final double[] stop = {line.getxStart() + xStep * (numPoints - 0.5), line.getyStart() + yStep * (numPoints - 0.5)};
+
+		return JavaCompoundGenerator.create(null, JavaGenerator.line(names, start, stop, numPoints, false));
+	}
+
+	@Override
+	protected boolean isCompoundIterator() {
+		return false; // Points are made like JLineGenerator2D
 	}
 
 	@Override
@@ -14,7 +14,6 @@ package org.eclipse.scanning.points;
 import java.util.Arrays;
 
 import org.eclipse.scanning.api.ModelValidationException;
-import org.eclipse.scanning.api.points.AbstractGenerator;
 import org.eclipse.scanning.api.points.GeneratorException;
 import org.eclipse.scanning.api.points.ScanPointIterator;
 import org.eclipse.scanning.api.points.models.BoundingLine;
@@ -22,7 +21,7 @@ import org.eclipse.scanning.api.points.models.OneDStepModel;
 import org.eclipse.scanning.jython.JythonObjectFactory;
 import org.python.core.PyList;
 
-class OneDStepGenerator extends AbstractGenerator<OneDStepModel> {
+class OneDStepGenerator extends AbstractScanPointGenerator<OneDStepModel> {
 
 	OneDStepGenerator() {
 		setLabel("Point");
@@ -36,7 +35,7 @@ class OneDStepGenerator extends AbstractGenerator<OneDStepModel> {
 	}
 
 	@Override
-	protected ScanPointIterator iteratorFromValidModel() {
+	protected ScanPointIterator createPyIterator() {
 		final OneDStepModel model= getModel();
 		final BoundingLine line = model.getBoundingLine();
 
@@ -51,9 +50,28 @@ class OneDStepGenerator extends AbstractGenerator<OneDStepModel> {
 		final double[] start = {line.getxStart(), line.getyStart()};
         final double[] stop = {line.getxStart() + xStep * numPoints, line.getyStart() + yStep * numPoints};
 
-		final ScanPointIterator pyIterator = lineGeneratorFactory.createObject(
-				names, units, start, stop, numPoints);
-		return new SpgIterator(pyIterator);
+		return lineGeneratorFactory.createObject(names, units, start, stop, numPoints);
+	}
+
+	@Override
+	protected JavaCompoundGenerator createJavaGenerator() {
+		final OneDStepModel model= getModel();
+		final BoundingLine line = model.getBoundingLine();
+
+		final int numPoints = (int) Math.floor(line.getLength() / model.getStep()) + 1;
+		final double xStep = model.getStep() * Math.cos(line.getAngle());
+		final double yStep = model.getStep() * Math.sin(line.getAngle());
+
+		final String[] names = {model.getFastAxisName(), model.getSlowAxisName()};
+		final double[] start = {line.getxStart(), line.getyStart()};
+		final double[] stop = {line.getxStart() + xStep * numPoints, line.getyStart() + yStep * numPoints};
+
+		return JavaCompoundGenerator.create(null, JavaGenerator.line(names, start, stop, numPoints, false));
+	}
+
+	@Override
+	protected boolean isCompoundIterator() {
+		return false; // Points are made like JLineGenerator2D
 	}
 
 	@Override
@@ -18,8 +18,9 @@ public class PointsActivator implements BundleActivator {
 
 	@Override
 	public void start(BundleContext context) throws Exception {
-		if (Boolean.getBoolean("org.eclipse.scanning.points.initJython")) {
-			ScanPointGeneratorFactory.init();  // This is only needed for speed and might break GDA.
+		// This is only needed for speed, servers which set up jython themselves may switch it off.
+		if (Boolean.parseBoolean(System.getProperty("org.eclipse.scanning.points.initJython", "true"))) {
+			ScanPointGeneratorFactory.init();
 		}
 	}
 
@@ -54,7 +54,7 @@ public class RandomOffsetGridGenerator extends GridGenerator {
 	}
 
 	@Override
-	public ScanPointIterator iteratorFromValidModel() {
+	protected ScanPointIterator createPyIterator() {
 		final RandomOffsetGridModel model = getModel();
 
 		final int columns = model.getFastAxisPoints();
@@ -89,10 +89,13 @@ public class RandomOffsetGridGenerator extends GridGenerator {
         final PyObject[] mutators = { randomOffset };
 
         final String[] axisNames = new String[] { xName, yName };
-		final ScanPointIterator pyIterator = CompoundSpgIteratorFactory.createSpgCompoundGenerator(
+		return CompoundSpgIteratorFactory.createSpgCompoundGenerator(
 				generators, getRegions().toArray(), axisNames, mutators, -1, model.isContinuous());
+	}
 
-		return new SpgIterator(pyIterator);
+	@Override
+	protected JavaCompoundGenerator createJavaGenerator() {
+		return null; // The random offset mutator is only in scanpointgenerator
 	}
 
 }
\ No newline at end of file
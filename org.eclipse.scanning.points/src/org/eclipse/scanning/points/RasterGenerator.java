@@ -16,12 +16,11 @@ import static org.eclipse.scanning.points.AbstractScanPointIterator.EMPTY_PY_ARR
 import java.util.Iterator;
 
 import org.eclipse.scanning.api.ModelValidationException;
-import org.eclipse.scanning.api.points.AbstractGenerator;
 import org.eclipse.scanning.api.points.ScanPointIterator;
 import org.eclipse.scanning.api.points.models.RasterModel;
 import org.eclipse.scanning.jython.JythonObjectFactory;
 
-class RasterGenerator extends AbstractGenerator<RasterModel> {
+class RasterGenerator extends AbstractScanPointGenerator<RasterModel> {
 
 	RasterGenerator() {
 		setLabel("Raster");
@@ -46,7 +45,7 @@ class RasterGenerator extends AbstractGenerator<RasterModel> {
 	}
 
 	@Override
-	public ScanPointIterator iteratorFromValidModel() {
+	protected ScanPointIterator createPyIterator() {
 		final RasterModel model = getModel();
 		final double xStep = model.getFastAxisStep();
 		final double yStep = model.getSlowAxisStep();
@@ -67,10 +66,27 @@ class RasterGenerator extends AbstractGenerator<RasterModel> {
         final Iterator<?>[] generators = {outerLine, innerLine};
         final String[] axisNames = new String[] { xName, yName };
 
-		final ScanPointIterator pyIterator = CompoundSpgIteratorFactory.createSpgCompoundGenerator(
+		return CompoundSpgIteratorFactory.createSpgCompoundGenerator(
 				generators, getRegions().toArray(), axisNames,
 				EMPTY_PY_ARRAY, -1, model.isContinuous());
-		return new SpgIterator(pyIterator);
+	}
+
+	@Override
+	protected JavaCompoundGenerator createJavaGenerator() {
+		final RasterModel model = getModel();
+		final double xStep = model.getFastAxisStep();
+		final double yStep = model.getSlowAxisStep();
+		final String xName = model.getFastAxisName();
+		final String yName = model.getSlowAxisName();
+		final double minX = model.getBoundingBox().getFastAxisStart();
+		final double minY = model.getBoundingBox().getSlowAxisStart();
+		final int columns = (int) Math.floor(model.getBoundingBox().getFastAxisLength() / xStep + 1);
+		final int rows = (int) Math.floor(model.getBoundingBox().getSlowAxisLength() / yStep + 1);
+
+		final JavaGenerator outerLine = JavaGenerator.line(yName, minY, minY + (rows - 1) * yStep, rows, false);
+		final JavaGenerator innerLine = JavaGenerator.line(xName, minX, minX + (columns - 1) * xStep, columns, model.isSnake());
+
+		return JavaCompoundGenerator.create(JavaExcluder.createExcluder(getRegions(), xName, yName), outerLine, innerLine);
 	}
 
 }
@@ -13,6 +13,7 @@
 package org.eclipse.scanning.points;
 
 import org.eclipse.scanning.api.points.ScanPointIterator;
+import org.eclipse.scanning.jython.JythonInterpreterManager;
 import org.eclipse.scanning.jython.JythonObjectFactory;
 import org.python.core.PyObject;
 
@@ -28,21 +29,11 @@ public class ScanPointGeneratorFactory {
 	 *
 	 * Call this method to load jython in a daemon thread such that
 	 * when it is first used, for instance in the UI, it will execute
-	 * fast because the interpreter has classloaded.
+	 * fast because each interpreter has classloaded the generators and
+	 * regions.
 	 */
 	public static void init() {
-
-		final Thread background = new Thread() {
-			@Override
-			public void run() {
-				// Loading one causes Jython to class load.
-				ScanPointGeneratorFactory.JLineGenerator1DFactory();
-			}
-		};
-		background.setDaemon(true);
-		background.setName("Jython loader thread");    // Always name threads.
-		background.setPriority(Thread.MIN_PRIORITY+2); // Background but some urgency more than least
-		background.start();
+		JythonInterpreterManager.prewarm("jython_spg_interface");
 	}
 
 
@@ -17,13 +17,12 @@ import java.util.Arrays;
 import java.util.Iterator;
 
 import org.eclipse.scanning.api.ModelValidationException;
-import org.eclipse.scanning.api.points.AbstractGenerator;
 import org.eclipse.scanning.api.points.ScanPointIterator;
 import org.eclipse.scanning.api.points.models.SpiralModel;
 import org.eclipse.scanning.jython.JythonObjectFactory;
 import org.python.core.PyList;
 
-class SpiralGenerator extends AbstractGenerator<SpiralModel> {
+class SpiralGenerator extends AbstractScanPointGenerator<SpiralModel> {
 
 	SpiralGenerator() {
 		setLabel("Fermat Spiral");
@@ -32,7 +31,7 @@ class SpiralGenerator extends AbstractGenerator<SpiralModel> {
 	}
 
 	@Override
-	public ScanPointIterator iteratorFromValidModel() {
+	protected ScanPointIterator createPyIterator() {
 		final SpiralModel model = getModel();
 		final String xName = model.getFastAxisName();
 		final String yName = model.getSlowAxisName();
@@ -56,11 +55,27 @@ class SpiralGenerator extends AbstractGenerator<SpiralModel> {
 				axisNamesPy, units, centre, radius, scale, alternate);
 		final Iterator<?>[] iterators = new Iterator<?>[] { spiral };
 		final String[] axisNames = new String[] { xName, yName };
-		final ScanPointIterator pyIterator = CompoundSpgIteratorFactory.createSpgCompoundGenerator(
+		return CompoundSpgIteratorFactory.createSpgCompoundGenerator(
 				iterators, getRegions().toArray(),
 				axisNames, EMPTY_PY_ARRAY, -1, model.isContinuous());
+	}
+
+	@Override
+	protected JavaCompoundGenerator createJavaGenerator() {
+		final SpiralModel model = getModel();
+		final String xName = model.getFastAxisName();
+		final String yName = model.getSlowAxisName();
+
+		final double radiusX = model.getBoundingBox().getFastAxisLength() / 2;
+		final double radiusY = model.getBoundingBox().getSlowAxisLength() / 2;
+		final double xCentre = model.getBoundingBox().getFastAxisStart() + radiusX;
+		final double yCentre = model.getBoundingBox().getSlowAxisStart() + radiusY;
+		final double maxRadius = Math.sqrt(radiusX * radiusX + radiusY * radiusY);
+
+		final JavaGenerator spiral = JavaGenerator.spiral(new String[] { xName, yName },
+				new double[] { xCentre, yCentre }, maxRadius, model.getScale(), false);
 
-		return new SpgIterator(pyIterator);
+		return JavaCompoundGenerator.create(JavaExcluder.createExcluder(getRegions(), xName, yName), spiral);
 	}
 
 	@Override
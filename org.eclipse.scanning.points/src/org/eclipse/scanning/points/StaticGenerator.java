@@ -73,6 +73,17 @@ class StaticGenerator extends AbstractGenerator<StaticModel> {
 			return size - remaining;
 		}
 
+		@Override
+		public boolean isRandomAccess() {
+			return true;
+		}
+
+		@Override
+		public void setIndex(int index) {
+			if (index < 0 || index > size) throw new IndexOutOfBoundsException("Index "+index+" is not in a scan of size "+size);
+			remaining = size - index;
+		}
+
 	}
 
 	private static final int[] EMPTY_SHAPE = new int[0];
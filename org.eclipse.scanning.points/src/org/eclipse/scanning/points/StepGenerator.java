@@ -12,13 +12,12 @@
 package org.eclipse.scanning.points;
 
 import org.eclipse.scanning.api.ModelValidationException;
-import org.eclipse.scanning.api.points.AbstractGenerator;
 import org.eclipse.scanning.api.points.GeneratorException;
 import org.eclipse.scanning.api.points.ScanPointIterator;
 import org.eclipse.scanning.api.points.models.StepModel;
 import org.eclipse.scanning.jython.JythonObjectFactory;
 
-class StepGenerator extends AbstractGenerator<StepModel> {
+class StepGenerator extends AbstractScanPointGenerator<StepModel> {
 
 	StepGenerator() {
 		setLabel("Step");
@@ -40,6 +39,7 @@ class StepGenerator extends AbstractGenerator<StepModel> {
 		return getModel().size();
 	}
 
+	@Override
 	protected ScanPointIterator createPyIterator() {
 		final StepModel model = getModel();
 
@@ -54,9 +54,14 @@ class StepGenerator extends AbstractGenerator<StepModel> {
 	}
 
 	@Override
-	public ScanPointIterator iteratorFromValidModel() {
-		final ScanPointIterator pyIterator = createPyIterator();
-		return new StepIterator(getModel(), pyIterator);
+	protected JavaCompoundGenerator createJavaGenerator() {
+		final StepModel model = getModel();
+		return JavaCompoundGenerator.create(null, JavaGenerator.line(model.getName(), model.getStart(), model.getStop(), model.size(), false));
+	}
+
+	@Override
+	protected ScanPointIterator createIterator(ScanPointIterator points) {
+		return new StepIterator(getModel(), points);
 	}
 
 	@Override
@@ -19,6 +19,7 @@ import org.eclipse.scanning.api.MonitorRole;
 import org.eclipse.scanning.api.device.models.ClusterProcessingModel;
 import org.eclipse.scanning.api.device.models.MalcolmModel;
 import org.eclipse.scanning.api.device.models.ProcessingModel;
+import org.eclipse.scanning.api.event.alive.HeartbeatBatchBean;
 import org.eclipse.scanning.api.event.alive.HeartbeatBean;
 import org.eclipse.scanning.api.event.alive.KillBean;
 import org.eclipse.scanning.api.event.alive.PauseBean;
@@ -31,13 +32,17 @@ import org.eclipse.scanning.api.event.queues.remote.QueueRequest;
 import org.eclipse.scanning.api.event.scan.AcquireRequest;
 import org.eclipse.scanning.api.event.scan.DeviceRequest;
 import org.eclipse.scanning.api.event.scan.DeviceValueMultiPosition;
+import org.eclipse.scanning.api.event.scan.PhaseStatistics;
 import org.eclipse.scanning.api.event.scan.PositionerRequest;
 import org.eclipse.scanning.api.event.scan.SampleData;
 import org.eclipse.scanning.api.event.scan.ScanBean;
 import org.eclipse.scanning.api.event.scan.ScanEvent;
+import org.eclipse.scanning.api.event.scan.ScanMetricsBean;
+import org.eclipse.scanning.api.event.scan.ScanProgressBean;
 import org.eclipse.scanning.api.event.scan.ScanRequest;
 import org.eclipse.scanning.api.event.status.AdministratorMessage;
 import org.eclipse.scanning.api.event.status.StatusBean;
+import org.eclipse.scanning.api.event.status.SubmissionRequest;
 import org.eclipse.scanning.api.malcolm.MalcolmTable;
 import org.eclipse.scanning.api.malcolm.attributes.BooleanArrayAttribute;
 import org.eclipse.scanning.api.malcolm.attributes.BooleanAttribute;
@@ -108,6 +113,9 @@ public class ScanningAPIClassRegistry implements IClassRegistry {
 		registerClass(tmp, AcquireRequest.class);
 		registerClass(tmp, ScanBean.class);
 		registerClass(tmp, ScanEvent.class);
+		registerClass(tmp, ScanProgressBean.class);
+		registerClass(tmp, ScanMetricsBean.class);
+		registerClass(tmp, PhaseStatistics.class);
 		registerClass(tmp, SampleData.class);
 		registerClass(tmp, ScanRequest.class);
 		registerClass(tmp, ScanMetadata.class);
@@ -149,12 +157,14 @@ public class ScanningAPIClassRegistry implements IClassRegistry {
 
 		// event.alive
 		registerClass(tmp, HeartbeatBean.class);
+		registerClass(tmp, HeartbeatBatchBean.class);
 		registerClass(tmp, KillBean.class);
 		registerClass(tmp, PauseBean.class);
 
 		// event.status
 		registerClass(tmp, AdministratorMessage.class);
 		registerClass(tmp, StatusBean.class);
+		registerClass(tmp, SubmissionRequest.class);
 
 		// event.queues.beans
 		registerClass(tmp, QueueRequest.class);
@@ -44,19 +44,27 @@ import org.eclipse.scanning.api.device.AbstractRunnableDevice;
 import org.eclipse.scanning.api.device.IPausableDevice;
 import org.eclipse.scanning.api.device.IRunnableDevice;
 import org.eclipse.scanning.api.device.models.DeviceRole;
+import org.eclipse.scanning.api.device.models.IDetectorModel;
 import org.eclipse.scanning.api.device.models.ScanMode;
+import org.eclipse.scanning.api.event.EventConstants;
 import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.IEventService;
+import org.eclipse.scanning.api.event.core.IPublisher;
 import org.eclipse.scanning.api.event.scan.DeviceState;
 import org.eclipse.scanning.api.event.scan.ScanBean;
+import org.eclipse.scanning.api.event.scan.ScanMetricsBean;
 import org.eclipse.scanning.api.event.status.Status;
 import org.eclipse.scanning.api.malcolm.IMalcolmDevice;
 import org.eclipse.scanning.api.points.GeneratorException;
 import org.eclipse.scanning.api.points.IDeviceDependentIterable;
 import org.eclipse.scanning.api.points.IPosition;
 import org.eclipse.scanning.api.scan.IScanService;
+import org.eclipse.scanning.api.scan.PointPhase;
+import org.eclipse.scanning.api.scan.PointTimeHistory;
 import org.eclipse.scanning.api.scan.PositionEvent;
 import org.eclipse.scanning.api.scan.ScanEstimator;
 import org.eclipse.scanning.api.scan.ScanInformation;
+import org.eclipse.scanning.api.scan.ScanMetrics;
 import org.eclipse.scanning.api.scan.ScanningException;
 import org.eclipse.scanning.api.scan.event.IPositionListener;
 import org.eclipse.scanning.api.scan.event.IPositioner;
@@ -82,11 +90,20 @@ final class AcquisitionDevice extends AbstractRunnableDevice<ScanModel> implemen
 	private IPositioner                          positioner;
 	private LevelRunner<IRunnableDevice<?>>      runners;
 	private LevelRunner<IRunnableDevice<?>>      writers;
+	private DeviceWriteBehind                    writeBehind;
 	private AnnotationManager                    annotationManager;
 	private ExposureTimeManager                  exposureManager;
 
 	// the nexus file
 	private INexusScanFileManager nexusScanFileManager = null;
+	private long                  flushInterval;
+	private long                  lastFlush;
+
+	// the time taken by each phase of the points
+	private ScanMetrics                 metrics;
+	private IPublisher<ScanMetricsBean> metricsPublisher;
+	private long                        metricsInterval;
+	private long                        lastMetrics;
 
 	private static Logger logger = LoggerFactory.getLogger(AcquisitionDevice.class);
 
@@ -160,6 +177,11 @@ final class AcquisitionDevice extends AbstractRunnableDevice<ScanModel> implemen
 
 		positioner = createPositioner(model);
 
+		metrics = new ScanMetrics();
+		if (positioner instanceof LevelRunner) ((LevelRunner<?>)positioner).setMetrics(metrics);
+		metricsInterval = Long.getLong("org.eclipse.scanning.sequencer.metrics.interval", 0); // ms
+		lastMetrics     = 0;
+
 		// Create the manager and populate it
 		if (annotationManager!=null) annotationManager.dispose(); // It is allowed to configure more than once.
 		annotationManager = createAnnotationManager(model);
@@ -179,10 +201,12 @@ final class AcquisitionDevice extends AbstractRunnableDevice<ScanModel> implemen
 		nexusScanFileManager.createNexusFile(Boolean.getBoolean("org.eclipse.scanning.sequencer.nexus.async"));
 
 		// create the runners and writers
+		writeBehind = null;
 		if (model.getDetectors()!=null) {
 			runners = new DeviceRunner(model.getDetectors());
 			if (nexusScanFileManager.isNexusWritingEnabled()) {
-				writers = new DeviceWriter(model.getDetectors());
+				writeBehind = DeviceWriteBehind.create(model.getDetectors());
+				writers = new DeviceWriter(model.getDetectors(), writeBehind!=null);
 			} else {
 				writers = LevelRunner.createEmptyRunner();
 			}
@@ -190,6 +214,8 @@ final class AcquisitionDevice extends AbstractRunnableDevice<ScanModel> implemen
 			runners = LevelRunner.createEmptyRunner();
 			writers = LevelRunner.createEmptyRunner();
 		}
+		flushInterval = Long.getLong("org.eclipse.scanning.sequencer.nexus.flush.interval", 0); // ms
+		lastFlush     = 0;
 
 		// notify that the device is now armed
 		setDeviceState(DeviceState.ARMED);
@@ -273,6 +299,14 @@ final class AcquisitionDevice extends AbstractRunnableDevice<ScanModel> implemen
 		return manager;
 	}
 
+	private LimitChecker createLimitChecker(ScanModel model) {
+		final List<Object> participants = new ArrayList<>();
+		participants.addAll(((IScanService)runnableDeviceService).getScanParticipants());
+		participants.addAll(model.getAnnotationParticipants());
+		if (model.getScannables()!=null) participants.addAll(model.getScannables());
+		return new LimitChecker(model.getScannables(), participants);
+	}
+
 	@Override
 	public void start(IPosition parent) throws ScanningException, InterruptedException, TimeoutException, ExecutionException {
 		logger.debug("start() called with position: {}", parent);
@@ -301,10 +335,8 @@ final class AcquisitionDevice extends AbstractRunnableDevice<ScanModel> implemen
 
 			RunnableDeviceServiceImpl.setCurrentScanningDevice(this); // Alows Jython to get and pause/seek.
 
-			// TODO Should we validate the position iterator that all
-			// the positions are valid before running the scan?
-			// It was called limit checking in GDA.
-			// Sometimes logic is needed to implement collision avoidance
+			// Check that all the positions may be moved to before moving to any of them.
+			createLimitChecker(model).check(model.getPositionIterable());
 
 			// Set the size and declare a count
 			fireStart(location.getTotalSize());
@@ -325,34 +357,53 @@ final class AcquisitionDevice extends AbstractRunnableDevice<ScanModel> implemen
 				}
 
 				// Check if we are paused, blocks until we are not
+				long time = System.nanoTime();
 				boolean continueRunning = checkPaused();
 				if (!continueRunning)
 					return; // finally block performed
+				time = lap(PointPhase.PAUSE_CHECK, time);
 
 				// Run to the position
 				annotationManager.invoke(PointStart.class, pos);
+				time = lap(PointPhase.POINT_START, time);
 				positioner.setPosition(pos); // moveTo in GDA8
 				firePositionMoveComplete(pos); // notify listers that the move is complete
+				time = lap(PointPhase.MOVE, time);
 
 				exposureManager.setExposureTime(pos); // most of the time this does nothing.
+				time = lap(PointPhase.EXPOSURE, time);
 
 				IPosition written = writers.await(); // Wait for the previous write out to return, if any
-				if (written != null)
+				if (writeBehind != null) {
+					writeComplete(writeBehind.getWritten());
+				} else if (written != null) {
 					annotationManager.invoke(WriteComplete.class, written);
+				}
+				flush();
+				time = lap(PointPhase.WRITE_AWAIT, time);
 
 				runners.run(pos); // GDA8: collectData() / GDA9: run() for Malcolm
 				writers.run(pos, false); // Do not block on the readout, move to the next position immediately.
+				if (writeBehind != null) writeBehind.write(pos); // Blocks only if the writes are more than the write depth behind.
+				time = lap(PointPhase.RUN, time);
 
 				// Send an event about where we are in the scan
 				annotationManager.invoke(PointEnd.class, pos);
+				time = lap(PointPhase.POINT_END, time);
 				positionComplete(pos);
+				publishMetrics(false);
+				lap(PointPhase.PUBLISH, time);
 
 				logger.info("Scanning completed step {} . Position was {}", location.getStepNumber(), pos);
 			}
 
 			// On the last iteration we must wait for the final readout.
 			IPosition written = writers.await(); // Wait for the previous write out to return, if any
-			annotationManager.invoke(WriteComplete.class, written);
+			if (writeBehind != null) {
+				writeComplete(writeBehind.await());
+			} else {
+				annotationManager.invoke(WriteComplete.class, written);
+			}
 
 		} catch (ScanningException | InterruptedException i) {
 			errorFound = true;
@@ -370,6 +421,67 @@ final class AcquisitionDevice extends AbstractRunnableDevice<ScanModel> implemen
 		}
 	}
 
+	/**
+	 * Notifies that the points written behind the scan are complete, in the order they were run.
+	 * @param written
+	 */
+	private void writeComplete(List<IPosition> written) throws Exception {
+		for (IPosition pos : written) annotationManager.invoke(WriteComplete.class, pos);
+	}
+
+	/**
+	 * Flushes the nexus file if the flush interval, the system property
+	 * <code>org.eclipse.scanning.sequencer.nexus.flush.interval</code> in ms,
+	 * has passed since the last flush. There are no timed flushes by default.
+	 */
+	private void flush() throws ScanningException {
+		if (flushInterval<1) return;
+		long now = System.currentTimeMillis();
+		if (lastFlush==0) lastFlush = now;
+		if (now-lastFlush<flushInterval) return;
+		nexusScanFileManager.flushNexusFile();
+		lastFlush = now;
+	}
+
+	/**
+	 * Records the time since the start as that of the phase.
+	 * @return the time now, the start of the next phase.
+	 */
+	private long lap(PointPhase phase, long start) {
+		final long now = System.nanoTime();
+		metrics.record(phase, now-start);
+		return now;
+	}
+
+	/**
+	 * Publishes the metrics of the scan to {@link EventConstants#SCAN_METRICS_TOPIC} if the
+	 * interval, the system property <code>org.eclipse.scanning.sequencer.metrics.interval</code>
+	 * in ms, has passed since they were last published. They are not published by default.
+	 *
+	 * @param last true to publish whatever the time, at the end of the scan.
+	 */
+	private void publishMetrics(boolean last) {
+		if (metricsInterval<1) return;
+		final long now = System.currentTimeMillis();
+		if (!last && now-lastMetrics<metricsInterval) return;
+		lastMetrics = now;
+		try {
+			if (metricsPublisher==null) {
+				final IEventService eventService = ServiceHolder.getEventService();
+				if (eventService==null || getPublisher()==null) return;
+				metricsPublisher = eventService.createPublisher(getPublisher().getUri(), EventConstants.SCAN_METRICS_TOPIC);
+			}
+			metricsPublisher.broadcast(new ScanMetricsBean(getBean(), metrics));
+		} catch (EventException ne) {
+			logger.warn("Cannot publish the metrics of scan "+getBean().getName(), ne);
+		}
+	}
+
+	@Override
+	public ScanMetrics getScanMetrics() {
+		return metrics;
+	}
+
 	private void positionComplete(IPosition pos) throws EventException, ScanningException {
 	positionComplete(pos, location.getOuterCount(), location.getOuterSize());
 	}
@@ -425,9 +537,26 @@ final class AcquisitionDevice extends AbstractRunnableDevice<ScanModel> implemen
 				} catch (Exception ex) {
 					logger.warn("Error during removing Malcolm listeners", ex);
 				}
+				try {
+					// Send the last point before anything else is published about the scan.
+					if (getPublisher() instanceof CoalescingScanPublisher) ((CoalescingScanPublisher)getPublisher()).close();
+				} catch (Exception ex) {
+					logger.warn("Error publishing the last point of the scan", ex);
+				}
+				try {
+					publishMetrics(true);
+					if (metricsPublisher!=null) metricsPublisher.disconnect();
+				} catch (Exception ex) {
+					logger.warn("Error publishing the metrics of the scan", ex);
+				} finally {
+					metricsPublisher = null;
+				}
+				logger.debug("Point timing of {} is {}", getName(), metrics);
+				if (!errorFound) recordPointTimes();
 				positioner.close();
 				runners.close();
 				writers.close();
+				if (writeBehind != null) writeBehind.close();
 
 				nexusScanFileManager.scanFinished(); // writes scanFinished and closes nexus file
 
@@ -451,6 +580,23 @@ final class AcquisitionDevice extends AbstractRunnableDevice<ScanModel> implemen
 		}
 	}
 
+	/**
+	 * Records the time the points took beyond the exposure of the detectors,
+	 * which the estimate of the time of the next scan with them includes.
+	 */
+	private void recordPointTimes() {
+		if (model.getDetectors()==null) return;
+		final List<String> names = new ArrayList<>(model.getDetectors().size());
+		long exposure = 0;
+		for (IRunnableDevice<?> device : model.getDetectors()) {
+			if (!(device.getModel() instanceof IDetectorModel)) continue;
+			final IDetectorModel dmodel = (IDetectorModel)device.getModel();
+			names.add(dmodel.getName());
+			exposure = Math.max(exposure, Math.round(dmodel.getExposureTime()*1000));
+		}
+		PointTimeHistory.record(names, exposure, metrics);
+	}
+
 	private void createScanLatch() {
 		if (latch==null || latch.getCount()<1) {
 			latch = new CountDownLatch(1);
@@ -564,6 +710,7 @@ final class AcquisitionDevice extends AbstractRunnableDevice<ScanModel> implemen
 		}
 		runners.reset();
 		writers.reset();
+		if (writeBehind != null) writeBehind.reset();
 
 		super.reset();
 	}
@@ -617,6 +764,7 @@ final class AcquisitionDevice extends AbstractRunnableDevice<ScanModel> implemen
 		setDeviceState(DeviceState.ABORTING);
 		positioner.abort();
 		writers.abort();
+		if (writeBehind != null) writeBehind.abort();
 		runners.abort();
 
 		if (getModel().getDetectors()!=null) for (IRunnableDevice<?> device : getModel().getDetectors()) {
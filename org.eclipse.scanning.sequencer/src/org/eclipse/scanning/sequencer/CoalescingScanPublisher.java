@@ -0,0 +1,299 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.sequencer;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.scanning.api.event.EventConstants;
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.IEventConnectorService;
+import org.eclipse.scanning.api.event.IEventService;
+import org.eclipse.scanning.api.event.core.IConsumer;
+import org.eclipse.scanning.api.event.core.IPublisher;
+import org.eclipse.scanning.api.event.scan.DeviceState;
+import org.eclipse.scanning.api.event.scan.ScanBean;
+import org.eclipse.scanning.api.event.scan.ScanProgressBean;
+import org.eclipse.scanning.api.event.status.Status;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Wraps the publisher of a scan so that a scan with fast points does not
+ * send the whole {@link ScanBean}, including its scan request, at every point.
+ * <p>
+ * A bean whose device state or status differs from the last one is a state change
+ * and is sent straight away. Other beans are point updates and are sent at most once
+ * every period, the latest one winning. A point update which arrives too soon is
+ * held back and sent at the end of the period, so the last point is always reported.
+ * <p>
+ * If a progress publisher is set, point updates are sent to it as a
+ * {@link ScanProgressBean} rather than as the full bean. State changes are
+ * always sent as the full bean to the wrapped publisher.
+ * <p>
+ * Call {@link #close()} when the scan ends so that a held back point is sent
+ * before anything else is published about the scan.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class CoalescingScanPublisher implements IPublisher<ScanBean> {
+
+	private static final Logger logger = LoggerFactory.getLogger(CoalescingScanPublisher.class);
+
+	/**
+	 * The minimum time in ms between point updates. 0, the default, sends every point.
+	 */
+	public static final String PERIOD_PROPERTY   = "org.eclipse.scanning.sequencer.publishPeriod";
+
+	/**
+	 * Set to true to send point updates as {@link ScanProgressBean}s to {@link EventConstants#SCAN_PROGRESS_TOPIC}.
+	 */
+	public static final String PROGRESS_PROPERTY = "org.eclipse.scanning.sequencer.publishProgress";
+
+	/**
+	 * Sends held back point updates, shared by all scans.
+	 */
+	private static final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread thread = new Thread(r, "Scan progress publisher");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final IPublisher<ScanBean> publisher;
+	private final long                 period;
+
+	private IEventService              eventService;
+	private String                     progressTopic;
+	private IPublisher<ScanProgressBean> progressPublisher;
+
+	// Guarded by this
+	private DeviceState        lastDeviceState;
+	private Status             lastStatus;
+	private boolean            stateSent;
+	private long               lastSent;
+	private ScanBean           pending;
+	private ScheduledFuture<?> trailing;
+
+	/**
+	 *
+	 * @param publisher the publisher of full scan beans
+	 * @param period minimum time in ms between point updates, 0 sends every one.
+	 */
+	public CoalescingScanPublisher(IPublisher<ScanBean> publisher, long period) {
+		this.publisher = publisher;
+		this.period    = period;
+	}
+
+	/**
+	 * Wraps the publisher as configured by the system properties {@link #PERIOD_PROPERTY}
+	 * and {@link #PROGRESS_PROPERTY}. If neither is set the publisher is returned as is.
+	 *
+	 * @param publisher may be null
+	 * @param eventService used to create the progress publisher, may be null if progress is not required.
+	 * @return
+	 */
+	public static IPublisher<ScanBean> create(IPublisher<ScanBean> publisher, IEventService eventService) {
+		if (publisher==null || publisher instanceof CoalescingScanPublisher) return publisher;
+
+		final long    period   = Long.getLong(PERIOD_PROPERTY, 0);
+		final boolean progress = Boolean.getBoolean(PROGRESS_PROPERTY) && eventService!=null;
+		if (period<1 && !progress) return publisher;
+
+		CoalescingScanPublisher coalescing = new CoalescingScanPublisher(publisher, period);
+		if (progress) coalescing.setProgressPublisher(eventService, EventConstants.SCAN_PROGRESS_TOPIC);
+		return coalescing;
+	}
+
+	/**
+	 * Sends point updates as {@link ScanProgressBean}s on the topic given. The publisher
+	 * is created when the first update is sent and disconnected by {@link #close()}.
+	 *
+	 * @param eventService
+	 * @param topic
+	 */
+	public synchronized void setProgressPublisher(IEventService eventService, String topic) {
+		this.eventService  = eventService;
+		this.progressTopic = topic;
+	}
+
+	@Override
+	public void broadcast(ScanBean bean) throws EventException {
+
+		synchronized (this) {
+			final boolean stateChange = !stateSent || bean.getDeviceState()!=lastDeviceState || bean.getStatus()!=lastStatus;
+			lastDeviceState = bean.getDeviceState();
+			lastStatus      = bean.getStatus();
+			stateSent       = true;
+
+			if (stateChange) {
+				cancelPending(); // This bean is newer than the held back one.
+				publisher.broadcast(bean);
+				lastSent = System.currentTimeMillis();
+				return;
+			}
+
+			final long now = System.currentTimeMillis();
+			if (now-lastSent >= period) {
+				cancelPending();
+				sendPoint(bean);
+				lastSent = now;
+				return;
+			}
+
+			// Too soon, keep a copy because the scan carries on changing the bean.
+			ScanBean copy = new ScanBean();
+			copy.merge(bean);
+			pending = copy;
+			if (trailing==null) {
+				trailing = timer.schedule(this::sendPending, lastSent+period-now, TimeUnit.MILLISECONDS);
+			}
+		}
+	}
+
+	private synchronized void sendPending() {
+		trailing = null;
+		if (pending==null) return;
+		try {
+			sendPoint(pending);
+		} catch (EventException ne) {
+			logger.warn("Cannot publish the progress of scan "+pending.getName(), ne);
+		} finally {
+			pending  = null;
+			lastSent = System.currentTimeMillis();
+		}
+	}
+
+	private void cancelPending() {
+		pending = null;
+		if (trailing!=null) trailing.cancel(false);
+		trailing = null;
+	}
+
+	private void sendPoint(ScanBean bean) throws EventException {
+		if (progressTopic==null) {
+			publisher.broadcast(bean);
+			return;
+		}
+		if (progressPublisher==null) progressPublisher = eventService.createPublisher(publisher.getUri(), progressTopic);
+		progressPublisher.broadcast(new ScanProgressBean(bean));
+	}
+
+	/**
+	 * Sends any held back point update now.
+	 */
+	public synchronized void flush() throws EventException {
+		if (trailing!=null) trailing.cancel(false);
+		trailing = null;
+		if (pending!=null) {
+			ScanBean bean = pending;
+			pending = null;
+			sendPoint(bean);
+			lastSent = System.currentTimeMillis();
+		}
+	}
+
+	/**
+	 * Sends any held back point update and disconnects the progress publisher, if any.
+	 * The publisher may be used again afterwards, for instance if the scan is run again.
+	 * The wrapped publisher is not disconnected.
+	 */
+	public synchronized void close() throws EventException {
+		try {
+			flush();
+		} finally {
+			stateSent = false;
+			if (progressPublisher!=null) progressPublisher.disconnect();
+			progressPublisher = null;
+		}
+	}
+
+	@Override
+	public void disconnect() throws EventException {
+		try {
+			close();
+		} finally {
+			publisher.disconnect();
+		}
+	}
+
+	@Override
+	public boolean isDisconnected() {
+		return publisher.isDisconnected();
+	}
+
+	@Override
+	public String getTopicName() {
+		return publisher.getTopicName();
+	}
+
+	@Override
+	public void setTopicName(String topic) throws EventException {
+		publisher.setTopicName(topic);
+	}
+
+	@Override
+	public URI getUri() {
+		return publisher.getUri();
+	}
+
+	@Override
+	public IEventConnectorService getConnectorService() {
+		return publisher.getConnectorService();
+	}
+
+	@Override
+	public void setAlive(boolean alive) throws EventException {
+		publisher.setAlive(alive);
+	}
+
+	@Override
+	public boolean isAlive() {
+		return publisher.isAlive();
+	}
+
+	@Override
+	public String getStatusSetName() {
+		return publisher.getStatusSetName();
+	}
+
+	@Override
+	public void setStatusSetName(String queueName) {
+		publisher.setStatusSetName(queueName);
+	}
+
+	@Override
+	public void setStatusSetAddRequired(boolean isRequired) {
+		publisher.setStatusSetAddRequired(isRequired);
+	}
+
+	@Override
+	public void setLoggingStream(PrintStream stream) {
+		publisher.setLoggingStream(stream);
+	}
+
+	@Override
+	public void setConsumer(IConsumer<?> consumer) {
+		publisher.setConsumer(consumer);
+	}
+
+	/**
+	 * @return the publisher which full beans are sent to.
+	 */
+	public IPublisher<ScanBean> getPublisher() {
+		return publisher;
+	}
+}
@@ -60,7 +60,7 @@ class DeviceRunner extends LevelRunner<IRunnableDevice<?>> {
 	 * @param devices
 	 * @return
 	 */
-	private long calculateTimeout(Collection<IRunnableDevice<?>> devices) {
+	static long calculateTimeout(Collection<? extends IRunnableDevice<?>> devices) {
 		long time = Long.MIN_VALUE;
 		for (IRunnableDevice<?> device : devices) {
 			time = Math.max(time, getTimeout(device));
@@ -69,7 +69,7 @@ class DeviceRunner extends LevelRunner<IRunnableDevice<?>> {
 		return time;
 	}
 
-	private long getTimeout(IRunnableDevice<?> device) {
+	private static long getTimeout(IRunnableDevice<?> device) {
 
 		Object model = device.getModel();
 		long timeout = -1;
@@ -93,7 +93,7 @@ class DeviceRunner extends LevelRunner<IRunnableDevice<?>> {
 		return devices;
 	}
 
-	private final class RunTask implements Callable<IPosition> {
+	private final class RunTask implements ReusableTask {
 
 		private IRunnableDevice<?>   detector;
 		private IPosition            position;
@@ -103,6 +103,11 @@ class DeviceRunner extends LevelRunner<IRunnableDevice<?>> {
 			this.position = position;
 		}
 
+		@Override
+		public void setPosition(IPosition position) {
+			this.position = position;
+		}
+
 		@SuppressWarnings("rawtypes")
 		@Override
 		public IPosition call() throws Exception {
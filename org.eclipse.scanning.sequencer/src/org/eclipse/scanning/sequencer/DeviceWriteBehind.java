@@ -0,0 +1,283 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.sequencer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.scanning.api.device.IRunnableDevice;
+import org.eclipse.scanning.api.device.IWriteBehindDetector;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.scan.ScanningException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the detectors which are {@link IWriteBehindDetector} behind the scan.
+ *
+ * Each detector has a queue of the points which it has run but not written, which
+ * is emptied in order by a thread of its own. If the writes fall more than the
+ * depth of the queue behind, the scan waits for them. A writer which finds more
+ * than one point in its queue writes them all in one call so that the detector
+ * may write them as one slice.
+ *
+ * The depth is the system property <code>org.eclipse.scanning.sequencer.write.depth</code>,
+ * write behind is not used unless it is more than one.
+ *
+ * @author Matthew Gerring
+ *
+ */
+final class DeviceWriteBehind {
+
+	private static Logger logger = LoggerFactory.getLogger(DeviceWriteBehind.class);
+
+	private final Collection<IWriteBehindDetector<?>> detectors;
+	private final int                                 depth;
+	private final long                                timeout;
+
+	private volatile ExecutorService         eservice;
+	private volatile List<DetectorWriter>    writers;
+	private final Deque<IPosition>           unwritten; // Only used by the scan thread.
+	private long                             count;     // The number of points given to write, only used by the scan thread.
+	private volatile ScanningException       abortException;
+
+	private DeviceWriteBehind(Collection<IWriteBehindDetector<?>> detectors, int depth, long timeout) {
+		this.detectors = detectors;
+		this.depth     = depth;
+		this.timeout   = timeout;
+		this.unwritten = new ArrayDeque<>();
+	}
+
+	/**
+	 * @param detectors
+	 * @return the write behind for the detectors, or null if it is not used for any of them.
+	 */
+	static DeviceWriteBehind create(Collection<IRunnableDevice<?>> detectors) {
+		final int depth = getDepth();
+		if (depth<2 || detectors==null) return null;
+
+		final List<IWriteBehindDetector<?>> wdetectors = new ArrayList<>(detectors.size());
+		for (IRunnableDevice<?> device : detectors) {
+			if (device instanceof IWriteBehindDetector) wdetectors.add((IWriteBehindDetector<?>)device);
+		}
+		if (wdetectors.isEmpty()) return null;
+		return new DeviceWriteBehind(wdetectors, depth, DeviceRunner.calculateTimeout(wdetectors));
+	}
+
+	/**
+	 * @return the number of points that each detector may be behind before the scan waits.
+	 */
+	static int getDepth() {
+		return Integer.getInteger("org.eclipse.scanning.sequencer.write.depth", 1);
+	}
+
+	/**
+	 * Reads out the detectors at the position and queues the data to be written.
+	 * Blocks if a detector is already the depth of the queue behind.
+	 *
+	 * @param position
+	 * @throws ScanningException if a write has failed or the writer does not catch up within the timeout.
+	 * @throws InterruptedException
+	 */
+	void write(IPosition position) throws ScanningException, InterruptedException {
+		checkAborted();
+		if (eservice==null) start();
+		for (DetectorWriter writer : writers) writer.put(position);
+		unwritten.add(position);
+		count++;
+	}
+
+	/**
+	 * The points which have been written by every detector since the last call,
+	 * in the order that they were given to write.
+	 *
+	 * @return
+	 * @throws ScanningException if a write has failed.
+	 */
+	List<IPosition> getWritten() throws ScanningException {
+		checkAborted();
+		if (writers==null || unwritten.isEmpty()) return Collections.emptyList();
+
+		long written = count;
+		for (DetectorWriter writer : writers) written = Math.min(written, writer.written);
+
+		final List<IPosition> ret = new ArrayList<>(unwritten.size());
+		while (unwritten.size()>count-written) ret.add(unwritten.poll());
+		return ret;
+	}
+
+	/**
+	 * Waits for every point given to write to be written.
+	 *
+	 * @return the points written since the last call to {@link #getWritten()}
+	 * @throws ScanningException if a write has failed or does not finish within the timeout.
+	 * @throws InterruptedException
+	 */
+	List<IPosition> await() throws ScanningException, InterruptedException {
+		if (writers!=null) for (DetectorWriter writer : writers) writer.await(count);
+		return getWritten();
+	}
+
+	/**
+	 * Waits for the writes and stops the writers.
+	 */
+	void close() {
+		if (eservice==null) return;
+		try {
+			await();
+		} catch (ScanningException ne) {
+			logger.debug("Writes did not complete", ne);
+		} catch (InterruptedException e) {
+			logger.debug("Unexpected forced termination of writers", e);
+		} finally {
+			stop();
+		}
+	}
+
+	/**
+	 * Stops the writers, may be called from any thread.
+	 */
+	void abort() {
+		if (abortException==null) abortException = new ScanningException("The writes of "+detectors+" were aborted");
+		final ExecutorService service = eservice;
+		if (service!=null) service.shutdownNow();
+		final List<DetectorWriter> current = writers;
+		if (current!=null) for (DetectorWriter writer : current) {
+			writer.queue.clear(); // So that the scan is not left waiting to put.
+			synchronized (writer) {
+				writer.notifyAll(); // So that the scan is not left waiting for it.
+			}
+		}
+	}
+
+	void reset() {
+		abortException = null;
+	}
+
+	private void start() {
+		eservice  = Executors.newFixedThreadPool(detectors.size(), r -> {
+			Thread thread = new Thread(r, "Write Behind");
+			thread.setDaemon(true);
+			return thread;
+		});
+		writers   = new ArrayList<>(detectors.size());
+		for (IWriteBehindDetector<?> detector : detectors) {
+			DetectorWriter writer = new DetectorWriter(detector);
+			writers.add(writer);
+			eservice.execute(writer);
+		}
+	}
+
+	private void stop() {
+		final ExecutorService service = eservice;
+		if (service!=null) service.shutdownNow(); // The writers wait on their queue until interrupted.
+		eservice = null;
+		writers  = null;
+		unwritten.clear();
+		count = 0;
+	}
+
+	private void checkAborted() throws ScanningException {
+		if (abortException!=null) throw abortException;
+	}
+
+	/**
+	 * Writes the points queued for one detector in the order they were queued.
+	 */
+	private final class DetectorWriter implements Runnable {
+
+		private final IWriteBehindDetector<?>     detector;
+		private final BlockingQueue<Object[]>     queue;
+		private volatile long                     written;
+
+		DetectorWriter(IWriteBehindDetector<?> detector) {
+			this.detector = detector;
+			this.queue    = new ArrayBlockingQueue<>(depth);
+		}
+
+		void put(IPosition position) throws ScanningException, InterruptedException {
+			final Object data = detector.readout(position);
+			if (!queue.offer(new Object[]{position, data}, timeout, TimeUnit.SECONDS)) {
+				throw new ScanningException("The timeout of "+timeout+"s has been reached waiting to write '"+detector.getName()+"', scan aborting. Please implement ITimeoutable to define how long your device needs to write.");
+			}
+			checkAborted(); // The writer empties the queue if it fails.
+		}
+
+		synchronized void await(long count) throws ScanningException, InterruptedException {
+			final long end = System.currentTimeMillis()+TimeUnit.SECONDS.toMillis(timeout);
+			while (written<count) {
+				checkAborted();
+				long time = end-System.currentTimeMillis();
+				if (time<1) throw new ScanningException("The timeout of "+timeout+"s has been reached waiting to write '"+detector.getName()+"', scan aborting. Please implement ITimeoutable to define how long your device needs to write.");
+				wait(time);
+			}
+		}
+
+		@Override
+		public void run() {
+			final List<Object[]>  batch     = new ArrayList<>(depth);
+			final List<IPosition> positions = new ArrayList<>(depth);
+			final List<Object>    data      = new ArrayList<>(depth);
+			try {
+				while (!Thread.currentThread().isInterrupted()) {
+					batch.add(queue.take());
+					queue.drainTo(batch, depth-1);
+					for (Object[] entry : batch) {
+						positions.add((IPosition)entry[0]);
+						data.add(entry[1]);
+					}
+					write(positions, data);
+					batch.clear();
+					positions.clear();
+					data.clear();
+				}
+			} catch (InterruptedException ie) {
+				// We have been stopped
+			} catch (Exception ne) {
+				abort(positions, ne);
+			}
+		}
+
+		private void write(List<IPosition> positions, List<Object> data) throws ScanningException, InterruptedException {
+			for (IPosition position : positions) detector.fireWriteWillPerform(position);
+			boolean wrote = detector.write(positions, data);
+			if (wrote) {
+				for (IPosition position : positions) detector.fireWritePerformed(position);
+			}
+			synchronized (this) {
+				written+=positions.size();
+				notifyAll();
+			}
+		}
+
+		private void abort(List<IPosition> positions, Exception ne) {
+			String message = "Cannot write device named '"+detector.getName()+"' positions are '"+positions+"'\nMessage: "+ne.getMessage();
+			logger.debug(message, ne);
+			abortException = ne instanceof ScanningException
+				           ? (ScanningException)ne
+				           : new ScanningException(ne.getMessage(), ne);
+			queue.clear(); // Do not keep the scan waiting to put.
+			synchronized (this) {
+				notifyAll();
+			}
+		}
+	}
+}
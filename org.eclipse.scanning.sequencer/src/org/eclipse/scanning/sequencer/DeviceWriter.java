@@ -17,6 +17,7 @@ import java.util.concurrent.Callable;
 import org.eclipse.scanning.api.device.IRunnableDevice;
 import org.eclipse.scanning.api.device.IRunnableEventDevice;
 import org.eclipse.scanning.api.device.IWritableDetector;
+import org.eclipse.scanning.api.device.IWriteBehindDetector;
 import org.eclipse.scanning.api.points.IPosition;
 import org.eclipse.scanning.api.scan.LevelRole;
 import org.eclipse.scanning.api.scan.ScanningException;
@@ -35,6 +36,8 @@ import org.eclipse.scanning.api.scan.ScanningException;
  */
 final class DeviceWriter extends DeviceRunner {
 
+	private final boolean writeBehind;
+
 	/**
 	 * Checks each detector to find the maximum time
 	 * that the await call should block for before
@@ -43,16 +46,26 @@ final class DeviceWriter extends DeviceRunner {
 	 * @param detectors
 	 */
 	DeviceWriter(Collection<IRunnableDevice<?>> detectors) {
+		this(detectors, false);
+	}
+
+	/**
+	 * @param detectors
+	 * @param writeBehind true if the {@link IWriteBehindDetector}s are written by a {@link DeviceWriteBehind} instead.
+	 */
+	DeviceWriter(Collection<IRunnableDevice<?>> detectors, boolean writeBehind) {
 		super(detectors);
+		this.writeBehind = writeBehind;
 	}
 
 	@Override
 	protected Callable<IPosition> create(IRunnableDevice<?> device, IPosition position) throws ScanningException {
 		if (!(device instanceof IWritableDetector<?>)) return null;
+		if (writeBehind && device instanceof IWriteBehindDetector<?>) return null;
 		return new WriteTask((IWritableDetector<?>)device, position);
 	}
 
-	private final class WriteTask implements Callable<IPosition> {
+	private final class WriteTask implements ReusableTask {
 
 		private IWritableDetector<?> detector;
 		private IPosition            position;
@@ -62,6 +75,11 @@ final class DeviceWriter extends DeviceRunner {
 			this.position = position;
 		}
 
+		@Override
+		public void setPosition(IPosition position) {
+			this.position = position;
+		}
+
 		@Override
 		public IPosition call() throws Exception {
 			if (detector instanceof IRunnableEventDevice) {
@@ -108,7 +108,7 @@ class ExposureTimeManager extends LevelRunner<IRunnableDevice<?>> {
 		return new ExposureTimeTask((IRunnableDevice<IDetectorModel>)device, position);
 	}
 
-	private final class ExposureTimeTask implements Callable<IPosition> {
+	private final class ExposureTimeTask implements ReusableTask {
 
 		private IRunnableDevice<IDetectorModel> device;
 		private IPosition          position;
@@ -118,6 +118,11 @@ class ExposureTimeManager extends LevelRunner<IRunnableDevice<?>> {
 			this.position = position;
 		}
 
+		@Override
+		public void setPosition(IPosition position) {
+			this.position = position;
+		}
+
 		@Override
 		public IPosition call() throws Exception {
 			IDetectorModel model = device.getModel();
@@ -11,20 +11,25 @@
  *******************************************************************************/
 package org.eclipse.scanning.sequencer;
 
-import java.lang.ref.SoftReference;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ForkJoinPool;
-import java.util.concurrent.Future;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.scanning.api.ILevel;
 import org.eclipse.scanning.api.INameable;
@@ -35,6 +40,7 @@ import org.eclipse.scanning.api.points.IPosition;
 import org.eclipse.scanning.api.points.MapPosition;
 import org.eclipse.scanning.api.scan.LevelInformation;
 import org.eclipse.scanning.api.scan.LevelRole;
+import org.eclipse.scanning.api.scan.ScanMetrics;
 import org.eclipse.scanning.api.scan.ScanningException;
 import org.eclipse.scanning.api.scan.event.IPositionListener;
 import org.eclipse.scanning.api.scan.event.PositionDelegate;
@@ -50,6 +56,19 @@ import org.slf4j.LoggerFactory;
  * The implementing class provides the Callable which runs the
  * actual task. For instance setting a position.
  *
+ * The devices are sorted into levels once and kept as a plan
+ * which is reused for each position. If level caching is not allowed
+ * the plan is checked against the devices for each position and only
+ * made again if they have changed. Tasks which implement {@link ReusableTask}
+ * are kept with the plan and given the next position rather than being
+ * created again.
+ *
+ * Each run waits for the tasks which it submitted rather than for the
+ * whole pool to be quiet. This means that the runners of every scan may share
+ * one long lived pool, which is done if the system property
+ * <code>org.eclipse.scanning.level.runner.shared</code> is true. Otherwise each
+ * runner makes its own pool which is shutdown when it is closed or aborted.
+ *
  * @author Matthew Gerring
  *
  */
@@ -57,14 +76,22 @@ abstract class LevelRunner<L extends ILevel> {
 
 	private static Logger logger = LoggerFactory.getLogger(LevelRunner.class);
 
+	private static ExecutorService      sharedService;
+
     protected IPosition                 position;
-    private volatile ForkJoinPool       eservice; // Different threads may nullify the service, better to make volatile.
-	private ScanningException           abortException;
+    private volatile ExecutorService    eservice; // Different threads may nullify the service, better to make volatile.
+	private volatile ScanningException  abortException;
 	private PositionDelegate            pDelegate;
 	private boolean                     levelCachingAllowed=true;
+	private volatile LevelPlan          plan;
+	private volatile Phaser             phaser;
+	private volatile Submission         running; // The tasks of the level being run, used to cancel them.
+	private volatile Submission         pending; // The tasks of the last level when not blocking, used to await them.
+	private volatile ScanMetrics        metrics; // Records the time of each level if set.
 
 	protected LevelRunner() {
 		pDelegate = new PositionDelegate();
+		phaser    = createPhaser();
 	}
 
 	/**
@@ -77,6 +104,9 @@ abstract class LevelRunner<L extends ILevel> {
 	 * Implement this method to create a callable which willbe run by the executor service.
 	 * If a given level object and position return null, no work will be done for that object at that level.
 	 *
+	 * If the callable is a {@link ReusableTask} it is kept for the level object and given the
+	 * position of later runs instead of this method being called again.
+	 *
 	 * @param levelObject
 	 * @param position
 	 * @return a callable that returns the position reached once it has finished running. May return null to
@@ -86,6 +116,19 @@ abstract class LevelRunner<L extends ILevel> {
 	 */
 	protected abstract Callable<IPosition> create(L levelObject, IPosition position)  throws ScanningException;
 
+	/**
+	 * A task which can be run again for the same level object at another position.
+	 */
+	protected interface ReusableTask extends Callable<IPosition> {
+
+		/**
+		 * Called before the task is submitted to run at the given position.
+		 * The task is never run for more than one position at the same time.
+		 * @param position
+		 */
+		void setPosition(IPosition position);
+	}
+
 	/**
 	 * Call to set the value at the location specified
 	 * Same as calling run(position, true)
@@ -122,8 +165,7 @@ abstract class LevelRunner<L extends ILevel> {
 		boolean ok = pDelegate.firePositionWillPerform(loc);
         if (!ok) return false;
 
-		Map<Integer, List<L>> positionMap = getLevelOrderedDevices();
-		Map<Integer, AnnotationManager> managerMap = getLevelOrderedManagerMap(positionMap);
+		final LevelPlan levelPlan = getPlan();
 
 		try {
 			// TODO Should we actually create the service size to the size
@@ -132,35 +174,31 @@ abstract class LevelRunner<L extends ILevel> {
 			if (eservice==null) this.eservice = createService();
 
 			Integer finalLevel = 0;
-			for (Iterator<Integer> it = positionMap.keySet().iterator(); it.hasNext();) {
+			for (int i = 0; i < levelPlan.size(); i++) {
 
 				if (abortException!=null) throw abortException;
 
-				int level = it.next();
-				List<L> lobjects = positionMap.get(level);
-				Collection<Callable<IPosition>> tasks = new ArrayList<>(lobjects.size());
-				for (L lobject : lobjects) {
-					Callable<IPosition> c = create(lobject, loc);
-					if (c==null) continue; // legal to say that there is nothing to do for a given object.
-					tasks.add(c);
-				}
+				int level = levelPlan.levels[i];
+				List<L> lobjects = levelPlan.objects.get(i);
+				List<LevelTask> tasks = levelPlan.prepare(i, loc);
 
-				managerMap.get(level).invoke(LevelStart.class, loc, new LevelInformation(getLevelRole(), level, lobjects));
-				if (!it.hasNext() && !block) {
+				levelPlan.managers.get(i).invoke(LevelStart.class, loc, new LevelInformation(getLevelRole(), level, lobjects));
+				final long start = System.nanoTime();
+				Submission submission = submit(tasks);
+				if (i==levelPlan.size()-1 && !block) {
 					// The last one and we are non-blocking
-					for (Callable<IPosition> callable : tasks) eservice.submit(callable);
+					pending = submission;
 				} else {
 					// Normally we block until done.
 					// Blocks until level has run
-				    List<Future<IPosition>> pos = eservice.invokeAll(tasks, getTimeout(lobjects), TimeUnit.SECONDS);
+				    boolean done = submission.await(getTimeout(lobjects));
 
-				    // If timed out, some isDone will be false.
-				    for (Future<IPosition> future : pos) {
-						if (!future.isDone()) throw new ScanningException("The timeout of "+timeout+"s has been reached waiting for level "+level+" objects "+toString(lobjects));
-					}
-				    pDelegate.fireLevelPerformed(level, lobjects, getPosition(loc, pos));
+				    // If timed out, the tasks are cancelled.
+				    if (!done) throw new ScanningException("The timeout of "+timeout+"s has been reached waiting for level "+level+" objects "+toString(lobjects));
+				    if (metrics!=null) metrics.recordMove(level, System.nanoTime()-start);
+				    pDelegate.fireLevelPerformed(level, lobjects, getPosition(loc, tasks));
 				}
-				managerMap.get(level).invoke(LevelEnd.class, loc, new LevelInformation(getLevelRole(), level, lobjects));
+				levelPlan.managers.get(i).invoke(LevelEnd.class, loc, new LevelInformation(getLevelRole(), level, lobjects));
 			}
 
 			pDelegate.firePositionPerformed(finalLevel, loc);
@@ -230,16 +268,20 @@ abstract class LevelRunner<L extends ILevel> {
 			eservice = null;
 			return position;
 		}
-		boolean ok = eservice.awaitQuiescence(time, TimeUnit.SECONDS);
+		final Submission submission = pending;
+		if (submission==null) return position;
+		boolean ok = submission.await(time);
 		if (!ok) { // Might have nullified service during wait.
 			throw new ScanningException("The timeout of "+timeout+"s has been reached, scan aborting. Please implement ITimeoutable to define how long your device needs to write.");
 		}
+		if (pending==submission) pending = null;
 		return position;
 	}
 
 	public void abort() {
+		cancel();
 		if (eservice==null) return; // We are already finished
-		eservice.shutdownNow();
+		if (eservice!=sharedService) eservice.shutdownNow();
 		eservice = null;
 	}
 
@@ -265,8 +307,19 @@ abstract class LevelRunner<L extends ILevel> {
         abortException = ne instanceof ScanningException
 			       ? (ScanningException)ne
 			       : new ScanningException(ne.getMessage(), ne);
-		eservice.shutdownNow();
-		eservice = null;
+        abort();
+	}
+
+	/**
+	 * Cancels the tasks which have been submitted and not finished.
+	 * Those which have not started will not run and those which are running are interrupted.
+	 */
+	private void cancel() {
+		final Submission run = running;
+		if (run!=null) run.cancel();
+		final Submission pend = pending;
+		if (pend!=null) pend.cancel();
+		pending = null;
 	}
 
 	/**
@@ -275,12 +328,19 @@ abstract class LevelRunner<L extends ILevel> {
 	public void close() {
 		if (eservice==null) return; // We are already finished
 		try {
-			eservice.shutdown();
-			eservice.awaitTermination(getTimeout(null), TimeUnit.SECONDS);
+			if (eservice==sharedService) {
+				// The pool is used by other runners, we only wait for our own tasks.
+				final Submission submission = pending;
+				if (submission!=null) submission.await(getTimeout(null));
+			} else {
+				eservice.shutdown();
+				eservice.awaitTermination(getTimeout(null), TimeUnit.SECONDS);
+			}
 		} catch (InterruptedException e) {
 			logger.debug("Unexpected forced termination of pool", e);
 		} finally {
 		    eservice = null;
+		    pending  = null;
 		}
 	}
 
@@ -291,7 +351,6 @@ abstract class LevelRunner<L extends ILevel> {
 		abortException = null;
 	}
 
-	private SoftReference<Map> sortedObjects;
 	/**
 	 * Get the scannables, ordered by level, lowest first
 	 * @param position
@@ -299,41 +358,289 @@ abstract class LevelRunner<L extends ILevel> {
 	 * @throws ScanningException
 	 */
 	protected Map<Integer, List<L>> getLevelOrderedDevices() throws ScanningException {
-		if (sortedObjects!=null && sortedObjects.get()!=null) return sortedObjects.get();
+		return getPlan().devicesByLevel;
+	}
+
+	/**
+	 * Gets the plan for the devices, only making a new one if there is none or
+	 * level caching is not allowed and the devices are not those of the plan.
+	 * @return
+	 * @throws ScanningException
+	 */
+	private LevelPlan getPlan() throws ScanningException {
+		LevelPlan current = plan;
+		if (current!=null && isLevelCachingAllowed()) return current;
 
 		final Collection<L> devices = getDevices();
+		if (current!=null && current.isFor(devices)) return current;
+
+		current = new LevelPlan(devices);
+		plan = current;
+		return current;
+	}
+
+	/**
+	 * The devices sorted by level with an annotation manager and
+	 * the reusable tasks for each level.
+	 */
+	private final class LevelPlan {
+
+		private final List<L>                 devices;
+		private final int[]                   deviceLevels;
+		private final Map<Integer, List<L>>   devicesByLevel;
+		private final int[]                   levels;
+		private final List<List<L>>           objects;
+		private final List<AnnotationManager> managers;
+		private final List<List<LevelTask>>   tasks;
+		private final List<List<LevelTask>>   prepared;
+
+		LevelPlan(Collection<L> devs) {
+			this.devices        = devs!=null ? new ArrayList<>(devs) : Collections.emptyList();
+			this.deviceLevels   = new int[devices.size()];
+			this.devicesByLevel = new TreeMap<>();
+			for (int i = 0; i < devices.size(); i++) {
+				final L object = devices.get(i);
+				final int level = object.getLevel();
+				deviceLevels[i] = level;
+
+				if (!devicesByLevel.containsKey(level)) devicesByLevel.put(level, new ArrayList<L>(7));
+				devicesByLevel.get(level).add(object);
+			}
 
-		if (devices == null) return Collections.emptyMap();
+			final int size = devicesByLevel.size();
+			this.levels   = new int[size];
+			this.objects  = new ArrayList<>(size);
+			this.managers = new ArrayList<>(size);
+			this.tasks    = new ArrayList<>(size);
+			this.prepared = new ArrayList<>(size);
+			int i = 0;
+			for (Iterator<Integer> it = devicesByLevel.keySet().iterator(); it.hasNext(); i++) {
+				levels[i] = it.next();
+				final List<L> lobjects = devicesByLevel.get(levels[i]);
+				objects.add(lobjects);
+
+				final AnnotationManager manager = new AnnotationManager(SequencerActivator.getInstance(), LevelStart.class, LevelEnd.class); // Less annotations is more efficient
+				manager.addDevices(lobjects);
+				managers.add(manager);
+
+				final List<LevelTask> ltasks = new ArrayList<>(lobjects.size());
+				for (L lobject : lobjects) ltasks.add(new LevelTask(lobject));
+				tasks.add(ltasks);
+				prepared.add(new ArrayList<>(lobjects.size()));
+			}
+		}
 
-		final Map<Integer, List<L>> devicesByLevel = new TreeMap<>();
-		for (L object : devices) {
-			final int level = object.getLevel();
+		int size() {
+			return levels.length;
+		}
 
-			if (!devicesByLevel.containsKey(level)) devicesByLevel.put(level, new ArrayList<L>(7));
-			devicesByLevel.get(level).add(object);
+		/**
+		 * @param devs
+		 * @return true if the devices are the same objects at the same levels as those of this plan.
+		 */
+		boolean isFor(Collection<L> devs) {
+			if (devs==null) return devices.isEmpty();
+			if (devs.size()!=devices.size()) return false;
+			int i = 0;
+			for (L dev : devs) {
+				if (dev!=devices.get(i) || dev.getLevel()!=deviceLevels[i]) return false;
+				i++;
+			}
+			return true;
 		}
-		if (isLevelCachingAllowed()) sortedObjects = new SoftReference<Map>(devicesByLevel);
 
-		return devicesByLevel;
+		/**
+		 * Gets the tasks to run a level at a position. Tasks still running from
+		 * an earlier position are not reused, a new task is made in their place.
+		 *
+		 * @param index of the level in the plan
+		 * @param loc
+		 * @return tasks to submit, the list is reused for the next position of the level.
+		 * @throws ScanningException
+		 */
+		List<LevelTask> prepare(int index, IPosition loc) throws ScanningException {
+			final List<LevelTask> ret = prepared.get(index);
+			ret.clear();
+			for (LevelTask task : tasks.get(index)) {
+				if (!task.isIdle()) task = new LevelTask(task.lobject);
+				if (task.prepare(loc)) ret.add(task); // legal to say that there is nothing to do for a given object.
+			}
+			return ret;
+		}
 	}
 
-	private SoftReference<Map> sortedManagers;
+	/**
+	 * Runs the callable for a level object and arrives at the phaser
+	 * of its submission when done, whether or not it was cancelled.
+	 */
+	private final class LevelTask implements Runnable {
+
+		private static final int IDLE = 0, READY = 1, RUNNING = 2;
+
+		private final L                   lobject;
+		private final AtomicInteger       state;
+		private Callable<IPosition>       callable;
+		private Phaser                    taskPhaser;
+		private Thread                    thread;
+		private IPosition                 result;
+		private Throwable                 error;
+
+		LevelTask(L lobject) {
+			this.lobject = lobject;
+			this.state   = new AtomicInteger(IDLE);
+		}
 
-	private Map<Integer, AnnotationManager> getLevelOrderedManagerMap(Map<Integer, List<L>> positionMap) {
+		boolean isIdle() {
+			return state.get()==IDLE;
+		}
 
-		if (sortedManagers!=null && sortedManagers.get()!=null) return sortedManagers.get();
+		boolean prepare(IPosition loc) throws ScanningException {
+			if (callable instanceof ReusableTask) {
+				((ReusableTask)callable).setPosition(loc);
+			} else {
+				callable = create(lobject, loc);
+			}
+			result = null;
+			error  = null;
+			return callable!=null;
+		}
 
-		final Map<Integer, AnnotationManager> ret = new HashMap<>();
-		for (Integer position : positionMap.keySet()) {
-			ret.put(position, new AnnotationManager(SequencerActivator.getInstance(), LevelStart.class, LevelEnd.class));	// Less annotations is more efficient
-			ret.get(position).addDevices(positionMap.get(position));
+		void submit(Submission submission, ExecutorService service) {
+			this.taskPhaser = submission.submissionPhaser;
+			state.set(READY);
+			if (submission.cancelled) { // Cancelled while the level was being submitted
+				cancel();
+				return;
+			}
+			try {
+				service.execute(this);
+			} catch (RejectedExecutionException ne) {
+				if (state.compareAndSet(READY, RUNNING)) finish(ne);
+			}
+		}
+
+		@Override
+		public void run() {
+			if (!state.compareAndSet(READY, RUNNING)) return; // Cancelled
+			synchronized (this) {
+				thread = Thread.currentThread();
+			}
+			Throwable err = null;
+			try {
+				result = callable.call();
+			} catch (Throwable ne) {
+				err = ne;
+			} finally {
+				synchronized (this) {
+					thread = null;
+					Thread.interrupted(); // An interrupt meant for this task should not reach the next task of the pool.
+				}
+				finish(err);
+			}
+		}
+
+		void cancel() {
+			if (state.compareAndSet(READY, RUNNING)) {
+				finish(new CancellationException("The task for "+lobject+" was cancelled"));
+				return;
+			}
+			synchronized (this) {
+				if (thread!=null) thread.interrupt();
+			}
+		}
+
+		/**
+		 * Called once by whichever thread moved the task from READY to RUNNING.
+		 */
+		private void finish(Throwable err) {
+			final Phaser current = taskPhaser; // The task may be submitted again once idle.
+			this.error = err;
+			state.set(IDLE);
+			current.arriveAndDeregister();
 		}
-		if (isLevelCachingAllowed()) sortedManagers = new SoftReference<Map>(ret);
-		return ret;
 	}
 
+	/**
+	 * The tasks submitted for one level and the phase of the
+	 * phaser which they will advance once they have all finished.
+	 */
+	private final class Submission {
+
+		private final List<LevelTask> tasks;
+		private final Phaser          submissionPhaser;
+		private final int             phase;
+		private volatile boolean      cancelled;
+
+		Submission(List<LevelTask> tasks, Phaser submissionPhaser, int phase) {
+			this.tasks            = tasks;
+			this.submissionPhaser = submissionPhaser;
+			this.phase            = phase;
+		}
+
+		/**
+		 * Waits for the tasks to finish, cancelling them if the wait is interrupted or times out.
+		 * @param time in seconds
+		 * @return false if the time has been reached
+		 * @throws InterruptedException
+		 */
+		boolean await(long time) throws InterruptedException {
+			if (phase<0) return true;
+			try {
+				submissionPhaser.awaitAdvanceInterruptibly(phase, time, TimeUnit.SECONDS);
+				return true;
+			} catch (TimeoutException te) {
+				cancel();
+				return false;
+			} catch (InterruptedException ie) {
+				cancel();
+				throw ie;
+			} finally {
+				if (running==this) running = null;
+			}
+		}
 
-	protected ForkJoinPool createService() {
+		void cancel() {
+			cancelled = true;
+			for (LevelTask task : tasks) task.cancel();
+			// Tasks which ignore the interrupt may still arrive, later submissions use a new phaser.
+			if (phaser==submissionPhaser) phaser = createPhaser();
+		}
+	}
+
+	/**
+	 * Submits the tasks of a level to be run.
+	 * @param tasks
+	 * @return the submission which can be awaited.
+	 */
+	private Submission submit(List<LevelTask> tasks) throws ScanningException {
+		final ExecutorService service = eservice;
+		if (service==null) throw new ScanningException("Scanning aborted while moving to new position!");
+		if (tasks.isEmpty()) return new Submission(Collections.emptyList(), phaser, -1);
+
+		final Phaser current = phaser;
+		final int phase = current.bulkRegister(tasks.size());
+		final Submission submission = new Submission(new ArrayList<>(tasks), current, phase);
+		running = submission;
+		for (LevelTask task : tasks) task.submit(submission, service);
+		return submission;
+	}
+
+	/**
+	 * A phaser which the tasks of each level register with
+	 * and arrive at. It keeps advancing when there are no parties.
+	 * @return
+	 */
+	private static Phaser createPhaser() {
+		return new Phaser() {
+			@Override
+			protected boolean onAdvance(int phase, int registeredParties) {
+				return false;
+			}
+		};
+	}
+
+	protected ExecutorService createService() {
+		if (Boolean.getBoolean("org.eclipse.scanning.level.runner.shared")) return getSharedService();
 		// TODO Need spring config for this.
 		Integer processors = Integer.getInteger("org.eclipse.scanning.level.runner.pool.count");
 		if (processors==null || processors<1) processors = Runtime.getRuntime().availableProcessors();
@@ -341,6 +648,23 @@ abstract class LevelRunner<L extends ILevel> {
         // Slightly faster than thread pool executor @see ScanAlgorithmBenchMarkTest
 	}
 
+	/**
+	 * The pool shared by all runners. Threads are made as needed so that a device which
+	 * runs another scan from its task does not wait for a thread, and are kept between scans.
+	 * @return
+	 */
+	private static synchronized ExecutorService getSharedService() {
+		if (sharedService==null) {
+			final AtomicInteger count = new AtomicInteger();
+			sharedService = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 5, TimeUnit.MINUTES, new SynchronousQueue<Runnable>(), r -> {
+				Thread thread = new Thread(r, "Level Runner "+count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return sharedService;
+	}
+
 	public void addPositionListener(IPositionListener listener) {
 		pDelegate.addPositionListener(listener);
 	}
@@ -357,14 +681,15 @@ abstract class LevelRunner<L extends ILevel> {
 		return position;
 	}
 
-	private IPosition getPosition(IPosition position, List<Future<IPosition>> futures) throws InterruptedException, ExecutionException {
+	private IPosition getPosition(IPosition position, List<LevelTask> tasks) throws ExecutionException {
 		MapPosition ret = new MapPosition();
-	    for (Future<IPosition> future : futures) {
-		// Faster than using composite
-		IPosition pos = future.get();
-		if (pos==null) continue;
-		ret.putAll(pos);
-		ret.putAllIndices(pos);
+	    for (LevelTask task : tasks) {
+			// Faster than using composite
+			if (task.error!=null) throw new ExecutionException(task.error);
+			IPosition pos = task.result;
+			if (pos==null) continue;
+			ret.putAll(pos);
+			ret.putAllIndices(pos);
 		}
 	    if (ret.size()<1) return position;
 	    return ret;
@@ -420,6 +745,14 @@ abstract class LevelRunner<L extends ILevel> {
 		this.timeout = time;
 	}
 
+	/**
+	 * Records the time taken to run each level which is waited for in the metrics given.
+	 * @param metrics may be null to record nothing.
+	 */
+	void setMetrics(ScanMetrics metrics) {
+		this.metrics = metrics;
+	}
+
 	public boolean isLevelCachingAllowed() {
 		return levelCachingAllowed;
 	}
@@ -0,0 +1,210 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.sequencer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.eclipse.scanning.api.IScannable;
+import org.eclipse.scanning.api.points.GeneratorException;
+import org.eclipse.scanning.api.points.IPathChecker;
+import org.eclipse.scanning.api.points.IPointGenerator;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.PathStatistics;
+import org.eclipse.scanning.api.scan.ScanningException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Checks every position of a scan path before the scan moves anything, what was
+ * called limit checking in GDA8. The positions must be within the limits of the
+ * scannables, be one of their permitted values if they have them and be allowed
+ * by the {@link IPathChecker}s taking part in the scan, for instance one which
+ * avoids collisions.
+ * <p>
+ * The limits are checked against the extent of the path, which the generators
+ * calculate without making the positions. The permitted values and the checkers
+ * are given every point, calculated in chunks in parallel where the generator can.
+ * <p>
+ * Generators which cannot calculate the path, for instance those in Jython or with
+ * mutators, are iterated over. They are only checked if they have no more than
+ * <code>org.eclipse.scanning.sequencer.limitCheckMaxIterated</code> points, default
+ * 10000, otherwise the scannables check their positions as they move.
+ * <p>
+ * Set the system property <code>org.eclipse.scanning.sequencer.disableLimitCheck</code>
+ * to true to run scans without checking them first.
+ *
+ * @author Matthew Gerring
+ *
+ */
+class LimitChecker {
+
+	private static final Logger logger = LoggerFactory.getLogger(LimitChecker.class);
+
+	/**
+	 * Positions this close to a permitted value, relative to its size, are taken to be
+	 * it. Calculated positions, for instance 0.1+2*0.1, differ by rounding errors.
+	 */
+	private static final double TOLERANCE = 1e-9;
+
+	private final Collection<IScannable<?>> scannables;
+	private final List<IPathChecker>        checkers;
+
+	/**
+	 * @param scannables moved by the scan, may be null
+	 * @param participants of the scan, those which are {@link IPathChecker}s check it, may be null
+	 */
+	LimitChecker(Collection<IScannable<?>> scannables, Collection<?> participants) {
+		this.scannables = scannables;
+		this.checkers   = new ArrayList<>(1);
+		if (participants!=null) {
+			for (Object participant : participants) {
+				if (participant instanceof IPathChecker) checkers.add((IPathChecker)participant);
+			}
+		}
+	}
+
+	/**
+	 * @param positions of the scan
+	 * @throws ScanningException if a position may not be moved to
+	 */
+	void check(Iterable<IPosition> positions) throws ScanningException {
+
+		if (Boolean.getBoolean("org.eclipse.scanning.sequencer.disableLimitCheck")) {
+			logger.warn("The positions of the scan are not checked before it runs.");
+			return;
+		}
+		if (scannables==null || scannables.isEmpty()) return;
+		if (!(positions instanceof IPointGenerator)) {
+			logger.debug("Cannot check the positions of {} before the scan", positions.getClass().getSimpleName());
+			return;
+		}
+
+		final long before = System.currentTimeMillis();
+		final IPointGenerator<?> gen = (IPointGenerator<?>)positions;
+		try {
+			final Collection<String> names = gen.getFirstPoint().getNames();
+			final List<IScannable<?>> moved = new ArrayList<>(scannables.size());
+			for (IScannable<?> scannable : scannables) {
+				if (names.contains(scannable.getName())) moved.add(scannable);
+			}
+			if (moved.isEmpty()) return;
+
+			final String[] axes = new String[moved.size()];
+			for (int a = 0; a < axes.length; a++) axes[a] = moved.get(a).getName();
+
+			final boolean limited = isLimited(moved);
+			final List<IPathChecker> checkers = new ArrayList<>(this.checkers);
+			final IPathChecker permitted = createPermittedValuesChecker(moved);
+			if (permitted!=null) checkers.add(permitted);
+			if (!limited && checkers.isEmpty()) return;
+
+			if (!gen.isPathCalculated()) {
+				final int max = Integer.getInteger("org.eclipse.scanning.sequencer.limitCheckMaxIterated", 10000);
+				if (gen.size() > max) {
+					logger.warn("The positions of the scan are not checked before it runs, there are more than {} to iterate over.", max);
+					return;
+				}
+			}
+
+			if (limited) checkLimits(gen, moved, axes);
+			for (IPathChecker checker : checkers) {
+				final int index = gen.check(checker, axes);
+				if (index>-1) throw new ScanningException("The position "+gen.getPoint(index)+" is not allowed by "+checker);
+			}
+		} catch (GeneratorException ne) {
+			throw new ScanningException("Cannot check the positions of the scan", ne);
+		}
+		logger.debug("Checked the positions of the scan in {}ms", System.currentTimeMillis()-before);
+	}
+
+	private static boolean isLimited(List<IScannable<?>> moved) {
+		for (IScannable<?> scannable : moved) {
+			if (scannable.getMinimum() instanceof Number || scannable.getMaximum() instanceof Number) return true;
+		}
+		return false;
+	}
+
+	private void checkLimits(IPointGenerator<?> gen, List<IScannable<?>> moved, String[] axes) throws GeneratorException, ScanningException {
+
+		// One point in the columns, the statistics are of the whole path.
+		final PathStatistics stats = gen.getColumns(1, axes).getStatistics();
+		for (int a = 0; a < axes.length; a++) {
+			final Object lower = moved.get(a).getMinimum();
+			if (lower instanceof Number && stats.getLower(a) < ((Number)lower).doubleValue()) {
+				throw new ScanningException("The scan moves "+axes[a]+" to "+stats.getLower(a)+" which is below its lower limit of "+lower);
+			}
+			final Object upper = moved.get(a).getMaximum();
+			if (upper instanceof Number && stats.getUpper(a) > ((Number)upper).doubleValue()) {
+				throw new ScanningException("The scan moves "+axes[a]+" to "+stats.getUpper(a)+" which is above its upper limit of "+upper);
+			}
+		}
+	}
+
+	/**
+	 * @return a checker that the positions of the scannables with numeric permitted values
+	 * are one of them, or null if there are none.
+	 */
+	private IPathChecker createPermittedValuesChecker(List<IScannable<?>> moved) throws ScanningException {
+
+		final double[][] permitted = new double[moved.size()][];
+		boolean any = false;
+		for (int a = 0; a < permitted.length; a++) {
+			final Object[] values;
+			try {
+				values = moved.get(a).getPermittedValues();
+			} catch (Exception ne) {
+				throw new ScanningException("Cannot get the permitted values of "+moved.get(a).getName(), ne);
+			}
+			if (values==null || values.length==0 || !(values[0] instanceof Number)) continue;
+			permitted[a] = Arrays.stream(values).mapToDouble(v -> ((Number)v).doubleValue()).sorted().toArray();
+			any = true;
+		}
+		if (!any) return null;
+
+		return new IPathChecker() {
+			@Override
+			public int check(String[] axes, double[][] columns) {
+				final int length = columns.length>0 ? columns[0].length : 0;
+				for (int i = 0; i < length; i++) {
+					for (int a = 0; a < permitted.length; a++) {
+						if (permitted[a]!=null && !isPermitted(permitted[a], columns[a][i])) return i;
+					}
+				}
+				return -1;
+			}
+			@Override
+			public String toString() {
+				return "the permitted values of the scannables";
+			}
+		};
+	}
+
+	/**
+	 * @param sorted the permitted values
+	 * @param value
+	 * @return true if the permitted value nearest the value is within the tolerance of it.
+	 */
+	private static boolean isPermitted(double[] sorted, double value) {
+		final int index = Arrays.binarySearch(sorted, value);
+		if (index>=0) return true;
+		final int above = -index-1; // Where the value would be inserted
+		if (above<sorted.length && isClose(sorted[above], value)) return true;
+		return above>0 && isClose(sorted[above-1], value);
+	}
+
+	private static boolean isClose(double permitted, double value) {
+		return Math.abs(permitted-value) <= TOLERANCE*Math.max(1, Math.abs(permitted));
+	}
+}
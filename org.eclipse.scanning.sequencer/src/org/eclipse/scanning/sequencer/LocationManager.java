@@ -9,6 +9,7 @@ import org.eclipse.scanning.api.points.GeneratorException;
 import org.eclipse.scanning.api.points.IDeviceDependentIterable;
 import org.eclipse.scanning.api.points.IPointGenerator;
 import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.ScanPointIterator;
 import org.eclipse.scanning.api.points.models.CompoundModel;
 import org.eclipse.scanning.api.scan.ScanningException;
 import org.eclipse.scanning.api.scan.models.ScanModel;
@@ -136,6 +137,10 @@ public final class LocationManager {
 	 */
 	public IPosition seek(int location, Iterator<IPosition> iterator) {
 
+		if (iterator instanceof ScanPointIterator && ((ScanPointIterator)iterator).isRandomAccess()) {
+			return seek(location, (ScanPointIterator)iterator);
+		}
+
 		stepNumber=0;
 		/*
 		 * IMPORTANT We do not keep the positions in memory because there can be millions.
@@ -150,6 +155,24 @@ public final class LocationManager {
 		return null;
 	}
 
+	/**
+	 * Moves a random access iterator straight to the location, leaving
+	 * it at the position after the location as iterating to it would.
+	 */
+	private IPosition seek(int location, ScanPointIterator iterator) {
+
+		final int stride = Math.max(innerSize, 1);
+		if (location < 0 || location % stride != 0) return null;
+		final int index = location / stride;
+		if (index >= iterator.size()) return null;
+
+		iterator.setIndex(index);
+		IPosition pos = iterator.next();
+		stepNumber = location;
+		pos.setStepIndex(stepNumber);
+		return pos;
+	}
+
 	public boolean isInnerScan() {
 		return outerSize > 0 && innerSize > 0;
 	}
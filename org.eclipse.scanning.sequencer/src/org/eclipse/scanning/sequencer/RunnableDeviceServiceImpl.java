@@ -212,7 +212,7 @@ public final class RunnableDeviceServiceImpl implements IRunnableDeviceService,
 				AbstractRunnableDevice<T> ascanner = (AbstractRunnableDevice<T>)scanner;
 				ascanner.setRunnableDeviceService(this);
                 ascanner.setConnectorService(deviceConnectorService);
-                ascanner.setPublisher(publisher); // May be null
+                ascanner.setPublisher(CoalescingScanPublisher.create(publisher, ServiceHolder.getEventService())); // May be null
 
                 // If the model has a name for the device, we use
                 // it automatically.
@@ -265,7 +265,7 @@ public final class RunnableDeviceServiceImpl implements IRunnableDeviceService,
 		IRunnableDevice<T> device = (IRunnableDevice<T>)namedDevices.get(name);
 		if (device!=null && publisher!=null && device instanceof AbstractRunnableDevice) {
 			AbstractRunnableDevice<T> adevice = (AbstractRunnableDevice<T>)device;
-			adevice.setPublisher(publisher); // Now all its moves will be reported by this publisher.
+			adevice.setPublisher(CoalescingScanPublisher.create(publisher, ServiceHolder.getEventService())); // Now all its moves will be reported by this publisher.
 		}
 		return device;
 	}
@@ -126,7 +126,7 @@ final class ScannablePositioner extends LevelRunner<IScannable<?>> implements IP
 		return new MoveTask(scannable, position);
 	}
 
-	private final class MoveTask implements Callable<IPosition> {
+	private final class MoveTask implements ReusableTask {
 
 		private IScannable<?> scannable;
 		private IPosition     position;
@@ -136,6 +136,11 @@ final class ScannablePositioner extends LevelRunner<IScannable<?>> implements IP
 			this.position  = position;
 		}
 
+		@Override
+		public void setPosition(IPosition position) {
+			this.position = position;
+		}
+
 		@Override
 		public IPosition call() throws Exception {
 
@@ -6,10 +6,12 @@ import org.eclipse.dawnsci.analysis.api.io.IDataHolder;
 import org.eclipse.dawnsci.analysis.api.io.ILoaderService;
 import org.eclipse.january.IMonitor;
 import org.eclipse.january.dataset.IDataset;
+import org.eclipse.january.dataset.IDynamicDataset;
 import org.eclipse.january.dataset.ILazyDataset;
 import org.eclipse.january.dataset.SliceND;
 import org.eclipse.scanning.api.ModelValidationException;
 import org.eclipse.scanning.api.ValidationException;
+import org.eclipse.scanning.api.annotation.scan.ScanFinally;
 import org.eclipse.scanning.api.device.AbstractRunnableDevice;
 import org.eclipse.scanning.api.device.IWritableDetector;
 import org.eclipse.scanning.api.device.models.DeviceRole;
@@ -27,13 +29,21 @@ import org.eclipse.scanning.sequencer.ServiceHolder;
  * If that is needed it is possible to extend SlicingRunnableDevice to implement the
  * process method.
  *
+ * The dataset is opened from the scan file on the first write of a scan
+ * and kept until the scan finishes. As the scan file grows its shape is
+ * refreshed, the file is only opened again if it cannot be.
+ *
  * @author Matthew Gerring
  * @param <T>
  *
  */
 public abstract class SlicingRunnableDevice<T extends SlicingModel> extends AbstractRunnableDevice<T> implements IWritableDetector<T>{
 
-
+	/**
+	 * The dataset being sliced, kept for the scan. Writes happen on
+	 * the threads of the scan's writer pool, one at a time.
+	 */
+	private volatile ILazyDataset dataset;
 
 	public SlicingRunnableDevice() {
 		super(ServiceHolder.getRunnableDeviceService());
@@ -49,6 +59,12 @@ public abstract class SlicingRunnableDevice<T extends SlicingModel> extends Abst
 	}
 
 
+	@Override
+	public void configure(T model) throws ScanningException {
+		super.configure(model);
+		dataset = null; // The data file may have changed.
+	}
+
 	@Override
 	public void run(IPosition position) throws ScanningException, InterruptedException {
 
@@ -59,12 +75,12 @@ public abstract class SlicingRunnableDevice<T extends SlicingModel> extends Abst
 
 		try {
 			// Get the dataset we are slicing
-			ILoaderService lservice = ServiceHolder.getLoaderService();
-			IDataHolder    holder   = lservice.getData(model.getDataFile(), new IMonitor.Stub());
-			ILazyDataset data = holder.getLazyDataset("/entry/instrument/"+model.getDetectorName()+"/data");
+			ILazyDataset data = dataset;
+			if (data==null) data = load();
 
 			int[] dshape = getDataShape(data);
 			IScanSlice rslice = IScanRankService.getScanRankService().createScanSlice(loc, dshape);
+			data = getDataset(data, rslice.getStop());
 			SliceND sliceData = new SliceND(data.getShape(), rslice.getStart(), rslice.getStop(), rslice.getStep());
 			IDataset slice = data.getSlice(sliceData);
 
@@ -77,6 +93,46 @@ public abstract class SlicingRunnableDevice<T extends SlicingModel> extends Abst
 		}
 	}
 
+	/**
+	 * The dataset refreshed if the slice is beyond its shape, which happens
+	 * as the scan writes the file. If the shape cannot be refreshed the
+	 * dataset is opened again from the file.
+	 *
+	 * @param data
+	 * @param stop of the slice that is needed
+	 * @return
+	 * @throws Exception
+	 */
+	private ILazyDataset getDataset(ILazyDataset data, int[] stop) throws Exception {
+		if (contains(data.getShape(), stop)) return data;
+		if (data instanceof IDynamicDataset) {
+			((IDynamicDataset)data).refreshShape();
+			if (contains(data.getShape(), stop)) return data;
+		}
+		return load();
+	}
+
+	private ILazyDataset load() throws Exception {
+		ILoaderService lservice = ServiceHolder.getLoaderService();
+		IDataHolder    holder   = lservice.getData(model.getDataFile(), new IMonitor.Stub());
+		ILazyDataset   data     = holder.getLazyDataset("/entry/instrument/"+model.getDetectorName()+"/data");
+		dataset = data;
+		return data;
+	}
+
+	private static boolean contains(int[] shape, int[] stop) {
+		if (shape.length!=stop.length) return false;
+		for (int i = 0; i < shape.length; i++) {
+			if (stop[i]>shape[i]) return false;
+		}
+		return true;
+	}
+
+	@ScanFinally
+	public void closeDataset() {
+		dataset = null;
+	}
+
 	/**
 	 * This method is called with each slice of scan data read
 	 * @param loc
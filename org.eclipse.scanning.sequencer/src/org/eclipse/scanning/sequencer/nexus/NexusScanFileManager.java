@@ -230,6 +230,7 @@ public class NexusScanFileManager implements INexusScanFileManager, IPositionLis
 
 	protected SolsticeScanMonitor createSolsticeScanMonitor(ScanModel model) {
 		SolsticeScanMonitor solsticeScanMonitor = new SolsticeScanMonitor(model);
+		solsticeScanMonitor.setScanMetrics(scanDevice.getScanMetrics());
 		scanDevice.addPositionListener(this);
 		return solsticeScanMonitor;
 	}
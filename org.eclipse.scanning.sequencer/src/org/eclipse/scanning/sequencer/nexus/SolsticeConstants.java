@@ -27,6 +27,20 @@ public final class SolsticeConstants {
 	public static final String FIELD_NAME_SCAN_DEAD_TIME_PERCENT = "scan_dead_time_percent";
 	public static final String FIELD_NAME_SCAN_SHAPE    = "scan_shape";
 
+	/**
+	 * The group of the time taken by each phase of the points of the scan, one row per phase.
+	 */
+	public static final String GROUP_NAME_POINT_TIMING  = "point_timing";
+	public static final String FIELD_NAME_PHASE         = "phase";
+	public static final String FIELD_NAME_COUNT         = "count";
+	public static final String FIELD_NAME_TOTAL         = "total";
+	public static final String FIELD_NAME_MEAN          = "mean";
+	public static final String FIELD_NAME_MIN           = "min";
+	public static final String FIELD_NAME_P50           = "p50";
+	public static final String FIELD_NAME_P90           = "p90";
+	public static final String FIELD_NAME_P99           = "p99";
+	public static final String FIELD_NAME_MAX           = "max";
+
 	/**
 	 * Property name for the path within an external (linked) nexus file to the unique keys dataset.
 	 */
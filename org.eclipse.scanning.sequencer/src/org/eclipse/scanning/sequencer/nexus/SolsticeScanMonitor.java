@@ -11,6 +11,14 @@
  *******************************************************************************/
 package org.eclipse.scanning.sequencer.nexus;
 
+import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_COUNT;
+import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_MAX;
+import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_MEAN;
+import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_MIN;
+import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_P50;
+import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_P90;
+import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_P99;
+import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_PHASE;
 import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_SCAN_CMD;
 import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_SCAN_DEAD_TIME;
 import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_SCAN_DEAD_TIME_PERCENT;
@@ -20,8 +28,10 @@ import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_
 import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_SCAN_MODELS;
 import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_SCAN_RANK;
 import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_SCAN_SHAPE;
+import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_TOTAL;
 import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_UNIQUE_KEYS;
 import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.GROUP_NAME_KEYS;
+import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.GROUP_NAME_POINT_TIMING;
 import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.GROUP_NAME_SOLSTICE_SCAN;
 import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.PROPERTY_NAME_UNIQUE_KEYS_PATH;
 import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.SCANNABLE_NAME_SOLSTICE_SCAN_MONITOR;
@@ -36,8 +46,10 @@ import java.time.temporal.ChronoField;
 import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
 import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 
 import org.eclipse.dawnsci.nexus.INexusDevice;
@@ -56,8 +68,10 @@ import org.eclipse.january.dataset.IntegerDataset;
 import org.eclipse.january.dataset.LazyWriteableDataset;
 import org.eclipse.january.dataset.SliceND;
 import org.eclipse.scanning.api.AbstractScannable;
+import org.eclipse.scanning.api.event.scan.PhaseStatistics;
 import org.eclipse.scanning.api.points.IPosition;
 import org.eclipse.scanning.api.scan.ScanInformation;
+import org.eclipse.scanning.api.scan.ScanMetrics;
 import org.eclipse.scanning.api.scan.ScanningException;
 import org.eclipse.scanning.api.scan.models.ScanModel;
 import org.eclipse.scanning.api.scan.rank.IScanRankService;
@@ -97,6 +111,12 @@ public class SolsticeScanMonitor extends AbstractScannable<Object> implements IN
 	private ILazyWriteableDataset scanDurationDataset = null;
 	private ILazyWriteableDataset scanDeadTimeDataset = null;
 	private ILazyWriteableDataset scanDeadTimePercentDataset = null;
+	private ILazyWriteableDataset phaseDataset = null;
+	private ILazyWriteableDataset countDataset = null;
+	private Map<String, ILazyWriteableDataset> timingDatasets = null; // The time statistics in ms by field name
+
+	// The time taken by the phases of the points, may be null
+	private ScanMetrics scanMetrics = null;
 
 	// State
 	private boolean malcolmScan = false;
@@ -135,6 +155,15 @@ public class SolsticeScanMonitor extends AbstractScannable<Object> implements IN
 		this.malcolmScan = malcolmScan;
 	}
 
+	/**
+	 * Sets the metrics of the scan, which are written to the {@value SolsticeConstants#GROUP_NAME_POINT_TIMING}
+	 * collection when the scan finishes. If they are not set the collection is not written.
+	 * @param scanMetrics
+	 */
+	public void setScanMetrics(ScanMetrics scanMetrics) {
+		this.scanMetrics = scanMetrics;
+	}
+
 	/* (non-Javadoc)
 	 * @see org.eclipse.dawnsci.nexus.INexusDevice#getNexusProvider(org.eclipse.dawnsci.nexus.NexusScanInfo)
 	 */
@@ -204,6 +233,11 @@ public class SolsticeScanMonitor extends AbstractScannable<Object> implements IN
 				new int[] { 1 }, new int[] { -1 }, new int[] { 1 }, null);
 		scanPointsCollection.createDataNode(FIELD_NAME_SCAN_DEAD_TIME_PERCENT, scanDeadTimePercentDataset);
 
+		// create a sub-collection for the time taken by each phase of the points, written at the end of the scan
+		if (scanMetrics != null) {
+			scanPointsCollection.addGroupNode(GROUP_NAME_POINT_TIMING, createPointTimingCollection());
+		}
+
 		// create a sub-collection for the unique keys field and keys from each external file
 		final NXcollection keysCollection = NexusNodeFactory.createNXcollection();
 		scanPointsCollection.addGroupNode(GROUP_NAME_KEYS, keysCollection);
@@ -228,6 +262,63 @@ public class SolsticeScanMonitor extends AbstractScannable<Object> implements IN
 		return scanPointsCollection;
 	}
 
+	private NXcollection createPointTimingCollection() {
+		final NXcollection timingCollection = NexusNodeFactory.createNXcollection();
+
+		// the number of rows is not known until the end of the scan, as each level moved has one
+		phaseDataset = new LazyWriteableDataset(FIELD_NAME_PHASE, String.class,
+				new int[] { 1 }, new int[] { -1 }, new int[] { 1 }, null);
+		timingCollection.createDataNode(FIELD_NAME_PHASE, phaseDataset);
+		countDataset = new LazyWriteableDataset(FIELD_NAME_COUNT, Long.class,
+				new int[] { 1 }, new int[] { -1 }, new int[] { 1 }, null);
+		timingCollection.createDataNode(FIELD_NAME_COUNT, countDataset);
+
+		timingDatasets = new LinkedHashMap<>();
+		for (String fieldName : new String[] { FIELD_NAME_TOTAL, FIELD_NAME_MEAN, FIELD_NAME_MIN,
+				FIELD_NAME_P50, FIELD_NAME_P90, FIELD_NAME_P99, FIELD_NAME_MAX }) {
+			final ILazyWriteableDataset dataset = new LazyWriteableDataset(fieldName, Double.class,
+					new int[] { 1 }, new int[] { -1 }, new int[] { 1 }, null);
+			timingCollection.createDataNode(fieldName, dataset);
+			timingCollection.setAttribute(fieldName, "units", "ms");
+			timingDatasets.put(fieldName, dataset);
+		}
+		return timingCollection;
+	}
+
+	/**
+	 * Writes a row of statistics for each phase of the points of the scan.
+	 */
+	private void writePointTiming() throws ScanningException {
+		final List<PhaseStatistics> stats = scanMetrics.getStatistics();
+		final int[] stop = new int[] { stats.size() };
+
+		final String[] phases = new String[stats.size()];
+		final long[]   counts = new long[stats.size()];
+		for (int i = 0; i < phases.length; i++) {
+			phases[i] = stats.get(i).getName();
+			counts[i] = stats.get(i).getCount();
+		}
+		try {
+			phaseDataset.setSlice(null, DatasetFactory.createFromObject(phases), new int[] { 0 }, stop, new int[] { 1 });
+			countDataset.setSlice(null, DatasetFactory.createFromObject(counts), new int[] { 0 }, stop, new int[] { 1 });
+			writeTiming(FIELD_NAME_TOTAL, stats, PhaseStatistics::getTotal);
+			writeTiming(FIELD_NAME_MEAN,  stats, PhaseStatistics::getMean);
+			writeTiming(FIELD_NAME_MIN,   stats, PhaseStatistics::getMin);
+			writeTiming(FIELD_NAME_P50,   stats, PhaseStatistics::getP50);
+			writeTiming(FIELD_NAME_P90,   stats, PhaseStatistics::getP90);
+			writeTiming(FIELD_NAME_P99,   stats, PhaseStatistics::getP99);
+			writeTiming(FIELD_NAME_MAX,   stats, PhaseStatistics::getMax);
+		} catch (Exception e) {
+			throw new ScanningException("Could not write point timing to NeXus file", e);
+		}
+	}
+
+	private void writeTiming(String fieldName, List<PhaseStatistics> stats, ToDoubleFunction<PhaseStatistics> value) throws DatasetException {
+		final double[] values = stats.stream().mapToDouble(value).toArray();
+		timingDatasets.get(fieldName).setSlice(null, DatasetFactory.createFromObject(values),
+				new int[] { 0 }, new int[] { values.length }, new int[] { 1 });
+	}
+
 	private static String durationInMillisToString(Duration duration) {
 		long days = duration.toDays(); // chop off any days as formatter can't handle them
 		duration = duration.minusDays(days);
@@ -291,6 +382,8 @@ public class SolsticeScanMonitor extends AbstractScannable<Object> implements IN
 			throw new ScanningException("Could not write scan dead time percent to NeXus file", e);
 		}
 
+		if (phaseDataset != null) writePointTiming();
+
 		final ScanInformation scanInfo = model.getScanInformation();
 		final String filePath = scanInfo.getFilePath();
 		final String shapeStr = Arrays.toString(scanShape);
@@ -13,6 +13,7 @@ package org.eclipse.scanning.server.servlet;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Collection;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -113,11 +114,27 @@ public abstract class AbstractConsumerServlet<B extends StatusBean> implements I
 
 	protected abstract String getName();
 
+	/**
+	 * Override to give the names of the devices which the process for the bean uses,
+	 * so that it may run at the same time as processes using other devices.
+	 *
+	 * @param bean
+	 * @return null if the process may use anything.
+	 * @see IProcessCreator#getResources(Object)
+	 */
+	protected Collection<String> getResources(B bean) {
+		return null;
+	}
+
 	class DoObjectCreator<T> implements IProcessCreator<B> {
 		@Override
 		public IConsumerProcess<B> createProcess(B bean, IPublisher<B> response) throws EventException {
 			return AbstractConsumerServlet.this.createProcess(bean, response);
 		}
+		@Override
+		public Collection<String> getResources(B bean) {
+			return AbstractConsumerServlet.this.getResources(bean);
+		}
 	}
 
 	@Override
@@ -82,11 +82,58 @@ public abstract class AbstractResponderServlet<B extends IdBean> implements IRes
 		return new DoResponseCreator();
 	}
 
+	/**
+	 * Override to process requests at the same time as each other,
+	 * see {@link #getKey(IdBean)}. By default they are processed one at
+	 * a time in the order they arrive.
+	 *
+	 * @return
+	 */
+	protected boolean isSynchronous() {
+		return true;
+	}
+
+	/**
+	 * If the servlet is not synchronous requests with the same key are processed
+	 * one at a time, for instance those for the same device, and requests with
+	 * different keys at the same time.
+	 *
+	 * @param bean
+	 * @return the key or null if the request may be processed at the same time as any other.
+	 */
+	protected Object getKey(B bean) {
+		return null;
+	}
+
+	/**
+	 * Override to tell the requester why its request could not be processed,
+	 * by default nothing is sent and the requester times out.
+	 *
+	 * @param bean
+	 * @param message
+	 * @return the response or null
+	 */
+	protected B createErrorResponse(B bean, String message) {
+		return null;
+	}
+
 	class DoResponseCreator implements IResponseCreator<B> {
 		@Override
 		public IRequestHandler<B> createResponder(B bean, IPublisher<B> response) throws EventException {
 			return AbstractResponderServlet.this.createResponder(bean, response);
 		}
+		@Override
+		public boolean isSynchronous() {
+			return AbstractResponderServlet.this.isSynchronous();
+		}
+		@Override
+		public Object getKey(B bean) {
+			return AbstractResponderServlet.this.getKey(bean);
+		}
+		@Override
+		public B createErrorResponse(B bean, String message) {
+			return AbstractResponderServlet.this.createErrorResponse(bean, message);
+		}
 	}
 
 	@Override
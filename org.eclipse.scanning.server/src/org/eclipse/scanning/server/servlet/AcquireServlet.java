@@ -18,6 +18,7 @@ import org.eclipse.scanning.api.event.EventException;
 import org.eclipse.scanning.api.event.core.IPublisher;
 import org.eclipse.scanning.api.event.core.IRequestHandler;
 import org.eclipse.scanning.api.event.scan.AcquireRequest;
+import org.eclipse.scanning.api.event.status.Status;
 
 /**
  * A servlet to acquire data from a particular detector.
@@ -28,6 +29,28 @@ public class AcquireServlet extends AbstractResponderServlet<AcquireRequest> {
 		super(ACQUIRE_REQUEST_TOPIC, ACQUIRE_RESPONSE_TOPIC);
 	}
 
+	@Override
+	protected boolean isSynchronous() {
+		return false;
+	}
+
+	/**
+	 * Acquisitions from one detector are made one at a time, different detectors may acquire at the same time.
+	 */
+	@Override
+	protected Object getKey(AcquireRequest bean) {
+		return bean.getDetectorName();
+	}
+
+	@Override
+	protected AcquireRequest createErrorResponse(AcquireRequest bean, String message) {
+		AcquireRequest error = new AcquireRequest();
+		error.merge(bean);
+		error.setStatus(Status.FAILED);
+		error.setMessage(message);
+		return error;
+	}
+
 	@Override
 	public IRequestHandler<AcquireRequest> createResponder(AcquireRequest bean,
 			IPublisher<AcquireRequest> response) throws EventException {
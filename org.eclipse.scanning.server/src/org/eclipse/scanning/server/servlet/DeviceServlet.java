@@ -22,7 +22,6 @@ import javax.annotation.PostConstruct;
 import org.eclipse.scanning.api.device.DeviceRequestHandler;
 import org.eclipse.scanning.api.event.EventException;
 import org.eclipse.scanning.api.event.core.IPublisher;
-import org.eclipse.scanning.api.event.core.IResponseCreator;
 import org.eclipse.scanning.api.event.core.IRequestHandler;
 import org.eclipse.scanning.api.event.scan.DeviceRequest;
 
@@ -62,13 +61,25 @@ public class DeviceServlet extends AbstractResponderServlet<DeviceRequest> {
 	}
 
 	@Override
-	protected IResponseCreator<DeviceRequest> createResponseCreator() {
-		return new DoResponseCreator() {
-			@Override
-			public boolean isSynchronous() {
-				return false;
-			}
-		};
+	protected boolean isSynchronous() {
+		return false;
+	}
+
+	/**
+	 * Requests for one device are processed in order, those for different
+	 * devices and those for all the devices at the same time.
+	 */
+	@Override
+	protected Object getKey(DeviceRequest bean) {
+		return bean.getDeviceName();
+	}
+
+	@Override
+	protected DeviceRequest createErrorResponse(DeviceRequest bean, String message) {
+		DeviceRequest error = new DeviceRequest();
+		error.merge(bean);
+		error.setErrorMessage(message);
+		return error;
 	}
 
 	@Override
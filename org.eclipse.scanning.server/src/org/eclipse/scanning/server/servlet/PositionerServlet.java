@@ -19,6 +19,7 @@ import org.eclipse.scanning.api.event.EventConstants;
 import org.eclipse.scanning.api.event.EventException;
 import org.eclipse.scanning.api.event.core.IPublisher;
 import org.eclipse.scanning.api.event.core.IRequestHandler;
+import org.eclipse.scanning.api.event.scan.PositionRequestType;
 import org.eclipse.scanning.api.event.scan.PositionerRequest;
 
 /**
@@ -47,6 +48,30 @@ public class PositionerServlet extends AbstractResponderServlet<PositionerReques
 		super(POSITIONER_REQUEST_TOPIC, POSITIONER_RESPONSE_TOPIC);
 	}
 
+	@Override
+	protected boolean isSynchronous() {
+		return false;
+	}
+
+	/**
+	 * The requests of one remote positioner, which share its unique id, are processed
+	 * one at a time in order and different positioners may move at the same time. An
+	 * abort is not queued behind the move it is aborting.
+	 */
+	@Override
+	protected Object getKey(PositionerRequest bean) {
+		if (bean.getPositionType()==PositionRequestType.ABORT) return new Object();
+		return bean.getUniqueId();
+	}
+
+	@Override
+	protected PositionerRequest createErrorResponse(PositionerRequest bean, String message) {
+		PositionerRequest error = new PositionerRequest();
+		error.merge(bean);
+		error.setErrorMessage(message);
+		return error;
+	}
+
 	@Override
 	public IRequestHandler<PositionerRequest> createResponder(PositionerRequest bean, IPublisher<PositionerRequest> response) throws EventException {
 		return new PositionerRequestHandler(Services.getRunnableDeviceService(), bean, response);
@@ -354,17 +354,17 @@ public class ScanProcess implements IConsumerProcess<ScanBean> {
 		cons.accept(res);
 	}
 
-	private IDeviceController createRunnableDevice(ScanBean bean, IPointGenerator<?> gen) throws ScanningException, EventException {
+	private IDeviceController createRunnableDevice(ScanBean bean, IPointGenerator<?> generator) throws ScanningException, EventException {
 
 		ScanRequest<?> req = bean.getScanRequest();
 		if (req==null) throw new ScanningException("There must be a scan request to run a scan!");
 
 		try {
+			// The generator made for the request is used again, its size and shape are only calculated once.
 			final ScanModel scanModel = new ScanModel();
-			IPointGenerator<?> generator = getGenerator(req);
 			scanModel.setPositionIterable(generator);
 
-			ScanEstimator estimator = new ScanEstimator(Services.getGeneratorService(), bean.getScanRequest());
+			ScanEstimator estimator = new ScanEstimator(generator, req.getDetectors(), 0);
 			bean.setSize(estimator.getSize());
 			scanModel.setFilePath(bean.getFilePath());
 
@@ -11,10 +11,15 @@
  *******************************************************************************/
 package org.eclipse.scanning.server.servlet;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
 import org.eclipse.scanning.api.event.EventException;
 import org.eclipse.scanning.api.event.core.IPublisher;
 import org.eclipse.scanning.api.event.scan.ScanBean;
 import org.eclipse.scanning.api.event.scan.ScanRequest;
+import org.eclipse.scanning.api.points.models.AbstractPointsModel;
 import org.eclipse.scanning.api.scan.process.IPreprocessor;
 import org.eclipse.scanning.api.scan.process.ProcessingException;
 import org.slf4j.Logger;
@@ -72,6 +77,31 @@ public class ScanServlet extends AbstractConsumerServlet<ScanBean> {
 		return new ScanProcess(scanBean, response, isBlocking());
 	}
 
+	/**
+	 * The detectors, monitors and scannables named in the request. Scans which run
+	 * scripts may use anything so do not run alongside other processes.
+	 */
+	@Override
+	protected Collection<String> getResources(ScanBean scanBean) {
+
+		final ScanRequest<?> req = scanBean.getScanRequest();
+		if (req==null || req.getBefore()!=null || req.getAfter()!=null) return null;
+
+		final Set<String> names = new HashSet<>();
+		if (req.getDetectors()!=null)            names.addAll(req.getDetectors().keySet());
+		if (req.getMonitorNamesPerPoint()!=null) names.addAll(req.getMonitorNamesPerPoint());
+		if (req.getMonitorNamesPerScan()!=null)  names.addAll(req.getMonitorNamesPerScan());
+		if (req.getStart()!=null)                names.addAll(req.getStart().getNames());
+		if (req.getEnd()!=null)                  names.addAll(req.getEnd().getNames());
+		if (req.getCompoundModel()!=null && req.getCompoundModel().getModels()!=null) {
+			for (Object model : req.getCompoundModel().getModels()) {
+				Collection<String> scannables = AbstractPointsModel.getScannableNames(model);
+				if (scannables!=null) names.addAll(scannables);
+			}
+		}
+		return names;
+	}
+
 	private void debug(String message, ScanBean scanBean, IPublisher<ScanBean> response) {
 
 		if (!logger.isDebugEnabled()) return;
@@ -42,6 +42,7 @@ import org.eclipse.scanning.api.points.IPosition;
 import org.eclipse.scanning.api.points.Point;
 import org.eclipse.scanning.api.points.models.GridModel;
 import org.eclipse.scanning.api.scan.ScanInformation;
+import org.eclipse.scanning.api.scan.ScanningException;
 import org.eclipse.scanning.example.scannable.MockScannableConnector;
 import org.eclipse.scanning.points.PointGeneratorService;
 import org.eclipse.scanning.sequencer.RunnableDeviceServiceImpl;
@@ -264,6 +265,36 @@ public class AnnotationManagerTest {
 	}
 
 
+	@Test
+	public void nonPublicDevice() throws Exception {
+
+		final List<IPosition> positions = new ArrayList<>();
+		AnnotationManager m = new AnnotationManager();
+		m.addDevices(new Object() {
+			@PointStart
+			public void start(IPosition pos) {
+				positions.add(pos);
+			}
+		});
+		m.invoke(PointStart.class, new Point(0, 10, 0, 20));
+		m.invoke(PointStart.class, new Point(1, 11, 1, 21));
+		assertEquals(2, positions.size());
+		assertEquals(new Point(1, 11, 1, 21), positions.get(1));
+	}
+
+	@Test(expected=ScanningException.class)
+	public void scanningExceptionThrown() throws Exception {
+
+		AnnotationManager m = new AnnotationManager();
+		m.addDevices(new Object() {
+			@PointStart
+			public void start(IPosition pos) throws ScanningException {
+				throw new ScanningException("Thrown by device at "+pos);
+			}
+		});
+		m.invoke(PointStart.class, new Point(0, 10, 0, 20));
+	}
+
 	private void checkCalls(int size, InjectionDevice device, String methodName) {
 
 		if (size<1) {
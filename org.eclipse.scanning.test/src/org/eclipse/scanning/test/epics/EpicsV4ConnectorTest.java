@@ -101,6 +101,66 @@ public class EpicsV4ConnectorTest {
 
 	}
 
+	/**
+	 * The channel and get to the device are kept open between messages so
+	 * each get must still read the current value of the device.
+	 * @throws Exception
+	 */
+	@Test
+	public void getDeviceStateAfterItChanges() throws Exception {
+
+		// Start the dummy test device
+		DeviceRunner runner = new DeviceRunner();
+		epicsv4Device = runner.start();
+
+		// Get the device
+		IMalcolmDevice<MalcolmModel> malcolmDevice = createMalcolmDevice(epicsv4Device.getRecordName());
+		for (int i = 0; i < 10; i++) {
+			assertEquals(DeviceState.READY, malcolmDevice.getDeviceState());
+		}
+
+		IPointGeneratorService pgService = new PointGeneratorService();
+		IPointGenerator<?> scan = pgService.createCompoundGenerator(pgService.createGenerator(
+				new SpiralModel("stage_x", "stage_y", 1, new BoundingBox(0, -5, 8, 3))));
+
+		MalcolmModel pmac1 = new MalcolmModel();
+		pmac1.setExposureTime(23.1);
+		pmac1.setFileDir("/TestFile/Dir");
+		((AbstractMalcolmDevice<?>) malcolmDevice).setPointGenerator(scan);
+
+		// The dummy device is armed when it has been configured.
+		malcolmDevice.configure(pmac1);
+		assertEquals(DeviceState.ARMED, malcolmDevice.getDeviceState());
+	}
+
+	/**
+	 * Stops the device after getting its state and then starts it again.
+	 * The disconnected channel should be discarded and the device connected to again.
+	 * @throws Exception
+	 */
+	@Test
+	public void reconnectToRestartedDevice() throws Exception {
+
+		// Start the dummy test device
+		DeviceRunner runner = new DeviceRunner();
+		epicsv4Device = runner.start();
+
+		// Get the device
+		IMalcolmDevice<?> malcolmDevice = createMalcolmDevice(epicsv4Device.getRecordName());
+		assertEquals(DeviceState.READY, malcolmDevice.getDeviceState());
+
+		epicsv4Device.stop();
+		try {
+			malcolmDevice.getDeviceState();
+			fail("No exception thrown but one was expected");
+		} catch (MalcolmDeviceException ex) {
+			assertTrue("Message was: " + ex.getMessage(), ex.getMessage().contains("Failed to connect to device"));
+		}
+
+		epicsv4Device = runner.start();
+		assertEquals(DeviceState.READY, malcolmDevice.getDeviceState());
+	}
+
 	@Test(expected=MalcolmDeviceException.class)
 	public void connectToEvilDevice() throws Exception {
 
@@ -0,0 +1,146 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.jms.BytesMessage;
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.IEventConnectorService;
+import org.eclipse.scanning.api.event.IEventService;
+import org.eclipse.scanning.api.event.bean.IBeanListener;
+import org.eclipse.scanning.api.event.core.IPublisher;
+import org.eclipse.scanning.api.event.core.ISubscriber;
+import org.eclipse.scanning.api.event.status.Status;
+import org.eclipse.scanning.api.event.status.StatusBean;
+import org.eclipse.scanning.connector.activemq.ActivemqConnectorService;
+import org.eclipse.scanning.event.EventServiceImpl;
+import org.eclipse.scanning.test.BrokerTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that publishers send the binary encoding of the connector on
+ * the topics they are told to and json on the others, and that subscribers
+ * read both.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class BinaryTopicTest extends BrokerTest {
+
+	private IEventConnectorService connector;
+	private IEventService          eservice;
+	private String                 binaryTopic, jsonTopic;
+	private Connection             connection;
+
+	@Before
+	public void createServices() throws Exception {
+
+		// We wire things together without OSGi here
+		// DO NOT COPY THIS IN NON-TEST CODE!
+		setUpNonOSGIActivemqMarshaller();
+
+		binaryTopic = "org.eclipse.scanning.test.binaryTopic."+UUID.randomUUID();
+		jsonTopic   = "org.eclipse.scanning.test.jsonTopic."+UUID.randomUUID();
+		System.setProperty("org.eclipse.scanning.event.binary.topics", "some.other.topic, "+binaryTopic);
+
+		connector  = new ActivemqConnectorService();
+		eservice   = new EventServiceImpl(connector); // Do not copy this get the service from OSGi!
+		connection = ((ConnectionFactory)connector.createConnectionFactory(uri)).createConnection();
+		connection.start();
+	}
+
+	@After
+	public void dispose() throws Exception {
+		System.clearProperty("org.eclipse.scanning.event.binary.topics");
+		connection.close();
+	}
+
+	@Test
+	public void binaryTopicSendsBytes() throws Exception {
+		Message message = receive(binaryTopic);
+		assertTrue(message instanceof BytesMessage);
+		assertEquals(connector.getBinaryEncoding(), message.getStringProperty("encoding"));
+	}
+
+	@Test
+	public void otherTopicsSendJson() throws Exception {
+		Message message = receive(jsonTopic);
+		assertTrue(message instanceof TextMessage);
+		assertTrue(((TextMessage)message).getText().contains("Binary Bean"));
+	}
+
+	@Test
+	public void subscriberReadsBinaryTopic() throws Exception {
+
+		final ISubscriber<IBeanListener<StatusBean>> subscriber = eservice.createSubscriber(uri, binaryTopic);
+		final CountDownLatch    latch    = new CountDownLatch(1);
+		final StatusBean[]      received = new StatusBean[1];
+		subscriber.addListener(evt -> {
+			received[0] = evt.getBean();
+			latch.countDown();
+		});
+
+		final StatusBean bean = createBean();
+		publish(binaryTopic, bean);
+		try {
+			assertTrue("The bean was not received", latch.await(5, TimeUnit.SECONDS));
+			assertEquals(bean, received[0]);
+		} finally {
+			subscriber.disconnect();
+		}
+	}
+
+	private Message receive(String topic) throws Exception {
+		Session         session  = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+		MessageConsumer consumer = session.createConsumer(session.createTopic(topic));
+		publish(topic, createBean());
+		Message message = consumer.receive(5000);
+		assertNotNull(message);
+		session.close();
+		return message;
+	}
+
+	private void publish(String topic, StatusBean bean) throws EventException {
+		IPublisher<StatusBean> publisher = eservice.createPublisher(uri, topic);
+		try {
+			publisher.broadcast(bean);
+		} finally {
+			publisher.disconnect();
+		}
+	}
+
+	private static StatusBean createBean() {
+		StatusBean bean = new StatusBean();
+		bean.setName("Binary Bean");
+		bean.setUniqueId(UUID.randomUUID().toString());
+		bean.setStatus(Status.RUNNING);
+		bean.setPercentComplete(42.5);
+		bean.setSubmissionTime(System.currentTimeMillis());
+		return bean;
+	}
+}
@@ -0,0 +1,223 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.IEventService;
+import org.eclipse.scanning.api.event.core.IConsumer;
+import org.eclipse.scanning.api.event.core.IConsumerProcess;
+import org.eclipse.scanning.api.event.core.IProcessCreator;
+import org.eclipse.scanning.api.event.core.IPublisher;
+import org.eclipse.scanning.api.event.core.ISubmitter;
+import org.eclipse.scanning.api.event.status.Status;
+import org.eclipse.scanning.api.event.status.StatusBean;
+import org.eclipse.scanning.connector.activemq.ActivemqConnectorService;
+import org.eclipse.scanning.event.Constants;
+import org.eclipse.scanning.event.EventServiceImpl;
+import org.eclipse.scanning.test.BrokerTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that a consumer allowed to run more than one process at
+ * a time runs no more than the maximum, and does not run processes
+ * which use the same devices together.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class ConcurrentConsumerTest extends BrokerTest {
+
+	private IEventService          eservice;
+	private ISubmitter<StatusBean> submitter;
+	private IConsumer<StatusBean>  consumer;
+	private String                 statusSetName;
+
+	private final AtomicInteger    current = new AtomicInteger();
+	private final AtomicInteger    peak    = new AtomicInteger();
+	private final Map<String, long[]> times = new ConcurrentHashMap<>();
+	private final List<WeakReference<IConsumerProcess<StatusBean>>> created = new CopyOnWriteArrayList<>();
+
+	@Before
+	public void createServices() throws Exception {
+
+		// We wire things together without OSGi here
+		// DO NOT COPY THIS IN NON-TEST CODE!
+		setUpNonOSGIActivemqMarshaller();
+
+		System.setProperty("org.eclipse.scanning.event.consumer.maximumRunning", "3");
+		Constants.setReceiveFrequency(100);
+
+		eservice      = new EventServiceImpl(new ActivemqConnectorService()); // Do not copy this get the service from OSGi!
+		createConsumer();
+	}
+
+	private void createConsumer() throws EventException {
+		String submitQName = "org.eclipse.scanning.test.concurrentConsumer."+UUID.randomUUID();
+		statusSetName = submitQName+".status";
+		submitter     = eservice.createSubmitter(uri, submitQName);
+		consumer      = eservice.createConsumer(uri, submitQName, statusSetName, IEventService.STATUS_TOPIC, submitQName+".heartbeat", IEventService.CMD_TOPIC);
+		consumer.setName("Concurrent Consumer");
+		consumer.setBeanClass(StatusBean.class);
+		consumer.setRunner(new SleepCreator());
+	}
+
+	@After
+	public void dispose() throws EventException {
+		System.clearProperty("org.eclipse.scanning.event.consumer.maximumRunning");
+		Constants.setNotificationFrequency(2000); // Normally 2000
+		submitter.disconnect();
+		consumer.clearQueue(statusSetName);
+		consumer.disconnect();
+	}
+
+	@Test
+	public void maximumRunning() throws Exception {
+
+		for (int i = 0; i < 6; i++) submit("free"+i);
+		consumer.start();
+
+		awaitComplete(6);
+		assertEquals(3, peak.get());
+		for (int i = 0; i < 10 && consumer.getRunningCount()>0; i++) Thread.sleep(100); // The last may not have returned yet
+		assertEquals(0, consumer.getRunningCount());
+	}
+
+	@Test
+	public void sharedDevicesDoNotRunTogether() throws Exception {
+
+		submit("stage1");
+		submit("stage2");
+		submit("detector");
+		consumer.start();
+
+		awaitComplete(3);
+		long[] stage1 = times.get("stage1"), stage2 = times.get("stage2"), detector = times.get("detector");
+		assertTrue("The processes using the stage overlapped", stage2[0]>=stage1[1]);
+		assertTrue("The process using the detector waited for the stage", detector[0]<stage1[1]);
+	}
+
+	@Test
+	public void finishedProcessesAreForgotten() throws Exception {
+
+		Constants.setNotificationFrequency(60000); // The heartbeat asks for the running count
+		for (int i = 0; i < 6; i++) submit("free"+i);
+		consumer.start();
+
+		awaitComplete(6);
+		awaitCollected(6);
+	}
+
+	@Test
+	public void finishedProcessesAreForgottenRunningOneAtATime() throws Exception {
+
+		consumer.clearQueue(statusSetName);
+		consumer.disconnect();
+		System.clearProperty("org.eclipse.scanning.event.consumer.maximumRunning");
+		createConsumer();
+
+		Constants.setNotificationFrequency(60000); // The heartbeat asks for the running count
+		for (int i = 0; i < 3; i++) submit("free"+i);
+		consumer.start();
+
+		awaitComplete(3);
+		awaitCollected(3);
+	}
+
+	private void submit(String name) throws EventException {
+		StatusBean bean = new StatusBean();
+		bean.setName(name);
+		bean.setUniqueId(UUID.randomUUID().toString());
+		bean.setStatus(Status.SUBMITTED);
+		submitter.submit(bean);
+	}
+
+	private void awaitComplete(int count) throws Exception {
+		for (int i = 0; i < 100 && times.size()<count; i++) Thread.sleep(100);
+		assertEquals(count, times.size());
+		for (long[] time : times.values()) assertTrue(time[1]>0);
+	}
+
+	/**
+	 * Nothing asks the consumer for its running count here, so the processes
+	 * may only be collected if the consumer forgot them when they returned.
+	 */
+	private void awaitCollected(int count) throws Exception {
+		assertEquals(count, created.size());
+		for (int i = 0; i < 100 && created.stream().anyMatch(ref -> ref.get()!=null); i++) {
+			System.gc();
+			Thread.sleep(100);
+		}
+		assertTrue("A finished process is still referenced", created.stream().allMatch(ref -> ref.get()==null));
+	}
+
+	/**
+	 * Runs processes which sleep and use the device at the start of the bean name.
+	 */
+	private class SleepCreator implements IProcessCreator<StatusBean> {
+
+		@Override
+		public IConsumerProcess<StatusBean> createProcess(StatusBean bean, IPublisher<StatusBean> statusNotifier) {
+			final IConsumerProcess<StatusBean> process = new IConsumerProcess<StatusBean>() {
+				@Override
+				public void execute() throws EventException, InterruptedException {
+					final long[] time = new long[]{System.currentTimeMillis(), 0};
+					peak.accumulateAndGet(current.incrementAndGet(), Math::max);
+					try {
+						Thread.sleep(500);
+					} finally {
+						current.decrementAndGet();
+						time[1] = System.currentTimeMillis();
+						times.put(bean.getName(), time);
+					}
+					bean.setStatus(Status.COMPLETE);
+					statusNotifier.broadcast(bean);
+				}
+				@Override
+				public void terminate() throws EventException {
+					// Sleeps are short
+				}
+				@Override
+				public StatusBean getBean() {
+					return bean;
+				}
+				@Override
+				public IPublisher<StatusBean> getPublisher() {
+					return statusNotifier;
+				}
+			};
+			created.add(new WeakReference<>(process));
+			return process;
+		}
+
+		@Override
+		public Collection<String> getResources(StatusBean bean) {
+			if (bean.getName().startsWith("free")) return Collections.emptyList();
+			return Arrays.asList(bean.getName().replaceAll("\\d", ""));
+		}
+	}
+}
@@ -11,17 +11,27 @@
  *******************************************************************************/
 package org.eclipse.scanning.test.event;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.scanning.api.event.EventException;
 import org.eclipse.scanning.api.event.IEventService;
 import org.eclipse.scanning.api.event.alive.HeartbeatBean;
 import org.eclipse.scanning.api.event.alive.HeartbeatEvent;
 import org.eclipse.scanning.api.event.alive.IHeartbeatListener;
+import org.eclipse.scanning.api.event.core.IConsumer;
 import org.eclipse.scanning.api.event.core.IPublisher;
 import org.eclipse.scanning.api.event.core.ISubscriber;
+import org.eclipse.scanning.api.event.dry.DryRunCreator;
+import org.eclipse.scanning.api.event.status.StatusBean;
 import org.eclipse.scanning.connector.activemq.ActivemqConnectorService;
 import org.eclipse.scanning.event.Constants;
 import org.eclipse.scanning.event.EventServiceImpl;
@@ -108,6 +118,43 @@ public class HeartbeatTest extends BrokerTest {
 		System.out.println("Encountered "+gotBack.size()+" beats");
 	}
 
+	@Test
+	public void batchedHeartbeatTest() throws Exception {
+
+		final String topic = "org.eclipse.scanning.test.heartbeat."+UUID.randomUUID();
+		final String queue = "org.eclipse.scanning.test.heartbeat.queue."+UUID.randomUUID();
+		final List<IConsumer<StatusBean>> consumers = new ArrayList<>(3);
+		for (int i = 0; i < 3; i++) {
+			IConsumer<StatusBean> consumer = eservice.createConsumer(uri, queue+i, queue+i+".status", IEventService.STATUS_TOPIC, topic, IEventService.CMD_TOPIC);
+			consumer.setName("Batched Consumer "+i);
+			consumer.setRunner(new DryRunCreator<StatusBean>(false));
+			consumers.add(consumer);
+		}
+
+		final Map<String, Integer> beats  = new ConcurrentHashMap<>();
+		final AtomicBoolean        noHost = new AtomicBoolean();
+		final ISubscriber<IHeartbeatListener> batchSubscriber = eservice.createSubscriber(uri, topic);
+		batchSubscriber.addListener(new IHeartbeatListener() {
+			@Override
+			public void heartbeatPerformed(HeartbeatEvent evt) {
+				beats.merge(evt.getBean().getConsumerName(), 1, Integer::sum);
+				if (evt.getBean().getHostName()==null) noHost.set(true);
+			}
+		});
+
+		try {
+			for (IConsumer<StatusBean> consumer : consumers) consumer.start();
+			Thread.sleep(1000);
+		} finally {
+			for (IConsumer<StatusBean> consumer : consumers) consumer.disconnect();
+			batchSubscriber.disconnect();
+		}
+
+		assertEquals(3, beats.size());
+		assertTrue("The host of a batched heartbeat was not set", !noHost.get());
+		for (Integer count : beats.values()) assertTrue("Not enough heartbeats were detected!", count>=5);
+	}
+
 	@Test
 	public void timeoutHeartbeatTest() throws Exception {
 
@@ -0,0 +1,199 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.apache.activemq.broker.BrokerRegistry;
+import org.apache.activemq.broker.region.Destination;
+import org.apache.activemq.command.ActiveMQTopic;
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.IEventService;
+import org.eclipse.scanning.api.event.bean.BeanEvent;
+import org.eclipse.scanning.api.event.bean.IBeanListener;
+import org.eclipse.scanning.api.event.core.IPublisher;
+import org.eclipse.scanning.api.event.core.ISubscriber;
+import org.eclipse.scanning.api.event.status.Status;
+import org.eclipse.scanning.api.event.status.StatusBean;
+import org.eclipse.scanning.connector.activemq.ActivemqConnectorService;
+import org.eclipse.scanning.event.EventServiceImpl;
+import org.eclipse.scanning.test.BrokerTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that publishers and subscribers connected to a broker in the
+ * same JVM with a vm:// uri pass events directly, once each, and that
+ * clients connected to the broker with tcp still get them. Events are
+ * only sent to the broker if something other than the local subscribers
+ * consumes the topic.
+ *
+ * The broker started for the test is called localhost so vm://localhost
+ * connects to it.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class LocalBusTest extends BrokerTest {
+
+	private IEventService   eservice;
+	private URI             vmUri;
+	private String          topic;
+
+	private final List<ISubscriber<?>> subscribers = new ArrayList<>();
+
+	@Before
+	public void createServices() throws Exception {
+
+		// We wire things together without OSGi here
+		// DO NOT COPY THIS IN NON-TEST CODE!
+		setUpNonOSGIActivemqMarshaller();
+
+		eservice = new EventServiceImpl(new ActivemqConnectorService()); // Do not copy this get the service from OSGi!
+		vmUri    = new URI("vm://localhost?create=false");
+		topic    = "org.eclipse.scanning.test.localBus."+UUID.randomUUID();
+	}
+
+	@After
+	public void dispose() throws EventException {
+		for (ISubscriber<?> subscriber : subscribers) subscriber.disconnect();
+	}
+
+	@Test
+	public void localSubscriberGetsEachEventOnce() throws Exception {
+		final List<Double> received = subscribe(vmUri);
+		publish(vmUri, 20);
+		assertReceived(received, 20);
+	}
+
+	@Test
+	public void tcpSubscriberGetsLocalEvents() throws Exception {
+		final List<Double> local  = subscribe(vmUri);
+		final List<Double> remote = subscribe(uri);
+		publish(vmUri, 20);
+		assertReceived(local, 20);
+		assertReceived(remote, 20);
+	}
+
+	@Test
+	public void localSubscriberGetsTcpEvents() throws Exception {
+		final List<Double> received = subscribe(vmUri);
+		publish(uri, 20);
+		assertReceived(received, 20);
+	}
+
+	@Test
+	public void localSubscribersHaveTheirOwnCopy() throws Exception {
+		final List<StatusBean> first  = Collections.synchronizedList(new ArrayList<>());
+		final List<StatusBean> second = Collections.synchronizedList(new ArrayList<>());
+		subscribe(vmUri, first);
+		subscribe(vmUri, second);
+
+		final StatusBean bean = publish(vmUri, 1);
+		for (int i = 0; i < 50 && (first.isEmpty() || second.isEmpty()); i++) Thread.sleep(100);
+
+		assertEquals(1, first.size());
+		assertEquals(1, second.size());
+		assertNotSame(first.get(0), second.get(0));
+		assertNotSame(bean, first.get(0));
+		assertEquals(first.get(0), second.get(0));
+
+		// A listener changing its bean does not change what the others see.
+		first.get(0).setStatus(Status.FAILED);
+		assertEquals(Status.RUNNING, second.get(0).getStatus());
+	}
+
+	@Test
+	public void brokerNotSentToWithoutOtherConsumers() throws Exception {
+		final List<Double> received = subscribe(vmUri);
+		publish(vmUri, 20);
+		assertReceived(received, 20);
+		assertEquals(0, getEnqueueCount());
+
+		final List<Double> remote = subscribe(uri);
+		publish(vmUri, 20);
+		assertReceived(remote, 20);
+		assertEquals(20, getEnqueueCount());
+	}
+
+	private long getEnqueueCount() throws Exception {
+		long count = 0;
+		for (Destination destination : BrokerRegistry.getInstance().lookup("localhost").getRegionBroker().getDestinations(new ActiveMQTopic(topic))) {
+			count += destination.getDestinationStatistics().getEnqueues().getCount();
+		}
+		return count;
+	}
+
+	private void subscribe(URI uri, List<StatusBean> received) throws EventException {
+		final ISubscriber<IBeanListener<StatusBean>> subscriber = eservice.createSubscriber(uri, topic);
+		subscriber.addListener(new IBeanListener<StatusBean>() {
+			@Override
+			public void beanChangePerformed(BeanEvent<StatusBean> evt) {
+				received.add(evt.getBean());
+			}
+			@Override
+			public Class<StatusBean> getBeanClass() {
+				return StatusBean.class;
+			}
+		});
+		subscribers.add(subscriber);
+	}
+
+	private List<Double> subscribe(URI uri) throws EventException {
+		final List<Double> received = Collections.synchronizedList(new ArrayList<>());
+		final ISubscriber<IBeanListener<StatusBean>> subscriber = eservice.createSubscriber(uri, topic);
+		subscriber.addListener(new IBeanListener<StatusBean>() {
+			@Override
+			public void beanChangePerformed(BeanEvent<StatusBean> evt) {
+				received.add(evt.getBean().getPercentComplete());
+			}
+			@Override
+			public Class<StatusBean> getBeanClass() {
+				return StatusBean.class;
+			}
+		});
+		subscribers.add(subscriber);
+		return received;
+	}
+
+	private StatusBean publish(URI uri, int count) throws Exception {
+		final IPublisher<StatusBean> publisher = eservice.createPublisher(uri, topic);
+		try {
+			StatusBean bean = new StatusBean();
+			bean.setName("Local Bean");
+			bean.setUniqueId(UUID.randomUUID().toString());
+			bean.setStatus(Status.RUNNING);
+			for (int i = 1; i <= count; i++) {
+				bean.setPercentComplete(i); // The same bean changes as it is sent, as in a scan.
+				publisher.broadcast(bean);
+			}
+			return bean;
+		} finally {
+			publisher.disconnect();
+		}
+	}
+
+	private static void assertReceived(List<Double> received, int count) throws InterruptedException {
+		for (int i = 0; i < 50 && received.size()<count; i++) Thread.sleep(100);
+		Thread.sleep(200); // Any copies of the events from the broker would arrive.
+		assertEquals(count, received.size());
+		for (int i = 0; i < count; i++) assertEquals(i+1, received.get(i), 0.0001);
+	}
+}
@@ -0,0 +1,177 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.IEventService;
+import org.eclipse.scanning.api.event.core.IPublisher;
+import org.eclipse.scanning.api.event.core.IRequestHandler;
+import org.eclipse.scanning.api.event.core.IRequester;
+import org.eclipse.scanning.api.event.core.IResponder;
+import org.eclipse.scanning.api.event.scan.DeviceRequest;
+import org.eclipse.scanning.connector.activemq.ActivemqConnectorService;
+import org.eclipse.scanning.event.EventServiceImpl;
+import org.eclipse.scanning.test.BrokerTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that requesters share their connections and route
+ * responses to the right request when many are in flight.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class RequesterTest extends BrokerTest {
+
+	private IEventService             eservice;
+	private IRequester<DeviceRequest> requester;
+	private IResponder<DeviceRequest> responder;
+	private String                    requestTopic, responseTopic;
+
+	@Before
+	public void createServices() throws Exception {
+
+		// We wire things together without OSGi here
+		// DO NOT COPY THIS IN NON-TEST CODE!
+		setUpNonOSGIActivemqMarshaller();
+
+		eservice = new EventServiceImpl(new ActivemqConnectorService()); // Do not copy this get the service from OSGi!
+
+		final String root = "org.eclipse.scanning.test.requester."+UUID.randomUUID();
+		requestTopic  = root+".request";
+		responseTopic = root+".response";
+
+		responder = eservice.createResponder(uri, requestTopic, responseTopic);
+		responder.setResponseCreator((bean, publisher) -> new EchoHandler(bean, publisher));
+
+		requester = eservice.createRequestor(uri, requestTopic, responseTopic);
+		requester.setTimeout(5, TimeUnit.SECONDS);
+	}
+
+	@After
+	public void dispose() throws EventException {
+		requester.disconnect();
+		responder.disconnect();
+	}
+
+	private static class EchoHandler implements IRequestHandler<DeviceRequest> {
+
+		private final DeviceRequest              bean;
+		private final IPublisher<DeviceRequest>  publisher;
+
+		EchoHandler(DeviceRequest bean, IPublisher<DeviceRequest> publisher) {
+			this.bean      = bean;
+			this.publisher = publisher;
+		}
+
+		@Override
+		public DeviceRequest getBean() {
+			return bean;
+		}
+
+		@Override
+		public IPublisher<DeviceRequest> getPublisher() {
+			return publisher;
+		}
+
+		@Override
+		public DeviceRequest process(DeviceRequest request) throws EventException {
+			request.setDeviceValue(request.getDeviceName()+" replied");
+			return request;
+		}
+	}
+
+	@Test
+	public void post() throws Exception {
+		DeviceRequest req = requester.post(new DeviceRequest("fred"));
+		assertEquals("fred replied", req.getDeviceValue());
+	}
+
+	@Test
+	public void postAfterDisconnect() throws Exception {
+		assertEquals("fred replied", requester.post(new DeviceRequest("fred")).getDeviceValue());
+		requester.disconnect();
+		assertEquals("bill replied", requester.post(new DeviceRequest("bill")).getDeviceValue());
+	}
+
+	@Test
+	public void manyRequestersShareResponses() throws Exception {
+
+		List<IRequester<DeviceRequest>> requesters = new ArrayList<>();
+		try {
+			for (int i = 0; i < 10; i++) {
+				IRequester<DeviceRequest> r = eservice.createRequestor(uri, requestTopic, responseTopic);
+				r.setTimeout(5, TimeUnit.SECONDS);
+				requesters.add(r);
+			}
+			for (int i = 0; i < requesters.size(); i++) {
+				DeviceRequest req = requesters.get(i).post(new DeviceRequest("device"+i));
+				assertEquals("device"+i+" replied", req.getDeviceValue());
+			}
+		} finally {
+			for (IRequester<DeviceRequest> r : requesters) r.disconnect();
+		}
+	}
+
+	@Test
+	public void pipelinedRequests() throws Exception {
+
+		List<CompletableFuture<DeviceRequest>> futures = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			futures.add(requester.postAsync(new DeviceRequest("device"+i)));
+		}
+		for (int i = 0; i < futures.size(); i++) {
+			DeviceRequest req = futures.get(i).get(10, TimeUnit.SECONDS);
+			assertEquals("device"+i+" replied", req.getDeviceValue());
+		}
+	}
+
+	@Test
+	public void asyncTimeout() throws Exception {
+
+		IRequester<DeviceRequest> nobody = eservice.createRequestor(uri, requestTopic+".nobody", responseTopic+".nobody");
+		nobody.setTimeout(200, TimeUnit.MILLISECONDS);
+		try {
+			nobody.postAsync(new DeviceRequest("fred")).get(5, TimeUnit.SECONDS);
+			fail("The request should have timed out!");
+		} catch (ExecutionException expected) {
+			assertTrue(expected.getCause() instanceof EventException);
+		} finally {
+			nobody.disconnect();
+		}
+	}
+
+	@Test(expected=EventException.class)
+	public void postTimeout() throws Exception {
+
+		IRequester<DeviceRequest> nobody = eservice.createRequestor(uri, requestTopic+".nobody", responseTopic+".nobody");
+		nobody.setTimeout(200, TimeUnit.MILLISECONDS);
+		try {
+			nobody.post(new DeviceRequest("fred"));
+		} finally {
+			nobody.disconnect();
+		}
+	}
+}
@@ -0,0 +1,241 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.IEventService;
+import org.eclipse.scanning.api.event.core.IPublisher;
+import org.eclipse.scanning.api.event.core.IRequestHandler;
+import org.eclipse.scanning.api.event.core.IRequester;
+import org.eclipse.scanning.api.event.core.IResponder;
+import org.eclipse.scanning.api.event.core.IResponseCreator;
+import org.eclipse.scanning.api.event.scan.DeviceRequest;
+import org.eclipse.scanning.connector.activemq.ActivemqConnectorService;
+import org.eclipse.scanning.event.EventServiceImpl;
+import org.eclipse.scanning.test.BrokerTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that a responder which is not synchronous processes the requests
+ * for one device in order and those for different devices at the same time,
+ * and that it gives up on requests which are not processed in time.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class ResponderConcurrencyTest extends BrokerTest {
+
+	private static final long PROCESS_TIME = 300;
+
+	private IEventService             eservice;
+	private IRequester<DeviceRequest> requester;
+	private IResponder<DeviceRequest> responder;
+
+	private final AtomicInteger        running    = new AtomicInteger();
+	private final AtomicInteger        maxRunning = new AtomicInteger();
+	private final Map<String, Integer> maxRunningPerDevice = new ConcurrentHashMap<>();
+	private final Map<String, AtomicInteger> runningPerDevice = new ConcurrentHashMap<>();
+	private final List<Object>         processed  = Collections.synchronizedList(new ArrayList<>());
+
+	@Before
+	public void createServices() throws Exception {
+
+		// We wire things together without OSGi here
+		// DO NOT COPY THIS IN NON-TEST CODE!
+		setUpNonOSGIActivemqMarshaller();
+
+		eservice = new EventServiceImpl(new ActivemqConnectorService()); // Do not copy this get the service from OSGi!
+
+		final String root = "org.eclipse.scanning.test.responder."+UUID.randomUUID();
+		System.setProperty("org.eclipse.scanning.event.responder.threads", "4");
+
+		responder = eservice.createResponder(uri, root+".request", root+".response");
+		responder.setResponseCreator(new IResponseCreator<DeviceRequest>() {
+			@Override
+			public IRequestHandler<DeviceRequest> createResponder(DeviceRequest bean, IPublisher<DeviceRequest> publisher) throws EventException {
+				return new SlowHandler(bean, publisher);
+			}
+			@Override
+			public boolean isSynchronous() {
+				return false;
+			}
+			@Override
+			public Object getKey(DeviceRequest bean) {
+				return bean.getDeviceName();
+			}
+			@Override
+			public DeviceRequest createErrorResponse(DeviceRequest bean, String message) {
+				DeviceRequest error = new DeviceRequest();
+				error.merge(bean);
+				error.setErrorMessage(message);
+				return error;
+			}
+		});
+
+		requester = eservice.createRequestor(uri, root+".request", root+".response");
+		requester.setTimeout(10, TimeUnit.SECONDS);
+	}
+
+	@After
+	public void dispose() throws EventException {
+		System.clearProperty("org.eclipse.scanning.event.responder.threads");
+		System.clearProperty("org.eclipse.scanning.event.responder.timeout");
+		requester.disconnect();
+		responder.disconnect();
+	}
+
+	private class SlowHandler implements IRequestHandler<DeviceRequest> {
+
+		private final DeviceRequest              bean;
+		private final IPublisher<DeviceRequest>  publisher;
+
+		SlowHandler(DeviceRequest bean, IPublisher<DeviceRequest> publisher) {
+			this.bean      = bean;
+			this.publisher = publisher;
+		}
+
+		@Override
+		public DeviceRequest getBean() {
+			return bean;
+		}
+
+		@Override
+		public IPublisher<DeviceRequest> getPublisher() {
+			return publisher;
+		}
+
+		@Override
+		public DeviceRequest process(DeviceRequest request) throws EventException {
+
+			final String name = request.getDeviceName();
+			final int device  = runningPerDevice.computeIfAbsent(name, n -> new AtomicInteger()).incrementAndGet();
+			maxRunningPerDevice.merge(name, device, Math::max);
+			maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+			try {
+				processed.add(request.getDeviceValue());
+				Thread.sleep(PROCESS_TIME);
+			} catch (InterruptedException e) {
+				throw new EventException(e);
+			} finally {
+				running.decrementAndGet();
+				runningPerDevice.get(name).decrementAndGet();
+			}
+			return request;
+		}
+	}
+
+	@Test
+	public void sameDeviceInOrder() throws Exception {
+
+		final List<CompletableFuture<DeviceRequest>> futures = new ArrayList<>();
+		for (int i = 0; i < 5; i++) futures.add(requester.postAsync(request("fred", i)));
+		for (CompletableFuture<DeviceRequest> future : futures) future.get(10, TimeUnit.SECONDS);
+
+		assertEquals(1, maxRunningPerDevice.get("fred").intValue());
+		assertEquals(5, processed.size());
+		for (int i = 0; i < 5; i++) assertEquals(i, ((Number)processed.get(i)).intValue());
+	}
+
+	@Test
+	public void differentDevicesInParallel() throws Exception {
+
+		final long start = System.currentTimeMillis();
+		final List<CompletableFuture<DeviceRequest>> futures = new ArrayList<>();
+		for (int i = 0; i < 4; i++) futures.add(requester.postAsync(request("device"+i, i)));
+		for (CompletableFuture<DeviceRequest> future : futures) future.get(10, TimeUnit.SECONDS);
+		final long time = System.currentTimeMillis()-start;
+
+		assertTrue("The devices were not processed at the same time", maxRunning.get()>1);
+		assertTrue("Processing took "+time+"ms", time < 4*PROCESS_TIME);
+		for (int i = 0; i < 4; i++) assertEquals(1, maxRunningPerDevice.get("device"+i).intValue());
+	}
+
+	@Test
+	public void queueDepthAndTimeout() throws Exception {
+
+		// The first two requests are processed in time, the others are cancelled or dropped.
+		System.setProperty("org.eclipse.scanning.event.responder.timeout", String.valueOf(5*PROCESS_TIME/2));
+
+		requester.setTimeout(2, TimeUnit.SECONDS);
+		final List<CompletableFuture<DeviceRequest>> futures = new ArrayList<>();
+		for (int i = 0; i < 4; i++) futures.add(requester.postAsync(request("fred", i)));
+
+		for (int i = 0; i < 50 && responder.getPeakQueueDepth()<2; i++) Thread.sleep(10);
+		assertTrue("The queue depth was "+responder.getPeakQueueDepth(), responder.getPeakQueueDepth()>=2);
+
+		for (int i = 0; i < 4; i++) {
+			final DeviceRequest response = futures.get(i).get(2, TimeUnit.SECONDS);
+			assertEquals("Request "+i, i>1, response.getErrorMessage()!=null);
+		}
+		assertEquals(0, responder.getQueueDepth());
+		assertEquals(2, responder.getTimedOutCount());
+	}
+
+	@Test
+	public void slowProcessingIsAnsweredWithAnError() throws Exception {
+
+		// Processing a request takes longer than this.
+		System.setProperty("org.eclipse.scanning.event.responder.timeout", String.valueOf(PROCESS_TIME/2));
+
+		requester.setTimeout(2, TimeUnit.SECONDS);
+		final DeviceRequest response = requester.post(request("fred", 0));
+
+		assertNotNull("The response has no error", response.getErrorMessage());
+		assertEquals(1, responder.getTimedOutCount());
+		assertEquals("The processing was interrupted", 1, running.get());
+		for (int i = 0; i < 50 && running.get()>0; i++) Thread.sleep(10);
+		assertEquals(0, running.get());
+	}
+
+	@Test
+	public void slowProcessingHoldsItsDevice() throws Exception {
+
+		// The first request overruns this, the second arrives while it is still being processed.
+		System.setProperty("org.eclipse.scanning.event.responder.timeout", String.valueOf(3*PROCESS_TIME/4));
+
+		requester.setTimeout(2, TimeUnit.SECONDS);
+		final CompletableFuture<DeviceRequest> first = requester.postAsync(request("fred", 0));
+		for (int i = 0; i < 100 && running.get()==0; i++) Thread.sleep(10);
+		Thread.sleep(PROCESS_TIME/2);
+		final CompletableFuture<DeviceRequest> second = requester.postAsync(request("fred", 1));
+
+		assertNotNull("The response has no error", first.get(2, TimeUnit.SECONDS).getErrorMessage());
+		second.get(2, TimeUnit.SECONDS);
+		for (int i = 0; i < 100 && (processed.size()<2 || running.get()>0); i++) Thread.sleep(10);
+
+		assertEquals(2, processed.size());
+		for (int i = 0; i < 2; i++) assertEquals(i, ((Number)processed.get(i)).intValue());
+		assertEquals(1, maxRunningPerDevice.get("fred").intValue());
+	}
+
+	private static DeviceRequest request(String name, int index) {
+		DeviceRequest req = new DeviceRequest(name);
+		req.setDeviceValue(index);
+		return req;
+	}
+}
@@ -44,9 +44,12 @@ import org.eclipse.scanning.api.event.scan.DeviceValueMultiPosition;
 import org.eclipse.scanning.api.event.scan.ScanBean;
 import org.eclipse.scanning.api.event.scan.ScanRequest;
 import org.eclipse.scanning.api.event.status.Status;
+import org.eclipse.scanning.api.points.ArrayPosition;
+import org.eclipse.scanning.api.points.AxisNames;
 import org.eclipse.scanning.api.points.IPosition;
 import org.eclipse.scanning.api.points.MapPosition;
 import org.eclipse.scanning.api.points.Point;
+import org.eclipse.scanning.api.points.Scalar;
 import org.eclipse.scanning.api.points.models.BoundingBox;
 import org.eclipse.scanning.api.points.models.CompoundModel;
 import org.eclipse.scanning.api.points.models.GridModel;
@@ -130,6 +133,40 @@ public class SerializationTest {
 
 	}
 
+	@Test
+	public void testScanBeanArrayPosition() throws Exception {
+		IPosition pos = new ArrayPosition(new AxisNames("x", "y", "z"), new double[]{1, 2, 3}, new int[]{0, 1, 2});
+		pos.setStepIndex(12);
+		checkScanBeanPosition(pos);
+		checkScanBeanPosition(MapPosition.copyOf(pos));
+	}
+
+	@Test
+	public void testScanBeanCompoundPosition() throws Exception {
+		IPosition inner = new ArrayPosition(new AxisNames("x", "y"), new double[]{1.5, 2.5}, new int[]{4, 5});
+		IPosition pos   = inner.compound(new Scalar<>("T", 3, 290.0));
+		pos.setStepIndex(12);
+		checkScanBeanPosition(pos);
+		checkScanBeanPosition(MapPosition.copyOf(pos));
+	}
+
+	private void checkScanBeanPosition(IPosition pos) throws Exception {
+		final ScanBean sent = new ScanBean();
+		sent.setDeviceName("detector");
+		sent.setPoint(12);
+		sent.setSize(25);
+		sent.setPosition(pos);
+		sent.setDeviceState(DeviceState.RUNNING);
+		sent.setUniqueId(UUID.randomUUID().toString());
+
+		String json = service.marshal(sent);
+
+		ScanBean ret = service.unmarshal(json, ScanBean.class);
+		assertEquals(sent, ret);
+		assertEquals(pos, ret.getPosition());
+		assertEquals(pos.getIndices(), ret.getPosition().getIndices());
+	}
+
 	@Test
 	public void testScanBeanSerializationWithJava() throws Exception {
 
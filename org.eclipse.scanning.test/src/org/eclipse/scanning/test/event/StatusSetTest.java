@@ -0,0 +1,182 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.event;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.IEventService;
+import org.eclipse.scanning.api.event.core.IPublisher;
+import org.eclipse.scanning.api.event.core.IQueueReader;
+import org.eclipse.scanning.api.event.core.ISubmitter;
+import org.eclipse.scanning.api.event.status.Status;
+import org.eclipse.scanning.api.event.status.StatusBean;
+import org.eclipse.scanning.connector.activemq.ActivemqConnectorService;
+import org.eclipse.scanning.event.EventServiceImpl;
+import org.eclipse.scanning.test.BrokerTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that the status set holds exactly one, up to date,
+ * copy of each bean broadcast by a publisher.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class StatusSetTest extends BrokerTest {
+
+	private IEventService         eservice;
+	private IPublisher<StatusBean> publisher;
+	private String                setName;
+
+	@Before
+	public void createServices() throws Exception {
+
+		// We wire things together without OSGi here
+		// DO NOT COPY THIS IN NON-TEST CODE!
+		setUpNonOSGIActivemqMarshaller();
+
+		eservice  = new EventServiceImpl(new ActivemqConnectorService()); // Do not copy this get the service from OSGi!
+		setName   = "org.eclipse.scanning.test.statusSet."+UUID.randomUUID();
+		publisher = eservice.createPublisher(uri, IEventService.STATUS_TOPIC);
+		publisher.setStatusSetName(setName);
+		publisher.setStatusSetAddRequired(true);
+	}
+
+	@After
+	public void dispose() throws EventException {
+		publisher.disconnect();
+	}
+
+	@Test
+	public void progressIsCoalesced() throws Exception {
+
+		final StatusBean bean = createBean("progress");
+		publisher.broadcast(bean);
+
+		bean.setStatus(Status.RUNNING);
+		for (int i = 0; i <= 100; i++) {
+			bean.setPercentComplete(i);
+			publisher.broadcast(bean);
+		}
+		Thread.sleep(1000); // More than one flush period.
+
+		StatusBean inset = getOnlyBean();
+		assertEquals(Status.RUNNING, inset.getStatus());
+		assertEquals(100d, inset.getPercentComplete(), 0.0001);
+
+		bean.setStatus(Status.COMPLETE);
+		publisher.broadcast(bean);
+		assertEquals(Status.COMPLETE, getOnlyBean().getStatus());
+	}
+
+	@Test
+	public void statusChangeIsWrittenImmediately() throws Exception {
+
+		final StatusBean bean = createBean("transitions");
+		publisher.broadcast(bean);
+		assertEquals(Status.SUBMITTED, getOnlyBean().getStatus());
+
+		bean.setStatus(Status.RUNNING);
+		publisher.broadcast(bean);
+		assertEquals(Status.RUNNING, getOnlyBean().getStatus());
+
+		bean.setStatus(Status.FAILED);
+		publisher.broadcast(bean);
+		assertEquals(Status.FAILED, getOnlyBean().getStatus());
+	}
+
+	@Test
+	public void beanAddedElsewhereIsReplaced() throws Exception {
+
+		final StatusBean bean = createBean("added by submitter");
+		ISubmitter<StatusBean> submitter = eservice.createSubmitter(uri, setName);
+		try {
+			submitter.submit(bean);
+		} finally {
+			submitter.disconnect();
+		}
+
+		bean.setStatus(Status.RUNNING);
+		publisher.broadcast(bean);
+		assertEquals(Status.RUNNING, getOnlyBean().getStatus());
+	}
+
+	@Test
+	public void beanNotInSetIsLookedForWhenItsStatusChanges() throws Exception {
+
+		publisher.setStatusSetAddRequired(false);
+		final StatusBean bean = createBean("not in the set");
+		bean.setStatus(Status.RUNNING);
+		publisher.broadcast(bean);
+		for (int i = 0; i <= 10; i++) {
+			bean.setPercentComplete(i);
+			publisher.broadcast(bean);
+			Thread.sleep(100); // Flushes some of them.
+		}
+		assertEquals(0, getBeans().size());
+
+		ISubmitter<StatusBean> submitter = eservice.createSubmitter(uri, setName);
+		try {
+			submitter.submit(bean);
+		} finally {
+			submitter.disconnect();
+		}
+
+		bean.setStatus(Status.COMPLETE);
+		publisher.broadcast(bean);
+		assertEquals(Status.COMPLETE, getOnlyBean().getStatus());
+	}
+
+	@Test
+	public void disconnectWritesPendingProgress() throws Exception {
+
+		final StatusBean bean = createBean("disconnect");
+		bean.setStatus(Status.RUNNING);
+		publisher.broadcast(bean);
+
+		bean.setPercentComplete(42);
+		publisher.broadcast(bean);
+		publisher.disconnect();
+
+		assertEquals(42d, getOnlyBean().getPercentComplete(), 0.0001);
+	}
+
+	private StatusBean createBean(String name) {
+		final StatusBean bean = new StatusBean();
+		bean.setName(name);
+		bean.setUniqueId(UUID.randomUUID().toString());
+		bean.setStatus(Status.SUBMITTED);
+		return bean;
+	}
+
+	private StatusBean getOnlyBean() throws EventException {
+		List<StatusBean> beans = getBeans();
+		assertEquals(1, beans.size());
+		return beans.get(0);
+	}
+
+	private List<StatusBean> getBeans() throws EventException {
+		IQueueReader<StatusBean> reader = eservice.createQueueReader(uri, setName);
+		try {
+			reader.setBeanClass(StatusBean.class);
+			return reader.getQueue();
+		} finally {
+			reader.disconnect();
+		}
+	}
+}
@@ -0,0 +1,226 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.IEventService;
+import org.eclipse.scanning.api.event.core.IConsumer;
+import org.eclipse.scanning.api.event.core.ISubmitter;
+import org.eclipse.scanning.api.event.dry.FastRunCreator;
+import org.eclipse.scanning.api.event.status.Status;
+import org.eclipse.scanning.api.event.status.StatusBean;
+import org.eclipse.scanning.connector.activemq.ActivemqConnectorService;
+import org.eclipse.scanning.event.Constants;
+import org.eclipse.scanning.event.EventServiceImpl;
+import org.eclipse.scanning.test.BrokerTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Checks that the beans a consumer has taken into its journaled
+ * submission queue may be changed and are run after a restart.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class SubmissionJournalTest extends BrokerTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private IEventService          eservice;
+	private ISubmitter<StatusBean> submitter;
+	private IConsumer<StatusBean>  consumer;
+	private String                 submitQName, statusSetName;
+
+	@Before
+	public void createServices() throws Exception {
+
+		// We wire things together without OSGi here
+		// DO NOT COPY THIS IN NON-TEST CODE!
+		setUpNonOSGIActivemqMarshaller();
+
+		System.setProperty("org.eclipse.scanning.event.submission.journal", folder.getRoot().getAbsolutePath());
+		Constants.setReceiveFrequency(100);
+
+		eservice      = new EventServiceImpl(new ActivemqConnectorService()); // Do not copy this get the service from OSGi!
+		submitQName   = "org.eclipse.scanning.test.submissionJournal."+UUID.randomUUID();
+		statusSetName = submitQName+".status";
+		submitter     = eservice.createSubmitter(uri, submitQName);
+		consumer      = createConsumer();
+	}
+
+	@After
+	public void dispose() throws EventException {
+		System.clearProperty("org.eclipse.scanning.event.submission.journal");
+		submitter.disconnect();
+		consumer.clearQueue(statusSetName);
+		consumer.disconnect();
+	}
+
+	@Test
+	public void reorderAndRemoveWhileRunning() throws Exception {
+
+		final List<StatusBean> beans = submit(4);
+		consumer.setRunner(new FastRunCreator<StatusBean>(0, 100, 10, 200, true));
+		consumer.start();
+
+		// The first runs while the others wait in the consumer.
+		awaitSubmissionQueue(3);
+		consumer.reorder(beans.get(3), submitQName, 2);
+		assertEquals(names(beans.get(3), beans.get(1), beans.get(2)), names(consumer.getSubmissionQueue()));
+
+		assertTrue(consumer.remove(beans.get(2), submitQName));
+		assertEquals(names(beans.get(3), beans.get(1)), names(consumer.getSubmissionQueue()));
+
+		awaitSubmissionQueue(0);
+		Thread.sleep(3000);
+		for (StatusBean bean : consumer.getStatusSet()) {
+			assertTrue(!bean.getUniqueId().equals(beans.get(2).getUniqueId()));
+			assertEquals(Status.COMPLETE, bean.getStatus());
+		}
+		assertEquals(3, consumer.getStatusSet().size());
+	}
+
+	@Test
+	public void reorderFromAnotherSubmitter() throws Exception {
+
+		final List<StatusBean> beans = submit(4);
+		consumer.setRunner(new FastRunCreator<StatusBean>(0, 100, 10, 200, true));
+		consumer.start();
+		awaitSubmissionQueue(3);
+
+		// A client, like the queue view, which only knows the name of the queue.
+		final ISubmitter<StatusBean> other = eservice.createSubmitter(uri, submitQName);
+		try {
+			assertEquals(names(beans.get(1), beans.get(2), beans.get(3)), names(other.getQueue()));
+
+			assertTrue(other.reorder(beans.get(3), 2));
+			assertEquals(names(beans.get(3), beans.get(1), beans.get(2)), names(other.getQueue()));
+			assertEquals(names(beans.get(3), beans.get(1), beans.get(2)), names(consumer.getSubmissionQueue()));
+
+			assertTrue(other.remove(beans.get(1)));
+			assertEquals(names(beans.get(3), beans.get(2)), names(other.getQueue()));
+
+			other.clearQueue(submitQName);
+			assertEquals(0, other.getQueue().size());
+			assertEquals(0, consumer.getSubmissionQueue().size());
+		} finally {
+			other.disconnect();
+		}
+	}
+
+	@Test
+	public void journaledBeansRunAfterRestart() throws Exception {
+
+		final List<StatusBean> beans = submit(3);
+		consumer.setRunner(new FastRunCreator<StatusBean>(0, 100, 10, 200, true));
+		consumer.start();
+		awaitSubmissionQueue(2);
+		consumer.disconnect();
+
+		consumer = createConsumer();
+		consumer.setRunner(new FastRunCreator<StatusBean>(0, 100, 10, 10, true));
+		consumer.start();
+		consumer.awaitStart(); // Until it has read back the journal, before that the queue on the broker is empty.
+		awaitSubmissionQueue(0);
+		Thread.sleep(1000);
+
+		final List<String> complete = new ArrayList<>();
+		for (StatusBean bean : consumer.getStatusSet()) {
+			if (bean.getStatus()==Status.COMPLETE) complete.add(bean.getName());
+		}
+		assertTrue(complete.contains(beans.get(1).getName()));
+		assertTrue(complete.contains(beans.get(2).getName()));
+	}
+
+	@Test
+	public void truncatedJournalIsRead() throws Exception {
+
+		final List<StatusBean> beans = submit(3);
+		consumer.setRunner(new FastRunCreator<StatusBean>(0, 100, 10, 200, true));
+		consumer.start();
+		awaitSubmissionQueue(2);
+		consumer.disconnect();
+
+		// The process stopped part way through writing a record, before the space after its key.
+		final Path journal = folder.getRoot().toPath().resolve(submitQName+".journal");
+		Files.write(journal, "P 3".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+		consumer = createConsumer();
+		consumer.setRunner(new FastRunCreator<StatusBean>(0, 100, 10, 10, true));
+		consumer.start();
+		consumer.awaitStart(); // Until it has read back the journal, before that the queue on the broker is empty.
+		awaitSubmissionQueue(0);
+		Thread.sleep(1000);
+
+		final List<String> complete = new ArrayList<>();
+		for (StatusBean bean : consumer.getStatusSet()) {
+			if (bean.getStatus()==Status.COMPLETE) complete.add(bean.getName());
+		}
+		assertTrue(complete.contains(beans.get(1).getName()));
+		assertTrue(complete.contains(beans.get(2).getName()));
+	}
+
+	private IConsumer<StatusBean> createConsumer() throws EventException {
+		IConsumer<StatusBean> consumer = eservice.createConsumer(uri, submitQName, statusSetName, IEventService.STATUS_TOPIC, IEventService.HEARTBEAT_TOPIC, IEventService.CMD_TOPIC);
+		consumer.setName("Test Consumer");
+		consumer.setBeanClass(StatusBean.class);
+		return consumer;
+	}
+
+	private List<StatusBean> submit(int count) throws EventException {
+		final List<StatusBean> beans = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			StatusBean bean = new StatusBean();
+			bean.setName("Bean "+i);
+			bean.setUniqueId(UUID.randomUUID().toString());
+			bean.setStatus(Status.SUBMITTED);
+			submitter.submit(bean);
+			beans.add(bean);
+		}
+		return beans;
+	}
+
+	private void awaitSubmissionQueue(int size) throws Exception {
+		int actual = consumer.getSubmissionQueue().size();
+		for (int i = 0; i < 100 && actual!=size; i++) {
+			Thread.sleep(100);
+			actual = consumer.getSubmissionQueue().size();
+		}
+		assertEquals(size, actual);
+	}
+
+	private static List<String> names(StatusBean... beans) {
+		final List<String> names = new ArrayList<>(beans.length);
+		for (StatusBean bean : beans) names.add(bean.getName());
+		return names;
+	}
+
+	private static List<String> names(List<StatusBean> beans) {
+		return names(beans.toArray(new StatusBean[beans.size()]));
+	}
+}
@@ -0,0 +1,186 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.IEventService;
+import org.eclipse.scanning.api.event.bean.BeanEvent;
+import org.eclipse.scanning.api.event.bean.IBeanListener;
+import org.eclipse.scanning.api.event.core.IPublisher;
+import org.eclipse.scanning.api.event.core.ISubscriber;
+import org.eclipse.scanning.api.event.status.Status;
+import org.eclipse.scanning.api.event.status.StatusBean;
+import org.eclipse.scanning.connector.activemq.ActivemqConnectorService;
+import org.eclipse.scanning.event.EventServiceImpl;
+import org.eclipse.scanning.test.BrokerTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that a subscriber which is not synchronous passes the
+ * events of each bean in order, on a bounded number of threads.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class SubscriberDispatchTest extends BrokerTest {
+
+	private IEventService                           eservice;
+	private IPublisher<StatusBean>                  publisher;
+	private ISubscriber<IBeanListener<StatusBean>>  subscriber;
+	private String                                  topic;
+
+	private final Map<String, List<Double>> received = new ConcurrentHashMap<>();
+	private final Set<String>               threads  = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+	@Before
+	public void createServices() throws Exception {
+
+		// We wire things together without OSGi here
+		// DO NOT COPY THIS IN NON-TEST CODE!
+		setUpNonOSGIActivemqMarshaller();
+
+		eservice  = new EventServiceImpl(new ActivemqConnectorService()); // Do not copy this get the service from OSGi!
+		topic     = "org.eclipse.scanning.test.subscriberDispatch."+UUID.randomUUID();
+		publisher = eservice.createPublisher(uri, topic);
+	}
+
+	@After
+	public void dispose() throws EventException {
+		System.clearProperty("org.eclipse.scanning.event.subscriber.capacity");
+		System.clearProperty("org.eclipse.scanning.event.subscriber.overflow");
+		publisher.disconnect();
+		if (subscriber!=null) subscriber.disconnect();
+	}
+
+	@Test
+	public void eventsInOrderForEachBean() throws Exception {
+
+		subscribe(0);
+		final List<StatusBean> beans = createBeans(4);
+		for (int i = 1; i <= 100; i++) {
+			for (StatusBean bean : beans) {
+				bean.setPercentComplete(i);
+				publisher.broadcast(bean);
+			}
+		}
+		awaitLast(beans, 100);
+
+		for (StatusBean bean : beans) {
+			final List<Double> percents = received.get(bean.getUniqueId());
+			assertEquals(100, percents.size());
+			for (int i = 0; i < percents.size(); i++) assertEquals(i+1, percents.get(i), 0.0001);
+		}
+		assertTrue("Events were passed on "+threads.size()+" threads", threads.size()<=Runtime.getRuntime().availableProcessors());
+	}
+
+	@Test
+	public void blockWithCapacityOneKeepsOrder() throws Exception {
+
+		// Each key empties and is retired often, while the next event waits for room.
+		System.setProperty("org.eclipse.scanning.event.subscriber.capacity", "1");
+		System.setProperty("org.eclipse.scanning.event.subscriber.overflow", "BLOCK");
+		subscribe(0);
+
+		final List<StatusBean> beans = createBeans(8);
+		for (int i = 1; i <= 250; i++) {
+			for (StatusBean bean : beans) {
+				bean.setPercentComplete(i);
+				publisher.broadcast(bean);
+			}
+		}
+		awaitLast(beans, 250);
+
+		for (StatusBean bean : beans) {
+			final List<Double> percents = received.get(bean.getUniqueId());
+			assertEquals(250, percents.size());
+			for (int i = 0; i < percents.size(); i++) assertEquals(i+1, percents.get(i), 0.0001);
+		}
+	}
+
+	@Test
+	public void coalesceKeepsNewest() throws Exception {
+
+		System.setProperty("org.eclipse.scanning.event.subscriber.capacity", "2");
+		System.setProperty("org.eclipse.scanning.event.subscriber.overflow", "COALESCE");
+		subscribe(20);
+
+		final StatusBean bean = createBeans(1).get(0);
+		for (int i = 1; i <= 50; i++) {
+			bean.setPercentComplete(i);
+			publisher.broadcast(bean);
+		}
+		awaitLast(Collections.singletonList(bean), 50);
+
+		final List<Double> percents = received.get(bean.getUniqueId());
+		assertTrue("Slow listener was passed every event", percents.size()<50);
+		for (int i = 1; i < percents.size(); i++) assertTrue(percents.get(i)>percents.get(i-1));
+	}
+
+	private void subscribe(long sleep) throws EventException {
+		subscriber = eservice.createSubscriber(uri, topic);
+		subscriber.setSynchronous(false);
+		subscriber.addListener(new IBeanListener<StatusBean>() {
+			@Override
+			public void beanChangePerformed(BeanEvent<StatusBean> evt) {
+				threads.add(Thread.currentThread().getName());
+				final StatusBean bean = evt.getBean();
+				received.computeIfAbsent(bean.getUniqueId(), id -> Collections.synchronizedList(new ArrayList<>())).add(bean.getPercentComplete());
+				try {
+					Thread.sleep(sleep);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			@Override
+			public Class<StatusBean> getBeanClass() {
+				return StatusBean.class;
+			}
+		});
+	}
+
+	private List<StatusBean> createBeans(int count) {
+		final List<StatusBean> beans = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			StatusBean bean = new StatusBean();
+			bean.setName("Bean "+i);
+			bean.setUniqueId(UUID.randomUUID().toString());
+			bean.setStatus(Status.RUNNING);
+			beans.add(bean);
+		}
+		return beans;
+	}
+
+	private void awaitLast(List<StatusBean> beans, double last) throws InterruptedException {
+		for (int i = 0; i < 100; i++) {
+			boolean done = true;
+			for (StatusBean bean : beans) {
+				List<Double> percents = received.get(bean.getUniqueId());
+				done = done && percents!=null && !percents.isEmpty() && percents.get(percents.size()-1)==last;
+			}
+			if (done) return;
+			Thread.sleep(100);
+		}
+	}
+}
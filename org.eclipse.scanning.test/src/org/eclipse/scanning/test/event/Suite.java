@@ -23,7 +23,15 @@ import org.junit.runners.Suite.SuiteClasses;
 	MappingScanTest.class,
 	AnyBeanEventTest.class,
 	HeartbeatTest.class,
+	StatusSetTest.class,
+	SubmissionJournalTest.class,
+	ConcurrentConsumerTest.class,
+	SubscriberDispatchTest.class,
+	BinaryTopicTest.class,
+	LocalBusTest.class,
 	DeviceRequestTest.class,
+	RequesterTest.class,
+	ResponderConcurrencyTest.class,
 	AcquireRequestTest.class
 	// MConsumerTest.class  Takes too long! TODO Make shorter
 })
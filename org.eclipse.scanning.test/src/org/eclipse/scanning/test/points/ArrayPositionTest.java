@@ -0,0 +1,159 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.points;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.eclipse.scanning.api.event.scan.ScanBean;
+import org.eclipse.scanning.api.points.AbstractPosition;
+import org.eclipse.scanning.api.points.ArrayPosition;
+import org.eclipse.scanning.api.points.AxisNames;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.MapPosition;
+import org.eclipse.scanning.api.points.Point;
+import org.eclipse.scanning.api.points.Scalar;
+import org.junit.Test;
+
+/**
+ * Tests that positions backed by arrays and the compounds of positions
+ * have the same names, values and indices as the positions backed by maps.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class ArrayPositionTest {
+
+	private static final AxisNames XYZ = new AxisNames("x", "y", "z");
+
+	@Test
+	public void arrayPositionEqualsMapPosition() {
+		IPosition array = new ArrayPosition(XYZ, new double[]{1, 2, 3}, new int[]{0, 1, 2});
+		IPosition map   = new MapPosition("x:0:1, y:1:2, z:2:3");
+
+		assertEquals(Arrays.asList("x", "y", "z"), array.getNames());
+		assertEquals(2d, array.get("y"));
+		assertEquals(3d, array.getValue("z"), 0);
+		assertEquals(1, array.getIndex("y"));
+		assertEquals(-1, array.getIndex("q"));
+		assertNull(array.get("q"));
+		assertEquals(map, array);
+		assertEquals(map.hashCode(), array.hashCode());
+		assertEquals(map.getValues(), array.getValues());
+		assertEquals(map.getIndices(), array.getIndices());
+	}
+
+	@Test
+	public void arrayPositionWithoutIndices() {
+		IPosition array = new ArrayPosition(XYZ, new double[]{1, 2, 3});
+		MapPosition map = new MapPosition();
+		map.putAll(array);
+
+		assertEquals(-1, array.getIndex("x"));
+		assertEquals(map.getIndices(), array.getIndices());
+		assertEquals(map, array);
+	}
+
+	@Test
+	public void copyOf() {
+		IPosition array = new ArrayPosition(XYZ, new double[]{1, 2, 3}, new int[]{0, 1, 2});
+		array.setStepIndex(7);
+		IPosition compound = array.compound(new Scalar<>("T", 3, 290.0));
+
+		for (IPosition pos : Arrays.asList(array, compound)) {
+			IPosition copy = MapPosition.copyOf(pos);
+			assertTrue(copy instanceof MapPosition);
+			assertEquals(pos, copy);
+			assertEquals(pos.getIndices(), copy.getIndices());
+			assertEquals(((AbstractPosition)pos).getDimensionNames(), ((AbstractPosition)copy).getDimensionNames());
+		}
+		IPosition point = new Point("x", 1, 10.0, "y", 2, 20.0);
+		assertSame(point, MapPosition.copyOf(point));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void duplicateNames() {
+		new AxisNames("x", "y", "x");
+	}
+
+	@Test
+	public void compoundEqualsCopy() {
+		IPosition outer = new Scalar<>("T", 3, 290.0);
+		IPosition inner = new ArrayPosition(XYZ, new double[]{1, 2, 3}, new int[]{4, 5, 6});
+		IPosition compound = inner.compound(outer);
+
+		MapPosition copy = new MapPosition();
+		copy.put("T", 3, 290.0);
+		copy.put("x", 4, 1.0);
+		copy.put("y", 5, 2.0);
+		copy.put("z", 6, 3.0);
+
+		assertEquals(Arrays.asList("T", "x", "y", "z"), compound.getNames());
+		assertEquals(copy.getValues(), compound.getValues());
+		assertEquals(copy.getIndices(), compound.getIndices());
+		assertEquals(4, compound.size());
+		assertEquals(290.0, compound.getValue("T"), 0);
+		assertEquals(6, compound.getIndex("z"));
+
+		List<Collection<String>> dimensionNames = ((AbstractPosition)compound).getDimensionNames();
+		assertEquals(Arrays.asList(Arrays.asList("T"), Arrays.asList("x", "y", "z")), dimensionNames);
+	}
+
+	@Test
+	public void childValuesTakePrecedence() {
+		IPosition parent = new Point("x", 1, 10.0, "y", 2, 20.0);
+		IPosition child  = new MapPosition("y", 7, 70.0);
+		IPosition compound = child.compound(parent);
+
+		assertEquals(Arrays.asList("y", "x"), compound.getNames());
+		assertEquals(70.0, compound.get("y"));
+		assertEquals(7, compound.getIndex("y"));
+		assertEquals(10.0, compound.get("x"));
+	}
+
+	@Test
+	public void compoundOfEachPointSharesNames() {
+		final AxisNames outerNames = new AxisNames("T");
+		IPosition last = new ArrayPosition(outerNames, new double[]{290}, new int[]{0});
+		IPosition first = null;
+		for (int i = 0; i < 1000; i++) {
+			IPosition next = new ArrayPosition(XYZ, new double[]{i, i, i}, new int[]{i, i, i});
+			last = next.compound(last); // As an iterator of nested generators does
+			if (first==null) first = last;
+			assertEquals(4, last.size());
+			assertEquals(i, last.getValue("x"), 0);
+			assertEquals(290, last.getValue("T"), 0);
+		}
+		assertSame(first.getNames(), last.getNames());
+		assertEquals(Arrays.asList("T", "x", "y", "z"), last.getNames());
+	}
+
+	@Test
+	public void scanBeanPosition() {
+		ScanBean bean = new ScanBean();
+		bean.putPosition("a", 0, 1.0);
+		bean.putPosition("b", 1, 2.0);
+		bean.putPosition("a", 2, 3.0);
+
+		IPosition pos = bean.getPosition();
+		assertEquals(Arrays.asList("a", "b"), pos.getNames());
+		assertEquals(3.0, pos.get("a"));
+		assertEquals(2, pos.getIndex("a"));
+		assertEquals(2.0, pos.get("b"));
+	}
+}
@@ -0,0 +1,240 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.points;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.eclipse.dawnsci.analysis.api.roi.IROI;
+import org.eclipse.dawnsci.analysis.dataset.roi.CircularROI;
+import org.eclipse.dawnsci.analysis.dataset.roi.PolygonalROI;
+import org.eclipse.dawnsci.analysis.dataset.roi.RectangularROI;
+import org.eclipse.scanning.api.points.AbstractPosition;
+import org.eclipse.scanning.api.points.IPointGenerator;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.models.ArrayModel;
+import org.eclipse.scanning.api.points.models.BoundingBox;
+import org.eclipse.scanning.api.points.models.CompoundModel;
+import org.eclipse.scanning.api.points.models.GridModel;
+import org.eclipse.scanning.api.points.models.LissajousModel;
+import org.eclipse.scanning.api.points.models.MultiStepModel;
+import org.eclipse.scanning.api.points.models.RasterModel;
+import org.eclipse.scanning.api.points.models.ScanRegion;
+import org.eclipse.scanning.api.points.models.SpiralModel;
+import org.eclipse.scanning.api.points.models.StepModel;
+import org.eclipse.scanning.points.PySerializable;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Checks that the points made in Java are the same as those
+ * made by scanpointgenerator in Jython.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class JavaGeneratorTest extends AbstractGeneratorTest {
+
+	private static final String JYTHON_PROPERTY = "org.eclipse.scanning.points.jython";
+
+	@After
+	public void clearProperty() {
+		System.clearProperty(JYTHON_PROPERTY);
+	}
+
+	@Test
+	public void testGrid() throws Exception {
+		checkSame(createGridModel(false));
+	}
+
+	@Test
+	public void testGridSnake() throws Exception {
+		checkSame(createGridModel(true));
+	}
+
+	@Test
+	public void testGridCircle() throws Exception {
+		checkSame(createGridModel(true), new CircularROI(1, 1.5, 1.5));
+	}
+
+	@Test
+	public void testGridRectangle() throws Exception {
+		checkSame(createGridModel(true), new RectangularROI(0.5, 0.5, 1, 1.3, 0));
+	}
+
+	@Test
+	public void testGridRotatedRectangle() throws Exception {
+		checkSame(createGridModel(false), new RectangularROI(0.5, 0.5, 1, 1.3, 0.4));
+	}
+
+	@Test
+	public void testGridPolygon() throws Exception {
+		PolygonalROI diamond = new PolygonalROI(new double[] { 1.5, 0 });
+		diamond.insertPoint(new double[] { 3, 1.5 });
+		diamond.insertPoint(new double[] { 1.5, 3 });
+		diamond.insertPoint(new double[] { 0, 1.5 });
+		checkSame(createGridModel(true), diamond);
+	}
+
+	@Test
+	public void testRaster() throws Exception {
+		RasterModel model = new RasterModel("x", "y");
+		model.setFastAxisStep(0.3);
+		model.setSlowAxisStep(0.2);
+		model.setSnake(true);
+		model.setBoundingBox(createBox());
+		checkSame(model, new CircularROI(1, 1.5, 1.5));
+	}
+
+	@Test
+	public void testSpiral() throws Exception {
+		checkSame(new SpiralModel("x", "y", 0.2, createBox()));
+	}
+
+	@Test
+	public void testLissajous() throws Exception {
+		LissajousModel model = new LissajousModel();
+		model.setBoundingBox(createBox());
+		checkSame(model);
+	}
+
+	@Test
+	public void testLissajousCircle() throws Exception {
+		LissajousModel model = new LissajousModel();
+		model.setA(3);
+		model.setB(1);
+		model.setPoints(300);
+		model.setBoundingBox(createBox());
+		checkSame(model, new CircularROI(1, 1.5, 1.5));
+	}
+
+	@Test
+	public void testArray() throws Exception {
+		ArrayModel model = new ArrayModel(3.5, -1, 0.25, 12, 7, 7.125);
+		model.setName("energy");
+		checkSame(model);
+	}
+
+	@Test
+	public void testArrayGrid() throws Exception {
+		ArrayModel model = new ArrayModel(290, 295.5, 291);
+		model.setName("Temperature");
+		checkSame(new CompoundModel<>(model, createGridModel(true)));
+	}
+
+	@Test
+	public void testStep() throws Exception {
+		checkSame(new StepModel("Temperature", 290, 300, 0.5, 0.1));
+	}
+
+	@Test
+	public void testMultiStep() throws Exception {
+		MultiStepModel model = new MultiStepModel("energy", Arrays.asList(
+				new StepModel("energy", 10, 20, 1, 0.1), new StepModel("energy", 25, 50, 5, 0.2)));
+		checkSame(model);
+	}
+
+	@Test
+	public void testStepGrid() throws Exception {
+		checkSame(new CompoundModel<>(new StepModel("Temperature", 290, 295, 1), createGridModel(true)));
+	}
+
+	@Test
+	public void testStepGridRegion() throws Exception {
+		CompoundModel<IROI> cmodel = new CompoundModel<>(Arrays.asList(new StepModel("Temperature", 290, 292, 1), createGridModel(true)));
+		cmodel.setRegions(Arrays.asList(new ScanRegion<IROI>(new CircularROI(1, 1.5, 1.5), "x", "y")));
+		checkSame(cmodel);
+	}
+
+	@Test
+	public void testStepStepStep() throws Exception {
+		checkSame(new CompoundModel<>(new StepModel("Temperature", 290, 292, 1),
+				                      new StepModel("Y", 11, 14, 0.6),
+				                      new StepModel("X", 1, 4, 0.6)));
+	}
+
+	@Test
+	public void testCompoundIsJava() throws Exception {
+		IPointGenerator<?> gen = service.createCompoundGenerator(new CompoundModel<>(new StepModel("Temperature", 290, 295, 1), createGridModel(false)));
+		assertFalse(gen.iterator() instanceof PySerializable);
+	}
+
+	private void checkSame(Object model, IROI... regions) throws Exception {
+
+		System.setProperty(JYTHON_PROPERTY, "true");
+		IPointGenerator<?> pgen = createGenerator(model, regions);
+		List<IPosition> expected = createPoints(pgen);
+
+		System.clearProperty(JYTHON_PROPERTY);
+		IPointGenerator<?> jgen = createGenerator(model, regions);
+		List<IPosition> actual = createPoints(jgen);
+
+		assertEquals(pgen.size(), jgen.size());
+		assertArrayEquals(pgen.getShape(), jgen.getShape());
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			IPosition exp = expected.get(i);
+			IPosition act = actual.get(i);
+			// The positions may be different classes, for instance ArrayPosition
+			// rather than MapPosition, so they are compared through IPosition.
+			assertEquals(exp.size(), act.size());
+			assertEquals(exp.getNames(), act.getNames());
+			assertEquals(exp.getStepIndex(), act.getStepIndex());
+			assertEquals(exp.getExposureTime(), act.getExposureTime(), 1e-12);
+			assertEquals(exp.getScanRank(), act.getScanRank());
+			for (int dim = 0; dim < exp.getScanRank(); dim++) {
+				assertEquals(exp.getIndex(dim), act.getIndex(dim));
+				assertEquals(((AbstractPosition)exp).getDimensionNames(dim).toString().replace("u'", "").replace("'", ""),
+						     ((AbstractPosition)act).getDimensionNames(dim).toString());
+			}
+			for (String name : exp.getNames()) {
+				assertEquals(exp.getIndex(name), act.getIndex(name));
+				assertEquals(exp.getValue(name), act.getValue(name), 1e-10);
+			}
+		}
+	}
+
+	private IPointGenerator<?> createGenerator(Object model, IROI... regions) throws Exception {
+		if (model instanceof CompoundModel) return service.createCompoundGenerator((CompoundModel<?>)model);
+		return regions.length > 0 ? service.createGenerator(model, Arrays.asList(regions)) : service.createGenerator(model);
+	}
+
+	private static List<IPosition> createPoints(IPointGenerator<?> gen) {
+		List<IPosition> points = new ArrayList<>();
+		for (Iterator<IPosition> it = gen.iterator(); it.hasNext();) points.add(it.next());
+		return points;
+	}
+
+	private static GridModel createGridModel(boolean snake) {
+		GridModel model = new GridModel("x", "y");
+		model.setFastAxisPoints(20);
+		model.setSlowAxisPoints(15);
+		model.setSnake(snake);
+		model.setBoundingBox(createBox());
+		return model;
+	}
+
+	private static BoundingBox createBox() {
+		BoundingBox box = new BoundingBox();
+		box.setFastAxisStart(0);
+		box.setSlowAxisStart(0);
+		box.setFastAxisLength(3);
+		box.setSlowAxisLength(3);
+		return box;
+	}
+}
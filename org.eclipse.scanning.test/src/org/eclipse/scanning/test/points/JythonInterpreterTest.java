@@ -0,0 +1,115 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.points;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.scanning.api.points.IPointGenerator;
+import org.eclipse.scanning.api.points.IPointGeneratorService;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.models.JythonArgument;
+import org.eclipse.scanning.api.points.models.JythonArgument.JythonArgumentType;
+import org.eclipse.scanning.api.points.models.JythonGeneratorModel;
+import org.eclipse.scanning.jython.JythonInterpreterManager;
+import org.eclipse.scanning.points.PointGeneratorService;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.python.core.PySystemState;
+
+/**
+ * Checks that generators may be created by several threads at the
+ * same time, each using its own interpreter.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class JythonInterpreterTest {
+
+	private static IPointGeneratorService service;
+
+	@BeforeClass
+	public static void before() throws Exception {
+		service = new PointGeneratorService();
+		JythonInterpreterManager.setupSystemState();
+	}
+
+	@Test
+	public void testSameThread() throws Exception {
+		assertSame(JythonInterpreterManager.getSystemState(), JythonInterpreterManager.getSystemState());
+	}
+
+	@Test
+	public void testParallelGenerators() throws Exception {
+
+		final int threads = 4;
+		final CyclicBarrier barrier = new CyclicBarrier(threads);
+		final Map<Thread, PySystemState> observed = new ConcurrentHashMap<>();
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			final List<Callable<Void>> tasks = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				final double value = i;
+				tasks.add(() -> {
+					barrier.await(10, TimeUnit.SECONDS); // So that each task has its own thread
+					PySystemState state = JythonInterpreterManager.getSystemState();
+					IPointGenerator<JythonGeneratorModel> gen = service.createGenerator(createFixedValueModel("p", 3, value));
+					List<IPosition> points = gen.createPoints();
+					assertEquals(3, points.size());
+					assertEquals(value, points.get(2).getValue("p"), 0.000001);
+					assertSame(state, JythonInterpreterManager.getSystemState());
+					assertNull(observed.put(Thread.currentThread(), state));
+					return null;
+				});
+			}
+			for (Future<Void> result : executor.invokeAll(tasks)) result.get();
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(threads, observed.size());
+
+		// Each new thread is given the next interpreter of the pool, so
+		// no two threads share one unless there are more threads than interpreters.
+		final int interpreters = Integer.getInteger("org.eclipse.scanning.jython.interpreters", Math.min(4, Runtime.getRuntime().availableProcessors()));
+		if (threads>interpreters) return;
+		for (Thread thread : observed.keySet()) {
+			for (Thread other : observed.keySet()) {
+				if (thread==other) continue;
+				assertNotSame(thread.getName()+" and "+other.getName()+" share an interpreter", observed.get(thread), observed.get(other));
+			}
+		}
+	}
+
+	private JythonGeneratorModel createFixedValueModel(String scannableName, int size, double value) {
+		JythonGeneratorModel model = new JythonGeneratorModel();
+		model.setModuleName("JythonGeneratorTest");
+		model.setClassName("FixedValueGenerator");
+		model.setPath("src/org/eclipse/scanning/test/points");
+		model.addArgument(new JythonArgument(scannableName,  JythonArgumentType.STRING));
+		model.addArgument(new JythonArgument(String.valueOf(size), JythonArgumentType.INTEGER));
+		model.addArgument(new JythonArgument(String.valueOf(value), JythonArgumentType.FLOAT));
+		return model;
+	}
+}
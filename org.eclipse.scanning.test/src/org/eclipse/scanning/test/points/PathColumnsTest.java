@@ -0,0 +1,176 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.points;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.dawnsci.analysis.dataset.roi.CircularROI;
+import org.eclipse.scanning.api.points.IPathChecker;
+import org.eclipse.scanning.api.points.IPointGenerator;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.PathColumns;
+import org.eclipse.scanning.api.points.PathStatistics;
+import org.eclipse.scanning.api.points.models.BoundingBox;
+import org.eclipse.scanning.api.points.models.CompoundModel;
+import org.eclipse.scanning.api.points.models.GridModel;
+import org.eclipse.scanning.api.points.models.ScanRegion;
+import org.eclipse.scanning.api.points.models.SpiralModel;
+import org.eclipse.scanning.api.points.models.StepModel;
+import org.junit.Test;
+
+/**
+ * Checks that the columns of a path calculated by the generators, and the
+ * checking of its points, are the same as when iterating over the points.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class PathColumnsTest extends AbstractGeneratorTest {
+
+	@Test
+	public void testDecimate() {
+		assertArrayEquals(new int[]{0, 1, 2}, PathColumns.decimate(3, 0));
+		assertArrayEquals(new int[]{0, 1, 2}, PathColumns.decimate(3, 5));
+		assertArrayEquals(new int[]{0, 3, 6, 9}, PathColumns.decimate(10, 4));
+		assertArrayEquals(new int[]{0}, PathColumns.decimate(10, 1));
+	}
+
+	@Test
+	public void testGrid() throws Exception {
+		checkColumns(service.createGenerator(createGridModel(false)), 0);
+	}
+
+	@Test
+	public void testSnakeGrid() throws Exception {
+		checkColumns(service.createGenerator(createGridModel(true)), 0);
+	}
+
+	@Test
+	public void testDecimatedGrid() throws Exception {
+		checkColumns(service.createGenerator(createGridModel(true)), 50);
+	}
+
+	@Test
+	public void testSpiral() throws Exception {
+		checkColumns(service.createGenerator(new SpiralModel("x", "y", 0.5, new BoundingBox(0, 0, 5, 5))), 0);
+	}
+
+	@Test
+	public void testStepGrid() throws Exception {
+		checkColumns(service.createCompoundGenerator(new CompoundModel<>(new StepModel("Temperature", 290, 295, 1), createGridModel(false))), 100);
+	}
+
+	@Test
+	public void testGridCircle() throws Exception {
+		checkColumns(service.createGenerator(createGridModel(true), new CircularROI(1, 1.5, 1.5)), 20);
+	}
+
+	@Test
+	public void testStepGridCircle() throws Exception {
+		CompoundModel<CircularROI> model = new CompoundModel<>();
+		model.setModelsVarArgs(new StepModel("Temperature", 290, 295, 1), createGridModel(true));
+		model.setRegionsVarArgs(new ScanRegion<>(new CircularROI(1, 1.5, 1.5), "x", "y"));
+		checkColumns(service.createCompoundGenerator(model), 0);
+	}
+
+	@Test
+	public void testCheck() throws Exception {
+		checkCheck(service.createGenerator(createGridModel(false)));
+		checkCheck(service.createGenerator(createGridModel(true)));
+		checkCheck(service.createCompoundGenerator(new CompoundModel<>(new StepModel("Temperature", 290, 295, 1), createGridModel(true))));
+		checkCheck(service.createGenerator(createGridModel(true), new CircularROI(1, 1.5, 1.5)));
+	}
+
+	@Test
+	public void testCheckLargeScan() throws Exception {
+		GridModel model = new GridModel("x", "y", 500, 400);
+		model.setBoundingBox(new BoundingBox(0, 0, 3, 3));
+		model.setSnake(true);
+		checkCheck(service.createCompoundGenerator(new CompoundModel<>(new StepModel("Temperature", 290, 292, 1), model)));
+	}
+
+	@Test
+	public void testCancelled() throws Exception {
+		GridModel model = new GridModel("x", "y", 500, 400);
+		model.setBoundingBox(new BoundingBox(0, 0, 3, 3));
+		checkCancelled(service.createGenerator(model));
+		checkCancelled(service.createGenerator(model, new CircularROI(1, 1.5, 1.5)));
+	}
+
+	/**
+	 * Checks that the columns are not made if the calculation
+	 * is cancelled after the first chunk of points.
+	 */
+	private void checkCancelled(IPointGenerator<?> gen) throws Exception {
+		final AtomicInteger asked = new AtomicInteger();
+		assertNull(gen.getColumns(0, () -> asked.incrementAndGet()>1, "x", "y"));
+		assertTrue(asked.get()>1);
+
+		asked.set(0);
+		assertNull(PathColumns.create(gen, gen.size(), 0, () -> asked.incrementAndGet()>1, "x", "y"));
+		assertEquals(2, asked.get());
+
+		assertNotNull(gen.getColumns(0, () -> false, "x", "y"));
+	}
+
+	/**
+	 * Checks that the first point a checker does not allow is the same
+	 * whether the generator checks the points or they are iterated over.
+	 */
+	private void checkCheck(IPointGenerator<?> gen) throws Exception {
+		final int size = gen.size();
+		for (int index : new int[]{0, 1, size/3, size/2+7, size-1}) {
+			final IPosition pos = gen.getPoint(index);
+			final double x = pos.getValue("x"), y = pos.getValue("y");
+			IPathChecker checker = (axes, columns) -> {
+				for (int i = 0; i < columns[0].length; i++) if (columns[0][i]==x && columns[1][i]==y) return i;
+				return -1;
+			};
+			int expected = PathColumns.check(gen, checker, "x", "y");
+			assertTrue(expected>-1 && expected<=index);
+			assertEquals(expected, gen.check(checker, "x", "y"));
+		}
+		assertEquals(-1, gen.check((axes, columns) -> -1, "x", "y"));
+	}
+
+	private void checkColumns(IPointGenerator<?> gen, int maxPoints) throws Exception {
+
+		PathColumns columns  = gen.getColumns(maxPoints, "x", "y");
+		PathColumns iterated = PathColumns.create(gen, gen.size(), maxPoints, "x", "y");
+
+		assertEquals(iterated.getSize(), columns.getSize());
+		assertArrayEquals(iterated.getIndices(), columns.getIndices());
+		assertArrayEquals(iterated.getColumn("x"), columns.getColumn("x"), 0);
+		assertArrayEquals(iterated.getColumn("y"), columns.getColumn("y"), 0);
+
+		PathStatistics expected = iterated.getStatistics(), actual = columns.getStatistics();
+		for (int a = 0; a < 2; a++) {
+			assertEquals(expected.getLower(a), actual.getLower(a), 0);
+			assertEquals(expected.getUpper(a), actual.getUpper(a), 0);
+			assertEquals(expected.getSmallestStep(a), actual.getSmallestStep(a), 0);
+		}
+		assertEquals(expected.getSmallestAbsoluteStep(), actual.getSmallestAbsoluteStep(), 1e-12);
+	}
+
+	private static GridModel createGridModel(boolean snake) {
+		GridModel model = new GridModel("x", "y", 20, 15);
+		model.setBoundingBox(new BoundingBox(0, 0, 3, 3));
+		model.setSnake(snake);
+		return model;
+	}
+}
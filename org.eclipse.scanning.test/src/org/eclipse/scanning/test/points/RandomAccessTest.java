@@ -0,0 +1,140 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.points;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.eclipse.dawnsci.analysis.dataset.roi.CircularROI;
+import org.eclipse.scanning.api.points.GeneratorException;
+import org.eclipse.scanning.api.points.IPointGenerator;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.ScanPointIterator;
+import org.eclipse.scanning.api.points.models.BoundingBox;
+import org.eclipse.scanning.api.points.models.CompoundModel;
+import org.eclipse.scanning.api.points.models.GridModel;
+import org.eclipse.scanning.api.points.models.MultiStepModel;
+import org.eclipse.scanning.api.points.models.StaticModel;
+import org.eclipse.scanning.api.points.models.StepModel;
+import org.junit.Test;
+
+/**
+ * Checks that getting a point by its index gives the same
+ * point as iterating to it.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class RandomAccessTest extends AbstractGeneratorTest {
+
+	@Test
+	public void testStep() throws Exception {
+		checkPoints(service.createGenerator(new StepModel("Temperature", 290, 300, 0.5, 0.1)));
+	}
+
+	@Test
+	public void testMultiStep() throws Exception {
+		MultiStepModel model = new MultiStepModel("energy", Arrays.asList(
+				new StepModel("energy", 10, 20, 1, 0.1), new StepModel("energy", 25, 50, 5, 0.2)));
+		checkPoints(service.createGenerator(model));
+	}
+
+	@Test
+	public void testGridCircle() throws Exception {
+		checkPoints(service.createGenerator(createGridModel(), new CircularROI(1, 1.5, 1.5)));
+	}
+
+	@Test
+	public void testStepGrid() throws Exception {
+		checkPoints(service.createCompoundGenerator(new CompoundModel<>(new StepModel("Temperature", 290, 295, 1), createGridModel())));
+	}
+
+	@Test
+	public void testStatic() throws Exception {
+		IPointGenerator<StaticModel> gen = service.createGenerator(new StaticModel(5));
+		Iterator<IPosition> it = gen.iterator(3);
+		assertTrue(((ScanPointIterator)it).isRandomAccess());
+		assertEquals(3, ((ScanPointIterator)it).getIndex());
+		it.next();
+		it.next();
+		assertFalse(it.hasNext());
+	}
+
+	@Test
+	public void testIteratorStart() throws Exception {
+		IPointGenerator<?> gen = service.createCompoundGenerator(new CompoundModel<>(new StepModel("Temperature", 290, 295, 1), createGridModel()));
+		List<IPosition> points = createPoints(gen);
+
+		Iterator<IPosition> it = gen.iterator(100);
+		assertTrue(it instanceof ScanPointIterator);
+		assertTrue(((ScanPointIterator)it).isRandomAccess());
+		for (int i = 100; i < points.size(); i++) {
+			IPosition pos = it.next();
+			assertEquals(points.get(i), pos);
+			assertEquals(i, pos.getStepIndex());
+		}
+		assertFalse(it.hasNext());
+		assertFalse(gen.iterator(points.size()).hasNext());
+	}
+
+	@Test(expected = GeneratorException.class)
+	public void testPointAfterEnd() throws Exception {
+		IPointGenerator<?> gen = service.createGenerator(new StepModel("Temperature", 290, 300, 1));
+		gen.getPoint(gen.size());
+	}
+
+	@Test(expected = GeneratorException.class)
+	public void testNegativeIndex() throws Exception {
+		service.createGenerator(new StepModel("Temperature", 290, 300, 1)).getPoint(-1);
+	}
+
+	private void checkPoints(IPointGenerator<?> gen) throws Exception {
+		List<IPosition> points = createPoints(gen);
+		assertEquals(gen.size(), points.size());
+
+		// Backwards so that each point is found without iterating to it.
+		for (int i = points.size()-1; i > -1; i--) {
+			IPosition pos = gen.getPoint(i);
+			assertEquals(points.get(i), pos);
+			assertEquals(i, pos.getStepIndex());
+			assertEquals(points.get(i).getExposureTime(), pos.getExposureTime(), 1e-12);
+		}
+	}
+
+	private static List<IPosition> createPoints(IPointGenerator<?> gen) {
+		// CompoundGenerator.createPoints() does not snake so we iterate instead.
+		List<IPosition> points = new ArrayList<>();
+		for (Iterator<IPosition> it = gen.iterator(); it.hasNext();) points.add(it.next());
+		return points;
+	}
+
+	private static GridModel createGridModel() {
+		BoundingBox box = new BoundingBox();
+		box.setFastAxisStart(0);
+		box.setSlowAxisStart(0);
+		box.setFastAxisLength(3);
+		box.setSlowAxisLength(3);
+
+		GridModel model = new GridModel("x", "y");
+		model.setFastAxisPoints(20);
+		model.setSlowAxisPoints(15);
+		model.setSnake(true);
+		model.setBoundingBox(box);
+		return model;
+	}
+}
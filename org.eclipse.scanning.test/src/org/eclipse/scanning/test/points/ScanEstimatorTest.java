@@ -0,0 +1,157 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.points;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+import org.eclipse.dawnsci.analysis.dataset.roi.CircularROI;
+import org.eclipse.scanning.api.points.AbstractGenerator;
+import org.eclipse.scanning.api.points.IPointGenerator;
+import org.eclipse.scanning.api.points.IPointGeneratorService;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.Point;
+import org.eclipse.scanning.api.points.models.BoundingBox;
+import org.eclipse.scanning.api.points.models.CompoundModel;
+import org.eclipse.scanning.api.points.models.GridModel;
+import org.eclipse.scanning.api.points.models.ScanRegion;
+import org.eclipse.scanning.api.points.models.StepModel;
+import org.eclipse.scanning.api.scan.PointPhase;
+import org.eclipse.scanning.api.scan.PointTimeHistory;
+import org.eclipse.scanning.api.scan.ScanEstimator;
+import org.eclipse.scanning.api.scan.ScanMetrics;
+import org.eclipse.scanning.points.PointGeneratorService;
+import org.eclipse.scanning.test.scan.mock.MockDetectorModel;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Checks the size, shape and rank a scan has before it is run, that they
+ * are the same as its points and that the estimated time includes the time
+ * points of earlier scans took.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class ScanEstimatorTest {
+
+	private static IPointGeneratorService service;
+
+	@BeforeClass
+	public static void before() throws Exception {
+		service = new PointGeneratorService();
+	}
+
+	@After
+	public void clear() {
+		PointTimeHistory.clear();
+	}
+
+	@Test
+	public void testGridCircle() throws Exception {
+		final CircularROI circle = new CircularROI(1, 1.5, 1.5);
+		final IPointGenerator<?> gen = service.createCompoundGenerator(createModel(circle));
+
+		final ScanEstimator estimator = new ScanEstimator(gen, (Collection<Object>)null, 0);
+		final List<IPosition> points = gen.createPoints();
+		assertEquals(points.size(), estimator.getSize());
+		assertEquals(2, estimator.getRank());
+		assertArrayEquals(new int[]{6, points.size()/6}, estimator.getShape());
+	}
+
+	@Test
+	public void testModelChanged() throws Exception {
+		final CircularROI circle = new CircularROI(1, 1.5, 1.5);
+		final CompoundModel<CircularROI> model = createModel(circle);
+		final int before = service.createCompoundGenerator(model).size();
+
+		// The same model with a larger region is a different scan.
+		circle.setRadius(1.5);
+		final IPointGenerator<?> gen = service.createCompoundGenerator(model);
+		assertEquals(gen.createPoints().size(), gen.size());
+		assertEquals(6, gen.getShape()[0]);
+		assertTrue(gen.size() > before);
+	}
+
+	@Test
+	public void testIteratedShape() throws Exception {
+		// A generator which is not a scanpointgenerator, snaking 3 rows of 4 columns
+		final AbstractGenerator<Object> gen = new AbstractGenerator<Object>() {
+			@Override
+			protected Iterator<IPosition> iteratorFromValidModel() {
+				final List<IPosition> points = new ArrayList<>();
+				for (int y = 0; y < 3; y++) {
+					for (int i = 0; i < 4; i++) {
+						int x = y%2==0 ? i : 3-i;
+						points.add(new Point(x, x, y, y));
+					}
+				}
+				return points.iterator();
+			}
+			@Override
+			public boolean isScanPointGeneratorFactory() {
+				return false;
+			}
+		};
+		assertArrayEquals(new int[]{3, 4}, gen.getShape());
+
+		final ScanEstimator estimator = new ScanEstimator(gen, (Collection<Object>)null, 0);
+		assertEquals(12, estimator.getSize());
+		assertEquals(2, estimator.getRank());
+	}
+
+	@Test
+	public void testEstimatedTime() throws Exception {
+		final IPointGenerator<?> gen = service.createGenerator(new StepModel("x", 1, 10, 1));
+		final MockDetectorModel dmodel = new MockDetectorModel(0.1);
+		dmodel.setName("detector");
+
+		assertEquals(1000, new ScanEstimator(gen, Arrays.<Object>asList(dmodel), 0).getEstimatedScanTime());
+
+		// Each point took 125ms not counting the time paused, 25ms more than the exposure.
+		final ScanMetrics metrics = new ScanMetrics();
+		for (int i = 0; i < 10; i++) {
+			metrics.record(PointPhase.PAUSE_CHECK, 1000_000_000L);
+			metrics.record(PointPhase.MOVE,          20_000_000L);
+			metrics.record(PointPhase.RUN,          100_000_000L);
+			metrics.record(PointPhase.PUBLISH,        5_000_000L);
+		}
+		PointTimeHistory.record(Arrays.asList("detector"), 100, metrics);
+
+		final ScanEstimator estimator = new ScanEstimator(gen, Arrays.<Object>asList(dmodel), 0);
+		assertEquals(100, estimator.getTimePerPoint());
+		assertEquals(1250, estimator.getEstimatedScanTime());
+
+		// Other detectors have not been timed.
+		dmodel.setName("other");
+		assertEquals(1000, new ScanEstimator(gen, Arrays.<Object>asList(dmodel), 0).getEstimatedScanTime());
+	}
+
+	private static CompoundModel<CircularROI> createModel(CircularROI circle) {
+		final GridModel grid = new GridModel("x", "y", 20, 15);
+		grid.setBoundingBox(new BoundingBox(0, 0, 3, 3));
+		grid.setSnake(true);
+
+		final CompoundModel<CircularROI> model = new CompoundModel<>();
+		model.setModelsVarArgs(new StepModel("Temperature", 290, 295, 1), grid);
+		model.setRegionsVarArgs(new ScanRegion<>(circle, "x", "y"));
+		return model;
+	}
+}
@@ -18,6 +18,7 @@ import org.junit.runners.Suite.SuiteClasses;
 @SuiteClasses({
 
 	ArrayTest.class,
+	ArrayPositionTest.class,
 	CompoundTest.class,
 	GridTest.class,
 	LinearTest.class,
@@ -33,7 +34,12 @@ import org.junit.runners.Suite.SuiteClasses;
 	SpiralTest.class,
 	StaticTest.class,
 	StepTest.class,
-	JythonGeneratorTest.class
+	JythonGeneratorTest.class,
+	JythonInterpreterTest.class,
+	JavaGeneratorTest.class,
+	RandomAccessTest.class,
+	PathColumnsTest.class,
+	ScanEstimatorTest.class
 
 	// TODO Smoke tests?
 	//GridTestLarge.class,
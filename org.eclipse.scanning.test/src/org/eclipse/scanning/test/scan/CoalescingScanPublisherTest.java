@@ -0,0 +1,170 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.scan;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.IEventService;
+import org.eclipse.scanning.api.event.bean.IBeanListener;
+import org.eclipse.scanning.api.event.core.IPublisher;
+import org.eclipse.scanning.api.event.core.ISubscriber;
+import org.eclipse.scanning.api.event.scan.DeviceState;
+import org.eclipse.scanning.api.event.scan.ScanBean;
+import org.eclipse.scanning.api.event.scan.ScanProgressBean;
+import org.eclipse.scanning.api.event.status.Status;
+import org.eclipse.scanning.connector.activemq.ActivemqConnectorService;
+import org.eclipse.scanning.event.EventServiceImpl;
+import org.eclipse.scanning.sequencer.CoalescingScanPublisher;
+import org.eclipse.scanning.test.BrokerTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that fast points are merged into fewer events
+ * without losing state changes or the last point.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class CoalescingScanPublisherTest extends BrokerTest {
+
+	private IEventService           eservice;
+	private IPublisher<ScanBean>    publisher;
+	private CoalescingScanPublisher coalescing;
+	private ISubscriber<IBeanListener<ScanBean>> subscriber;
+	private List<ScanBean>          beans;
+	private String                  topic;
+
+	@Before
+	public void createServices() throws Exception {
+
+		// We wire things together without OSGi here
+		// DO NOT COPY THIS IN NON-TEST CODE!
+		setUpNonOSGIActivemqMarshaller();
+
+		eservice   = new EventServiceImpl(new ActivemqConnectorService()); // Do not copy this get the service from OSGi!
+		topic      = "org.eclipse.scanning.test.coalescing."+UUID.randomUUID();
+		publisher  = eservice.createPublisher(uri, topic);
+		coalescing = new CoalescingScanPublisher(publisher, 100);
+
+		beans      = new CopyOnWriteArrayList<>();
+		subscriber = eservice.createSubscriber(uri, topic);
+		subscriber.addListener(evt -> beans.add(evt.getBean()));
+	}
+
+	@After
+	public void dispose() throws EventException {
+		subscriber.disconnect();
+		coalescing.disconnect();
+	}
+
+	@Test
+	public void notWrappedByDefault() {
+		assertSame(publisher, CoalescingScanPublisher.create(publisher, eservice));
+	}
+
+	@Test
+	public void pointsAreCoalesced() throws Exception {
+
+		final ScanBean bean = createBean();
+		runPoints(bean, 1000);
+		Thread.sleep(500); // Longer than the period
+
+		assertTrue("Too many events were sent "+beans.size(), beans.size() < 1000);
+		assertEquals(DeviceState.RUNNING, beans.get(0).getDeviceState());
+		assertEquals(999, beans.get(beans.size()-1).getPoint());
+	}
+
+	@Test
+	public void stateChangesAreImmediate() throws Exception {
+
+		final ScanBean bean = createBean();
+		runPoints(bean, 1000);
+
+		bean.setDeviceState(DeviceState.ARMED);
+		bean.setStatus(Status.COMPLETE);
+		coalescing.broadcast(bean);
+		Thread.sleep(500); // Longer than the period, nothing held back should arrive.
+
+		final ScanBean last = beans.get(beans.size()-1);
+		assertEquals(DeviceState.ARMED, last.getDeviceState());
+		assertEquals(Status.COMPLETE, last.getStatus());
+		assertEquals(999, last.getPoint());
+	}
+
+	@Test
+	public void closeSendsLastPoint() throws Exception {
+
+		final ScanBean bean = createBean();
+		runPoints(bean, 100);
+		coalescing.close();
+		Thread.sleep(200); // Wait for all events to make it over from ActiveMQ
+
+		assertEquals(99, beans.get(beans.size()-1).getPoint());
+	}
+
+	@Test
+	public void progressBeans() throws Exception {
+
+		final String progressTopic = topic+".progress";
+		coalescing.setProgressPublisher(eservice, progressTopic);
+
+		final List<ScanProgressBean> progress = new CopyOnWriteArrayList<>();
+		final ISubscriber<IBeanListener<ScanProgressBean>> psubscriber = eservice.createSubscriber(uri, progressTopic);
+		try {
+			psubscriber.addListener(evt -> progress.add(evt.getBean()));
+
+			final ScanBean bean = createBean();
+			runPoints(bean, 1000);
+			coalescing.close();
+			Thread.sleep(200); // Wait for all events to make it over from ActiveMQ
+
+			assertEquals(1, beans.size()); // Only the state change has the full bean.
+			assertTrue(progress.size() > 0 && progress.size() < 1000);
+
+			final ScanProgressBean last = progress.get(progress.size()-1);
+			assertEquals(bean.getUniqueId(), last.getUniqueId());
+			assertEquals(999, last.getPoint());
+			assertEquals(DeviceState.RUNNING, last.getDeviceState());
+
+		} finally {
+			psubscriber.disconnect();
+		}
+	}
+
+	private ScanBean createBean() {
+		final ScanBean bean = new ScanBean();
+		bean.setName("coalesced");
+		bean.setUniqueId(UUID.randomUUID().toString());
+		bean.setStatus(Status.RUNNING);
+		bean.setDeviceState(DeviceState.RUNNING);
+		bean.setSize(1000);
+		return bean;
+	}
+
+	private void runPoints(ScanBean bean, int size) throws EventException {
+		coalescing.broadcast(bean); // State change
+		for (int i = 0; i < size; i++) {
+			bean.setPoint(i);
+			bean.setPercentComplete(((double)i/size)*100);
+			coalescing.broadcast(bean);
+		}
+	}
+}
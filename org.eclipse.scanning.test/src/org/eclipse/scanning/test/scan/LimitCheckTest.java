@@ -0,0 +1,184 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.scan;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.scanning.api.device.IRunnableDevice;
+import org.eclipse.scanning.api.points.IPathChecker;
+import org.eclipse.scanning.api.points.IPointGenerator;
+import org.eclipse.scanning.api.points.IPointGeneratorService;
+import org.eclipse.scanning.api.points.models.BoundingBox;
+import org.eclipse.scanning.api.points.models.GridModel;
+import org.eclipse.scanning.api.points.models.StepModel;
+import org.eclipse.scanning.api.scan.ScanningException;
+import org.eclipse.scanning.api.scan.models.ScanModel;
+import org.eclipse.scanning.example.scannable.MockScannable;
+import org.eclipse.scanning.example.scannable.MockScannableConnector;
+import org.eclipse.scanning.points.PointGeneratorService;
+import org.eclipse.scanning.sequencer.RunnableDeviceServiceImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that a scan which would move a scannable outside its limits,
+ * to a value which is not permitted or to a position which a path
+ * checker does not allow fails before anything is moved.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class LimitCheckTest {
+
+	private MockScannableConnector    connector;
+	private RunnableDeviceServiceImpl dservice;
+	private IPointGeneratorService    gservice;
+	private MockScannable             limited;
+
+	@Before
+	public void before() throws Exception {
+		connector = new MockScannableConnector(null);
+		dservice  = new RunnableDeviceServiceImpl(connector);
+		gservice  = new PointGeneratorService();
+
+		limited = new MockScannable("limited", 5d, 1, "mm");
+		limited.setMinimum(0);
+		limited.setMaximum(10);
+		connector.register(limited);
+
+		connector.register(new MockScannable("permitted", 1d, 1, "mm") {
+			@Override
+			public Number[] getPermittedValues() {
+				return new Number[] { 1d, 2d, 3d };
+			}
+		});
+
+		connector.register(new MockScannable("fraction", 0.1d, 1, "mm") {
+			@Override
+			public Number[] getPermittedValues() {
+				return new Number[] { 0.1d, 0.2d, 0.3d };
+			}
+		});
+	}
+
+	@After
+	public void after() {
+		System.clearProperty("org.eclipse.scanning.points.jython");
+		System.clearProperty("org.eclipse.scanning.sequencer.limitCheckMaxIterated");
+	}
+
+	@Test
+	public void testWithinLimits() throws Exception {
+		createScan(gservice.createGenerator(new StepModel("limited", 0, 10, 1))).run(null);
+		assertEquals(10d, limited.getPosition().doubleValue(), 0);
+	}
+
+	@Test
+	public void testAboveUpperLimit() throws Exception {
+		checkNotRun(gservice.createGenerator(new StepModel("limited", 0, 11, 1)), "upper limit");
+	}
+
+	@Test
+	public void testBelowLowerLimit() throws Exception {
+		checkNotRun(gservice.createGenerator(new StepModel("limited", -1, 10, 1)), "lower limit");
+	}
+
+	@Test
+	public void testGridOutsideLimits() throws Exception {
+		GridModel model = new GridModel("x", "limited", 5, 5);
+		model.setBoundingBox(new BoundingBox(0, 0, 3, 12));
+		checkNotRun(gservice.createGenerator(model), "upper limit");
+	}
+
+	@Test
+	public void testPermittedValues() throws Exception {
+		createScan(gservice.createGenerator(new StepModel("permitted", 1, 3, 1))).run(null);
+		checkNotRun(gservice.createGenerator(new StepModel("permitted", 1, 4, 1)), "permitted values");
+	}
+
+	@Test
+	public void testPermittedValuesWithRoundingErrors() throws Exception {
+		// The third position is 0.1+2*0.1 which is not exactly 0.3
+		createScan(gservice.createGenerator(new StepModel("fraction", 0.1, 0.3, 0.1))).run(null);
+		checkNotRun(gservice.createGenerator(new StepModel("fraction", 0.1, 0.4, 0.1)), "permitted values");
+	}
+
+	@Test
+	public void testIteratedPathCheckedUpToMaximum() throws Exception {
+
+		final AtomicInteger checked = new AtomicInteger();
+		IPathChecker checker = (axes, columns) -> {
+			checked.addAndGet(columns[0].length);
+			for (int i = 0; i < columns[0].length; i++) if (columns[0][i] >= 7) return i;
+			return -1;
+		};
+		dservice.addScanParticipant(checker);
+		try {
+			// The Jython generator is iterated over rather than calculated.
+			System.setProperty("org.eclipse.scanning.points.jython", "true");
+			IPointGenerator<?> gen = gservice.createGenerator(new StepModel("limited", 0, 8, 1));
+			assertFalse(gen.isPathCalculated());
+
+			checkNotRun(gen, "not allowed");
+			assertTrue(checked.get()>0);
+
+			// More points than this are not iterated over before the scan.
+			System.setProperty("org.eclipse.scanning.sequencer.limitCheckMaxIterated", "5");
+			checked.set(0);
+			createScan(gen).run(null);
+			assertEquals(0, checked.get());
+			assertEquals(8d, limited.getPosition().doubleValue(), 0);
+		} finally {
+			dservice.removeScanParticipant(checker);
+		}
+	}
+
+	@Test
+	public void testPathChecker() throws Exception {
+
+		// Allows the scannable anywhere below 7
+		IPathChecker checker = (axes, columns) -> {
+			for (int i = 0; i < columns[0].length; i++) if (columns[0][i] >= 7) return i;
+			return -1;
+		};
+		dservice.addScanParticipant(checker);
+		try {
+			createScan(gservice.createGenerator(new StepModel("limited", 0, 6, 1))).run(null);
+			checkNotRun(gservice.createGenerator(new StepModel("limited", 0, 8, 1)), "not allowed");
+		} finally {
+			dservice.removeScanParticipant(checker);
+		}
+	}
+
+	private void checkNotRun(IPointGenerator<?> gen, String message) throws Exception {
+		limited.setPosition(5d);
+		try {
+			createScan(gen).run(null);
+			fail("The scan should not run");
+		} catch (ScanningException expected) {
+			assertTrue(expected.getMessage(), expected.getMessage().contains(message));
+		}
+		assertEquals(5d, limited.getPosition().doubleValue(), 0);
+	}
+
+	private IRunnableDevice<ScanModel> createScan(IPointGenerator<?> gen) throws Exception {
+		final ScanModel smodel = new ScanModel();
+		smodel.setPositionIterable(gen);
+		return dservice.createRunnableDevice(smodel, null);
+	}
+}
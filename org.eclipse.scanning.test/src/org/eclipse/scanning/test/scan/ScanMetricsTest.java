@@ -0,0 +1,130 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.scan;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.scanning.api.event.scan.PhaseStatistics;
+import org.eclipse.scanning.api.scan.LatencyHistogram;
+import org.eclipse.scanning.api.scan.PointPhase;
+import org.eclipse.scanning.api.scan.ScanMetrics;
+import org.junit.Test;
+
+/**
+ * Checks the percentiles of the histograms of point timing and
+ * the statistics made from them.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class ScanMetricsTest {
+
+	@Test
+	public void emptyHistogram() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getMin());
+		assertEquals(0, histogram.getMax());
+		assertEquals(0, histogram.getMean(), 0);
+		assertEquals(0, histogram.getValueAtPercentile(99));
+	}
+
+	@Test
+	public void smallValuesAreExact() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 1; i <= 50; i++) histogram.record(i);
+		assertEquals(25, histogram.getValueAtPercentile(50));
+		assertEquals(50, histogram.getValueAtPercentile(100));
+		assertEquals(1,  histogram.getMin());
+		assertEquals(50, histogram.getMax());
+		assertEquals(25.5, histogram.getMean(), 0);
+	}
+
+	@Test
+	public void percentilesWithinThreePercent() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		// 1ms to 10s
+		for (long i = 1; i <= 10000; i++) histogram.record(i*1000000L);
+		for (double percentile : new double[] { 1, 10, 50, 90, 99, 99.9 }) {
+			double expected = Math.ceil(percentile*100)*1000000d;
+			double actual   = histogram.getValueAtPercentile(percentile);
+			assertTrue("The value at "+percentile+"% is "+actual+" not "+expected, Math.abs(actual-expected)/expected < 0.03);
+		}
+		assertEquals(10000000000L, histogram.getValueAtPercentile(100));
+		assertEquals(10000, histogram.getCount());
+	}
+
+	@Test
+	public void longTimesAreRecorded() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(TimeUnit.DAYS.toNanos(2));
+		histogram.record(-1);
+		assertEquals(2, histogram.getCount());
+		assertEquals(0, histogram.getMin());
+		assertEquals(TimeUnit.DAYS.toNanos(2), histogram.getValueAtPercentile(100));
+	}
+
+	@Test
+	public void concurrentRecording() throws Exception {
+		final LatencyHistogram histogram = new LatencyHistogram();
+		final ExecutorService service = Executors.newFixedThreadPool(4);
+		for (int t = 0; t < 4; t++) {
+			service.submit(() -> { for (int i = 0; i < 10000; i++) histogram.record(1000); });
+		}
+		service.shutdown();
+		assertTrue(service.awaitTermination(10, TimeUnit.SECONDS));
+		assertEquals(40000, histogram.getCount());
+		assertEquals(40000000, histogram.getTotal());
+		assertEquals(1000, histogram.getValueAtPercentile(50));
+	}
+
+	@Test
+	public void statistics() {
+		ScanMetrics metrics = new ScanMetrics();
+		metrics.record(PointPhase.RUN, 2000000);
+		metrics.record(PointPhase.RUN, 4000000);
+		metrics.recordMove(5, 1000000);
+		metrics.recordMove(0, 3000000);
+
+		List<PhaseStatistics> stats = metrics.getStatistics();
+		assertEquals(PointPhase.values().length+2, stats.size());
+		for (PointPhase phase : PointPhase.values()) {
+			assertEquals(phase.getLabel(), stats.get(phase.ordinal()).getName());
+		}
+
+		PhaseStatistics run = stats.get(PointPhase.RUN.ordinal());
+		assertEquals(2, run.getCount());
+		assertEquals(6, run.getTotal(), 0);
+		assertEquals(3, run.getMean(), 0);
+		assertEquals(2, run.getMin(), 0);
+		assertEquals(4, run.getMax(), 0);
+		assertEquals(2, run.getP50(), 0.06);
+		assertEquals(4, run.getP99(), 0.12);
+
+		assertEquals(0, stats.get(PointPhase.MOVE.ordinal()).getCount());
+
+		// Levels are in order after the phases
+		assertEquals(ScanMetrics.MOVE_LEVEL_PREFIX+0, stats.get(stats.size()-2).getName());
+		assertEquals(3, stats.get(stats.size()-2).getMax(), 0);
+		assertEquals(ScanMetrics.MOVE_LEVEL_PREFIX+5, stats.get(stats.size()-1).getName());
+
+		metrics.reset();
+		assertEquals(0, metrics.getHistogram(PointPhase.RUN).getCount());
+		assertEquals(PointPhase.values().length, metrics.getStatistics().size());
+	}
+}
@@ -86,4 +86,51 @@ public class SetPositionTest {
         assertEquals(2, cpsBad.getCount("getPosition"));
 	}
 
+	@Test
+	public void testMoveManyTimes() throws Exception {
+
+		// The same positioner reuses its levels and tasks
+		IPositioner     pos    = dservice.createPositioner();
+		for (int i = 0; i < 10; i++) {
+	        pos.setPosition(new MapPosition("cpsGood:"+i+":"+i));
+	        assertEquals(i, cpsGood.getPosition().doubleValue(), 0.0000001);
+		}
+        assertEquals(10, cpsGood.getCount("setPosition"));
+	}
+
+	@Test
+	public void testMoveDifferentThings() throws Exception {
+
+		// The scannables moved change with the position
+		IPositioner     pos    = dservice.createPositioner();
+        pos.setPosition(new MapPosition("cpsGood:0:20"));
+        pos.setPosition(new MapPosition("cpsBad:0:30"));
+        pos.setPosition(new MapPosition("cpsGood:0:5, cpsBad:0:6"));
+
+        assertEquals(5d, cpsGood.getPosition().doubleValue(), 0.0000001);
+        assertEquals(2, cpsGood.getCount("setPosition"));
+        assertEquals(6d, cpsBad.getPosition().doubleValue(), 0.0000001);
+        assertEquals(2, cpsBad.getCount("setPosition"));
+	}
+
+	@Test
+	public void testMoveSharedPool() throws Exception {
+
+		System.setProperty("org.eclipse.scanning.level.runner.shared", "true");
+		try {
+			IPositioner     pos1    = dservice.createPositioner();
+			IPositioner     pos2    = dservice.createPositioner();
+	        pos1.setPosition(new MapPosition("cpsGood:0:20"));
+	        pos2.setPosition(new MapPosition("cpsBad:0:30"));
+	        pos1.close();
+	        pos2.setPosition(new MapPosition("cpsBad:0:40"));
+	        pos2.close();
+
+	        assertEquals(20d, cpsGood.getPosition().doubleValue(), 0.0000001);
+	        assertEquals(40d, cpsBad.getPosition().doubleValue(), 0.0000001);
+		} finally {
+			System.clearProperty("org.eclipse.scanning.level.runner.shared");
+		}
+	}
+
 }
@@ -31,7 +31,10 @@ import org.junit.runners.Suite.SuiteClasses;
 	RunnableDeviceServiceConfigureTest.class,
 	WatchdogTopupTest.class,
 	WatchdogShutterTest.class,
-	WatchdogCombinedTest.class
+	WatchdogCombinedTest.class,
+	CoalescingScanPublisherTest.class,
+	ScanMetricsTest.class,
+	LimitCheckTest.class
 	// ThreadScanTest.class  Not reliable on traivs.
 })
 public class Suite {
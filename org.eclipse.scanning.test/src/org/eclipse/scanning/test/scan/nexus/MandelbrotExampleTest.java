@@ -38,7 +38,7 @@ import org.junit.Test;
 
 public class MandelbrotExampleTest extends NexusTest {
 
-	private static IWritableDetector<MandelbrotModel> detector;
+	protected static IWritableDetector<MandelbrotModel> detector;
 
 	@BeforeClass
 	public static void before() throws Exception {
@@ -0,0 +1,79 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.scan.nexus;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.scanning.api.annotation.scan.WriteComplete;
+import org.eclipse.scanning.api.device.IRunnableDevice;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.scan.models.ScanModel;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Runs the Mandelbrot scans with the detector written behind
+ * the scan, several points at a time.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class MandelbrotWriteBehindTest extends MandelbrotExampleTest {
+
+	private static final String DEPTH_PROPERTY = "org.eclipse.scanning.sequencer.write.depth";
+	private static final String FLUSH_PROPERTY = "org.eclipse.scanning.sequencer.nexus.flush.interval";
+
+	@BeforeClass
+	public static void setWriteDepth() {
+		System.setProperty(DEPTH_PROPERTY, "4");
+		System.setProperty(FLUSH_PROPERTY, "10");
+	}
+
+	@AfterClass
+	public static void clearWriteDepth() {
+		System.clearProperty(DEPTH_PROPERTY);
+		System.clearProperty(FLUSH_PROPERTY);
+	}
+
+	@Test
+	public void testWriteCompleteInOrder() throws Exception {
+
+		WriteRecorder recorder = new WriteRecorder();
+		dservice.addScanParticipant(recorder);
+		try {
+			IRunnableDevice<ScanModel> scanner = createGridScan(detector, output, true, 8, 5);
+			scanner.run(null);
+		} finally {
+			dservice.removeScanParticipant(recorder);
+		}
+
+		assertEquals(40, recorder.written.size());
+		for (int i = 0; i < recorder.written.size(); i++) {
+			assertEquals(i, recorder.written.get(i).intValue());
+		}
+	}
+
+	public static class WriteRecorder {
+
+		private final List<Integer> written = Collections.synchronizedList(new ArrayList<>());
+
+		@WriteComplete
+		public void writeComplete(IPosition position) {
+			written.add(position.getStepIndex());
+		}
+	}
+}
@@ -15,14 +15,24 @@ import static org.eclipse.dawnsci.nexus.builder.data.NexusDataBuilder.ATTR_NAME_
 import static org.eclipse.dawnsci.nexus.builder.data.NexusDataBuilder.ATTR_NAME_SIGNAL;
 import static org.eclipse.dawnsci.nexus.builder.data.NexusDataBuilder.ATTR_NAME_TARGET;
 import static org.eclipse.dawnsci.nexus.builder.data.NexusDataBuilder.ATTR_SUFFIX_INDICES;
+import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_COUNT;
+import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_MAX;
+import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_MEAN;
+import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_MIN;
+import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_P50;
+import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_P90;
+import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_P99;
+import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_PHASE;
 import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_SCAN_DEAD_TIME;
 import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_SCAN_DEAD_TIME_PERCENT;
 import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_SCAN_DURATION;
 import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_SCAN_ESTIMATED_DURATION;
 import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_SCAN_FINISHED;
 import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_SCAN_SHAPE;
+import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_TOTAL;
 import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.FIELD_NAME_UNIQUE_KEYS;
 import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.GROUP_NAME_KEYS;
+import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.GROUP_NAME_POINT_TIMING;
 import static org.eclipse.scanning.sequencer.nexus.SolsticeConstants.GROUP_NAME_SOLSTICE_SCAN;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
@@ -51,6 +61,7 @@ import org.eclipse.january.dataset.DatasetFactory;
 import org.eclipse.january.dataset.IDataset;
 import org.eclipse.january.dataset.ILazyDataset;
 import org.eclipse.january.dataset.PositionIterator;
+import org.eclipse.scanning.api.scan.PointPhase;
 
 /**
  *
@@ -122,6 +133,7 @@ public class NexusAssert {
 
 		assertScanShape(solsticeScanCollection, sizes);
 		assertScanTimes(solsticeScanCollection);
+		assertPointTiming(solsticeScanCollection);
 
 		NXcollection keysCollection = (NXcollection) solsticeScanCollection.getGroupNode(GROUP_NAME_KEYS);
 		assertNotNull(keysCollection);
@@ -239,6 +251,50 @@ public class NexusAssert {
 		assertEquals((double) deadTimeMs / scanDurationMs, deadTimePercent / 100, 0.001);
 	}
 
+	private static void assertPointTiming(NXcollection solsticeScanCollection) {
+		NXcollection timingCollection = (NXcollection) solsticeScanCollection.getGroupNode(GROUP_NAME_POINT_TIMING);
+		assertNotNull(timingCollection);
+
+		IDataset phaseDataset = getSlice(timingCollection, FIELD_NAME_PHASE);
+		assertEquals(String.class, phaseDataset.getElementClass());
+		assertEquals(1, phaseDataset.getRank());
+		final int rows = phaseDataset.getShape()[0];
+		assertTrue(rows >= PointPhase.values().length);
+		for (PointPhase phase : PointPhase.values()) {
+			assertEquals(phase.getLabel(), phaseDataset.getString(phase.ordinal()));
+		}
+
+		// Each phase is run once per point
+		IDataset countDataset = getSlice(timingCollection, FIELD_NAME_COUNT);
+		assertArrayEquals(new int[] { rows }, countDataset.getShape());
+		final long points = countDataset.getLong(PointPhase.PAUSE_CHECK.ordinal());
+		assertTrue(points > 0);
+		for (PointPhase phase : PointPhase.values()) {
+			assertEquals(points, countDataset.getLong(phase.ordinal()));
+		}
+
+		for (String fieldName : new String[] { FIELD_NAME_TOTAL, FIELD_NAME_MEAN, FIELD_NAME_MIN,
+				FIELD_NAME_P50, FIELD_NAME_P90, FIELD_NAME_P99, FIELD_NAME_MAX }) {
+			IDataset dataset = getSlice(timingCollection, fieldName);
+			assertEquals(Double.class, dataset.getElementClass());
+			assertArrayEquals(new int[] { rows }, dataset.getShape());
+			assertNotNull(timingCollection.getDataNode(fieldName).getAttribute("units"));
+			for (int i = 0; i < rows; i++) {
+				assertTrue(dataset.getDouble(i) >= 0);
+			}
+		}
+	}
+
+	private static IDataset getSlice(NXcollection collection, String fieldName) {
+		DataNode dataNode = collection.getDataNode(fieldName);
+		assertNotNull(dataNode);
+		try {
+			return dataNode.getDataset().getSlice();
+		} catch (DatasetException e) {
+			throw new AssertionError("Could not get data from lazy dataset", e);
+		}
+	}
+
 	private static void assertUniqueKeys(NXcollection keysCollection, boolean snake, boolean foldedGrid, int... sizes) {
 		// check the unique keys field - contains the step number for each scan
 		// point
@@ -1,18 +1,25 @@
 package org.eclipse.scanning.test.scan.nexus;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.eclipse.dawnsci.analysis.api.io.IDataHolder;
 import org.eclipse.dawnsci.analysis.api.io.ILoaderService;
 import org.eclipse.january.IMonitor;
 import org.eclipse.january.dataset.DatasetUtils;
 import org.eclipse.january.dataset.IDataset;
+import org.eclipse.january.dataset.IDynamicDataset;
 import org.eclipse.january.dataset.ILazyDataset;
 import org.eclipse.january.dataset.PositionIterator;
 import org.eclipse.january.dataset.Slice;
@@ -103,6 +110,67 @@ public class ScanAverageTest extends NexusTest {
 		checkAveraging(scanner, 2, 2);
 	}
 
+	@Test
+	public void testImageAveragingBeyondTheFirstShape() throws Exception {
+
+		final ILoaderService     lservice = ServiceHolder.getLoaderService();
+		final List<int[]>        shapes   = new CopyOnWriteArrayList<>(); // Of each dataset when it was loaded
+		final List<ILazyDataset> loaded   = new CopyOnWriteArrayList<>();
+		new ServiceHolder().setLoaderService(recording(lservice, shapes, loaded));
+
+		IRunnableDevice<ScanModel> scanner = createScanner(imagedetector, 2, true, 4, 3);
+		try {
+			scanner.run(null);
+		} finally {
+			new ServiceHolder().setLoaderService(lservice);
+		}
+
+		// The slices read after the file grew are the ones written there.
+		checkAveraging(scanner, 4, 3);
+
+		assertFalse(shapes.isEmpty());
+		assertTrue("The scan did not write beyond the shape first loaded", shapes.get(0)[0]<4 || shapes.get(0)[1]<3);
+		if (loaded.get(0) instanceof IDynamicDataset) {
+			assertEquals("The dataset should have been refreshed rather than loaded again", 1, loaded.size());
+			assertTrue(Arrays.equals(new int[]{4, 3}, Arrays.copyOf(loaded.get(0).getShape(), 2)));
+		} else {
+			assertTrue("The dataset should have been loaded again when the file grew", loaded.size()>1);
+			assertTrue(loaded.size()<=4*3);
+		}
+	}
+
+	/**
+	 * A loader service which records each detector dataset it loads and its shape at the time.
+	 */
+	private static ILoaderService recording(ILoaderService lservice, List<int[]> shapes, List<ILazyDataset> loaded) {
+		return delegate(ILoaderService.class, lservice, (method, ret) -> {
+			if (!(ret instanceof IDataHolder)) return ret;
+			return delegate(IDataHolder.class, (IDataHolder)ret, (hmethod, data) -> {
+				if (hmethod.getName().equals("getLazyDataset") && data instanceof ILazyDataset) {
+					shapes.add(((ILazyDataset)data).getShape().clone());
+					loaded.add((ILazyDataset)data);
+				}
+				return data;
+			});
+		});
+	}
+
+	private interface Returned {
+		Object apply(Method method, Object ret) throws Exception;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <S> S delegate(Class<S> type, S delegate, Returned returned) {
+		final InvocationHandler handler = (proxy, method, args) -> {
+			try {
+				return returned.apply(method, method.invoke(delegate, args));
+			} catch (InvocationTargetException ne) {
+				throw ne.getCause();
+			}
+		};
+		return (S)Proxy.newProxyInstance(ScanAverageTest.class.getClassLoader(), new Class<?>[]{type}, handler);
+	}
+
 	private IRunnableDevice<ScanModel> createScanner(IRunnableDevice<?> device, int dataRank, boolean doAveraging, int... shape) throws Exception {
 
 		ScanModel smodel = createGridScanModel(device, output, true, shape);
@@ -26,6 +26,7 @@ import org.junit.runners.Suite.SuiteClasses;
 	MalcolmStaticScanTest.class,
 	MandelbrotAcquireTest.class,
 	MandelbrotExampleTest.class,
+	MandelbrotWriteBehindTest.class,
 	MandelbrotRemoteTest.class,
 	MonitorTest.class,
 	ScanMetadataTest.class,